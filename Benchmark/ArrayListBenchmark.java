@@ -0,0 +1,90 @@
+import Array_list.ArrayList;
+import java.util.Random;
+
+public class ArrayListBenchmark {
+
+    /**
+     * Runs the ArrayList benchmarks against java.util.ArrayList.
+     *
+     * @param args optionally the number of elements
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Integer[] values = new Integer[n];
+        Random rand = new Random(42);
+        for (int i = 0; i < n; i++) {
+            values[i] = rand.nextInt();
+        }
+        String param = "n=" + n;
+        Benchmark bench = new Benchmark("ArrayList");
+
+        ArrayList<Integer> list = new ArrayList<>();
+        java.util.ArrayList<Integer> baseline = new java.util.ArrayList<>();
+        for (Integer value : values) {
+            list.addToBack(value);
+            baseline.add(value);
+        }
+        for (int i = 0; i < n; i++) {
+            Benchmark.verify(list.get(i).equals(baseline.get(i)), "get disagrees at " + i);
+        }
+
+        bench.measure("addToBack", param, "addToBack.baseline", n, () -> {
+            ArrayList<Integer> l = new ArrayList<>();
+            for (Integer value : values) {
+                l.addToBack(value);
+            }
+        });
+        bench.measure("addToBack.baseline", param, n, () -> {
+            java.util.ArrayList<Integer> l = new java.util.ArrayList<>();
+            for (Integer value : values) {
+                l.add(value);
+            }
+        });
+        bench.measure("get", param, "get.baseline", n, () -> {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += list.get(i);
+            }
+            Benchmark.consume(sum);
+        });
+        bench.measure("get.baseline", param, n, () -> {
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += baseline.get(i);
+            }
+            Benchmark.consume(sum);
+        });
+        bench.measure("addRemoveBack", param, "addRemoveBack.baseline", n, () -> {
+            ArrayList<Integer> l = new ArrayList<>();
+            for (Integer value : values) {
+                l.addToBack(value);
+            }
+            while (!l.isEmpty()) {
+                l.removeFromBack();
+            }
+        });
+        bench.measure("addRemoveBack.baseline", param, n, () -> {
+            java.util.ArrayList<Integer> l = new java.util.ArrayList<>();
+            for (Integer value : values) {
+                l.add(value);
+            }
+            while (!l.isEmpty()) {
+                l.remove(l.size() - 1);
+            }
+        });
+        int front = Math.min(n, 10000);
+        String frontParam = "n=" + front;
+        bench.measure("addToFront", frontParam, "addToFront.baseline", front, () -> {
+            ArrayList<Integer> l = new ArrayList<>();
+            for (int i = 0; i < front; i++) {
+                l.addToFront(values[i]);
+            }
+        });
+        bench.measure("addToFront.baseline", frontParam, front, () -> {
+            java.util.ArrayList<Integer> l = new java.util.ArrayList<>();
+            for (int i = 0; i < front; i++) {
+                l.add(0, values[i]);
+            }
+        });
+    }
+}
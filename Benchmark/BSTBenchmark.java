@@ -0,0 +1,79 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+public class BSTBenchmark {
+
+    /**
+     * Runs the BST benchmarks against java.util.TreeSet.
+     *
+     * @param args optionally the number of elements
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Integer[] values = new Integer[n];
+        Random rand = new Random(42);
+        for (int i = 0; i < n; i++) {
+            values[i] = rand.nextInt();
+        }
+        String param = "n=" + n;
+        Benchmark bench = new Benchmark("BST");
+
+        BST<Integer> tree = new BST<>();
+        TreeSet<Integer> baseline = new TreeSet<>();
+        for (Integer value : values) {
+            tree.add(value);
+            baseline.add(value);
+        }
+        Benchmark.verify(tree.size() == baseline.size(), "size disagrees");
+        for (Integer value : values) {
+            Benchmark.verify(tree.contains(value), "contains disagrees");
+        }
+
+        bench.measure("add", param, "add.baseline", n, () -> {
+            BST<Integer> t = new BST<>();
+            for (Integer value : values) {
+                t.add(value);
+            }
+        });
+        bench.measure("add.baseline", param, n, () -> {
+            TreeSet<Integer> t = new TreeSet<>();
+            for (Integer value : values) {
+                t.add(value);
+            }
+        });
+        bench.measure("contains", param, "contains.baseline", n, () -> {
+            long found = 0;
+            for (Integer value : values) {
+                found += tree.contains(value) ? 1 : 0;
+            }
+            Benchmark.consume(found);
+        });
+        bench.measure("contains.baseline", param, n, () -> {
+            long found = 0;
+            for (Integer value : values) {
+                found += baseline.contains(value) ? 1 : 0;
+            }
+            Benchmark.consume(found);
+        });
+        bench.measure("addRemove", param, "addRemove.baseline", n, () -> {
+            BST<Integer> t = new BST<>();
+            for (Integer value : values) {
+                t.add(value);
+            }
+            for (Integer value : values) {
+                if (t.contains(value)) {
+                    t.remove(value);
+                }
+            }
+        });
+        bench.measure("addRemove.baseline", param, n, () -> {
+            TreeSet<Integer> t = new TreeSet<>();
+            for (Integer value : values) {
+                t.add(value);
+            }
+            for (Integer value : values) {
+                t.remove(value);
+            }
+        });
+    }
+}
@@ -0,0 +1,184 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class Benchmark {
+
+    /**
+     * The number of untimed runs of each benchmark, overridable with
+     * -Dbench.warmup.
+     */
+    public static final int WARMUP = Integer.getInteger("bench.warmup", 3);
+
+    /**
+     * The number of timed runs of each benchmark, overridable with
+     * -Dbench.iterations.
+     */
+    public static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+
+    private static volatile long sink;
+
+    private String suite;
+    private List<String> results;
+
+    /**
+     * Creates a benchmark runner for one suite.
+     *
+     * @param suite the name of the suite, used as the prefix of every result
+     * @throws IllegalArgumentException if suite is null
+     */
+    public Benchmark(String suite) {
+        if (suite == null) {
+            throw new IllegalArgumentException("Suite cannot be null.");
+        }
+        this.suite = suite;
+        this.results = new ArrayList<>();
+    }
+
+    /**
+     * Runs the operation WARMUP times untimed, then ITERATIONS times timed,
+     * and records the nanoseconds of every timed run.
+     *
+     * @param name the name of the benchmark
+     * @param param a description of the input size, such as "n=100000"
+     * @param operation the work to time
+     * @return the mean nanoseconds per run
+     */
+    public double measure(String name, String param, Runnable operation) {
+        return measure(name, param, null, 1, operation);
+    }
+
+    /**
+     * Runs the operation like measure(name, param, operation) and records
+     * the counterpart it is measured against.
+     *
+     * @param name the name of the benchmark
+     * @param param a description of the input size, such as "n=100000"
+     * @param baseline the name of the counterpart in this suite, measured
+     *                 with the same param, or null
+     * @param operation the work to time
+     * @return the mean nanoseconds per run
+     */
+    public double measure(String name, String param, String baseline,
+                          Runnable operation) {
+        return measure(name, param, baseline, 1, operation);
+    }
+
+    /**
+     * Runs the operation WARMUP times untimed, then ITERATIONS times timed,
+     * and records the nanoseconds of every timed run, the throughput of the
+     * given number of operations per run and the bytes the calling thread
+     * allocated per run (when the JVM can report it; work run on other
+     * threads is not counted).
+     *
+     * @param name the name of the benchmark
+     * @param param a description of the input size, such as "n=100000"
+     * @param operations the number of operations one run performs
+     * @param operation the work to time
+     * @return the mean nanoseconds per run
+     */
+    public double measure(String name, String param, long operations,
+                          Runnable operation) {
+        return measure(name, param, null, operations, operation);
+    }
+
+    /**
+     * Runs the operation like measure(name, param, operations, operation)
+     * and records the counterpart it is measured against, usually its
+     * java.util equivalent. RegressionGate compares the benchmark relative
+     * to the counterpart measured in the same JVM, so the counterpart must
+     * be measured with the same param in the same suite.
+     *
+     * @param name the name of the benchmark
+     * @param param a description of the input size, such as "n=100000"
+     * @param baseline the name of the counterpart in this suite, measured
+     *                 with the same param, or null
+     * @param operations the number of operations one run performs
+     * @param operation the work to time
+     * @return the mean nanoseconds per run
+     */
+    public double measure(String name, String param, String baseline,
+                          long operations, Runnable operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long[] samples = new long[ITERATIONS];
+        double total = 0;
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            operation.run();
+            samples[i] = System.nanoTime() - begin;
+            total += samples[i];
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        double mean = total / ITERATIONS;
+        StringBuilder line = new StringBuilder();
+        line.append(String.format(Locale.ROOT, "{\"benchmark\":\"%s.%s\",\"param\":\"%s\",",
+            suite, name, param));
+        if (baseline != null) {
+            line.append(String.format(Locale.ROOT, "\"baseline\":\"%s.%s\",", suite, baseline));
+        }
+        line.append(String.format(Locale.ROOT,
+            "\"meanNs\":%.1f,\"opsPerSec\":%.1f,\"allocBytes\":%d,\"samplesNs\":[",
+            mean, operations * 1e9 / Math.max(1, mean),
+            allocatedBefore < 0 ? -1 : allocated / ITERATIONS));
+        for (int i = 0; i < samples.length; i++) {
+            line.append(i == 0 ? "" : ",").append(samples[i]);
+        }
+        line.append("]}");
+        results.add(line.toString());
+        System.out.println(line);
+        return mean;
+    }
+
+    /**
+     * Checks a condition that the suite relies on before timing anything,
+     * such as an implementation agreeing with its java.util baseline.
+     *
+     * @param condition the condition that must hold
+     * @param message the description of the failure
+     * @throws IllegalStateException if the condition is false
+     */
+    public static void verify(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    /**
+     * Keeps a result alive so the JIT cannot remove the work producing it.
+     *
+     * @param value the result
+     */
+    public static void consume(long value) {
+        sink += value;
+    }
+
+    /**
+     * A private method that gets the total bytes allocated by the calling
+     * thread.
+     *
+     * @return the allocated bytes, or -1 if the JVM cannot report them
+     */
+    private static long allocatedBytes() {
+        try {
+            com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            return threads.isThreadAllocatedMemorySupported()
+                ? threads.getCurrentThreadAllocatedBytes() : -1;
+        } catch (ClassCastException | UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets every result line recorded so far, one JSON object per line.
+     *
+     * @return the recorded results
+     */
+    public List<String> getResults() {
+        return results;
+    }
+}
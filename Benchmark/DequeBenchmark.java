@@ -0,0 +1,100 @@
+import java.util.Random;
+
+public class DequeBenchmark {
+
+    /**
+     * Runs the ArrayDeque and LinkedDeque benchmarks against
+     * java.util.ArrayDeque.
+     *
+     * @param args optionally the number of elements
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Integer[] values = new Integer[n];
+        Random rand = new Random(42);
+        for (int i = 0; i < n; i++) {
+            values[i] = rand.nextInt();
+        }
+        String param = "n=" + n;
+        Benchmark bench = new Benchmark("Deque");
+
+        ArrayDeque<Integer> array = new ArrayDeque<>();
+        LinkedDeque<Integer> linked = new LinkedDeque<>();
+        java.util.ArrayDeque<Integer> baseline = new java.util.ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            if (i % 2 == 0) {
+                array.addFirst(values[i]);
+                linked.addFirst(values[i]);
+                baseline.addFirst(values[i]);
+            } else {
+                array.addLast(values[i]);
+                linked.addLast(values[i]);
+                baseline.addLast(values[i]);
+            }
+        }
+        while (!baseline.isEmpty()) {
+            Integer expected = baseline.removeFirst();
+            Benchmark.verify(expected.equals(array.removeFirst())
+                && expected.equals(linked.removeFirst()), "removeFirst disagrees");
+        }
+
+        bench.measure("arrayDeque.addLastRemoveFirst", param,
+            "addLastRemoveFirst.baseline", n, () -> {
+            ArrayDeque<Integer> d = new ArrayDeque<>();
+            for (Integer value : values) {
+                d.addLast(value);
+            }
+            while (d.size() > 0) {
+                d.removeFirst();
+            }
+        });
+        bench.measure("arrayDeque.addFirstRemoveLast", param,
+            "addFirstRemoveLast.baseline", n, () -> {
+            ArrayDeque<Integer> d = new ArrayDeque<>();
+            for (Integer value : values) {
+                d.addFirst(value);
+            }
+            while (d.size() > 0) {
+                d.removeLast();
+            }
+        });
+        bench.measure("linkedDeque.addLastRemoveFirst", param,
+            "addLastRemoveFirst.baseline", n, () -> {
+            LinkedDeque<Integer> d = new LinkedDeque<>();
+            for (Integer value : values) {
+                d.addLast(value);
+            }
+            while (d.size() > 0) {
+                d.removeFirst();
+            }
+        });
+        bench.measure("linkedDeque.addFirstRemoveLast", param,
+            "addFirstRemoveLast.baseline", n, () -> {
+            LinkedDeque<Integer> d = new LinkedDeque<>();
+            for (Integer value : values) {
+                d.addFirst(value);
+            }
+            while (d.size() > 0) {
+                d.removeLast();
+            }
+        });
+        bench.measure("addLastRemoveFirst.baseline", param, n, () -> {
+            java.util.ArrayDeque<Integer> d = new java.util.ArrayDeque<>();
+            for (Integer value : values) {
+                d.addLast(value);
+            }
+            while (!d.isEmpty()) {
+                d.removeFirst();
+            }
+        });
+        bench.measure("addFirstRemoveLast.baseline", param, n, () -> {
+            java.util.ArrayDeque<Integer> d = new java.util.ArrayDeque<>();
+            for (Integer value : values) {
+                d.addFirst(value);
+            }
+            while (!d.isEmpty()) {
+                d.removeLast();
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.LinkedList;
+import java.util.Random;
+
+public class DoublyLinkedListBenchmark {
+
+    /**
+     * Runs the DoublyLinkedList benchmarks against java.util.LinkedList.
+     *
+     * @param args optionally the number of elements
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Integer[] values = new Integer[n];
+        Random rand = new Random(42);
+        for (int i = 0; i < n; i++) {
+            values[i] = rand.nextInt();
+        }
+        String param = "n=" + n;
+        Benchmark bench = new Benchmark("DoublyLinkedList");
+
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        LinkedList<Integer> baseline = new LinkedList<>();
+        for (int i = 0; i < n; i++) {
+            if (i % 2 == 0) {
+                list.addToFront(values[i]);
+                baseline.addFirst(values[i]);
+            } else {
+                list.addToBack(values[i]);
+                baseline.addLast(values[i]);
+            }
+        }
+        Benchmark.verify(java.util.Arrays.equals(list.toArray(), baseline.toArray()),
+            "toArray disagrees");
+
+        bench.measure("addToBackRemoveFromFront", param,
+            "addToBackRemoveFromFront.baseline", n, () -> {
+            DoublyLinkedList<Integer> l = new DoublyLinkedList<>();
+            for (Integer value : values) {
+                l.addToBack(value);
+            }
+            while (!l.isEmpty()) {
+                l.removeFromFront();
+            }
+        });
+        bench.measure("addToBackRemoveFromFront.baseline", param, n, () -> {
+            LinkedList<Integer> l = new LinkedList<>();
+            for (Integer value : values) {
+                l.addLast(value);
+            }
+            while (!l.isEmpty()) {
+                l.removeFirst();
+            }
+        });
+        bench.measure("addToFrontRemoveFromBack", param,
+            "addToFrontRemoveFromBack.baseline", n, () -> {
+            DoublyLinkedList<Integer> l = new DoublyLinkedList<>();
+            for (Integer value : values) {
+                l.addToFront(value);
+            }
+            while (!l.isEmpty()) {
+                l.removeFromBack();
+            }
+        });
+        bench.measure("addToFrontRemoveFromBack.baseline", param, n, () -> {
+            LinkedList<Integer> l = new LinkedList<>();
+            for (Integer value : values) {
+                l.addFirst(value);
+            }
+            while (!l.isEmpty()) {
+                l.removeLast();
+            }
+        });
+        bench.measure("toArray", param, "toArray.baseline", n,
+            () -> Benchmark.consume(list.toArray().length));
+        bench.measure("toArray.baseline", param, n,
+            () -> Benchmark.consume(baseline.toArray().length));
+
+        int gets = Math.min(n, 2000);
+        String getParam = "n=" + n + ",gets=" + gets;
+        bench.measure("get", getParam, "get.baseline", gets, () -> {
+            long sum = 0;
+            for (int i = 0; i < gets; i++) {
+                sum += list.get((int) ((long) i * n / gets));
+            }
+            Benchmark.consume(sum);
+        });
+        bench.measure("get.baseline", getParam, gets, () -> {
+            long sum = 0;
+            for (int i = 0; i < gets; i++) {
+                sum += baseline.get((int) ((long) i * n / gets));
+            }
+            Benchmark.consume(sum);
+        });
+    }
+}
@@ -0,0 +1,262 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+public class GraphBenchmark {
+
+    /**
+     * Runs the Graph benchmarks. The graph algorithms have no java.util
+     * counterpart, so each is measured against a java.util workload on the
+     * same input: a breadth-first traversal of a HashMap of ArrayLists, a
+     * HashMap filled with the union pairs, or reading the same file with
+     * Files.
+     * @param args optionally the side length of the synthetic grid
+     */
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        Graph<Integer> grid = grid(side, new Random(42));
+        Vertex<Integer> start = new Vertex<>(0);
+        String param = "grid=" + side + "x" + side;
+        Benchmark bench = new Benchmark("Graph");
+
+        Map<Vertex<Integer>, Integer> expected = GraphAlgorithms.dijkstras(start, grid);
+        if (!expected.equals(GraphAlgorithms.deltaStepping(start, grid))) {
+            throw new IllegalStateException("deltaStepping disagrees with dijkstras");
+        }
+        measureTraversal(bench, param, grid);
+        bench.measure("dijkstras", param, "traversal.baseline",
+            () -> GraphAlgorithms.dijkstras(start, grid));
+        bench.measure("deltaStepping", param, "traversal.baseline",
+            () -> GraphAlgorithms.deltaStepping(start, grid));
+
+        int n = side * side;
+        int[] pairs = new Random(7).ints(2 * n, 0, n).toArray();
+        String unionParam = "n=" + n;
+        bench.measure("hashMap.baseline", unionParam, () -> {
+            Map<Integer, Integer> map = new HashMap<>();
+            for (int i = 0; i < pairs.length; i += 2) {
+                map.put(pairs[i], pairs[i + 1]);
+            }
+            Benchmark.consume(map.size());
+        });
+        bench.measure("disjointSet", unionParam, "hashMap.baseline", () -> {
+            DisjointSet<Integer> djSet = new DisjointSet<>();
+            for (int i = 0; i < pairs.length; i += 2) {
+                Integer first = djSet.find(pairs[i]);
+                Integer second = djSet.find(pairs[i + 1]);
+                if (!first.equals(second)) {
+                    djSet.union(first, second);
+                }
+            }
+        });
+        bench.measure("indexedDisjointSet", unionParam, "hashMap.baseline", () -> {
+            IndexedDisjointSet<Integer> djSet = new IndexedDisjointSet<>();
+            for (int i = 0; i < pairs.length; i += 2) {
+                djSet.union(pairs[i], pairs[i + 1]);
+            }
+        });
+        bench.measure("intDisjointSet", unionParam, "hashMap.baseline", () -> {
+            IntDisjointSet djSet = new IntDisjointSet(n);
+            for (int i = 0; i < pairs.length; i += 2) {
+                djSet.union(pairs[i], pairs[i + 1]);
+            }
+        });
+        bench.measure("connectedComponents", param, "traversal.baseline",
+            () -> GraphAlgorithms.connectedComponents(grid));
+        bench.measure("labelPropagationComponents", param, "traversal.baseline",
+            () -> GraphAlgorithms.labelPropagationComponents(grid));
+        bench.measure("parallelConnectedComponents", param, "traversal.baseline",
+            () -> GraphAlgorithms.parallelConnectedComponents(grid));
+        bench.measure("kruskals", param, "traversal.baseline",
+            () -> GraphAlgorithms.kruskals(grid));
+        bench.measure("boruvkas", param, "traversal.baseline",
+            () -> GraphAlgorithms.boruvkas(grid));
+        bench.measure("pageRank", param, "traversal.baseline",
+            () -> GraphAnalytics.pageRank(grid));
+        measureLoading(bench, param, grid);
+
+        int apspSide = Math.min(side, 40);
+        Graph<Integer> small = grid(apspSide, new Random(42));
+        String apspParam = "grid=" + apspSide + "x" + apspSide;
+        if (apspSide < side) {
+            measureTraversal(bench, apspParam, small);
+        }
+        bench.measure("floydWarshall", apspParam, "traversal.baseline",
+            () -> GraphAlgorithms.floydWarshall(small));
+        bench.measure("repeatedDijkstras", apspParam, "traversal.baseline",
+            () -> GraphAlgorithms.repeatedDijkstras(small));
+    }
+
+    /**
+     * Writes the graph as a text edge list and in the binary format, checks
+     * that every GraphIO reader loads it back, then times each reader
+     * against reading the same file with Files.readAllLines or
+     * Files.readAllBytes. The allocBytes of each result is the heap the load
+     * allocates.
+     *
+     * @param bench the benchmark runner
+     * @param param the description of the graph
+     * @param graph the graph to write and load
+     */
+    static void measureLoading(Benchmark bench, String param, Graph<Integer> graph) {
+        try {
+            Path dir = Files.createTempDirectory("bench");
+            Path text = dir.resolve("graph.txt");
+            Path binary = dir.resolve("graph.bin");
+            try (BufferedWriter writer = Files.newBufferedWriter(text)) {
+                for (Edge<Integer> edge : graph.getEdges()) {
+                    writer.write(edge.getU() + " " + edge.getV() + " " + edge.getWeight());
+                    writer.newLine();
+                }
+            }
+            GraphIO.writeBinary(graph, binary);
+            Benchmark.verify(GraphIO.readEdgeList(text).getEdges().equals(graph.getEdges()),
+                "readEdgeList disagrees");
+            Benchmark.verify(new Graph<>(GraphIO.readEdgeListIndexed(text)).getEdges()
+                .equals(graph.getEdges()), "readEdgeListIndexed disagrees");
+            Benchmark.verify(new Graph<>(GraphIO.readBinary(binary)).getEdges()
+                .equals(graph.getEdges()), "readBinary disagrees");
+            int edges = graph.getEdges().size();
+            bench.measure("readAllLines.baseline", param, edges, () -> {
+                try {
+                    Benchmark.consume(Files.readAllLines(text).size());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            bench.measure("readAllBytes.baseline", param, edges, () -> {
+                try {
+                    Benchmark.consume(Files.readAllBytes(binary).length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            bench.measure("readEdgeList", param, "readAllLines.baseline", edges, () -> {
+                try {
+                    Benchmark.consume(GraphIO.readEdgeList(text).getEdges().size());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            bench.measure("readEdgeListIndexed", param, "readAllLines.baseline", edges, () -> {
+                try {
+                    Benchmark.consume(GraphIO.readEdgeListIndexed(text).edgeCount());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            bench.measure("readBinary", param, "readAllBytes.baseline", edges, () -> {
+                try {
+                    Benchmark.consume(GraphIO.readBinary(binary).edgeCount());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            bench.measure("readBinary.graph", param, "readAllBytes.baseline", edges, () -> {
+                try {
+                    Benchmark.consume(new Graph<>(GraphIO.readBinary(binary)).getEdges().size());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Files.delete(text);
+            Files.delete(binary);
+            Files.delete(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Times a breadth-first traversal from vertex 0 of the graph copied into
+     * a HashMap of ArrayLists, the java.util counterpart of the graph
+     * algorithms measured on the same graph.
+     *
+     * @param bench the benchmark runner
+     * @param param the description of the graph
+     * @param graph the graph to traverse
+     */
+    static void measureTraversal(Benchmark bench, String param, Graph<Integer> graph) {
+        Map<Integer, List<Integer>> adjacency = new HashMap<>();
+        for (Edge<Integer> edge : graph.getEdges()) {
+            adjacency.computeIfAbsent(edge.getU().getData(), k -> new ArrayList<>())
+                .add(edge.getV().getData());
+        }
+        Benchmark.verify(traverse(adjacency) == graph.getVertices().size(),
+            "the traversal does not reach every vertex");
+        bench.measure("traversal.baseline", param, () -> Benchmark.consume(traverse(adjacency)));
+    }
+
+    /**
+     * Traverses the adjacency map breadth-first from vertex 0.
+     *
+     * @param adjacency the neighbours of every vertex
+     * @return the number of vertices visited
+     */
+    private static int traverse(Map<Integer, List<Integer>> adjacency) {
+        Set<Integer> visited = new HashSet<>();
+        Queue<Integer> queue = new ArrayDeque<>();
+        visited.add(0);
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            for (Integer neighbor : adjacency.getOrDefault(queue.remove(), List.of())) {
+                if (visited.add(neighbor)) {
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return visited.size();
+    }
+
+    /**
+     * Builds an undirected side x side grid where every vertex is connected
+     * to its four neighbours with a random weight in [1, 100].
+     *
+     * @param side the number of vertices along each side
+     * @param rand the Random object used to pick the weights
+     * @return the grid graph
+     */
+    static Graph<Integer> grid(int side, Random rand) {
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        Set<Edge<Integer>> edges = new HashSet<>();
+        for (int i = 0; i < side * side; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int id = r * side + c;
+                if (c + 1 < side) {
+                    addUndirected(edges, id, id + 1, rand.nextInt(100) + 1);
+                }
+                if (r + 1 < side) {
+                    addUndirected(edges, id, id + side, rand.nextInt(100) + 1);
+                }
+            }
+        }
+        return new Graph<>(vertices, edges);
+    }
+
+    /**
+     * Adds the edge (u, v, weight) and its reverse to the edge set.
+     *
+     * @param edges the edge set
+     * @param u one endpoint
+     * @param v the other endpoint
+     * @param weight the weight of both edges
+     */
+    private static void addUndirected(Set<Edge<Integer>> edges, int u, int v, int weight) {
+        edges.add(new Edge<>(new Vertex<>(u), new Vertex<>(v), weight));
+        edges.add(new Edge<>(new Vertex<>(v), new Vertex<>(u), weight));
+    }
+}
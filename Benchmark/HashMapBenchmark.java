@@ -0,0 +1,86 @@
+import java.util.HashMap;
+import java.util.Random;
+
+public class HashMapBenchmark {
+
+    /**
+     * Runs the LinearProbingHashMap benchmarks against java.util.HashMap.
+     *
+     * @param args optionally the number of keys
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Integer[] keys = new Integer[n];
+        Random rand = new Random(42);
+        for (int i = 0; i < n; i++) {
+            keys[i] = rand.nextInt(2 * n);
+        }
+        String param = "n=" + n;
+        Benchmark bench = new Benchmark("HashMap");
+
+        LinearProbingHashMap<Integer, Integer> map = new LinearProbingHashMap<>();
+        HashMap<Integer, Integer> baseline = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Benchmark.verify(java.util.Objects.equals(map.put(keys[i], i),
+                baseline.put(keys[i], i)), "put disagrees");
+        }
+        for (int i = 0; i < n; i += 2) {
+            if (baseline.containsKey(keys[i])) {
+                Benchmark.verify(map.remove(keys[i]).equals(baseline.remove(keys[i])),
+                    "remove disagrees");
+            }
+        }
+        for (Integer key : keys) {
+            boolean present = baseline.containsKey(key);
+            Benchmark.verify(map.containsKey(key) == present
+                && (!present || map.get(key).equals(baseline.get(key))), "get disagrees");
+        }
+
+        bench.measure("put", param, "put.baseline", n, () -> {
+            LinearProbingHashMap<Integer, Integer> m = new LinearProbingHashMap<>();
+            for (int i = 0; i < n; i++) {
+                m.put(keys[i], i);
+            }
+        });
+        bench.measure("put.baseline", param, n, () -> {
+            HashMap<Integer, Integer> m = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                m.put(keys[i], i);
+            }
+        });
+        bench.measure("get", param, "get.baseline", n, () -> {
+            long sum = 0;
+            for (Integer key : keys) {
+                sum += map.containsKey(key) ? map.get(key) : 0;
+            }
+            Benchmark.consume(sum);
+        });
+        bench.measure("get.baseline", param, n, () -> {
+            long sum = 0;
+            for (Integer key : keys) {
+                sum += baseline.getOrDefault(key, 0);
+            }
+            Benchmark.consume(sum);
+        });
+        bench.measure("putRemove", param, "putRemove.baseline", 2L * n, () -> {
+            LinearProbingHashMap<Integer, Integer> m = new LinearProbingHashMap<>();
+            for (int i = 0; i < n; i++) {
+                m.put(keys[i], i);
+            }
+            for (Integer key : keys) {
+                if (m.containsKey(key)) {
+                    m.remove(key);
+                }
+            }
+        });
+        bench.measure("putRemove.baseline", param, 2L * n, () -> {
+            HashMap<Integer, Integer> m = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                m.put(keys[i], i);
+            }
+            for (Integer key : keys) {
+                m.remove(key);
+            }
+        });
+    }
+}
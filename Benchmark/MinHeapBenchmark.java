@@ -0,0 +1,58 @@
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class MinHeapBenchmark {
+
+    /**
+     * Runs the MinHeap benchmarks against java.util.PriorityQueue.
+     *
+     * @param args optionally the number of elements
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Integer[] values = new Integer[n];
+        java.util.ArrayList<Integer> list = new java.util.ArrayList<>(n);
+        Random rand = new Random(42);
+        for (int i = 0; i < n; i++) {
+            values[i] = rand.nextInt();
+            list.add(values[i]);
+        }
+        String param = "n=" + n;
+        Benchmark bench = new Benchmark("MinHeap");
+
+        MinHeap<Integer> built = new MinHeap<>(list);
+        MinHeap<Integer> added = new MinHeap<>();
+        for (Integer value : values) {
+            added.add(value);
+        }
+        PriorityQueue<Integer> baseline = new PriorityQueue<>(list);
+        while (!baseline.isEmpty()) {
+            Integer expected = baseline.poll();
+            Benchmark.verify(expected.equals(built.remove())
+                && expected.equals(added.remove()), "remove disagrees");
+        }
+
+        bench.measure("addRemove", param, "addRemove.baseline", n, () -> {
+            MinHeap<Integer> h = new MinHeap<>();
+            for (Integer value : values) {
+                h.add(value);
+            }
+            while (!h.isEmpty()) {
+                h.remove();
+            }
+        });
+        bench.measure("addRemove.baseline", param, n, () -> {
+            PriorityQueue<Integer> h = new PriorityQueue<>();
+            for (Integer value : values) {
+                h.add(value);
+            }
+            while (!h.isEmpty()) {
+                h.poll();
+            }
+        });
+        bench.measure("buildHeap", param, "buildHeap.baseline", n,
+            () -> Benchmark.consume(new MinHeap<>(list).size()));
+        bench.measure("buildHeap.baseline", param, n,
+            () -> Benchmark.consume(new PriorityQueue<>(list).size()));
+    }
+}
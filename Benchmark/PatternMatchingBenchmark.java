@@ -0,0 +1,55 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PatternMatchingBenchmark {
+
+    /**
+     * Runs the PatternMatching benchmarks against repeated String.indexOf.
+     *
+     * @param args optionally the length of the text
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Random rand = new Random(42);
+        StringBuilder builder = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            builder.append((char) ('a' + rand.nextInt(4)));
+        }
+        String text = builder.toString();
+        String pattern = text.substring(n / 2, n / 2 + Math.min(n / 2, 12));
+        String param = "n=" + n + ",m=" + pattern.length();
+        Benchmark bench = new Benchmark("PatternMatching");
+
+        List<Integer> expected = indexOfAll(pattern, text);
+        Benchmark.verify(expected.equals(PatternMatching.kmp(pattern, text,
+            new CharacterComparator())), "kmp disagrees");
+        Benchmark.verify(expected.equals(PatternMatching.boyerMoore(pattern, text,
+            new CharacterComparator())), "boyerMoore disagrees");
+        Benchmark.verify(expected.equals(PatternMatching.rabinKarp(pattern, text,
+            new CharacterComparator())), "rabinKarp disagrees");
+
+        bench.measure("kmp", param, "indexOf.baseline", n,
+            () -> PatternMatching.kmp(pattern, text, new CharacterComparator()));
+        bench.measure("boyerMoore", param, "indexOf.baseline", n,
+            () -> PatternMatching.boyerMoore(pattern, text, new CharacterComparator()));
+        bench.measure("rabinKarp", param, "indexOf.baseline", n,
+            () -> PatternMatching.rabinKarp(pattern, text, new CharacterComparator()));
+        bench.measure("indexOf.baseline", param, n, () -> indexOfAll(pattern, text));
+    }
+
+    /**
+     * Finds every occurrence of the pattern with String.indexOf.
+     *
+     * @param pattern the pattern to find
+     * @param text the text to search
+     * @return the start index of every occurrence
+     */
+    static List<Integer> indexOfAll(String pattern, String text) {
+        List<Integer> matches = new ArrayList<>();
+        for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1)) {
+            matches.add(i);
+        }
+        return matches;
+    }
+}
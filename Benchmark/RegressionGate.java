@@ -0,0 +1,524 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class RegressionGate {
+
+    /**
+     * The fraction by which a benchmark's mean may grow before it counts as
+     * a regression, overridable with -Dgate.threshold, or for one benchmark
+     * with -Dgate.threshold.Suite.name.
+     */
+    public static final double THRESHOLD =
+        Double.parseDouble(System.getProperty("gate.threshold", "0.10"));
+
+    /**
+     * The one-sided p-value below which a slowdown is significant,
+     * overridable with -Dgate.alpha.
+     */
+    public static final double ALPHA =
+        Double.parseDouble(System.getProperty("gate.alpha", "0.05"));
+
+    /**
+     * Whether to compare a benchmark relative to the counterpart it names,
+     * measured in the same forks, overridable with -Dgate.normalize.
+     */
+    public static final boolean NORMALIZE =
+        Boolean.parseBoolean(System.getProperty("gate.normalize", "true"));
+
+    private static final Pattern STRING_FIELD =
+        Pattern.compile("\"(benchmark|param|baseline)\":\"([^\"]*)\"");
+    private static final Pattern SAMPLES_FIELD =
+        Pattern.compile("\"samplesNs\":\\[([^\\]]*)\\]");
+
+    /**
+     * Compares benchmark results to a baseline and prints a report.
+     *
+     * Both files hold the results of several forks of the suite, each fork
+     * a fresh JVM printing one line per benchmark. The iterations within a
+     * fork share its JIT decisions, heap layout and CPU frequency, so they
+     * are not independent samples; the mean of each fork is, and those
+     * fork means are what the benchmarks are tested on.
+     *
+     * When NORMALIZE is set, a benchmark that names a counterpart, usually
+     * its java.util equivalent, is tested on the ratio of its mean to the
+     * counterpart's mean in every fork. A machine or fork that is uniformly
+     * faster or slower then cancels out, and the spread of the counterpart
+     * is part of the spread of the ratios. The counterparts themselves only
+     * measure the machine, so they are reported as references and never
+     * fail the gate.
+     *
+     * A benchmark regresses if its mean or ratio is more than its threshold
+     * slower than in the baseline and Welch's t-test finds the slowdown
+     * significant, with the Holm-Bonferroni correction keeping the chance of
+     * any false regression in the whole suite at ALPHA. Benchmarks missing
+     * from either file are reported but never fail the gate.
+     *
+     * Exits with status 1 if any benchmark regressed and 2 on bad arguments
+     * or unreadable files.
+     *
+     * @param args the baseline file, the results file and optionally a file
+     *             to also write the report to, all in the one JSON object
+     *             per line format printed by Benchmark
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: RegressionGate <baseline.json> <results.json> [report.md]");
+            System.exit(2);
+        }
+        try {
+            Map<String, Result> baseline = read(Paths.get(args[0]));
+            Map<String, Result> results = read(Paths.get(args[1]));
+            List<String> report = new ArrayList<>();
+            int regressions = compare(baseline, results, report);
+            for (String line : report) {
+                System.out.println(line);
+            }
+            if (args.length == 3) {
+                Files.write(Paths.get(args[2]), report, StandardCharsets.UTF_8);
+            }
+            if (regressions > 0) {
+                System.err.println(regressions + " benchmark(s) regressed");
+                System.exit(1);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("RegressionGate: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Compares every benchmark in the results to the baseline, adding one
+     * Markdown table row per benchmark to the report.
+     *
+     * @param baseline the baseline fork means by benchmark and param
+     * @param results the current fork means by benchmark and param
+     * @param report the report to add the table to
+     * @return the number of regressed benchmarks
+     * @throws IllegalArgumentException if a benchmark has fewer than two
+     *                                  forks, or a different number of forks
+     *                                  than its counterpart
+     */
+    public static int compare(Map<String, Result> baseline,
+                              Map<String, Result> results, List<String> report) {
+        Set<String> references = new HashSet<>();
+        if (NORMALIZE) {
+            for (Result result : results.values()) {
+                if (result.getCounterpart() != null) {
+                    references.add(result.getCounterpart());
+                }
+            }
+        }
+        List<Comparison> comparisons = new ArrayList<>();
+        Map<String, Double> pValues = new HashMap<>();
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            String key = entry.getKey();
+            Result current = entry.getValue();
+            Result base = baseline.get(key);
+            if (base == null) {
+                comparisons.add(new Comparison(key, null, current, null));
+                continue;
+            }
+            String counterpart = current.getCounterpart();
+            boolean relative = NORMALIZE && counterpart != null
+                && counterpart.equals(base.getCounterpart())
+                && baseline.containsKey(counterpart) && results.containsKey(counterpart);
+            Comparison comparison = new Comparison(key, base, current,
+                relative ? counterpart : null);
+            double[] baseCompared = relative
+                ? ratios(key, base, baseline.get(counterpart)) : base.getForkMeans();
+            double[] currentCompared = relative
+                ? ratios(key, current, results.get(counterpart)) : current.getForkMeans();
+            comparison.change = mean(currentCompared) / mean(baseCompared) - 1;
+            comparison.p = slowdownPValue(baseCompared, currentCompared);
+            String name = key.substring(0, key.indexOf(' '));
+            double threshold = Double.parseDouble(System.getProperty(
+                "gate.threshold." + name, Double.toString(THRESHOLD)));
+            if (references.contains(key)) {
+                comparison.verdict = "reference";
+            } else {
+                pValues.put(key, comparison.p);
+                comparison.slower = comparison.change > threshold;
+                comparison.verdict = -comparison.change > threshold
+                    && slowdownPValue(currentCompared, baseCompared) < ALPHA
+                    ? "improved" : "ok";
+            }
+            comparisons.add(comparison);
+        }
+        Set<String> significant = holm(pValues);
+
+        report.add("| benchmark | baseline ns | current ns | change | p-value | verdict |");
+        report.add("|---|---|---|---|---|---|");
+        int regressions = 0;
+        for (Comparison comparison : comparisons) {
+            if (comparison.slower && significant.contains(comparison.key)) {
+                comparison.verdict = "REGRESSION";
+                regressions++;
+            }
+            report.add(comparison.row());
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                report.add(String.format(Locale.ROOT, "| %s | %.0f | - | - | - | missing |",
+                    key, mean(baseline.get(key).getForkMeans())));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * A private method that applies the Holm-Bonferroni correction to the
+     * one-sided p-values of every gated benchmark: the smallest is tested at
+     * ALPHA / m, the next at ALPHA / (m - 1) and so on, stopping at the
+     * first that is not significant.
+     *
+     * @param pValues the p-value of every gated benchmark
+     * @return the benchmarks whose slowdown is significant
+     */
+    private static Set<String> holm(Map<String, Double> pValues) {
+        List<Map.Entry<String, Double>> sorted = new ArrayList<>(pValues.entrySet());
+        sorted.sort(Map.Entry.comparingByValue());
+        Set<String> significant = new HashSet<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.get(i).getValue() >= ALPHA / (sorted.size() - i)) {
+                break;
+            }
+            significant.add(sorted.get(i).getKey());
+        }
+        return significant;
+    }
+
+    /**
+     * A private method that divides the mean of every fork of a benchmark
+     * by the mean of its counterpart in the same fork.
+     *
+     * @param key the key of the benchmark
+     * @param result the fork means of the benchmark
+     * @param counterpart the fork means of its counterpart
+     * @return the ratio in every fork
+     * @throws IllegalArgumentException if the number of forks differ
+     */
+    private static double[] ratios(String key, Result result, Result counterpart) {
+        double[] means = result.getForkMeans();
+        double[] counterpartMeans = counterpart.getForkMeans();
+        if (means.length != counterpartMeans.length) {
+            throw new IllegalArgumentException(key + " has " + means.length
+                + " forks but its counterpart has " + counterpartMeans.length);
+        }
+        double[] ratios = new double[means.length];
+        for (int i = 0; i < means.length; i++) {
+            ratios[i] = means[i] / counterpartMeans[i];
+        }
+        return ratios;
+    }
+
+    /**
+     * Reads every benchmark in a results file, keyed by "Suite.name param".
+     * Every line of a benchmark is one fork, so its fork means are in file
+     * order, and its counterpart is keyed by the name in its "baseline"
+     * field and its own param. Blank lines and lines that are not results
+     * are skipped.
+     *
+     * @param file the file to read
+     * @return the results of every benchmark, in file order
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a result has no samples, or the
+     *                                  forks of a benchmark name different
+     *                                  counterparts
+     */
+    public static Map<String, Result> read(Path file) throws IOException {
+        Map<String, List<Double>> means = new LinkedHashMap<>();
+        Map<String, String> counterparts = new HashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            Matcher field = STRING_FIELD.matcher(line);
+            String benchmark = null;
+            String param = "";
+            String counterpart = null;
+            while (field.find()) {
+                if (field.group(1).equals("benchmark")) {
+                    benchmark = field.group(2);
+                } else if (field.group(1).equals("param")) {
+                    param = field.group(2);
+                } else {
+                    counterpart = field.group(2);
+                }
+            }
+            if (benchmark == null) {
+                continue;
+            }
+            Matcher array = SAMPLES_FIELD.matcher(line);
+            if (!array.find() || array.group(1).trim().isEmpty()) {
+                throw new IllegalArgumentException(file + ": " + benchmark + " has no samples");
+            }
+            String[] values = array.group(1).split(",");
+            double sum = 0;
+            for (String value : values) {
+                sum += Double.parseDouble(value.trim());
+            }
+            String key = benchmark + " " + param;
+            String counterpartKey = counterpart == null ? null : counterpart + " " + param;
+            if (means.containsKey(key)
+                && !Objects.equals(counterparts.get(key), counterpartKey)) {
+                throw new IllegalArgumentException(file + ": the forks of " + key
+                    + " name different counterparts");
+            }
+            means.computeIfAbsent(key, k -> new ArrayList<>()).add(sum / values.length);
+            counterparts.put(key, counterpartKey);
+        }
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Double>> entry : means.entrySet()) {
+            double[] forkMeans = new double[entry.getValue().size()];
+            for (int i = 0; i < forkMeans.length; i++) {
+                forkMeans[i] = entry.getValue().get(i);
+            }
+            results.put(entry.getKey(), new Result(forkMeans, counterparts.get(entry.getKey())));
+        }
+        return results;
+    }
+
+    /**
+     * Finds the one-sided p-value of Welch's t-test for the current samples
+     * having a larger mean than the baseline samples. The samples must be
+     * independent, such as the means of separate forks.
+     *
+     * @param baseline the baseline samples
+     * @param current the current samples
+     * @return the probability of a slowdown at least this large if the
+     * means were equal
+     * @throws IllegalArgumentException if either side has fewer than two
+     *                                  samples, so there is no variance to
+     *                                  test
+     */
+    public static double slowdownPValue(double[] baseline, double[] current) {
+        if (baseline.length < 2 || current.length < 2) {
+            throw new IllegalArgumentException("Welch's t-test needs at least two forks on"
+                + " each side, not " + baseline.length + " and " + current.length);
+        }
+        double difference = mean(current) - mean(baseline);
+        double baseError = variance(baseline) / baseline.length;
+        double currentError = variance(current) / current.length;
+        double error = baseError + currentError;
+        if (error == 0) {
+            return difference > 0 ? 0 : 1;
+        }
+        double t = difference / Math.sqrt(error);
+        double df = error * error
+            / (baseError * baseError / (baseline.length - 1)
+            + currentError * currentError / (current.length - 1));
+        double tail = 0.5 * regularizedBeta(df / (df + t * t), df / 2, 0.5);
+        return t > 0 ? tail : 1 - tail;
+    }
+
+    /**
+     * A private method that finds the mean of the samples.
+     *
+     * @param samples the samples
+     * @return the mean
+     */
+    private static double mean(double[] samples) {
+        double sum = 0;
+        for (double sample : samples) {
+            sum += sample;
+        }
+        return sum / samples.length;
+    }
+
+    /**
+     * A private method that finds the unbiased variance of the samples.
+     *
+     * @param samples at least two samples
+     * @return the sample variance
+     */
+    private static double variance(double[] samples) {
+        double mean = mean(samples);
+        double sum = 0;
+        for (double sample : samples) {
+            sum += (sample - mean) * (sample - mean);
+        }
+        return sum / (samples.length - 1);
+    }
+
+    /**
+     * A private method that evaluates the regularized incomplete beta
+     * function I_x(a, b) with its continued fraction (Numerical Recipes,
+     * section 6.4).
+     *
+     * @param x the point in [0, 1]
+     * @param a the first shape parameter
+     * @param b the second shape parameter
+     * @return I_x(a, b)
+     */
+    private static double regularizedBeta(double x, double a, double b) {
+        if (x <= 0) {
+            return 0;
+        }
+        if (x >= 1) {
+            return 1;
+        }
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b)
+            + a * Math.log(x) + b * Math.log(1 - x));
+        if (x > (a + 1) / (a + b + 2)) {
+            return 1 - front * betaFraction(1 - x, b, a) / b;
+        }
+        return front * betaFraction(x, a, b) / a;
+    }
+
+    /**
+     * A private method that evaluates the continued fraction of the
+     * incomplete beta function with the modified Lentz method.
+     *
+     * @param x the point in [0, 1]
+     * @param a the first shape parameter
+     * @param b the second shape parameter
+     * @return the value of the continued fraction
+     */
+    private static double betaFraction(double x, double a, double b) {
+        double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        d = 1 / (Math.abs(d) < tiny ? tiny : d);
+        double h = d;
+        for (int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 + aa * d;
+            d = 1 / (Math.abs(d) < tiny ? tiny : d);
+            c = 1 + aa / c;
+            c = Math.abs(c) < tiny ? tiny : c;
+            h *= d * c;
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 + aa * d;
+            d = 1 / (Math.abs(d) < tiny ? tiny : d);
+            c = 1 + aa / c;
+            c = Math.abs(c) < tiny ? tiny : c;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-12) {
+                break;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * A private method that evaluates the log of the gamma function with the
+     * Lanczos approximation.
+     *
+     * @param x a positive number
+     * @return ln(gamma(x))
+     */
+    private static double logGamma(double x) {
+        double[] coefficients = {76.18009172947146, -86.50532032941677,
+            24.01409824083091, -1.231739572450155, 0.1208650973866179e-2,
+            -0.5395239384953e-5};
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : coefficients) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+
+    /**
+     * The results of one benchmark over every fork of a suite.
+     */
+    public static final class Result {
+
+        private final double[] forkMeans;
+        private final String counterpart;
+
+        /**
+         * Creates the results of a benchmark.
+         *
+         * @param forkMeans the mean nanoseconds per run of every fork
+         * @param counterpart the "Suite.name param" key of the counterpart
+         *                    the benchmark is measured against, or null
+         */
+        Result(double[] forkMeans, String counterpart) {
+            this.forkMeans = forkMeans;
+            this.counterpart = counterpart;
+        }
+
+        /**
+         * Gets the mean nanoseconds per run of every fork, in fork order.
+         *
+         * @return the fork means
+         */
+        public double[] getForkMeans() {
+            return forkMeans;
+        }
+
+        /**
+         * Gets the key of the counterpart the benchmark is measured against.
+         *
+         * @return the "Suite.name param" key of the counterpart, or null
+         */
+        public String getCounterpart() {
+            return counterpart;
+        }
+    }
+
+    /**
+     * The comparison of one benchmark to its baseline, which becomes one
+     * row of the report.
+     */
+    private static final class Comparison {
+
+        private final String key;
+        private final Result base;
+        private final Result current;
+        private final String counterpart;
+        private double change;
+        private double p;
+        private boolean slower;
+        private String verdict = "new";
+
+        /**
+         * Creates the comparison of a benchmark.
+         *
+         * @param key the key of the benchmark
+         * @param base its baseline results, or null if it is new
+         * @param current its current results
+         * @param counterpart the key of the counterpart it is compared
+         *                    relative to, or null if it is compared directly
+         */
+        Comparison(String key, Result base, Result current, String counterpart) {
+            this.key = key;
+            this.base = base;
+            this.current = current;
+            this.counterpart = counterpart;
+        }
+
+        /**
+         * Formats the comparison as a Markdown table row.
+         *
+         * @return the row
+         */
+        String row() {
+            if (base == null) {
+                return String.format(Locale.ROOT, "| %s | - | %.0f | - | - | new |",
+                    key, mean(current.getForkMeans()));
+            }
+            String against = counterpart == null ? ""
+                : " (vs " + counterpart.substring(0, counterpart.indexOf(' ')) + ")";
+            return String.format(Locale.ROOT, "| %s | %.0f | %.0f | %+.1f%% | %.4f | %s%s |",
+                key, mean(base.getForkMeans()), mean(current.getForkMeans()),
+                100 * change, p, verdict, against);
+        }
+    }
+}
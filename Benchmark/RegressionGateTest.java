@@ -0,0 +1,286 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+public class RegressionGateTest {
+
+    /**
+     * The number of benchmarks in a simulated suite. Every fourth one is
+     * the counterpart of the one after it, and the other two of each four
+     * are compared on their own.
+     */
+    private static final int BENCHMARKS = 40;
+
+    /**
+     * The number of forks of a simulated suite.
+     */
+    private static final int FORKS = 5;
+
+    /**
+     * Runs the RegressionGate tests.
+     *
+     * @param args unused
+     * @throws IOException if a temporary file cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("regression-gate-test");
+        try {
+            readKeepsEveryForkAndCounterpart(directory);
+            sameCodeRunsDoNotRegress(directory);
+            slowdownsAreCaught(directory);
+            slowerMachinesOnlyFailAbsoluteComparisons(directory);
+            singleForksAreRejected(directory);
+        } finally {
+            Files.deleteIfExists(directory.resolve("baseline.json"));
+            Files.deleteIfExists(directory.resolve("results.json"));
+            Files.delete(directory);
+        }
+        System.out.println("RegressionGateTest passed");
+    }
+
+    /**
+     * Checks that read keeps one mean per fork in fork order and keys the
+     * counterpart by its name and the param of the benchmark.
+     *
+     * @param directory the directory for the result files
+     * @throws IOException if a file cannot be used
+     */
+    static void readKeepsEveryForkAndCounterpart(Path directory) throws IOException {
+        Path file = directory.resolve("results.json");
+        List<String> lines = new ArrayList<>();
+        for (int fork = 0; fork < 3; fork++) {
+            lines.add(line("sort.baseline", "n=10", null, 10 + fork, 20 + fork));
+            lines.add(line("mergeSort", "n=10", "sort.baseline", 30 + fork, 50 + fork));
+            lines.add("");
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        Map<String, RegressionGate.Result> results = RegressionGate.read(file);
+        check(results.size() == 2, "read found " + results.size() + " benchmarks");
+        RegressionGate.Result merge = results.get("Suite.mergeSort n=10");
+        check(merge != null && merge.getForkMeans().length == 3,
+            "read did not keep every fork of mergeSort");
+        for (int fork = 0; fork < 3; fork++) {
+            check(merge.getForkMeans()[fork] == 40 + fork, "fork " + fork + " of mergeSort");
+        }
+        check("Suite.sort.baseline n=10".equals(merge.getCounterpart()),
+            "the counterpart of mergeSort is " + merge.getCounterpart());
+        check(results.get("Suite.sort.baseline n=10").getCounterpart() == null,
+            "sort.baseline has a counterpart");
+    }
+
+    /**
+     * Checks that two runs of the same code never regress, although every
+     * fork is up to tens of percent faster or slower than the others and
+     * the iterations within a fork agree far more closely than the forks.
+     * That spread is what made single-fork runs fail the gate on unchanged
+     * code when their iterations were taken as independent samples.
+     *
+     * @param directory the directory for the result files
+     * @throws IOException if a file cannot be used
+     */
+    static void sameCodeRunsDoNotRegress(Path directory) throws IOException {
+        Random rand = new Random(39);
+        for (int trial = 0; trial < 20; trial++) {
+            double[] costs = costs(rand);
+            int regressions = compare(directory, suite(rand, costs, 1),
+                suite(rand, costs, 1), new ArrayList<>());
+            check(regressions == 0, regressions + " regressions between two runs of the same code"
+                + " in trial " + trial);
+        }
+    }
+
+    /**
+     * Checks that a benchmark that got half again as slow is reported as a
+     * regression, whether or not it has a counterpart, and that nothing
+     * else is.
+     *
+     * @param directory the directory for the result files
+     * @throws IOException if a file cannot be used
+     */
+    static void slowdownsAreCaught(Path directory) throws IOException {
+        Random rand = new Random(390);
+        double[] costs = costs(rand);
+        double[] slower = costs.clone();
+        slower[1] *= 1.5;
+        slower[2] *= 1.5;
+        List<String> report = new ArrayList<>();
+        int regressions = compare(directory, suite(rand, costs, 1),
+            suite(rand, slower, 1), report);
+        check(regressions == 2, regressions + " regressions instead of 2");
+        check(verdict(report, "Suite.bench1 ").startsWith("REGRESSION (vs Suite.bench0)"),
+            "bench1 is " + verdict(report, "Suite.bench1 "));
+        check(verdict(report, "Suite.bench2 ").equals("REGRESSION"),
+            "bench2 is " + verdict(report, "Suite.bench2 "));
+        check(verdict(report, "Suite.bench0 ").equals("reference"),
+            "bench0 is " + verdict(report, "Suite.bench0 "));
+    }
+
+    /**
+     * Checks that a machine that is half again as slow across the board fails
+     * the benchmarks without a counterpart, but not the ones compared
+     * relative to a counterpart measured in the same forks.
+     *
+     * @param directory the directory for the result files
+     * @throws IOException if a file cannot be used
+     */
+    static void slowerMachinesOnlyFailAbsoluteComparisons(Path directory) throws IOException {
+        Random rand = new Random(3900);
+        double[] costs = costs(rand);
+        List<String> report = new ArrayList<>();
+        int regressions = compare(directory, suite(rand, costs, 1),
+            suite(rand, costs, 1.5), report);
+        check(regressions == BENCHMARKS / 2, regressions + " regressions instead of "
+            + BENCHMARKS / 2);
+        for (int i = 0; i < BENCHMARKS; i++) {
+            String verdict = verdict(report, "Suite.bench" + i + " ");
+            if (i % 4 == 0) {
+                check(verdict.equals("reference"), "bench" + i + " is " + verdict);
+            } else if (i % 4 == 1) {
+                check(verdict.startsWith("ok (vs"), "bench" + i + " is " + verdict);
+            } else {
+                check(verdict.equals("REGRESSION"), "bench" + i + " is " + verdict);
+            }
+        }
+    }
+
+    /**
+     * Checks that the gate refuses to test a single fork, since it has no
+     * variance between forks to test against.
+     *
+     * @param directory the directory for the result files
+     * @throws IOException if a file cannot be used
+     */
+    static void singleForksAreRejected(Path directory) throws IOException {
+        List<String> fork = new ArrayList<>();
+        fork.add(line("sort.baseline", "n=10", null, 10, 11, 12));
+        fork.add(line("mergeSort", "n=10", "sort.baseline", 20, 21, 22));
+        try {
+            compare(directory, fork, fork, new ArrayList<>());
+            check(false, "a single fork was tested");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Draws the mean nanoseconds per run of every benchmark of a simulated
+     * suite.
+     *
+     * @param rand the Random object used to draw the costs
+     * @return the cost of every benchmark
+     */
+    private static double[] costs(Random rand) {
+        double[] costs = new double[BENCHMARKS];
+        for (int i = 0; i < BENCHMARKS; i++) {
+            costs[i] = 1e5 * (1 + rand.nextInt(1000));
+        }
+        return costs;
+    }
+
+    /**
+     * Simulates the result lines of FORKS forks of a suite. Every fork runs
+     * on a machine that is a random factor of up to 10% faster or slower,
+     * every benchmark gets its own fork offset of a few percent on top, and
+     * the five iterations of a fork differ by about 1%.
+     *
+     * @param rand the Random object used to draw the noise
+     * @param costs the mean nanoseconds per run of every benchmark
+     * @param machine the factor every time is multiplied by
+     * @return the result lines of every fork
+     */
+    private static List<String> suite(Random rand, double[] costs, double machine) {
+        List<String> lines = new ArrayList<>();
+        for (int fork = 0; fork < FORKS; fork++) {
+            double forkFactor = machine * (1 + 0.1 * (2 * rand.nextDouble() - 1));
+            for (int i = 0; i < BENCHMARKS; i++) {
+                double mean = costs[i] * forkFactor * (1 + 0.02 * rand.nextGaussian());
+                long[] samples = new long[5];
+                for (int j = 0; j < samples.length; j++) {
+                    samples[j] = Math.round(mean * (1 + 0.01 * rand.nextGaussian()));
+                }
+                lines.add(line("bench" + i, "n=100", i % 4 == 1 ? "bench" + (i - 1) : null,
+                    samples));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Writes two runs of a suite to files, reads them back and compares
+     * them with the gate.
+     *
+     * @param directory the directory for the result files
+     * @param baseline the result lines of the baseline run
+     * @param current the result lines of the current run
+     * @param report the report the table is added to
+     * @return the number of regressions
+     * @throws IOException if a file cannot be used
+     */
+    private static int compare(Path directory, List<String> baseline, List<String> current,
+                               List<String> report) throws IOException {
+        Path baselineFile = directory.resolve("baseline.json");
+        Path resultsFile = directory.resolve("results.json");
+        Files.write(baselineFile, baseline, StandardCharsets.UTF_8);
+        Files.write(resultsFile, current, StandardCharsets.UTF_8);
+        return RegressionGate.compare(RegressionGate.read(baselineFile),
+            RegressionGate.read(resultsFile), report);
+    }
+
+    /**
+     * Formats a result line like Benchmark does, in the suite "Suite".
+     *
+     * @param name the name of the benchmark
+     * @param param the description of the input
+     * @param baseline the name of the counterpart, or null
+     * @param samples the nanoseconds of every timed run
+     * @return the JSON line
+     */
+    private static String line(String name, String param, String baseline, long... samples) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT,
+            "{\"benchmark\":\"Suite.%s\",\"param\":\"%s\",", name, param));
+        if (baseline != null) {
+            line.append("\"baseline\":\"Suite.").append(baseline).append("\",");
+        }
+        line.append("\"meanNs\":0.0,\"opsPerSec\":0.0,\"allocBytes\":-1,\"samplesNs\":[");
+        for (int i = 0; i < samples.length; i++) {
+            line.append(i == 0 ? "" : ",").append(samples[i]);
+        }
+        return line.append("]}").toString();
+    }
+
+    /**
+     * Finds the verdict of a benchmark in a report.
+     *
+     * @param report the report table
+     * @param prefix the start of the benchmark's key, ending in a space
+     * @return the verdict, or the empty string if the benchmark is missing
+     */
+    private static String verdict(List<String> report, String prefix) {
+        for (String row : report) {
+            if (row.startsWith("| " + prefix)) {
+                String[] cells = row.split("\\|");
+                return cells[cells.length - 1].trim();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
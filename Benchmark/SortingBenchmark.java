@@ -0,0 +1,296 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class SortingBenchmark {
+
+    /**
+     * Runs the Sorting benchmarks against Arrays.sort.
+     *
+     * @param args optionally the number of elements
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int[] ints = new Random(42).ints(n).toArray();
+        Integer[] boxed = Arrays.stream(ints).boxed().toArray(Integer[]::new);
+        Integer[] expected = boxed.clone();
+        Arrays.sort(expected);
+        Comparator<Integer> comparator = Integer::compare;
+        String param = "n=" + n;
+        Benchmark bench = new Benchmark("Sorting");
+
+        measureSort(bench, "mergeSort", param, "sort.baseline", boxed, expected,
+            arr -> Sorting.mergeSort(arr, comparator));
+        Integer[] buffer = new Integer[n];
+        measureSort(bench, "mergeSort.reusedBuffer", param, "sort.baseline", boxed, expected,
+            arr -> Sorting.mergeSort(arr, comparator, buffer));
+        measureSort(bench, "parallelMergeSort", param, "parallelMergeSort.baseline",
+            boxed, expected,
+            arr -> Sorting.parallelMergeSort(arr, comparator));
+        measureSort(bench, "parallelMergeSort.baseline", param, null, boxed, expected,
+            arr -> Arrays.parallelSort(arr, comparator));
+        measureSort(bench, "timSort", param, "sort.baseline", boxed, expected,
+            arr -> Sorting.timSort(arr, comparator));
+        measureSort(bench, "quickSort", param, "sort.baseline", boxed, expected,
+            arr -> Sorting.quickSort(arr, comparator, new Random(7)));
+        measureSort(bench, "heapSort.objects", param, "sort.baseline", boxed, expected,
+            arr -> Sorting.heapSort(arr, comparator));
+        measureSort(bench, "introSort", param, "sort.baseline", boxed, expected,
+            arr -> Sorting.introSort(arr, comparator));
+        measureSort(bench, "sort.baseline", param, null, boxed, expected,
+            arr -> Arrays.sort(arr, comparator));
+
+        Integer[] fewDistinct = new Random(13).ints(n, 0, 16).boxed()
+            .toArray(Integer[]::new);
+        Integer[] fewDistinctExpected = fewDistinct.clone();
+        Arrays.sort(fewDistinctExpected);
+        measureSort(bench, "introSort.fewDistinct", param, "sort.fewDistinct.baseline",
+            fewDistinct, fewDistinctExpected, arr -> Sorting.introSort(arr, comparator));
+        measureSort(bench, "sort.fewDistinct.baseline", param, null, fewDistinct,
+            fewDistinctExpected, arr -> Arrays.sort(arr, comparator));
+        measureSort(bench, "quickSort.fewDistinct", param, "sort.fewDistinct.baseline",
+            fewDistinct, fewDistinctExpected,
+            arr -> Sorting.quickSort(arr, comparator, new Random(7)));
+
+        Integer[] nearlySorted = expected.clone();
+        Random perturb = new Random(11);
+        for (int i = 0; i < n / 100; i++) {
+            nearlySorted[perturb.nextInt(n)] = perturb.nextInt();
+        }
+        Integer[] nearlySortedExpected = nearlySorted.clone();
+        Arrays.sort(nearlySortedExpected);
+        measureSort(bench, "timSort.nearlySorted", param, "sort.nearlySorted.baseline",
+            nearlySorted, nearlySortedExpected, arr -> Sorting.timSort(arr, comparator));
+        measureSort(bench, "sort.nearlySorted.baseline", param, null, nearlySorted,
+            nearlySortedExpected, arr -> Arrays.sort(arr, comparator));
+        measureSort(bench, "mergeSort.nearlySorted", param, "sort.nearlySorted.baseline",
+            nearlySorted, nearlySortedExpected, arr -> Sorting.mergeSort(arr, comparator));
+
+        int[] sortedInts = ints.clone();
+        Arrays.sort(sortedInts);
+        int[] radix = ints.clone();
+        Sorting.lsdRadixSort(radix);
+        Benchmark.verify(Arrays.equals(radix, sortedInts), "lsdRadixSort disagrees");
+        bench.measure("lsdRadixSort", param, "sortInts.baseline", n,
+            () -> Sorting.lsdRadixSort(ints.clone()));
+        int[] countingRadix = ints.clone();
+        Sorting.radixSort(countingRadix);
+        Benchmark.verify(Arrays.equals(countingRadix, sortedInts), "radixSort disagrees");
+        bench.measure("radixSort", param, "sortInts.baseline", n,
+            () -> Sorting.radixSort(ints.clone()));
+        bench.measure("sortInts.baseline", param, n, () -> Arrays.sort(ints.clone()));
+        int[] parallelRadix = ints.clone();
+        Sorting.parallelRadixSort(parallelRadix);
+        Benchmark.verify(Arrays.equals(parallelRadix, sortedInts), "parallelRadixSort disagrees");
+        bench.measure("parallelRadixSort", param, "parallelRadixSort.baseline", n,
+            () -> Sorting.parallelRadixSort(ints.clone()));
+        bench.measure("parallelRadixSort.baseline", param, n,
+            () -> Arrays.parallelSort(ints.clone()));
+        Random letters = new Random(17);
+        String[] strings = new String[n];
+        for (int i = 0; i < n; i++) {
+            char[] chars = new char[8 + letters.nextInt(9)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + letters.nextInt(26));
+            }
+            strings[i] = new String(chars);
+        }
+        String[] sortedStrings = strings.clone();
+        Arrays.sort(sortedStrings);
+        String[] radixStrings = strings.clone();
+        Sorting.parallelRadixSort(radixStrings);
+        Benchmark.verify(Arrays.equals(radixStrings, sortedStrings),
+            "parallelRadixSort(String[]) disagrees");
+        bench.measure("parallelRadixSort.strings", param,
+            "parallelRadixSort.strings.baseline", n,
+            () -> Sorting.parallelRadixSort(strings.clone()));
+        bench.measure("parallelRadixSort.strings.baseline", param, n,
+            () -> Arrays.parallelSort(strings.clone()));
+        int middle = n / 2;
+        Benchmark.verify(Sorting.select(ints.clone(), middle) == sortedInts[middle],
+            "select(int[]) disagrees");
+        bench.measure("select.ints", param, "select.ints.baseline", n,
+            () -> Benchmark.consume(Sorting.select(ints.clone(), middle)));
+        bench.measure("select.ints.baseline", param, n, () -> {
+            int[] copy = ints.clone();
+            Arrays.sort(copy);
+            Benchmark.consume(copy[middle]);
+        });
+        int k = Math.min(n, 100);
+        int[] partial = ints.clone();
+        Sorting.partialSort(partial, k);
+        Benchmark.verify(Arrays.equals(Arrays.copyOf(partial, k), Arrays.copyOf(sortedInts, k)),
+            "partialSort(int[]) disagrees");
+        String topParam = param + " k=" + k;
+        bench.measure("partialSort.ints", topParam, "topK.ints.baseline", n,
+            () -> Sorting.partialSort(ints.clone(), k));
+        Benchmark.verify(Arrays.equals(Sorting.topK(ints, k), Arrays.copyOf(sortedInts, k)),
+            "topK(int[]) disagrees");
+        bench.measure("topK.ints", topParam, "topK.ints.baseline", n,
+            () -> Benchmark.consume(Sorting.topK(ints, k)[0]));
+        bench.measure("topK.ints.baseline", topParam, n, () -> {
+            int[] copy = ints.clone();
+            Arrays.sort(copy);
+            Benchmark.consume(copy[k - 1]);
+        });
+        List<Integer> boxedList = Arrays.asList(boxed);
+        Benchmark.verify(Sorting.topK(boxedList, k, comparator)
+            .equals(Arrays.asList(expected).subList(0, k)), "topK(Iterable) disagrees");
+        bench.measure("topK.objects", topParam, "topK.objects.baseline", n,
+            () -> Benchmark.consume(Sorting.topK(boxedList, k, comparator).size()));
+        bench.measure("topK.objects.baseline", topParam, n, () -> {
+            PriorityQueue<Integer> heap = new PriorityQueue<>(k, comparator.reversed());
+            for (Integer value : boxedList) {
+                if (heap.size() < k) {
+                    heap.add(value);
+                } else if (comparator.compare(value, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(value);
+                }
+            }
+            Benchmark.consume(heap.size());
+        });
+        Comparator<Integer> byReversed = Comparator.comparingInt(Integer::reverse);
+        Integer[] byKey = boxed.clone();
+        Arrays.sort(byKey, byReversed);
+        measureSort(bench, "sortByIntKey", param, "sortByIntKey.baseline", boxed, byKey,
+            arr -> Sorting.sortByIntKey(arr, Integer::reverse));
+        bench.measure("sortByIntKey.baseline", param, n,
+            () -> Arrays.sort(boxed.clone(), byReversed));
+        Comparator<Integer> byBuckets = Comparator.<Integer>comparingInt(v -> v % 100)
+            .thenComparingInt(Integer::reverse);
+        Integer[] byKeys = boxed.clone();
+        Arrays.sort(byKeys, byBuckets);
+        measureSort(bench, "sortByKeys", param, "sortByKeys.baseline", boxed, byKeys,
+            arr -> Sorting.sortByKeys(arr, v -> v % 100, Integer::reverse));
+        bench.measure("sortByKeys.baseline", param, n,
+            () -> Arrays.sort(boxed.clone(), byBuckets));
+        measureExternalSort(bench, param, new Random(19).longs(n).toArray());
+        List<Integer> list = Arrays.asList(boxed);
+        Benchmark.verify(Arrays.equals(Sorting.heapSort(list), sortedInts), "heapSort disagrees");
+        bench.measure("heapSort", param, "sortInts.baseline", n, () -> Sorting.heapSort(list));
+        int[] heapInts = ints.clone();
+        Sorting.heapSort(heapInts);
+        Benchmark.verify(Arrays.equals(heapInts, sortedInts), "heapSort(int[]) disagrees");
+        bench.measure("heapSort.ints", param, "sortInts.baseline", n,
+            () -> Sorting.heapSort(ints.clone()));
+        int[] quickInts = ints.clone();
+        Sorting.quickSort(quickInts);
+        Benchmark.verify(Arrays.equals(quickInts, sortedInts), "quickSort(int[]) disagrees");
+        bench.measure("quickSort.ints", param, "sortInts.baseline", n,
+            () -> Sorting.quickSort(ints.clone()));
+        int[] mergeInts = ints.clone();
+        Sorting.mergeSort(mergeInts);
+        Benchmark.verify(Arrays.equals(mergeInts, sortedInts), "mergeSort(int[]) disagrees");
+        bench.measure("mergeSort.ints", param, "sortInts.baseline", n,
+            () -> Sorting.mergeSort(ints.clone()));
+
+        int small = Math.min(n, 5000);
+        Integer[] smallBoxed = Arrays.copyOf(boxed, small);
+        Integer[] smallExpected = smallBoxed.clone();
+        Arrays.sort(smallExpected);
+        String smallParam = "n=" + small;
+        measureSort(bench, "insertionSort", smallParam, "sort.baseline", smallBoxed,
+            smallExpected, arr -> Sorting.insertionSort(arr, comparator));
+        measureSort(bench, "cocktailSort", smallParam, "sort.baseline", smallBoxed,
+            smallExpected, arr -> Sorting.cocktailSort(arr, comparator));
+        if (small < n) {
+            measureSort(bench, "sort.baseline", smallParam, null, smallBoxed, smallExpected,
+                arr -> Arrays.sort(arr, comparator));
+        }
+    }
+
+    /**
+     * Checks that ExternalSort.sortLongs sorts a file of the longs, then
+     * times it against reading, sorting and writing the file in memory. The
+     * memory budget is a quarter of the data and the fan-in 4, and a chunk
+     * takes twice its size with the radix sort scratch, so the sort writes
+     * about ten runs and merges them in two passes.
+     *
+     * @param bench the benchmark runner
+     * @param param the description of the input
+     * @param values the longs to sort
+     */
+    static void measureExternalSort(Benchmark bench, String param, long[] values) {
+        try {
+            Path dir = Files.createTempDirectory("bench");
+            Path input = dir.resolve("input");
+            Path output = dir.resolve("output");
+            ByteBuffer bytes = ByteBuffer.allocate(values.length * Long.BYTES);
+            bytes.asLongBuffer().put(values);
+            Files.write(input, bytes.array());
+            ExternalSort sort = new ExternalSort(Math.max(5 * 8192, 2L * values.length), 4, dir);
+            sort.sortLongs(input, output);
+            long[] sorted = values.clone();
+            Arrays.sort(sorted);
+            long[] result = new long[values.length];
+            ByteBuffer.wrap(Files.readAllBytes(output)).asLongBuffer().get(result);
+            Benchmark.verify(Arrays.equals(result, sorted), "ExternalSort.sortLongs disagrees");
+            bench.measure("externalSort.longs", param, "externalSort.longs.baseline",
+                values.length, () -> {
+                try {
+                    sort.sortLongs(input, output);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            bench.measure("externalSort.longs.baseline", param, values.length, () -> {
+                try {
+                    long[] data = new long[values.length];
+                    ByteBuffer.wrap(Files.readAllBytes(input)).asLongBuffer().get(data);
+                    Arrays.sort(data);
+                    ByteBuffer out = ByteBuffer.allocate(data.length * Long.BYTES);
+                    out.asLongBuffer().put(data);
+                    Files.write(output, out.array());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Files.delete(input);
+            Files.delete(output);
+            Files.delete(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks that the sort sorts a copy of the input correctly, then times it
+     * on a fresh copy of the input every run.
+     *
+     * @param bench the benchmark runner
+     * @param name the name of the benchmark
+     * @param param the description of the input
+     * @param baseline the name of the counterpart, or null
+     * @param input the unsorted input, which is not modified
+     * @param expected the sorted input
+     * @param sort the sort to time
+     */
+    static void measureSort(Benchmark bench, String name, String param, String baseline,
+                            Integer[] input, Integer[] expected, Sort sort) {
+        Integer[] copy = input.clone();
+        sort.sort(copy);
+        Benchmark.verify(Arrays.equals(copy, expected), name + " disagrees");
+        bench.measure(name, param, baseline, input.length, () -> sort.sort(input.clone()));
+    }
+
+    /**
+     * A sort of an Integer array in place.
+     */
+    interface Sort {
+
+        /**
+         * Sorts the array.
+         *
+         * @param arr the array to sort
+         */
+        void sort(Integer[] arr);
+    }
+}
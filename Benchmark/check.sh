@@ -0,0 +1,50 @@
+#!/bin/sh
+# Runs benchmark suites and compares each one to its checked-in baseline in
+# Benchmark/baselines/, failing if any benchmark regressed. Results and
+# Markdown reports are written to Benchmark/out/results/.
+#
+# Usage: Benchmark/check.sh [--update] [Suite...]
+#   --update  replace the baselines with the new results instead of checking
+#
+# With no suites every suite is run. Every suite runs in BENCH_FORKS fresh
+# JVMs (5 by default, at least 2), and the gate tests the per-fork means. The
+# gate is configured with GATE_OPTS,
+# e.g. GATE_OPTS="-Dgate.threshold=0.2 -Dgate.threshold.Sorting.mergeSort=0.05"
+set -e
+cd "$(dirname "$0")/.."
+update=false
+if [ "$1" = --update ]; then
+    update=true
+    shift
+fi
+suites="$*"
+if [ -z "$suites" ]; then
+    suites="ArrayList AVL BST Deque DoublyLinkedList Graph HashMap MinHeap PatternMatching Sorting"
+fi
+BENCH_OPTS="${BENCH_OPTS:--Dbench.warmup=5 -Dbench.iterations=5}"
+BENCH_FORKS="${BENCH_FORKS:-5}"
+if [ "$BENCH_FORKS" -lt 2 ]; then
+    echo "BENCH_FORKS should be at least 2, since the gate tests the fork means" >&2
+    exit 2
+fi
+export BENCH_OPTS BENCH_FORKS
+results="Benchmark/out/results"
+gate="Benchmark/out/gate"
+mkdir -p "$results" "$gate" Benchmark/baselines
+javac -d "$gate" Benchmark/RegressionGate.java
+
+status=0
+for suite in $suites; do
+    Benchmark/run.sh "$suite" > "$results/$suite.json"
+    if $update; then
+        cp "$results/$suite.json" "Benchmark/baselines/$suite.json"
+        echo "Updated baseline for $suite"
+    elif [ -f "Benchmark/baselines/$suite.json" ]; then
+        echo "## $suite"
+        java ${GATE_OPTS} -cp "$gate" RegressionGate "Benchmark/baselines/$suite.json" \
+            "$results/$suite.json" "$results/$suite.md" || status=$?
+    else
+        echo "No baseline for $suite; run Benchmark/check.sh --update $suite" >&2
+    fi
+done
+exit $status
@@ -0,0 +1,46 @@
+#!/bin/sh
+# Compiles one benchmark suite together with the sources it measures and runs
+# it, printing one JSON result per line.
+#
+# Usage: Benchmark/run.sh <Suite> [args...]
+#        Benchmark/run.sh all
+#   e.g. Benchmark/run.sh Graph 200
+#
+# BENCH_FORKS=n runs the suite in n fresh JVMs one after another (1 by
+# default); every fork prints its own line for each benchmark.
+#
+# Suites: ArrayList AVL BST Deque DoublyLinkedList Graph HashMap MinHeap
+#         PatternMatching Sorting
+set -e
+cd "$(dirname "$0")/.."
+suite="$1"
+shift
+if [ "$suite" = all ]; then
+    for s in ArrayList AVL BST Deque DoublyLinkedList Graph HashMap MinHeap \
+             PatternMatching Sorting; do
+        Benchmark/run.sh "$s"
+    done
+    exit 0
+fi
+case "$suite" in
+    ArrayList) sources="Array_list" ;;
+    AVL) sources="AVL" ;;
+    BST) sources="BST" ;;
+    Deque) sources="Deque" ;;
+    DoublyLinkedList) sources="Doubly_Linked_List" ;;
+    Graph) sources="Graph" ;;
+    HashMap) sources="HashMap" ;;
+    MinHeap) sources="Heap_Min" ;;
+    PatternMatching) sources="Pattern_Matching" ;;
+    Sorting) sources="Sorting" ;;
+    *) echo "Unknown suite: $suite" >&2; exit 1 ;;
+esac
+out="Benchmark/out/$suite"
+rm -rf "$out"
+mkdir -p "$out"
+javac -d "$out" Benchmark/Benchmark.java "Benchmark/${suite}Benchmark.java" "$sources"/*.java
+fork=0
+while [ "$fork" -lt "${BENCH_FORKS:-1}" ]; do
+    java ${BENCH_OPTS} -cp "$out" "${suite}Benchmark" "$@"
+    fork=$((fork + 1))
+done
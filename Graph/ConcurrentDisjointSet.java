@@ -0,0 +1,145 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ConcurrentDisjointSet {
+
+    private AtomicIntegerArray parent;
+
+    /**
+     * Creates n disjoint sets, one for each element 0 to n - 1, that can be
+     * shared by any number of threads without locking.
+     *
+     * @param n the number of elements
+     * @throws IllegalArgumentException if n is negative
+     */
+    public ConcurrentDisjointSet(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of elements cannot be negative.");
+        }
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Finds the root of the set containing the element.
+     *
+     * Performs path halving with a compare-and-set on each visited node. A
+     * failed compare-and-set only means another thread already moved the
+     * node closer to the root, so it is ignored and every find completes in
+     * a bounded number of its own steps (wait-free).
+     *
+     * @param element the element to search for
+     * @return the root of the element's set at some point during the call
+     * @throws IndexOutOfBoundsException if the element is not in
+     * [0, size())
+     */
+    public int find(int element) {
+        checkElement(element);
+        while (true) {
+            int p = parent.get(element);
+            if (p == element) {
+                return element;
+            }
+            int grandparent = parent.get(p);
+            if (p != grandparent) {
+                parent.compareAndSet(element, p, grandparent);
+            }
+            element = grandparent;
+        }
+    }
+
+    /**
+     * Joins the sets of the two elements.
+     *
+     * The root with the lower priority is linked under the other with a
+     * compare-and-set that only succeeds while it is still a root; if another
+     * thread got there first, the roots are found again and the link is
+     * retried. Priorities are a fixed pseudo-random permutation of the
+     * elements, which keeps the expected tree depth logarithmic without
+     * storing ranks that would need to be updated atomically with the link.
+     *
+     * @param first the first element
+     * @param second the second element
+     * @return true if this call joined two different sets
+     * @throws IndexOutOfBoundsException if either element is not in
+     * [0, size())
+     */
+    public boolean union(int first, int second) {
+        while (true) {
+            first = find(first);
+            second = find(second);
+            if (first == second) {
+                return false;
+            }
+            if (higherPriority(first, second)) {
+                int dummy = first;
+                first = second;
+                second = dummy;
+            }
+            if (parent.compareAndSet(first, first, second)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the two elements are in the same set.
+     *
+     * @param first the first element
+     * @param second the second element
+     * @return true if the elements had the same root at some point during
+     * the call
+     * @throws IndexOutOfBoundsException if either element is not in
+     * [0, size())
+     */
+    public boolean connected(int first, int second) {
+        while (true) {
+            first = find(first);
+            second = find(second);
+            if (first == second) {
+                return true;
+            }
+            if (parent.get(first) == first) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return parent.length();
+    }
+
+    /**
+     * A private method that orders the elements by a fixed pseudo-random
+     * priority, breaking ties by index.
+     *
+     * @param first the first element
+     * @param second the second element
+     * @return true if the first element has the higher priority
+     */
+    private static boolean higherPriority(int first, int second) {
+        int firstHash = Hashing.mix(first);
+        int secondHash = Hashing.mix(second);
+        return firstHash != secondHash ? firstHash > secondHash : first > second;
+    }
+
+    /**
+     * A private method that checks if the element exists.
+     *
+     * @param element the element to check
+     * @throws IndexOutOfBoundsException if the element is not in
+     * [0, size())
+     */
+    private void checkElement(int element) {
+        if (element < 0 || element >= parent.length()) {
+            throw new IndexOutOfBoundsException("Element " + element
+                + " is out of bounds for size " + parent.length());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ConnectedComponents<T> {
+
+    private IndexedGraph<T> graph;
+    private int[] componentIds;
+    private int[] componentSizes;
+
+    /**
+     * Creates the components of the graph from a representative of every
+     * vertex. Two vertices are in the same component if and only if they
+     * have the same representative.
+     *
+     * The components are numbered 0 to getComponentCount() - 1 in the order
+     * their first vertex appears in the graph, so the numbering does not
+     * depend on which algorithm chose the representatives.
+     *
+     * @param graph the indexed graph the components belong to
+     * @param representatives the index of the representative of every vertex
+     */
+    ConnectedComponents(IndexedGraph<T> graph, int[] representatives) {
+        this.graph = graph;
+        int n = graph.size();
+        int[] remap = new int[n];
+        Arrays.fill(remap, -1);
+        componentIds = new int[n];
+        IntList sizes = new IntList();
+        for (int i = 0; i < n; i++) {
+            int representative = representatives[i];
+            if (remap[representative] == -1) {
+                remap[representative] = sizes.size();
+                sizes.add(0);
+            }
+            int id = remap[representative];
+            componentIds[i] = id;
+            sizes.set(id, sizes.get(id) + 1);
+        }
+        componentSizes = sizes.toArray();
+    }
+
+    /**
+     * Gets the number of components.
+     *
+     * @return the number of components
+     */
+    public int getComponentCount() {
+        return componentSizes.length;
+    }
+
+    /**
+     * Gets the id of the component containing the vertex.
+     *
+     * @param vertex the vertex to look up
+     * @return the component id in [0, getComponentCount())
+     * @throws IllegalArgumentException if the vertex is null or not in the
+     * graph
+     */
+    public int getComponentId(Vertex<T> vertex) {
+        int index = vertex == null ? -1 : graph.indexOf(vertex);
+        if (index == -1) {
+            throw new IllegalArgumentException("Vertex must be in the graph.");
+        }
+        return componentIds[index];
+    }
+
+    /**
+     * Gets the number of vertices in the component.
+     *
+     * @param componentId the id of the component
+     * @return the size of the component
+     * @throws IllegalArgumentException if the id is not in
+     * [0, getComponentCount())
+     */
+    public int getComponentSize(int componentId) {
+        if (componentId < 0 || componentId >= componentSizes.length) {
+            throw new IllegalArgumentException("Component id is out of range.");
+        }
+        return componentSizes[componentId];
+    }
+
+    /**
+     * Gets the component id of every vertex, indexed like the IndexedGraph
+     * returned by getIndexedGraph. The array must not be modified.
+     *
+     * @return the component ids
+     */
+    public int[] getComponentIds() {
+        return componentIds;
+    }
+
+    /**
+     * Gets the indexed graph the component ids refer to.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getIndexedGraph() {
+        return graph;
+    }
+
+    /**
+     * Builds a map from every vertex to its component id.
+     *
+     * @return the component id of every vertex
+     */
+    public Map<Vertex<T>, Integer> toMap() {
+        Map<Vertex<T>, Integer> map = new HashMap<>(2 * componentIds.length);
+        for (int i = 0; i < componentIds.length; i++) {
+            map.put(graph.getVertex(i), componentIds[i]);
+        }
+        return map;
+    }
+}
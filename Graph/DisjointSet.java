@@ -40,22 +40,27 @@ public class DisjointSet<T> {
     }
 
     /**
-     * Recursively finds the root of the DisjointSetNode. Performs path
+     * Iteratively finds the root of the DisjointSetNode. Performs path
      * compression such that all DisjointSetNodes along the path to the root
      * will all directly point to the root.
      *
+     * The path is walked twice, once to find the root and once to point
+     * every node at it, so long chains cannot overflow the stack.
+     *
      * @param curr the current DisjointSetNode to find the root of
      * @return the root of the current node
      */
     private DisjointSetNode<T> find(DisjointSetNode<T> curr) {
-        DisjointSetNode<T> parent = curr.getParent();
-        if (parent == curr) {
-            return curr;
-        } else {
-            parent = find(curr.getParent());
-            curr.setParent(parent);
-            return parent;
+        DisjointSetNode<T> root = curr;
+        while (root.getParent() != root) {
+            root = root.getParent();
+        }
+        while (curr != root) {
+            DisjointSetNode<T> parent = curr.getParent();
+            curr.setParent(root);
+            curr = parent;
         }
+        return root;
     }
 
     /**
@@ -0,0 +1,208 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DisjointSetTest {
+
+    /**
+     * Runs the disjoint set tests.
+     *
+     * @param args unused
+     * @throws InterruptedException if the test is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        intDisjointSetMatchesLabels();
+        indexedDisjointSetMatchesLabels();
+        concurrentUnionsMatchSequential();
+        System.out.println("DisjointSetTest passed");
+    }
+
+    /**
+     * Checks random unions, finds and additions on IntDisjointSet against a
+     * naive array of set labels.
+     */
+    static void intDisjointSetMatchesLabels() {
+        Random rand = new Random(30);
+        for (int trial = 0; trial < 50; trial++) {
+            int n = rand.nextInt(50);
+            IntDisjointSet sets = new IntDisjointSet(n);
+            int[] labels = new int[1000];
+            for (int i = 0; i < n; i++) {
+                labels[i] = i;
+            }
+            for (int step = 0; step < 500; step++) {
+                if (n == 0 || rand.nextInt(10) == 0) {
+                    check(sets.add() == n, "add returns the next element");
+                    labels[n] = n;
+                    n++;
+                    continue;
+                }
+                int first = rand.nextInt(n);
+                int second = rand.nextInt(n);
+                boolean separate = labels[first] != labels[second];
+                check(sets.connected(first, second) == !separate, "connected");
+                check(sets.union(first, second) == separate, "union result");
+                relabel(labels, n, labels[second], labels[first]);
+                checkSets(sets, labels, n);
+            }
+        }
+        expectOutOfBounds(() -> new IntDisjointSet(3).find(3), "find(3) of 3 elements");
+        expectOutOfBounds(() -> new IntDisjointSet(3).union(-1, 0), "union(-1, 0)");
+    }
+
+    /**
+     * Checks IndexedDisjointSet on strings against a naive array of labels,
+     * including that unseen data is added on first use.
+     */
+    static void indexedDisjointSetMatchesLabels() {
+        Random rand = new Random(300);
+        IndexedDisjointSet<String> sets = new IndexedDisjointSet<>();
+        int[] labels = new int[40];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = i;
+        }
+        for (int step = 0; step < 400; step++) {
+            int first = rand.nextInt(labels.length);
+            int second = rand.nextInt(labels.length);
+            boolean separate = labels[first] != labels[second];
+            check(sets.union("v" + first, "v" + second) == separate, "indexed union result");
+            relabel(labels, labels.length, labels[second], labels[first]);
+            int probe = rand.nextInt(labels.length);
+            String root = sets.find("v" + probe);
+            check(labels[Integer.parseInt(root.substring(1))] == labels[probe],
+                "indexed find returned data of another set");
+        }
+        check(sets.size() <= labels.length, "indexed size");
+        int index = sets.indexOf("v0");
+        check(sets.getIntDisjointSet().find(index)
+            == sets.indexOf(sets.find("v0")), "getIntDisjointSet shares the sets");
+        boolean rejected = false;
+        try {
+            sets.find(null);
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        check(rejected, "find(null) was accepted");
+    }
+
+    /**
+     * Unions random pairs from several threads at once into a
+     * ConcurrentDisjointSet and checks the result against the same unions
+     * applied to an IntDisjointSet, and that exactly one union of every
+     * merge reported it.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    static void concurrentUnionsMatchSequential() throws InterruptedException {
+        Random rand = new Random(31);
+        for (int trial = 0; trial < 20; trial++) {
+            int n = 1 + rand.nextInt(5000);
+            int[] pairs = new int[2 * n];
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = rand.nextInt(n);
+            }
+            ConcurrentDisjointSet concurrent = new ConcurrentDisjointSet(n);
+            AtomicInteger merges = new AtomicInteger();
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                int offset = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = 2 * offset; i < pairs.length; i += 2 * threads.length) {
+                        if (concurrent.union(pairs[i], pairs[i + 1])) {
+                            merges.incrementAndGet();
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            IntDisjointSet sequential = new IntDisjointSet(n);
+            for (int i = 0; i < pairs.length; i += 2) {
+                sequential.union(pairs[i], pairs[i + 1]);
+            }
+            check(concurrent.size() == n, "concurrent size");
+            check(merges.get() == n - sequential.getSetCount(), "concurrent union results");
+            for (int i = 0; i < n; i++) {
+                int j = rand.nextInt(n);
+                check(concurrent.connected(i, j) == sequential.connected(i, j),
+                    "concurrent connected");
+                check(concurrent.find(concurrent.find(i)) == concurrent.find(i),
+                    "concurrent find is not a root");
+            }
+        }
+    }
+
+    /**
+     * Merges one label into another.
+     *
+     * @param labels the set label of every element
+     * @param n the number of elements
+     * @param from the label to replace
+     * @param to the label to replace it with
+     */
+    private static void relabel(int[] labels, int n, int from, int to) {
+        for (int i = 0; i < n; i++) {
+            if (labels[i] == from) {
+                labels[i] = to;
+            }
+        }
+    }
+
+    /**
+     * Checks the roots, set sizes and set count of the disjoint sets
+     * against the labels.
+     *
+     * @param sets the disjoint sets
+     * @param labels the set label of every element
+     * @param n the number of elements
+     */
+    private static void checkSets(IntDisjointSet sets, int[] labels, int n) {
+        check(sets.size() == n, "size");
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int size = 0;
+            for (int j = 0; j < n; j++) {
+                if (labels[j] == labels[i]) {
+                    size++;
+                    check(sets.find(j) == sets.find(i), "find of the same set");
+                } else {
+                    check(sets.find(j) != sets.find(i), "find of different sets");
+                }
+            }
+            check(sets.getSetSize(i) == size, "getSetSize");
+            if (sets.find(i) == i) {
+                count++;
+            }
+        }
+        check(sets.getSetCount() == count, "getSetCount");
+    }
+
+    /**
+     * Checks that the action throws an IndexOutOfBoundsException.
+     *
+     * @param action the action to run
+     * @param message the failure message
+     */
+    private static void expectOutOfBounds(Runnable action, String message) {
+        try {
+            action.run();
+        } catch (IndexOutOfBoundsException e) {
+            return;
+        }
+        throw new AssertionError(message + " was accepted");
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
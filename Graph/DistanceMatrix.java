@@ -0,0 +1,86 @@
+public class DistanceMatrix<T> {
+
+    /**
+     * The distance stored for a pair of vertices with no path between them.
+     */
+    public static final int INFINITY = Integer.MAX_VALUE;
+
+    private IndexedGraph<T> graph;
+    private int[] distances;
+
+    /**
+     * Creates a distance matrix over the vertices of the indexed graph.
+     *
+     * @param graph the indexed graph the matrix belongs to
+     * @param distances the row-major V x V distances, where the distance
+     *                  from vertex i to vertex j is at i * V + j
+     */
+    DistanceMatrix(IndexedGraph<T> graph, int[] distances) {
+        this.graph = graph;
+        this.distances = distances;
+    }
+
+    /**
+     * Gets the shortest distance between two vertices.
+     *
+     * @param from the vertex the path starts at
+     * @param to the vertex the path ends at
+     * @return the shortest distance, or INFINITY if no path exists
+     * @throws IllegalArgumentException if either vertex is null or not in
+     * the graph
+     */
+    public int getDistance(Vertex<T> from, Vertex<T> to) {
+        int i = from == null ? -1 : graph.indexOf(from);
+        int j = to == null ? -1 : graph.indexOf(to);
+        if (i == -1 || j == -1) {
+            throw new IllegalArgumentException("Vertices must be in the graph.");
+        }
+        return distances[i * graph.size() + j];
+    }
+
+    /**
+     * Gets the shortest distance between two vertices by their indices in
+     * the IndexedGraph returned by getIndexedGraph.
+     *
+     * @param from the index of the vertex the path starts at
+     * @param to the index of the vertex the path ends at
+     * @return the shortest distance, or INFINITY if no path exists
+     * @throws IndexOutOfBoundsException if either index is not in
+     * [0, size())
+     */
+    public int getDistance(int from, int to) {
+        int n = graph.size();
+        if (from < 0 || from >= n || to < 0 || to >= n) {
+            throw new IndexOutOfBoundsException("Index is out of bounds for size " + n);
+        }
+        return distances[from * n + to];
+    }
+
+    /**
+     * Gets the number of vertices, which is the number of rows and columns.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return graph.size();
+    }
+
+    /**
+     * Gets the row-major distances: the distance from vertex i to vertex j
+     * is at i * size() + j. The array must not be modified.
+     *
+     * @return the distances
+     */
+    public int[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * Gets the indexed graph the row and column indices refer to.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getIndexedGraph() {
+        return graph;
+    }
+}
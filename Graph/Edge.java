@@ -63,7 +63,7 @@ public class Edge<T> implements Comparable<Edge<? super T>> {
 
     @Override
     public int hashCode() {
-        return u.hashCode() ^ v.hashCode() ^ weight;
+        return (31 * u.hashCode() + v.hashCode()) * 31 + weight;
     }
 
     @Override
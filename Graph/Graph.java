@@ -10,6 +10,7 @@ public class Graph<T> {
     private Set<Vertex<T>> vertices;
     private Set<Edge<T>> edges;
     private Map<Vertex<T>, List<VertexDistance<T>>> adjList;
+    private volatile IndexedGraph<T> indexedGraph;
 
     /**
      * Builds the graph from a set of vertices and an edge list. All edges in
@@ -17,6 +18,11 @@ public class Graph<T> {
      * undirected edge, the edge set must contain both the forward and backwards
      * edges.
      *
+     * The adjacency list of every vertex lists its edges in the iteration
+     * order of the edge set, and bfs and dfs visit neighbors in that order.
+     * For a HashSet the order follows Edge.hashCode, so pass a LinkedHashSet
+     * to choose the order.
+     *
      * @param vertices the vertex set
      * @param edges the edge set
      * @throws IllegalArgumentException if any of the arguments are null or if
@@ -45,6 +51,68 @@ public class Graph<T> {
         }
     }
 
+    /**
+     * Builds the graph from an indexed snapshot, such as one loaded by
+     * GraphIO.readBinary or GraphIO.readEdgeListIndexed, without going
+     * through an edge set. The adjacency list of every vertex lists its
+     * edges in the order of the snapshot. A Graph cannot hold parallel
+     * edges, so only the first of several equal edges is kept.
+     *
+     * When the snapshot has no parallel edges it is kept as the graph's
+     * indexed snapshot, so the algorithms run on it without rebuilding it.
+     *
+     * @param graph the indexed graph to build the graph from
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public Graph(IndexedGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        int n = graph.size();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        vertices = new HashSet<>(2 * n);
+        edges = new HashSet<>(2 * graph.edgeCount());
+        adjList = new HashMap<>(2 * n);
+        for (int i = 0; i < n; i++) {
+            Vertex<T> u = graph.getVertex(i);
+            List<VertexDistance<T>> adjVertices =
+                new ArrayList<>(offsets[i + 1] - offsets[i]);
+            vertices.add(u);
+            adjList.put(u, adjVertices);
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                Vertex<T> v = graph.getVertex(targets[e]);
+                if (edges.add(new Edge<>(u, v, weights[e]))) {
+                    adjVertices.add(new VertexDistance<>(v, weights[e]));
+                }
+            }
+        }
+        if (edges.size() == graph.edgeCount()) {
+            indexedGraph = graph;
+        }
+    }
+
+    /**
+     * Builds the graph around collections that have already been filled in,
+     * without copying them. The caller must guarantee that the adjacency
+     * list has an entry for every vertex and one VertexDistance for every
+     * edge, and must not keep using the collections afterwards.
+     *
+     * This is used by GraphIO so that loading a large edge list holds a
+     * single copy of the graph in memory.
+     *
+     * @param vertices the vertex set
+     * @param edges the edge set
+     * @param adjList the adjacency list built from the edge set
+     */
+    Graph(Set<Vertex<T>> vertices, Set<Edge<T>> edges,
+          Map<Vertex<T>, List<VertexDistance<T>>> adjList) {
+        this.vertices = vertices;
+        this.edges = edges;
+        this.adjList = adjList;
+    }
+
     /**
      * Gets the vertex set.
      *
@@ -71,4 +139,32 @@ public class Graph<T> {
     public Map<Vertex<T>, List<VertexDistance<T>>> getAdjList() {
         return adjList;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the int-indexed snapshot of the graph, building it the first time
+     * it is requested. Every vertex is hashed once to intern it to a dense
+     * index, and every later call reuses the snapshot, so algorithms that
+     * run on it pay O(V) hashing per graph instead of O(E) per query.
+     *
+     * Concurrent first calls may each build a snapshot; they are identical
+     * and one of them is kept.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getIndexedGraph() {
+        IndexedGraph<T> indexed = indexedGraph;
+        if (indexed == null) {
+            indexed = new IndexedGraph<>(this);
+            indexedGraph = indexed;
+        }
+        return indexed;
+    }
+
+    /**
+     * Discards the indexed snapshot so the next call to getIndexedGraph
+     * rebuilds it. Must be called after the vertices or edges change.
+     */
+    void invalidateIndexedGraph() {
+        indexedGraph = null;
+    }
+}
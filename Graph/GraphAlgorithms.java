@@ -1,12 +1,23 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class GraphAlgorithms {
 
@@ -42,25 +53,30 @@ public class GraphAlgorithms {
             throw new java.lang.IllegalArgumentException("The start vertex should be in the graph");
         }
 
-        ArrayList<Vertex<T>> visited = new ArrayList<>();
-        visited.add(start);
-        if (graph.getVertices().size() == 1) {
-            return visited;
-        }
-
-        Queue<Vertex<T>> queueCheck = new LinkedList<>();
-        Map<Vertex<T>, List<VertexDistance<T>>> adjacent = graph.getAdjList();
-        queueCheck.add(start);
-        while (!queueCheck.isEmpty()) {
-            Vertex<T> v = queueCheck.remove();
-            List<VertexDistance<T>> adjVertices = adjacent.get(v);
-            for (VertexDistance<T> neighborVertex : adjVertices) {
-                if (!visited.contains(neighborVertex.getVertex())) {
-                    visited.add(neighborVertex.getVertex());
-                    queueCheck.add(neighborVertex.getVertex());
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        boolean[] seen = new boolean[indexed.size()];
+        int[] queue = new int[indexed.size()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = indexed.indexOf(start);
+        seen[queue[0]] = true;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (!seen[w]) {
+                    seen[w] = true;
+                    queue[tail++] = w;
                 }
             }
         }
+
+        ArrayList<Vertex<T>> visited = new ArrayList<>(tail);
+        for (int i = 0; i < tail; i++) {
+            visited.add(indexed.getVertex(queue[i]));
+        }
         return visited;
     }
 
@@ -97,8 +113,9 @@ public class GraphAlgorithms {
      * When exploring a vertex, explore in the order of neighbors returned by
      * the adjacency list. Failure to do so may cause you to lose points.
      *
-     * *NOTE* You MUST implement this method recursively, or else you will lose
-     * all points for this method.
+     * The search keeps its own stack of vertices and edge positions instead
+     * of recursing, so a long path cannot overflow the call stack. It visits
+     * the vertices in the same order as the recursive search.
      *
      * You may import/use java.util.Set, java.util.List, and
      * any classes that implement the aforementioned interfaces, as long as they
@@ -124,33 +141,51 @@ public class GraphAlgorithms {
         if (!graph.getVertices().contains(start)) {
             throw new java.lang.IllegalArgumentException("The start vertex should be in the graph");
         }
-        ArrayList<Vertex<T>> visited = new ArrayList<>();
-        if (graph.getVertices().size() == 1) {
-            visited.add(start);
-        } else {
-            helpDfs(start, graph, visited);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        IntList order = new IntList();
+        helpDfs(indexed.indexOf(start), indexed, new boolean[indexed.size()], order);
+        ArrayList<Vertex<T>> visited = new ArrayList<>(order.size());
+        for (int i = 0; i < order.size(); i++) {
+            visited.add(indexed.getVertex(order.get(i)));
         }
         return visited;
     }
 
     /**
      * A private method that helps performing a depth first search
-     *  and save the visited vertex to the array list
+     *  and save the visited vertex indices to the list. Each level of the
+     * stack holds a vertex and the position of the next out-edge to follow
+     * from it, which is what a recursive call would keep in its frame.
      *
-     * @param <T> the generic typing of the data
-     * @param start the vertex to begin the dfs on
-     * @param graph the graph to search through
-     * @param visited array list of vertices in visited order
-     * @throws IllegalArgumentException if the vertex is null
+     * @param start the index of the vertex to begin the dfs on
+     * @param graph the indexed graph to search through
+     * @param seen whether each vertex has been visited
+     * @param order list of vertex indices in visited order
      */
-    private static <T> void helpDfs(Vertex<T> start, Graph<T> graph, ArrayList<Vertex<T>> visited) {
-        checkStartVertex(start);
-        visited.add(start);
-        Map<Vertex<T>, List<VertexDistance<T>>> adjacent = graph.getAdjList();
-        List<VertexDistance<T>> adjVertices = adjacent.get(start);
-        for (VertexDistance<T> neighborVertex : adjVertices) {
-            if (!visited.contains(neighborVertex.getVertex())) {
-                helpDfs(neighborVertex.getVertex(), graph, visited);
+    private static void helpDfs(int start, IndexedGraph<?> graph, boolean[] seen,
+                                IntList order) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] stack = new int[graph.size()];
+        int[] next = new int[graph.size()];
+        int top = 0;
+        stack[0] = start;
+        next[0] = offsets[start];
+        seen[start] = true;
+        order.add(start);
+        while (top >= 0) {
+            int v = stack[top];
+            if (next[top] == offsets[v + 1]) {
+                top--;
+                continue;
+            }
+            int w = targets[next[top]++];
+            if (!seen[w]) {
+                seen[w] = true;
+                order.add(w);
+                top++;
+                stack[top] = w;
+                next[top] = offsets[w];
             }
         }
     }
@@ -195,35 +230,60 @@ public class GraphAlgorithms {
             throw new java.lang.IllegalArgumentException("The start vertex should be in the graph");
         }
 
-        HashMap<Vertex<T>, Integer> distanceMap = new HashMap<>();
-        for (Vertex<T> oneVertex : graph.getVertices()) {
-            distanceMap.put(oneVertex, Integer.MAX_VALUE);
-        }
-        if (graph.getVertices().size() == 1) {
-            distanceMap.put(start, 0);
-            return distanceMap;
-        }
-
-        ArrayList<Vertex<T>> visited = new ArrayList<>();
-        PriorityQueue<VertexDistance<T>> pq = new PriorityQueue<>();
-        Map<Vertex<T>, List<VertexDistance<T>>> adjacent = graph.getAdjList();
-
-        pq.add(new VertexDistance<T>(start, 0));  // Can I not initiate a new Vertex distance?
-        while (!pq.isEmpty() && visited.size() != graph.getVertices().size()) {
-            VertexDistance<T> vd = pq.remove();
-            if (!visited.contains(vd.getVertex())) {
-                visited.add(vd.getVertex());
-                distanceMap.put(vd.getVertex(), vd.getDistance());
-                List<VertexDistance<T>> adjVertices = adjacent.get(vd.getVertex());
-                for (VertexDistance<T> neighborVertex : adjVertices) {
-                    if (!visited.contains(neighborVertex.getVertex())) {
-                        pq.add(new VertexDistance<T>(neighborVertex.getVertex(),
-                                vd.getDistance() + neighborVertex.getDistance()));
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int[] dist = new int[indexed.size()];
+        dijkstras(indexed, indexed.indexOf(start), dist, new boolean[indexed.size()],
+            new LongMinHeap());
+
+        HashMap<Vertex<T>, Integer> distanceMap = new HashMap<>(2 * dist.length);
+        for (int i = 0; i < dist.length; i++) {
+            distanceMap.put(indexed.getVertex(i), dist[i]);
+        }
+        return distanceMap;
+    }
+
+    /**
+     * A private method that runs Dijkstra's algorithm on vertex indices,
+     * keeping (distance, vertex) pairs packed into longs in a primitive heap
+     * and the visited set in a boolean array. It stops once every vertex has
+     * been visited or the heap is empty.
+     *
+     * @param graph the indexed graph
+     * @param source the index of the source vertex
+     * @param dist receives the distance to every vertex, or Integer.MAX_VALUE
+     * @param visited scratch space of length graph.size(), cleared here
+     * @param pq scratch heap, cleared here
+     */
+    private static void dijkstras(IndexedGraph<?> graph, int source, int[] dist,
+                                  boolean[] visited, LongMinHeap pq) {
+        int n = graph.size();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(visited, false);
+        pq.clear();
+        int visitedCount = 0;
+
+        pq.add(LongMinHeap.pack(0, source));
+        while (!pq.isEmpty() && visitedCount != n) {
+            long vd = pq.remove();
+            int u = LongMinHeap.index(vd);
+            if (!visited[u]) {
+                visited[u] = true;
+                visitedCount++;
+                int du = LongMinHeap.key(vd);
+                dist[u] = du;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    long candidate = (long) du + weights[e];
+                    if (!visited[v] && candidate < dist[v]) {
+                        dist[v] = (int) candidate;
+                        pq.add(LongMinHeap.pack(dist[v], v));
                     }
                 }
             }
         }
-        return distanceMap;
     }
 
     /**
@@ -269,19 +329,30 @@ public class GraphAlgorithms {
      */
     public static <T> Set<Edge<T>> kruskals(Graph<T> graph) {
         checkGraph(graph);
-        DisjointSet<Vertex<T>> djSet = new DisjointSet<>();
-        HashSet<Edge<T>> edgeSet = new HashSet<>();
-        PriorityQueue<Edge<T>> pq = new PriorityQueue<>(graph.getEdges());
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] weights = indexed.getWeights();
+        int[] sources = new int[indexed.edgeCount()];
+        long[] byWeight = new long[indexed.edgeCount()];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                sources[e] = u;
+                byWeight[e] = ((long) weights[e] << 32) | e;
+            }
+        }
+        Arrays.sort(byWeight);
 
-        while (!pq.isEmpty() && edgeSet.size() < (graph.getEdges().size() - 1)) {
-            Edge<T> edge = pq.remove();
-            Vertex<T> startVertex = edge.getU();
-            Vertex<T> endVertex = edge.getV();
-            if (djSet.find(startVertex) != djSet.find(endVertex)) {
-                djSet.union(djSet.find(startVertex), djSet.find(endVertex));
-                Edge<T> reverseEdge = new Edge<>(endVertex, startVertex, edge.getWeight());
-                edgeSet.add(edge);
-                edgeSet.add(reverseEdge);
+        IntDisjointSet djSet = new IntDisjointSet(n);
+        HashSet<Edge<T>> edgeSet = new HashSet<>();
+        for (int i = 0; i < byWeight.length && edgeSet.size() < 2 * (n - 1); i++) {
+            int e = (int) byWeight[i];
+            if (djSet.union(sources[e], targets[e])) {
+                Vertex<T> startVertex = indexed.getVertex(sources[e]);
+                Vertex<T> endVertex = indexed.getVertex(targets[e]);
+                edgeSet.add(new Edge<>(startVertex, endVertex, weights[e]));
+                edgeSet.add(new Edge<>(endVertex, startVertex, weights[e]));
             }
         }
         if (edgeSet.size() < 2 * (graph.getVertices().size() - 1)) {
@@ -289,4 +360,1475 @@ public class GraphAlgorithms {
         }
         return edgeSet;
     }
-}
\ No newline at end of file
+
+    /**
+     * The number of frontier vertices below which a relaxation task is run
+     * sequentially instead of being split further.
+     */
+    private static final int RELAX_THRESHOLD = 256;
+
+    /**
+     * Finds the single-source shortest distance between the start vertex and
+     * all vertices using delta-stepping with a delta chosen from the graph.
+     *
+     * The delta is the maximum edge weight divided by the average out-degree,
+     * which keeps the number of buckets small on dense graphs while still
+     * giving each bucket enough work to relax in parallel.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the search on (source)
+     * @param graph the graph we are searching
+     * @return a map of the shortest distances from start to every
+     * other node in the graph, or Integer.MAX_VALUE if no path exists
+     * @throws IllegalArgumentException if any input is null, if start
+     *                                  doesn't exist in the graph, or if any
+     *                                  edge weight is negative
+     * @see #deltaStepping(Vertex, Graph, int)
+     */
+    public static <T> Map<Vertex<T>, Integer> deltaStepping(Vertex<T> start,
+                                                            Graph<T> graph) {
+        checkGraph(graph);
+        int maxWeight = 1;
+        for (Edge<T> edge : graph.getEdges()) {
+            maxWeight = Math.max(maxWeight, edge.getWeight());
+        }
+        int vertexCount = Math.max(1, graph.getVertices().size());
+        int averageDegree = Math.max(1, graph.getEdges().size() / vertexCount);
+        return deltaStepping(start, graph, Math.max(1, maxWeight / averageDegree));
+    }
+
+    /**
+     * Finds the single-source shortest distance between the start vertex and
+     * all vertices using parallel delta-stepping (you may assume non-negative
+     * edge weights). The output is the same as dijkstras.
+     *
+     * Tentative distances are partitioned into buckets of width delta. The
+     * smallest non-empty bucket is emptied by repeatedly relaxing the light
+     * edges (weight at most delta) of its vertices, which may refill it,
+     * and then the heavy edges of every vertex removed from it are relaxed
+     * once. Each relaxation phase is split across the common ForkJoinPool
+     * and lowers distances with a compare-and-set, so every vertex of a
+     * bucket is processed concurrently.
+     *
+     * A delta of 1 behaves like Dijkstra's algorithm, and a delta larger
+     * than every edge weight behaves like Bellman-Ford.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the search on (source)
+     * @param graph the graph we are searching
+     * @param delta the width of each distance bucket
+     * @return a map of the shortest distances from start to every
+     * other node in the graph, or Integer.MAX_VALUE if no path exists
+     * @throws IllegalArgumentException if any input is null, if start
+     *                                  doesn't exist in the graph, if delta
+     *                                  is not positive, or if any edge weight
+     *                                  is negative
+     */
+    public static <T> Map<Vertex<T>, Integer> deltaStepping(Vertex<T> start,
+                                                            Graph<T> graph,
+                                                            int delta) {
+        checkGraph(graph);
+        checkStartVertex(start);
+        if (!graph.getVertices().contains(start)) {
+            throw new java.lang.IllegalArgumentException("The start vertex should be in the graph");
+        }
+        if (delta < 1) {
+            throw new java.lang.IllegalArgumentException("The delta should be positive");
+        }
+
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        for (int weight : indexed.getWeights()) {
+            if (weight < 0) {
+                throw new java.lang.IllegalArgumentException("The edge weights should not be negative");
+            }
+        }
+        int n = indexed.size();
+        AtomicIntegerArray dist = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            dist.set(i, Integer.MAX_VALUE);
+        }
+        int source = indexed.indexOf(start);
+        dist.set(source, 0);
+
+        TreeMap<Integer, IntList> buckets = new TreeMap<>();
+        buckets.put(0, new IntList());
+        buckets.get(0).add(source);
+        int[] marks = new int[n];
+        int stamp = 0;
+        while (!buckets.isEmpty()) {
+            int i = buckets.firstKey();
+            IntList removed = new IntList();
+            IntList bucket;
+            while ((bucket = buckets.remove(i)) != null) {
+                stamp++;
+                IntList frontier = new IntList(bucket.size());
+                for (int j = 0; j < bucket.size(); j++) {
+                    int v = bucket.get(j);
+                    if (marks[v] != stamp && dist.get(v) / delta == i) {
+                        marks[v] = stamp;
+                        frontier.add(v);
+                    }
+                }
+                removed.addAll(frontier);
+                addToBuckets(buckets, relax(indexed, dist, frontier, delta, true),
+                    dist, delta);
+            }
+            stamp++;
+            IntList settled = new IntList(removed.size());
+            for (int j = 0; j < removed.size(); j++) {
+                int v = removed.get(j);
+                if (marks[v] != stamp) {
+                    marks[v] = stamp;
+                    settled.add(v);
+                }
+            }
+            addToBuckets(buckets, relax(indexed, dist, settled, delta, false),
+                dist, delta);
+        }
+
+        HashMap<Vertex<T>, Integer> distanceMap = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            distanceMap.put(indexed.getVertex(i), dist.get(i));
+        }
+        return distanceMap;
+    }
+
+    /**
+     * A private method that relaxes the light or heavy edges of the
+     * frontier, on the common ForkJoinPool if the frontier is large enough
+     * to split and on the calling thread otherwise.
+     *
+     * @param graph the indexed graph
+     * @param dist the tentative distances
+     * @param frontier the vertices to relax the edges of
+     * @param delta the light/heavy edge boundary
+     * @param light true to relax edges with weight at most delta, false to
+     *              relax the rest
+     * @return the vertices whose tentative distance was lowered
+     */
+    private static IntList relax(IndexedGraph<?> graph, AtomicIntegerArray dist,
+                                 IntList frontier, int delta, boolean light) {
+        if (frontier.isEmpty()) {
+            return frontier;
+        }
+        RelaxTask task = new RelaxTask(graph, dist, frontier.toArray(), 0,
+            frontier.size(), delta, light);
+        return frontier.size() > RELAX_THRESHOLD
+            ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+    }
+
+    /**
+     * A private method that puts every updated vertex into the bucket of its
+     * new tentative distance. Only non-empty buckets are stored, keyed by
+     * distance / delta, so the search jumps straight to the next one however
+     * far apart the distances are. Stale entries are left behind and skipped
+     * when their bucket is emptied.
+     *
+     * @param buckets the non-empty buckets keyed by distance / delta
+     * @param updated the vertices whose distance was lowered
+     * @param dist the tentative distances
+     * @param delta the width of each bucket
+     */
+    private static void addToBuckets(TreeMap<Integer, IntList> buckets, IntList updated,
+                                     AtomicIntegerArray dist, int delta) {
+        for (int j = 0; j < updated.size(); j++) {
+            int v = updated.get(j);
+            buckets.computeIfAbsent(dist.get(v) / delta, key -> new IntList()).add(v);
+        }
+    }
+
+    /**
+     * Relaxes either the light or the heavy out-edges of a range of frontier
+     * vertices, splitting the range in half until it is small enough to run
+     * sequentially. Returns the vertices whose tentative distance it lowered.
+     */
+    private static final class RelaxTask extends RecursiveTask<IntList> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IndexedGraph<?> graph;
+        private final AtomicIntegerArray dist;
+        private final int[] frontier;
+        private final int low;
+        private final int high;
+        private final int delta;
+        private final boolean light;
+
+        /**
+         * Creates a task relaxing frontier[low, high).
+         *
+         * @param graph the indexed graph
+         * @param dist the tentative distances
+         * @param frontier the vertices to relax the edges of
+         * @param low the first index of the range (inclusive)
+         * @param high the last index of the range (exclusive)
+         * @param delta the light/heavy edge boundary
+         * @param light true to relax edges with weight at most delta, false
+         *              to relax the rest
+         */
+        RelaxTask(IndexedGraph<?> graph, AtomicIntegerArray dist, int[] frontier,
+                  int low, int high, int delta, boolean light) {
+            this.graph = graph;
+            this.dist = dist;
+            this.frontier = frontier;
+            this.low = low;
+            this.high = high;
+            this.delta = delta;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (high - low > RELAX_THRESHOLD) {
+                int mid = (low + high) >>> 1;
+                RelaxTask left = new RelaxTask(graph, dist, frontier, low, mid,
+                    delta, light);
+                left.fork();
+                IntList right = new RelaxTask(graph, dist, frontier, mid, high,
+                    delta, light).compute();
+                IntList updated = left.join();
+                updated.addAll(right);
+                return updated;
+            }
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] weights = graph.getWeights();
+            IntList updated = new IntList();
+            for (int i = low; i < high; i++) {
+                int u = frontier[i];
+                int du = dist.get(u);
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int w = weights[e];
+                    if ((w <= delta) != light) {
+                        continue;
+                    }
+                    long candidate = (long) du + w;
+                    if (candidate >= Integer.MAX_VALUE) {
+                        continue;
+                    }
+                    int v = targets[e];
+                    int current = dist.get(v);
+                    while (candidate < current) {
+                        if (dist.compareAndSet(v, current, (int) candidate)) {
+                            updated.add(v);
+                            break;
+                        }
+                        current = dist.get(v);
+                    }
+                }
+            }
+            return updated;
+        }
+    }
+
+    /**
+     * Finds the connected components of the graph, ignoring the direction of
+     * the edges, with a single pass of union-find over the edges.
+     *
+     * Every vertex starts in its own set of an IntDisjointSet and every edge
+     * merges the sets of its two vertices, so the whole graph is processed in
+     * O((V + E) * alpha(V)) without running a search from each vertex. The
+     * edges are read from the compressed arrays of an IndexedGraph, so no
+     * Vertex is hashed per edge.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to find the components of
+     * @return the component id of every vertex and the size of every
+     * component
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> ConnectedComponents<T> connectedComponents(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        IntDisjointSet djSet = new IntDisjointSet(n);
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                djSet.union(u, targets[e]);
+            }
+        }
+        int[] representatives = new int[n];
+        for (int i = 0; i < n; i++) {
+            representatives[i] = djSet.find(i);
+        }
+        return new ConnectedComponents<>(indexed, representatives);
+    }
+
+    /**
+     * Finds the connected components of the graph, ignoring the direction of
+     * the edges, with parallel label propagation.
+     *
+     * Every vertex starts labelled with its own index. Each round scans every
+     * edge in parallel on the common ForkJoinPool and lowers the labels of
+     * both endpoints to the smaller of the two, until a round changes
+     * nothing. Every component then carries the smallest index in it. The
+     * number of rounds is bounded by the diameter of the largest component,
+     * so this suits low-diameter graphs; connectedComponents is better for
+     * long chains.
+     *
+     * The component ids are the same as the ones connectedComponents gives.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to find the components of
+     * @return the component id of every vertex and the size of every
+     * component
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> ConnectedComponents<T> labelPropagationComponents(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        AtomicIntegerArray labels = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            labels.set(i, i);
+        }
+        AtomicBoolean changed = new AtomicBoolean(true);
+        while (changed.get()) {
+            changed.set(false);
+            ForkJoinPool.commonPool().invoke(
+                new PropagateTask(indexed, labels, changed, 0, n));
+        }
+        int[] representatives = new int[n];
+        for (int i = 0; i < n; i++) {
+            representatives[i] = labels.get(i);
+        }
+        return new ConnectedComponents<>(indexed, representatives);
+    }
+
+    /**
+     * A private method that lowers a label to the given value if it is
+     * smaller, retrying if another thread changes it concurrently.
+     *
+     * @param labels the labels
+     * @param index the label to lower
+     * @param value the candidate value
+     * @return true if the label was lowered
+     */
+    private static boolean lowerLabel(AtomicIntegerArray labels, int index, int value) {
+        int current = labels.get(index);
+        while (value < current) {
+            if (labels.compareAndSet(index, current, value)) {
+                return true;
+            }
+            current = labels.get(index);
+        }
+        return false;
+    }
+
+    /**
+     * Runs one round of label propagation over the out-edges of a range of
+     * vertices, splitting the range in half until it is small enough to run
+     * sequentially.
+     */
+    private static final class PropagateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IndexedGraph<?> graph;
+        private final AtomicIntegerArray labels;
+        private final AtomicBoolean changed;
+        private final int low;
+        private final int high;
+
+        /**
+         * Creates a task propagating labels across the edges of vertices
+         * [low, high).
+         *
+         * @param graph the indexed graph
+         * @param labels the labels
+         * @param changed set to true if any label is lowered
+         * @param low the first vertex of the range (inclusive)
+         * @param high the last vertex of the range (exclusive)
+         */
+        PropagateTask(IndexedGraph<?> graph, AtomicIntegerArray labels,
+                      AtomicBoolean changed, int low, int high) {
+            this.graph = graph;
+            this.labels = labels;
+            this.changed = changed;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            int[] offsets = graph.getOffsets();
+            if (high - low > RELAX_THRESHOLD
+                && offsets[high] - offsets[low] > RELAX_THRESHOLD) {
+                int mid = (low + high) >>> 1;
+                invokeAll(new PropagateTask(graph, labels, changed, low, mid),
+                    new PropagateTask(graph, labels, changed, mid, high));
+                return;
+            }
+            int[] targets = graph.getTargets();
+            boolean lowered = false;
+            for (int u = low; u < high; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    int label = Math.min(labels.get(u), labels.get(v));
+                    lowered |= lowerLabel(labels, u, label);
+                    lowered |= lowerLabel(labels, v, label);
+                }
+            }
+            if (lowered) {
+                changed.set(true);
+            }
+        }
+    }
+
+    /**
+     * Finds the connected components of the graph, ignoring the direction of
+     * the edges, with union-find run in parallel.
+     *
+     * The vertices are split across the common ForkJoinPool and every task
+     * unions the endpoints of its vertices' edges into one shared
+     * ConcurrentDisjointSet.
+     *
+     * The component ids are the same as the ones connectedComponents gives.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to find the components of
+     * @return the component id of every vertex and the size of every
+     * component
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> ConnectedComponents<T> parallelConnectedComponents(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        ConcurrentDisjointSet djSet = new ConcurrentDisjointSet(n);
+        ParallelFor.run(0, n, (low, high) -> {
+            for (int u = low; u < high; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    djSet.union(u, targets[e]);
+                }
+            }
+        });
+        int[] representatives = new int[n];
+        ParallelFor.run(0, n, (low, high) -> {
+            for (int i = low; i < high; i++) {
+                representatives[i] = djSet.find(i);
+            }
+        });
+        return new ConnectedComponents<>(indexed, representatives);
+    }
+
+    /**
+     * Runs Boruvka's algorithm on the given graph in parallel and returns the
+     * Minimal Spanning Tree (MST) in the same form as kruskals: a set of
+     * Edges containing every tree edge and its reverse, or null if the graph
+     * is disconnected.
+     *
+     * You may assume that the passed in graph is undirected.
+     *
+     * Each round, every vertex scans its edges in parallel and offers the
+     * lightest edge leaving its component to the component's root with a
+     * compare-and-set; then every root's chosen edge is added by a union on
+     * a shared ConcurrentDisjointSet. Each round at least halves the number
+     * of components, so there are O(log V) rounds of O(E) parallel work.
+     * Ties in weight are broken by the endpoints so that no cycle can form.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph we are applying Boruvka's to
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> Set<Edge<T>> boruvkas(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] weights = indexed.getWeights();
+        int[] sources = new int[indexed.edgeCount()];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                sources[e] = u;
+            }
+        }
+
+        ConcurrentDisjointSet djSet = new ConcurrentDisjointSet(n);
+        AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+        boolean[] inTree = new boolean[indexed.edgeCount()];
+        AtomicInteger merged = new AtomicInteger();
+        int treeSize = 0;
+        int lastMerged = -1;
+        while (lastMerged != 0) {
+            ParallelFor.run(0, n, (low, high) -> {
+                for (int i = low; i < high; i++) {
+                    cheapest.set(i, -1);
+                }
+            });
+            ParallelFor.run(0, n, (low, high) -> {
+                for (int u = low; u < high; u++) {
+                    int uRoot = djSet.find(u);
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        if (uRoot != djSet.find(targets[e])) {
+                            offerCheapest(cheapest, uRoot, e, sources, targets, weights);
+                        }
+                    }
+                }
+            });
+            merged.set(0);
+            ParallelFor.run(0, n, (low, high) -> {
+                for (int root = low; root < high; root++) {
+                    int e = cheapest.get(root);
+                    if (e != -1 && djSet.union(sources[e], targets[e])) {
+                        inTree[e] = true;
+                        merged.incrementAndGet();
+                    }
+                }
+            });
+            lastMerged = merged.get();
+            treeSize += lastMerged;
+        }
+
+        if (treeSize < n - 1) {
+            return null;
+        }
+        HashSet<Edge<T>> edgeSet = new HashSet<>();
+        for (int e = 0; e < inTree.length; e++) {
+            if (inTree[e]) {
+                Vertex<T> startVertex = indexed.getVertex(sources[e]);
+                Vertex<T> endVertex = indexed.getVertex(targets[e]);
+                edgeSet.add(new Edge<>(startVertex, endVertex, weights[e]));
+                edgeSet.add(new Edge<>(endVertex, startVertex, weights[e]));
+            }
+        }
+        return edgeSet;
+    }
+
+    /**
+     * A private method that makes edge e the cheapest edge of the component
+     * root if it is lighter than the current one, retrying if another thread
+     * changes it concurrently.
+     *
+     * @param cheapest the index of the cheapest edge of every root, or -1
+     * @param root the root of the component
+     * @param e the candidate edge
+     * @param sources the start vertex of every edge
+     * @param targets the end vertex of every edge
+     * @param weights the weight of every edge
+     */
+    private static void offerCheapest(AtomicIntegerArray cheapest, int root, int e,
+                                      int[] sources, int[] targets, int[] weights) {
+        int current = cheapest.get(root);
+        while (current == -1 || lighter(e, current, sources, targets, weights)) {
+            if (cheapest.compareAndSet(root, current, e)) {
+                return;
+            }
+            current = cheapest.get(root);
+        }
+    }
+
+    /**
+     * A private method that orders edges by weight, then by their smaller
+     * endpoint, then by their larger endpoint. An edge and its reverse are
+     * equal in this order, and any other two edges are not.
+     *
+     * @param first the first edge
+     * @param second the second edge
+     * @param sources the start vertex of every edge
+     * @param targets the end vertex of every edge
+     * @param weights the weight of every edge
+     * @return true if the first edge is strictly lighter
+     */
+    private static boolean lighter(int first, int second, int[] sources,
+                                   int[] targets, int[] weights) {
+        if (weights[first] != weights[second]) {
+            return weights[first] < weights[second];
+        }
+        int firstLow = Math.min(sources[first], targets[first]);
+        int secondLow = Math.min(sources[second], targets[second]);
+        if (firstLow != secondLow) {
+            return firstLow < secondLow;
+        }
+        return Math.max(sources[first], targets[first])
+            < Math.max(sources[second], targets[second]);
+    }
+
+    /**
+     * Finds the strongly connected components of the graph with an iterative
+     * version of Tarjan's algorithm. Two vertices are in the same component
+     * if and only if each can reach the other along directed edges.
+     *
+     * The depth first search keeps its own stack of vertices and a cursor
+     * into each vertex's edges instead of recursing, so it runs in O(V + E)
+     * on graphs with millions of vertices without overflowing the stack.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to find the components of
+     * @return the component id of every vertex and the size of every
+     * component
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> ConnectedComponents<T> stronglyConnectedComponents(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] order = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] representatives = new int[n];
+        Arrays.fill(order, -1);
+        IntList callStack = new IntList();
+        IntList componentStack = new IntList();
+        int counter = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (order[start] != -1) {
+                continue;
+            }
+            order[start] = counter;
+            low[start] = counter++;
+            cursor[start] = offsets[start];
+            onStack[start] = true;
+            componentStack.add(start);
+            callStack.add(start);
+            while (!callStack.isEmpty()) {
+                int v = callStack.get(callStack.size() - 1);
+                if (cursor[v] < offsets[v + 1]) {
+                    int w = targets[cursor[v]++];
+                    if (order[w] == -1) {
+                        order[w] = counter;
+                        low[w] = counter++;
+                        cursor[w] = offsets[w];
+                        onStack[w] = true;
+                        componentStack.add(w);
+                        callStack.add(w);
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], order[w]);
+                    }
+                } else {
+                    callStack.removeLast();
+                    if (!callStack.isEmpty()) {
+                        int parent = callStack.get(callStack.size() - 1);
+                        low[parent] = Math.min(low[parent], low[v]);
+                    }
+                    if (low[v] == order[v]) {
+                        int w;
+                        do {
+                            w = componentStack.removeLast();
+                            onStack[w] = false;
+                            representatives[w] = v;
+                        } while (w != v);
+                    }
+                }
+            }
+        }
+        return new ConnectedComponents<>(indexed, representatives);
+    }
+
+    /**
+     * Sorts the vertices of the graph topologically with Kahn's algorithm, so
+     * that for every edge (u, v), u comes before v.
+     *
+     * Vertices with no remaining incoming edges are repeatedly removed in
+     * first in, first out order, starting from the graph's vertex order. This
+     * runs in O(V + E) without recursion. If the graph has a cycle, the
+     * vertices on it never lose all of their incoming edges, so no ordering
+     * exists; use findCycle to report one.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to sort
+     * @return the vertices in topological order, or null if the graph has a
+     * cycle
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> List<Vertex<T>> topologicalSort(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] inDegree = new int[n];
+        for (int target : targets) {
+            inDegree[target]++;
+        }
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                queue[tail++] = v;
+            }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (--inDegree[targets[e]] == 0) {
+                    queue[tail++] = targets[e];
+                }
+            }
+        }
+        if (tail < n) {
+            return null;
+        }
+        ArrayList<Vertex<T>> sorted = new ArrayList<>(n);
+        for (int v : queue) {
+            sorted.add(indexed.getVertex(v));
+        }
+        return sorted;
+    }
+
+    /**
+     * Finds a directed cycle in the graph, such as the one that prevents
+     * topologicalSort from ordering it.
+     *
+     * Runs an iterative depth first search that marks the vertices on the
+     * current path. The first edge that leads back to a vertex on the path
+     * closes a cycle, which is read off the search's own stack.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to search
+     * @return the vertices of a cycle in order, where the last vertex has an
+     * edge back to the first (a self-loop is a cycle of one vertex), or null
+     * if the graph is acyclic
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> List<Vertex<T>> findCycle(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] cursor = new int[n];
+        byte[] state = new byte[n];
+        IntList path = new IntList();
+
+        for (int start = 0; start < n; start++) {
+            if (state[start] != 0) {
+                continue;
+            }
+            state[start] = 1;
+            cursor[start] = offsets[start];
+            path.add(start);
+            while (!path.isEmpty()) {
+                int v = path.get(path.size() - 1);
+                if (cursor[v] < offsets[v + 1]) {
+                    int w = targets[cursor[v]++];
+                    if (state[w] == 0) {
+                        state[w] = 1;
+                        cursor[w] = offsets[w];
+                        path.add(w);
+                    } else if (state[w] == 1) {
+                        int first = path.size() - 1;
+                        while (path.get(first) != w) {
+                            first--;
+                        }
+                        ArrayList<Vertex<T>> cycle = new ArrayList<>();
+                        for (int i = first; i < path.size(); i++) {
+                            cycle.add(indexed.getVertex(path.get(i)));
+                        }
+                        return cycle;
+                    }
+                } else {
+                    state[v] = 2;
+                    path.removeLast();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Performs a breadth first search that hands each vertex to a visitor as
+     * soon as it is reached instead of collecting every vertex into a list.
+     *
+     * Vertices are visited in the same order as bfs. The visitor can return
+     * SKIP_CHILDREN to prune the search below a vertex, or STOP to end the
+     * search, for example once a target has been found. Vertices more than
+     * maxDepth edges from start are not visited.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>      the generic typing of the data
+     * @param start    the vertex to begin the bfs on
+     * @param graph    the graph to search through
+     * @param maxDepth the largest depth to visit; Integer.MAX_VALUE for no
+     *                 limit
+     * @param visitor  the visitor called for every vertex
+     * @return the vertex the visitor stopped at, or null if the search
+     * visited everything it could reach
+     * @throws IllegalArgumentException if any input is null, if start
+     *                                  doesn't exist in the graph, or if
+     *                                  maxDepth is negative
+     */
+    public static <T> Vertex<T> bfs(Vertex<T> start, Graph<T> graph, int maxDepth,
+                                    VertexVisitor<T> visitor) {
+        checkVisitor(visitor);
+        return traverse(bfsCursor(start, graph, maxDepth), graph, visitor);
+    }
+
+    /**
+     * Performs a depth first search that hands each vertex to a visitor as
+     * soon as it is reached instead of collecting every vertex into a list.
+     *
+     * Vertices are visited in the same order as dfs, but the search keeps an
+     * explicit stack instead of recursing, so it works on graphs of any
+     * depth. The visitor can return SKIP_CHILDREN to prune the search below
+     * a vertex, or STOP to end the search. Vertices more than maxDepth edges
+     * from start along the search path are not visited; as in any depth
+     * limited dfs, a vertex first reached along a long path is not revisited
+     * along a shorter one.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>      the generic typing of the data
+     * @param start    the vertex to begin the dfs on
+     * @param graph    the graph to search through
+     * @param maxDepth the largest depth to visit; Integer.MAX_VALUE for no
+     *                 limit
+     * @param visitor  the visitor called for every vertex
+     * @return the vertex the visitor stopped at, or null if the search
+     * visited everything it could reach
+     * @throws IllegalArgumentException if any input is null, if start
+     *                                  doesn't exist in the graph, or if
+     *                                  maxDepth is negative
+     */
+    public static <T> Vertex<T> dfs(Vertex<T> start, Graph<T> graph, int maxDepth,
+                                    VertexVisitor<T> visitor) {
+        checkVisitor(visitor);
+        return traverse(dfsCursor(start, graph, maxDepth), graph, visitor);
+    }
+
+    /**
+     * Returns a lazy iterator over the vertices of a breadth first search, in
+     * the same order as bfs. Each call to next() explores only as far as
+     * needed to find the next vertex, so abandoning the iterator ends the
+     * search.
+     *
+     * The graph must not be modified while the iterator is in use.
+     *
+     * @param <T>      the generic typing of the data
+     * @param start    the vertex to begin the bfs on
+     * @param graph    the graph to search through
+     * @param maxDepth the largest depth to visit; Integer.MAX_VALUE for no
+     *                 limit
+     * @return an iterator over the visited vertices
+     * @throws IllegalArgumentException if any input is null, if start
+     *                                  doesn't exist in the graph, or if
+     *                                  maxDepth is negative
+     */
+    public static <T> Iterator<Vertex<T>> bfsIterator(Vertex<T> start, Graph<T> graph,
+                                                      int maxDepth) {
+        return new TraversalIterator<>(bfsCursor(start, graph, maxDepth),
+            graph.getIndexedGraph());
+    }
+
+    /**
+     * Returns a lazy iterator over the vertices of a depth first search, in
+     * the same order as dfs. See the visitor version of dfs for how maxDepth
+     * is applied.
+     *
+     * The graph must not be modified while the iterator is in use.
+     *
+     * @param <T>      the generic typing of the data
+     * @param start    the vertex to begin the dfs on
+     * @param graph    the graph to search through
+     * @param maxDepth the largest depth to visit; Integer.MAX_VALUE for no
+     *                 limit
+     * @return an iterator over the visited vertices
+     * @throws IllegalArgumentException if any input is null, if start
+     *                                  doesn't exist in the graph, or if
+     *                                  maxDepth is negative
+     */
+    public static <T> Iterator<Vertex<T>> dfsIterator(Vertex<T> start, Graph<T> graph,
+                                                      int maxDepth) {
+        return new TraversalIterator<>(dfsCursor(start, graph, maxDepth),
+            graph.getIndexedGraph());
+    }
+
+    /**
+     * Returns a lazy, sequential stream over the vertices of a breadth first
+     * search, backed by bfsIterator. Short-circuiting operations such as
+     * findFirst, anyMatch or limit end the search early.
+     *
+     * @param <T>      the generic typing of the data
+     * @param start    the vertex to begin the bfs on
+     * @param graph    the graph to search through
+     * @param maxDepth the largest depth to visit; Integer.MAX_VALUE for no
+     *                 limit
+     * @return a stream of the visited vertices
+     * @throws IllegalArgumentException if any input is null, if start
+     *                                  doesn't exist in the graph, or if
+     *                                  maxDepth is negative
+     */
+    public static <T> Stream<Vertex<T>> bfsStream(Vertex<T> start, Graph<T> graph,
+                                                  int maxDepth) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            bfsIterator(start, graph, maxDepth), Spliterator.ORDERED
+                | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns a lazy, sequential stream over the vertices of a depth first
+     * search, backed by dfsIterator.
+     *
+     * @param <T>      the generic typing of the data
+     * @param start    the vertex to begin the dfs on
+     * @param graph    the graph to search through
+     * @param maxDepth the largest depth to visit; Integer.MAX_VALUE for no
+     *                 limit
+     * @return a stream of the visited vertices
+     * @throws IllegalArgumentException if any input is null, if start
+     *                                  doesn't exist in the graph, or if
+     *                                  maxDepth is negative
+     */
+    public static <T> Stream<Vertex<T>> dfsStream(Vertex<T> start, Graph<T> graph,
+                                                  int maxDepth) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            dfsIterator(start, graph, maxDepth), Spliterator.ORDERED
+                | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * A private method that checks if the visitor is null
+     *
+     * @param <T> the generic typing of the data
+     * @param visitor the visitor to check
+     * @throws IllegalArgumentException if the visitor is null
+     */
+    private static <T> void checkVisitor(VertexVisitor<T> visitor) {
+        if (visitor == null) {
+            throw new java.lang.IllegalArgumentException("The visitor should not be null");
+        }
+    }
+
+    /**
+     * A private method that checks the arguments shared by every streaming
+     * traversal.
+     *
+     * @param <T> the generic typing of the data
+     * @param start the vertex to begin the traversal on
+     * @param graph the graph to search through
+     * @param maxDepth the largest depth to visit
+     * @throws IllegalArgumentException if start or graph is null, if start
+     *                                  doesn't exist in the graph, or if
+     *                                  maxDepth is negative
+     */
+    private static <T> void checkTraversal(Vertex<T> start, Graph<T> graph, int maxDepth) {
+        checkGraph(graph);
+        checkStartVertex(start);
+        if (!graph.getVertices().contains(start)) {
+            throw new java.lang.IllegalArgumentException("The start vertex should be in the graph");
+        }
+        if (maxDepth < 0) {
+            throw new java.lang.IllegalArgumentException("The maximum depth should not be negative");
+        }
+    }
+
+    /**
+     * A private method that creates a breadth first cursor after checking
+     * the arguments.
+     *
+     * @param <T> the generic typing of the data
+     * @param start the vertex to begin the bfs on
+     * @param graph the graph to search through
+     * @param maxDepth the largest depth to visit
+     * @return the cursor, positioned before the start vertex
+     */
+    private static <T> TraversalCursor bfsCursor(Vertex<T> start, Graph<T> graph,
+                                                 int maxDepth) {
+        checkTraversal(start, graph, maxDepth);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        return new BfsCursor(indexed, indexed.indexOf(start), maxDepth);
+    }
+
+    /**
+     * A private method that creates a depth first cursor after checking the
+     * arguments.
+     *
+     * @param <T> the generic typing of the data
+     * @param start the vertex to begin the dfs on
+     * @param graph the graph to search through
+     * @param maxDepth the largest depth to visit
+     * @return the cursor, positioned before the start vertex
+     */
+    private static <T> TraversalCursor dfsCursor(Vertex<T> start, Graph<T> graph,
+                                                 int maxDepth) {
+        checkTraversal(start, graph, maxDepth);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        return new DfsCursor(indexed, indexed.indexOf(start), maxDepth);
+    }
+
+    /**
+     * A private method that drives a cursor, passing every vertex to the
+     * visitor and acting on what it returns.
+     *
+     * @param <T> the generic typing of the data
+     * @param cursor the traversal to drive
+     * @param graph the graph being searched
+     * @param visitor the visitor called for every vertex
+     * @return the vertex the visitor stopped at, or null
+     */
+    private static <T> Vertex<T> traverse(TraversalCursor cursor, Graph<T> graph,
+                                          VertexVisitor<T> visitor) {
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        for (int v = cursor.next(); v != -1; v = cursor.next()) {
+            Vertex<T> vertex = indexed.getVertex(v);
+            TraversalControl control = visitor.visit(vertex, cursor.depth());
+            if (control == TraversalControl.STOP) {
+                return vertex;
+            }
+            if (control == TraversalControl.SKIP_CHILDREN) {
+                cursor.skipChildren();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A traversal that produces one vertex index at a time. The neighbors of
+     * a vertex are only explored when the following vertex is requested, so
+     * the caller can still prune them.
+     */
+    private interface TraversalCursor {
+
+        /**
+         * Advances to the next vertex.
+         *
+         * @return the index of the next vertex, or -1 if there is none
+         */
+        int next();
+
+        /**
+         * Gets the depth of the vertex last returned by next.
+         *
+         * @return the depth of the current vertex
+         */
+        int depth();
+
+        /**
+         * Prevents the traversal from exploring out of the vertex last
+         * returned by next.
+         */
+        void skipChildren();
+    }
+
+    /**
+     * A breadth first TraversalCursor over an int queue. Vertices are marked
+     * when enqueued, exactly like bfs.
+     */
+    private static final class BfsCursor implements TraversalCursor {
+
+        private final IndexedGraph<?> graph;
+        private final boolean[] seen;
+        private final int[] queue;
+        private final int[] depths;
+        private final int maxDepth;
+        private int head;
+        private int tail;
+        private int current;
+        private int pending;
+
+        /**
+         * Creates a cursor positioned before the start vertex.
+         *
+         * @param graph the indexed graph
+         * @param start the index of the start vertex
+         * @param maxDepth the largest depth to visit
+         */
+        BfsCursor(IndexedGraph<?> graph, int start, int maxDepth) {
+            this.graph = graph;
+            this.maxDepth = maxDepth;
+            seen = new boolean[graph.size()];
+            queue = new int[graph.size()];
+            depths = new int[graph.size()];
+            seen[start] = true;
+            queue[tail++] = start;
+            current = -1;
+            pending = -1;
+        }
+
+        @Override
+        public int next() {
+            if (pending != -1) {
+                int[] offsets = graph.getOffsets();
+                int[] targets = graph.getTargets();
+                for (int e = offsets[pending]; e < offsets[pending + 1]; e++) {
+                    int w = targets[e];
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        depths[tail] = depths[current] + 1;
+                        queue[tail++] = w;
+                    }
+                }
+                pending = -1;
+            }
+            if (head == tail) {
+                return -1;
+            }
+            current = head++;
+            if (depths[current] < maxDepth) {
+                pending = queue[current];
+            }
+            return queue[current];
+        }
+
+        @Override
+        public int depth() {
+            return depths[current];
+        }
+
+        @Override
+        public void skipChildren() {
+            pending = -1;
+        }
+    }
+
+    /**
+     * A depth first TraversalCursor over an explicit stack of vertices and
+     * edge cursors. Vertices are marked when visited, exactly like dfs.
+     */
+    private static final class DfsCursor implements TraversalCursor {
+
+        private final IndexedGraph<?> graph;
+        private final boolean[] seen;
+        private final int maxDepth;
+        private final IntList stack;
+        private final IntList edgeCursors;
+        private int pending;
+        private int depth;
+
+        /**
+         * Creates a cursor positioned before the start vertex.
+         *
+         * @param graph the indexed graph
+         * @param start the index of the start vertex
+         * @param maxDepth the largest depth to visit
+         */
+        DfsCursor(IndexedGraph<?> graph, int start, int maxDepth) {
+            this.graph = graph;
+            this.maxDepth = maxDepth;
+            seen = new boolean[graph.size()];
+            stack = new IntList();
+            edgeCursors = new IntList();
+            pending = start;
+            depth = -1;
+        }
+
+        @Override
+        public int next() {
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            if (depth == -1) {
+                int start = pending;
+                depth = 0;
+                seen[start] = true;
+                if (maxDepth == 0) {
+                    pending = -1;
+                }
+                return start;
+            }
+            if (pending != -1) {
+                stack.add(pending);
+                edgeCursors.add(offsets[pending]);
+                pending = -1;
+            }
+            while (!stack.isEmpty()) {
+                int top = stack.size() - 1;
+                int v = stack.get(top);
+                int e = edgeCursors.get(top);
+                while (e < offsets[v + 1] && seen[targets[e]]) {
+                    e++;
+                }
+                if (e < offsets[v + 1]) {
+                    edgeCursors.set(top, e + 1);
+                    int w = targets[e];
+                    seen[w] = true;
+                    depth = stack.size();
+                    if (depth < maxDepth) {
+                        pending = w;
+                    }
+                    return w;
+                }
+                stack.removeLast();
+                edgeCursors.removeLast();
+            }
+            return -1;
+        }
+
+        @Override
+        public int depth() {
+            return depth;
+        }
+
+        @Override
+        public void skipChildren() {
+            pending = -1;
+        }
+    }
+
+    /**
+     * Adapts a TraversalCursor to an Iterator of vertices, looking ahead by
+     * one vertex to answer hasNext.
+     *
+     * @param <T> the generic typing of the data
+     */
+    private static final class TraversalIterator<T> implements Iterator<Vertex<T>> {
+
+        private final TraversalCursor cursor;
+        private final IndexedGraph<T> graph;
+        private int next;
+        private boolean advanced;
+
+        /**
+         * Creates an iterator over the cursor's vertices.
+         *
+         * @param cursor the traversal
+         * @param graph the indexed graph the cursor runs on
+         */
+        TraversalIterator(TraversalCursor cursor, IndexedGraph<T> graph) {
+            this.cursor = cursor;
+            this.graph = graph;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!advanced) {
+                next = cursor.next();
+                advanced = true;
+            }
+            return next != -1;
+        }
+
+        @Override
+        public Vertex<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The traversal is finished.");
+            }
+            advanced = false;
+            return graph.getVertex(next);
+        }
+    }
+
+    /**
+     * The side length of the square blocks that floydWarshall updates at a
+     * time. Three 64 x 64 int blocks fit comfortably in a core's L1/L2 cache.
+     */
+    private static final int FLOYD_BLOCK = 64;
+
+    /**
+     * The largest int[] that can be allocated on common JVMs, which bounds a
+     * V x V distance matrix to about 46340 vertices.
+     */
+    private static final int MAX_MATRIX_CELLS = Integer.MAX_VALUE - 8;
+
+    /**
+     * Finds the shortest distance between every pair of vertices, choosing
+     * the faster of floydWarshall and repeatedDijkstras for the graph.
+     *
+     * Repeated Dijkstra's costs about V * E * log V and Floyd-Warshall about
+     * V^3, so Floyd-Warshall is used when E * log V is at least V^2 / 4,
+     * and always when an edge weight is negative.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to find the distances of
+     * @return the V x V matrix of shortest distances
+     * @throws IllegalArgumentException if the graph is null, or if it has
+     *                                  too many vertices for a V x V matrix
+     */
+    public static <T> DistanceMatrix<T> allPairsShortestPaths(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        long n = indexed.size();
+        long logN = 64 - Long.numberOfLeadingZeros(Math.max(1, n));
+        boolean negative = false;
+        for (int weight : indexed.getWeights()) {
+            negative |= weight < 0;
+        }
+        if (negative || 4 * indexed.edgeCount() * logN >= n * n) {
+            return floydWarshall(graph);
+        }
+        return repeatedDijkstras(graph);
+    }
+
+    /**
+     * Finds the shortest distance between every pair of vertices with a
+     * cache-blocked, parallel Floyd-Warshall on a single int[] matrix.
+     *
+     * The matrix is split into FLOYD_BLOCK x FLOYD_BLOCK blocks. For each
+     * diagonal block k, the block itself is updated first, then every block
+     * in row k and column k in parallel, then every other block in parallel,
+     * each using only the row and column blocks of k. Every block update
+     * works on three cache-resident blocks, so it runs at cache speed rather
+     * than streaming the whole matrix V times.
+     *
+     * Negative edge weights are allowed, but the distances are meaningless
+     * if the graph has a negative cycle.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to find the distances of
+     * @return the V x V matrix of shortest distances
+     * @throws IllegalArgumentException if the graph is null, or if it has
+     *                                  too many vertices for a V x V matrix
+     */
+    public static <T> DistanceMatrix<T> floydWarshall(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] weights = indexed.getWeights();
+        int[] dist = newDistanceMatrix(n);
+        Arrays.fill(dist, DistanceMatrix.INFINITY);
+        for (int u = 0; u < n; u++) {
+            dist[u * n + u] = 0;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int cell = u * n + targets[e];
+                dist[cell] = Math.min(dist[cell], weights[e]);
+            }
+        }
+
+        int blocks = (n + FLOYD_BLOCK - 1) / FLOYD_BLOCK;
+        for (int k = 0; k < blocks; k++) {
+            int kb = k;
+            updateBlock(dist, n, kb, kb, kb);
+            ParallelFor.run(0, blocks, 1, (low, high) -> {
+                for (int b = low; b < high; b++) {
+                    if (b != kb) {
+                        updateBlock(dist, n, kb, b, kb);
+                        updateBlock(dist, n, b, kb, kb);
+                    }
+                }
+            });
+            ParallelFor.run(0, blocks * blocks, 4, (low, high) -> {
+                for (int b = low; b < high; b++) {
+                    int ib = b / blocks;
+                    int jb = b % blocks;
+                    if (ib != kb && jb != kb) {
+                        updateBlock(dist, n, ib, jb, kb);
+                    }
+                }
+            });
+        }
+        return new DistanceMatrix<>(indexed, dist);
+    }
+
+    /**
+     * A private method that relaxes block (ib, jb) of the distance matrix
+     * through every intermediate vertex of block kb.
+     *
+     * @param dist the row-major distance matrix
+     * @param n the number of vertices
+     * @param ib the block row
+     * @param jb the block column
+     * @param kb the block of intermediate vertices
+     */
+    private static void updateBlock(int[] dist, int n, int ib, int jb, int kb) {
+        int iEnd = Math.min(n, (ib + 1) * FLOYD_BLOCK);
+        int jStart = jb * FLOYD_BLOCK;
+        int jEnd = Math.min(n, jStart + FLOYD_BLOCK);
+        int kEnd = Math.min(n, (kb + 1) * FLOYD_BLOCK);
+        for (int k = kb * FLOYD_BLOCK; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ib * FLOYD_BLOCK; i < iEnd; i++) {
+                int iRow = i * n;
+                int ik = dist[iRow + k];
+                if (ik == DistanceMatrix.INFINITY) {
+                    continue;
+                }
+                for (int j = jStart; j < jEnd; j++) {
+                    int kj = dist[kRow + j];
+                    if (kj != DistanceMatrix.INFINITY) {
+                        long through = (long) ik + kj;
+                        if (through < dist[iRow + j]) {
+                            dist[iRow + j] = (int) through;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A private method that allocates a V x V distance matrix, checking the
+     * size in long arithmetic so it cannot overflow int.
+     *
+     * @param n the number of vertices
+     * @return the row-major n x n matrix
+     * @throws IllegalArgumentException if n * n cells do not fit in an array
+     */
+    private static int[] newDistanceMatrix(int n) {
+        long cells = (long) n * n;
+        if (cells > MAX_MATRIX_CELLS) {
+            throw new java.lang.IllegalArgumentException("The graph has " + n
+                + " vertices, too many for a V x V distance matrix");
+        }
+        return new int[(int) cells];
+    }
+
+    /**
+     * Finds the shortest distance between every pair of vertices by running
+     * Dijkstra's algorithm from every vertex in parallel (you may assume
+     * non-negative edge weights).
+     *
+     * Sources are split across the common ForkJoinPool. Each task reuses one
+     * set of primitive distance, visited and heap buffers for all of its
+     * sources and copies each result into its row of the matrix.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to find the distances of
+     * @return the V x V matrix of shortest distances
+     * @throws IllegalArgumentException if the graph is null, or if it has
+     *                                  too many vertices for a V x V matrix
+     */
+    public static <T> DistanceMatrix<T> repeatedDijkstras(Graph<T> graph) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int n = indexed.size();
+        int[] dist = newDistanceMatrix(n);
+        ParallelFor.run(0, n, 8, (low, high) -> {
+            int[] row = new int[n];
+            boolean[] visited = new boolean[n];
+            LongMinHeap pq = new LongMinHeap();
+            for (int source = low; source < high; source++) {
+                dijkstras(indexed, source, row, visited, pq);
+                System.arraycopy(row, 0, dist, source * n, n);
+            }
+        });
+        return new DistanceMatrix<>(indexed, dist);
+    }
+}
@@ -0,0 +1,627 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class GraphAlgorithmsTest {
+
+    /**
+     * Runs the GraphAlgorithms tests.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        deltaSteppingMatchesDijkstras();
+        deltaSteppingSkipsEmptyBuckets();
+        componentsMatchUndirectedSearch();
+        boruvkasMatchesKruskals();
+        stronglyConnectedComponentsMatchReachability();
+        topologicalSortAndFindCycleAgree();
+        traversalsFollowTheAdjacencyList();
+        dfsHandlesLongPaths();
+        visitorsAndIteratorsFollowTheTraversals();
+        allPairsMatchDijkstras();
+        allPairsRejectsHugeGraphs();
+        System.out.println("GraphAlgorithmsTest passed");
+    }
+
+    /**
+     * Checks deltaStepping against dijkstras on random graphs for several
+     * deltas, including unreachable vertices and zero weights.
+     */
+    static void deltaSteppingMatchesDijkstras() {
+        Random rand = new Random(26);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 1 + rand.nextInt(60);
+            Graph<Integer> graph = randomGraph(rand, n, rand.nextInt(4 * n), 1 + rand.nextInt(50));
+            Vertex<Integer> start = new Vertex<>(rand.nextInt(n));
+            Map<Vertex<Integer>, Integer> expected = GraphAlgorithms.dijkstras(start, graph);
+            check(expected.equals(GraphAlgorithms.deltaStepping(start, graph)),
+                "deltaStepping with the default delta disagrees with dijkstras");
+            for (int delta : new int[] {1, 3, 1000}) {
+                check(expected.equals(GraphAlgorithms.deltaStepping(start, graph, delta)),
+                    "deltaStepping with delta " + delta + " disagrees with dijkstras");
+            }
+        }
+    }
+
+    /**
+     * Checks that a delta of 1 on a path with huge weights only visits the
+     * non-empty buckets: walking every bucket up to a distance of two billion
+     * would not finish.
+     */
+    static void deltaSteppingSkipsEmptyBuckets() {
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        Set<Edge<Integer>> edges = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        for (int i = 0; i < 4; i++) {
+            edges.add(new Edge<>(new Vertex<>(i), new Vertex<>(i + 1), 500_000_000));
+        }
+        Graph<Integer> graph = new Graph<>(vertices, edges);
+        Map<Vertex<Integer>, Integer> dist =
+            GraphAlgorithms.deltaStepping(new Vertex<>(0), graph, 1);
+        check(dist.get(new Vertex<>(4)) == 2_000_000_000, "deltaStepping on huge weights");
+    }
+
+    /**
+     * Checks connectedComponents and labelPropagationComponents against an
+     * undirected search from every vertex, including the numbering of the
+     * components by the index of their first vertex.
+     */
+    static void componentsMatchUndirectedSearch() {
+        Random rand = new Random(29);
+        for (int trial = 0; trial < 100; trial++) {
+            int n = 1 + rand.nextInt(80);
+            Graph<Integer> graph = randomGraph(rand, n, rand.nextInt(2 * n), 5);
+            IndexedGraph<Integer> indexed = graph.getIndexedGraph();
+            int[] expected = undirectedComponents(indexed);
+            List<ConnectedComponents<Integer>> results = new ArrayList<>();
+            results.add(GraphAlgorithms.connectedComponents(graph));
+            results.add(GraphAlgorithms.labelPropagationComponents(graph));
+            results.add(GraphAlgorithms.parallelConnectedComponents(graph));
+            for (ConnectedComponents<Integer> components : results) {
+                check(components.getIndexedGraph() == indexed, "components of another snapshot");
+                int count = 0;
+                for (int v = 0; v < n; v++) {
+                    count = Math.max(count, expected[v] + 1);
+                    check(components.getComponentIds()[v] == expected[v], "component id");
+                    check(components.getComponentId(indexed.getVertex(v)) == expected[v],
+                        "getComponentId");
+                }
+                check(components.getComponentCount() == count, "getComponentCount");
+                int[] sizes = new int[count];
+                for (int id : expected) {
+                    sizes[id]++;
+                }
+                for (int id = 0; id < count; id++) {
+                    check(components.getComponentSize(id) == sizes[id], "getComponentSize");
+                }
+                check(components.toMap().size() == n, "toMap");
+            }
+        }
+    }
+
+    /**
+     * Checks boruvkas against kruskals on random undirected graphs with
+     * distinct weights, where the MST is unique, and that both return null
+     * for a disconnected graph.
+     */
+    static void boruvkasMatchesKruskals() {
+        Random rand = new Random(310);
+        for (int trial = 0; trial < 100; trial++) {
+            int n = 1 + rand.nextInt(200);
+            int m = n - 1 + rand.nextInt(3 * n);
+            List<Integer> weights = new ArrayList<>();
+            for (int i = 0; i < m; i++) {
+                weights.add(i);
+            }
+            Collections.shuffle(weights, rand);
+            Set<Vertex<Integer>> vertices = new HashSet<>();
+            Set<Edge<Integer>> edges = new HashSet<>();
+            for (int i = 0; i < m; i++) {
+                if (i < n - 1) {
+                    addUndirected(edges, rand.nextInt(i + 1), i + 1, weights.get(i));
+                } else {
+                    addUndirected(edges, rand.nextInt(n), rand.nextInt(n), weights.get(i));
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                vertices.add(new Vertex<>(i));
+            }
+            Graph<Integer> graph = new Graph<>(vertices, edges);
+            Set<Edge<Integer>> expected = GraphAlgorithms.kruskals(graph);
+            check(expected.size() == 2 * (n - 1), "kruskals of a connected graph");
+            check(expected.equals(GraphAlgorithms.boruvkas(graph)), "boruvkas disagrees");
+            vertices.add(new Vertex<>(n));
+            Graph<Integer> disconnected = new Graph<>(vertices, edges);
+            check(GraphAlgorithms.kruskals(disconnected) == null, "kruskals of a disconnected graph");
+            check(GraphAlgorithms.boruvkas(disconnected) == null, "boruvkas of a disconnected graph");
+        }
+    }
+
+    /**
+     * Checks stronglyConnectedComponents against mutual reachability found
+     * with a search from every vertex.
+     */
+    static void stronglyConnectedComponentsMatchReachability() {
+        Random rand = new Random(32);
+        for (int trial = 0; trial < 100; trial++) {
+            int n = 1 + rand.nextInt(60);
+            Graph<Integer> graph = randomGraph(rand, n, rand.nextInt(2 * n), 1);
+            IndexedGraph<Integer> indexed = graph.getIndexedGraph();
+            boolean[][] reach = new boolean[n][];
+            for (int u = 0; u < n; u++) {
+                reach[u] = new boolean[n];
+                for (Vertex<Integer> v : GraphAlgorithms.bfs(indexed.getVertex(u), graph)) {
+                    reach[u][indexed.indexOf(v)] = true;
+                }
+            }
+            ConnectedComponents<Integer> components =
+                GraphAlgorithms.stronglyConnectedComponents(graph);
+            int[] ids = components.getComponentIds();
+            int[] sizes = new int[components.getComponentCount()];
+            for (int u = 0; u < n; u++) {
+                sizes[ids[u]]++;
+                for (int v = 0; v < n; v++) {
+                    check((ids[u] == ids[v]) == (reach[u][v] && reach[v][u]),
+                        "strongly connected components");
+                }
+            }
+            for (int id = 0; id < sizes.length; id++) {
+                check(components.getComponentSize(id) == sizes[id], "component size");
+            }
+        }
+    }
+
+    /**
+     * Checks that topologicalSort orders random DAGs, and that on any graph
+     * exactly one of topologicalSort and findCycle succeeds, with findCycle
+     * returning a real cycle.
+     */
+    static void topologicalSortAndFindCycleAgree() {
+        Random rand = new Random(320);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 1 + rand.nextInt(50);
+            boolean acyclic = trial % 2 == 0;
+            Set<Vertex<Integer>> vertices = new HashSet<>();
+            Set<Edge<Integer>> edges = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                vertices.add(new Vertex<>(i));
+            }
+            for (int i = rand.nextInt(2 * n); i > 0; i--) {
+                int u = rand.nextInt(n);
+                int v = rand.nextInt(n);
+                if (!acyclic || u < v) {
+                    edges.add(new Edge<>(new Vertex<>(u), new Vertex<>(v), 1));
+                }
+            }
+            Graph<Integer> graph = new Graph<>(vertices, edges);
+            List<Vertex<Integer>> order = GraphAlgorithms.topologicalSort(graph);
+            List<Vertex<Integer>> cycle = GraphAlgorithms.findCycle(graph);
+            check((order == null) != (cycle == null), "exactly one of an order and a cycle");
+            if (acyclic) {
+                check(order != null, "topologicalSort of a DAG");
+            }
+            if (order != null) {
+                check(order.size() == n && new HashSet<>(order).size() == n,
+                    "topologicalSort lists every vertex once");
+                for (Edge<Integer> edge : edges) {
+                    check(order.indexOf(edge.getU()) < order.indexOf(edge.getV()),
+                        "topologicalSort puts an edge backwards");
+                }
+            } else {
+                check(!cycle.isEmpty() && new HashSet<>(cycle).size() == cycle.size(),
+                    "findCycle repeats a vertex");
+                for (int i = 0; i < cycle.size(); i++) {
+                    Vertex<Integer> from = cycle.get(i);
+                    Vertex<Integer> to = cycle.get((i + 1) % cycle.size());
+                    boolean hasEdge = false;
+                    for (VertexDistance<Integer> vd : graph.getAdjList().get(from)) {
+                        hasEdge |= vd.getVertex().equals(to);
+                    }
+                    check(hasEdge, "findCycle returned a missing edge");
+                }
+            }
+        }
+    }
+
+    /**
+     * Numbers the components of a graph, ignoring edge directions, in the
+     * order their first vertex appears, with a search from each unnumbered
+     * vertex.
+     *
+     * @param graph the indexed graph
+     * @return the component id of every vertex
+     */
+    static int[] undirectedComponents(IndexedGraph<?> graph) {
+        int n = graph.size();
+        IndexedGraph<?> reversed = graph.transpose();
+        int[] ids = new int[n];
+        Arrays.fill(ids, -1);
+        int count = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int s = 0; s < n; s++) {
+            if (ids[s] != -1) {
+                continue;
+            }
+            ids[s] = count;
+            queue.add(s);
+            while (!queue.isEmpty()) {
+                int u = queue.remove();
+                for (IndexedGraph<?> g : Arrays.asList(graph, reversed)) {
+                    for (int e = g.getOffsets()[u]; e < g.getOffsets()[u + 1]; e++) {
+                        int v = g.getTargets()[e];
+                        if (ids[v] == -1) {
+                            ids[v] = count;
+                            queue.add(v);
+                        }
+                    }
+                }
+            }
+            count++;
+        }
+        return ids;
+    }
+
+    /**
+     * Checks bfs and dfs against straightforward searches over the adjacency
+     * list, so the visit order is the one the adjacency list dictates, and
+     * checks that a LinkedHashSet of edges fixes that order.
+     */
+    static void traversalsFollowTheAdjacencyList() {
+        Random rand = new Random(34);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 1 + rand.nextInt(40);
+            Graph<Integer> graph = randomGraph(rand, n, rand.nextInt(3 * n), 10);
+            Vertex<Integer> start = new Vertex<>(rand.nextInt(n));
+            Map<Vertex<Integer>, List<VertexDistance<Integer>>> adjList = graph.getAdjList();
+
+            List<Vertex<Integer>> bfs = new ArrayList<>();
+            Set<Vertex<Integer>> seen = new HashSet<>();
+            ArrayDeque<Vertex<Integer>> queue = new ArrayDeque<>();
+            queue.add(start);
+            seen.add(start);
+            while (!queue.isEmpty()) {
+                Vertex<Integer> v = queue.remove();
+                bfs.add(v);
+                for (VertexDistance<Integer> vd : adjList.get(v)) {
+                    if (seen.add(vd.getVertex())) {
+                        queue.add(vd.getVertex());
+                    }
+                }
+            }
+            check(bfs.equals(GraphAlgorithms.bfs(start, graph)), "bfs visit order");
+
+            List<Vertex<Integer>> dfs = new ArrayList<>();
+            recursiveDfs(start, adjList, new HashSet<>(), dfs);
+            check(dfs.equals(GraphAlgorithms.dfs(start, graph)), "dfs visit order");
+        }
+
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        Set<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int i = 0; i < 6; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        for (int target : new int[] {4, 1, 5, 3, 2}) {
+            edges.add(new Edge<>(new Vertex<>(0), new Vertex<>(target), 1));
+        }
+        List<Vertex<Integer>> expected = new ArrayList<>();
+        for (int v : new int[] {0, 4, 1, 5, 3, 2}) {
+            expected.add(new Vertex<>(v));
+        }
+        Graph<Integer> ordered = new Graph<>(vertices, edges);
+        check(GraphAlgorithms.bfs(new Vertex<>(0), ordered).equals(expected), "bfs in edge set order");
+        check(GraphAlgorithms.dfs(new Vertex<>(0), ordered).equals(expected), "dfs in edge set order");
+    }
+
+    /**
+     * Checks that the visitor traversals, iterators and streams visit the
+     * same vertices as bfs and dfs, honour maxDepth, SKIP_CHILDREN and STOP,
+     * and report the right depths.
+     */
+    static void visitorsAndIteratorsFollowTheTraversals() {
+        Random rand = new Random(35);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 1 + rand.nextInt(40);
+            Graph<Integer> graph = randomGraph(rand, n, rand.nextInt(3 * n), 10);
+            Vertex<Integer> start = new Vertex<>(rand.nextInt(n));
+            List<Vertex<Integer>> bfs = GraphAlgorithms.bfs(start, graph);
+            List<Vertex<Integer>> dfs = GraphAlgorithms.dfs(start, graph);
+
+            List<Vertex<Integer>> iterated = new ArrayList<>();
+            GraphAlgorithms.bfsIterator(start, graph, Integer.MAX_VALUE).forEachRemaining(iterated::add);
+            check(iterated.equals(bfs), "bfsIterator order");
+            iterated.clear();
+            GraphAlgorithms.dfsIterator(start, graph, Integer.MAX_VALUE).forEachRemaining(iterated::add);
+            check(iterated.equals(dfs), "dfsIterator order");
+            check(GraphAlgorithms.bfsStream(start, graph, Integer.MAX_VALUE)
+                .collect(Collectors.toList()).equals(bfs), "bfsStream order");
+            check(GraphAlgorithms.dfsStream(start, graph, Integer.MAX_VALUE)
+                .collect(Collectors.toList()).equals(dfs), "dfsStream order");
+
+            Map<Vertex<Integer>, Integer> levels = new HashMap<>();
+            List<Vertex<Integer>> visited = new ArrayList<>();
+            check(GraphAlgorithms.bfs(start, graph, Integer.MAX_VALUE, (v, depth) -> {
+                visited.add(v);
+                levels.put(v, depth);
+                return TraversalControl.CONTINUE;
+            }) == null, "bfs visitor stopped by itself");
+            check(visited.equals(bfs), "bfs visitor order");
+            for (Vertex<Integer> v : bfs) {
+                for (VertexDistance<Integer> vd : graph.getAdjList().get(v)) {
+                    check(levels.get(vd.getVertex()) <= levels.get(v) + 1, "bfs visitor depth");
+                }
+            }
+
+            int maxDepth = rand.nextInt(4);
+            visited.clear();
+            GraphAlgorithms.bfs(start, graph, maxDepth, (v, depth) -> {
+                visited.add(v);
+                return TraversalControl.CONTINUE;
+            });
+            int within = 0;
+            for (Vertex<Integer> v : bfs) {
+                within += levels.get(v) <= maxDepth ? 1 : 0;
+            }
+            check(visited.equals(bfs.subList(0, within)), "bfs visitor maxDepth");
+            iterated.clear();
+            GraphAlgorithms.bfsIterator(start, graph, maxDepth).forEachRemaining(iterated::add);
+            check(iterated.equals(visited), "bfsIterator maxDepth");
+
+            visited.clear();
+            GraphAlgorithms.dfs(start, graph, maxDepth, (v, depth) -> {
+                check(depth <= maxDepth, "dfs visitor passed maxDepth");
+                visited.add(v);
+                return TraversalControl.CONTINUE;
+            });
+            List<Vertex<Integer>> limited = new ArrayList<>();
+            limitedDfs(start, 0, maxDepth, graph.getAdjList(), new HashSet<>(), limited);
+            check(visited.equals(limited), "dfs visitor maxDepth");
+            iterated.clear();
+            GraphAlgorithms.dfsIterator(start, graph, maxDepth).forEachRemaining(iterated::add);
+            check(iterated.equals(limited), "dfsIterator maxDepth");
+
+            Vertex<Integer> target = bfs.get(rand.nextInt(bfs.size()));
+            visited.clear();
+            Vertex<Integer> stopped = GraphAlgorithms.dfs(start, graph, Integer.MAX_VALUE, (v, depth) -> {
+                visited.add(v);
+                return v.equals(target) ? TraversalControl.STOP : TraversalControl.CONTINUE;
+            });
+            check(target.equals(stopped), "dfs visitor STOP result");
+            check(visited.equals(dfs.subList(0, dfs.indexOf(target) + 1)), "dfs visitor STOP");
+
+            visited.clear();
+            GraphAlgorithms.bfs(start, graph, Integer.MAX_VALUE, (v, depth) -> {
+                visited.add(v);
+                return TraversalControl.SKIP_CHILDREN;
+            });
+            check(visited.size() == 1, "bfs visitor SKIP_CHILDREN of the start");
+        }
+
+        Graph<Integer> graph = randomGraph(rand, 5, 5, 10);
+        Vertex<Integer> start = new Vertex<>(0);
+        try {
+            GraphAlgorithms.dfsIterator(start, graph, -1);
+            check(false, "dfsIterator accepted a negative maxDepth");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            GraphAlgorithms.bfs(start, graph, -1, (v, depth) -> TraversalControl.CONTINUE);
+            check(false, "bfs visitor accepted a negative maxDepth");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * The recursive depth first search with a depth limit that the dfs
+     * visitor must agree with. A vertex beyond the limit is not marked, so
+     * it can still be visited through a shorter path found later.
+     *
+     * @param v the vertex to visit
+     * @param depth the depth of the vertex
+     * @param maxDepth the largest depth to visit
+     * @param adjList the adjacency list
+     * @param seen the vertices visited so far
+     * @param order the vertices in visited order
+     */
+    private static void limitedDfs(Vertex<Integer> v, int depth, int maxDepth,
+                                   Map<Vertex<Integer>, List<VertexDistance<Integer>>> adjList,
+                                   Set<Vertex<Integer>> seen, List<Vertex<Integer>> order) {
+        seen.add(v);
+        order.add(v);
+        for (VertexDistance<Integer> vd : adjList.get(v)) {
+            if (depth < maxDepth && !seen.contains(vd.getVertex())) {
+                limitedDfs(vd.getVertex(), depth + 1, maxDepth, adjList, seen, order);
+            }
+        }
+    }
+
+    /**
+     * Checks that dfs on a path far longer than the call stack could recurse
+     * through visits every vertex in order. Edge (i, i + 1) gets weight i so
+     * the edges do not all collide in the edge set.
+     */
+    static void dfsHandlesLongPaths() {
+        int n = 200_000;
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        Set<Edge<Integer>> edges = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            vertices.add(new Vertex<>(i));
+            if (i + 1 < n) {
+                edges.add(new Edge<>(new Vertex<>(i), new Vertex<>(i + 1), i));
+            }
+        }
+        List<Vertex<Integer>> order = GraphAlgorithms.dfs(new Vertex<>(0), new Graph<>(vertices, edges));
+        check(order.size() == n, "dfs on a long path missed vertices");
+        for (int i = 0; i < n; i++) {
+            check(order.get(i).getData() == i, "dfs on a long path visit order");
+        }
+    }
+
+    /**
+     * Checks floydWarshall, repeatedDijkstras and allPairsShortestPaths
+     * against dijkstras from every vertex.
+     */
+    static void allPairsMatchDijkstras() {
+        Random rand = new Random(36);
+        for (int trial = 0; trial < 30; trial++) {
+            int n = 1 + rand.nextInt(150);
+            Graph<Integer> graph = randomGraph(rand, n, rand.nextInt(5 * n), 100);
+            DistanceMatrix<Integer> floyd = GraphAlgorithms.floydWarshall(graph);
+            DistanceMatrix<Integer> repeated = GraphAlgorithms.repeatedDijkstras(graph);
+            DistanceMatrix<Integer> auto = GraphAlgorithms.allPairsShortestPaths(graph);
+            for (Vertex<Integer> from : graph.getVertices()) {
+                Map<Vertex<Integer>, Integer> expected = GraphAlgorithms.dijkstras(from, graph);
+                for (Vertex<Integer> to : graph.getVertices()) {
+                    int distance = expected.get(to);
+                    check(floyd.getDistance(from, to) == distance, "floydWarshall disagrees");
+                    check(repeated.getDistance(from, to) == distance,
+                        "repeatedDijkstras disagrees");
+                    check(auto.getDistance(from, to) == distance,
+                        "allPairsShortestPaths disagrees");
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a graph too large for a V x V int matrix is rejected up
+     * front instead of overflowing the matrix size.
+     */
+    static void allPairsRejectsHugeGraphs() {
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        for (int i = 0; i < 46341; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        Graph<Integer> graph = new Graph<>(vertices, new HashSet<>());
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                if (attempt == 0) {
+                    GraphAlgorithms.floydWarshall(graph);
+                } else {
+                    GraphAlgorithms.repeatedDijkstras(graph);
+                }
+                throw new AssertionError("a 46341 x 46341 matrix was allocated");
+            } catch (IllegalArgumentException e) {
+                check(e.getMessage().contains("46341"), "the error names the vertex count");
+            }
+        }
+    }
+
+    /**
+     * The recursive depth first search the iterative dfs must agree with.
+     *
+     * @param v the vertex to visit
+     * @param adjList the adjacency list
+     * @param seen the vertices visited so far
+     * @param order the vertices in visited order
+     */
+    private static void recursiveDfs(Vertex<Integer> v,
+                                     Map<Vertex<Integer>, List<VertexDistance<Integer>>> adjList,
+                                     Set<Vertex<Integer>> seen, List<Vertex<Integer>> order) {
+        seen.add(v);
+        order.add(v);
+        for (VertexDistance<Integer> vd : adjList.get(v)) {
+            if (!seen.contains(vd.getVertex())) {
+                recursiveDfs(vd.getVertex(), adjList, seen, order);
+            }
+        }
+    }
+
+    /**
+     * Builds a random directed graph on the ids [0, n).
+     *
+     * @param rand the source of randomness
+     * @param n the number of vertices
+     * @param m the number of edges to draw; duplicates are dropped
+     * @param maxWeight the largest weight, weights are in [0, maxWeight]
+     * @return the graph
+     */
+    static Graph<Integer> randomGraph(Random rand, int n, int m, int maxWeight) {
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        Set<Edge<Integer>> edges = new HashSet<>();
+        for (int i = 0; i < m; i++) {
+            edges.add(new Edge<>(new Vertex<>(rand.nextInt(n)), new Vertex<>(rand.nextInt(n)),
+                rand.nextInt(maxWeight + 1)));
+        }
+        return new Graph<>(vertices, edges);
+    }
+
+    /**
+     * Builds an undirected side x side grid where every vertex is connected
+     * to its four neighbours. Edge weights are the id of the smaller vertex,
+     * so the edges do not all collide in the edge set.
+     *
+     * @param side the number of vertices along each side
+     * @return the grid graph
+     */
+    static Graph<Integer> grid(int side) {
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        Set<Edge<Integer>> edges = new HashSet<>();
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int id = r * side + c;
+                vertices.add(new Vertex<>(id));
+                if (c + 1 < side) {
+                    addUndirected(edges, id, id + 1);
+                }
+                if (r + 1 < side) {
+                    addUndirected(edges, id, id + side);
+                }
+            }
+        }
+        return new Graph<>(vertices, edges);
+    }
+
+    /**
+     * Adds the edge (u, v) and its reverse to the edge set, both weighted u.
+     *
+     * @param edges the edge set
+     * @param u the smaller endpoint
+     * @param v the larger endpoint
+     */
+    private static void addUndirected(Set<Edge<Integer>> edges, int u, int v) {
+        addUndirected(edges, u, v, u);
+    }
+
+    /**
+     * Adds the edge (u, v, weight) and its reverse to the edge set.
+     *
+     * @param edges the edge set
+     * @param u one endpoint
+     * @param v the other endpoint
+     * @param weight the weight of both edges
+     */
+    private static void addUndirected(Set<Edge<Integer>> edges, int u, int v, int weight) {
+        edges.add(new Edge<>(new Vertex<>(u), new Vertex<>(v), weight));
+        edges.add(new Edge<>(new Vertex<>(v), new Vertex<>(u), weight));
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class GraphAnalytics {
+
+    /**
+     * The damping factor used by pageRank when none is given.
+     */
+    public static final double DEFAULT_DAMPING = 0.85;
+
+    /**
+     * The L1 change between two iterations below which pageRank stops when
+     * no tolerance is given.
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+
+    /**
+     * The number of iterations after which the iterative methods stop when
+     * no limit is given.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    /**
+     * Computes the PageRank of every vertex with the default damping,
+     * tolerance and iteration limit.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to rank
+     * @return the rank of every vertex; the ranks add up to 1
+     * @throws IllegalArgumentException if the graph is null
+     * @see #pageRank(Graph, double, double, int)
+     */
+    public static <T> Map<Vertex<T>, Double> pageRank(Graph<T> graph) {
+        return pageRank(graph, DEFAULT_DAMPING, DEFAULT_TOLERANCE,
+            DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Computes the PageRank of every vertex. Edge weights are ignored; a
+     * vertex splits its rank evenly between its out-edges.
+     *
+     * @param <T>           the generic typing of the data
+     * @param graph         the graph to rank
+     * @param damping       the probability of following an edge instead of
+     *                      jumping to a random vertex, in [0, 1)
+     * @param tolerance     stop once the L1 change between two iterations is
+     *                      at most this
+     * @param maxIterations stop after this many iterations
+     * @return the rank of every vertex; the ranks add up to 1
+     * @throws IllegalArgumentException if the graph is null or any parameter
+     *                                  is out of range
+     * @see #pageRank(IndexedGraph, double[], double, double, int)
+     */
+    public static <T> Map<Vertex<T>, Double> pageRank(Graph<T> graph, double damping,
+                                                      double tolerance,
+                                                      int maxIterations) {
+        checkGraph(graph);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        double[] teleport = new double[indexed.size()];
+        Arrays.fill(teleport, 1.0 / indexed.size());
+        return toMap(indexed, pageRank(indexed, teleport, damping, tolerance,
+            maxIterations));
+    }
+
+    /**
+     * Computes the PageRank of every vertex personalized to a set of source
+     * vertices: random jumps, and the rank of vertices with no out-edges, go
+     * back to the sources only, so the result measures closeness to them.
+     *
+     * @param <T>           the generic typing of the data
+     * @param graph         the graph to rank
+     * @param sources       the vertices to personalize the ranking to
+     * @param damping       the probability of following an edge instead of
+     *                      jumping to a source, in [0, 1)
+     * @param tolerance     stop once the L1 change between two iterations is
+     *                      at most this
+     * @param maxIterations stop after this many iterations
+     * @return the rank of every vertex; the ranks add up to 1
+     * @throws IllegalArgumentException if any input is null, if sources is
+     *                                  empty or has a vertex not in the graph,
+     *                                  or if any parameter is out of range
+     */
+    public static <T> Map<Vertex<T>, Double> personalizedPageRank(Graph<T> graph,
+                                                                  Set<Vertex<T>> sources,
+                                                                  double damping,
+                                                                  double tolerance,
+                                                                  int maxIterations) {
+        checkGraph(graph);
+        if (sources == null || sources.isEmpty()) {
+            throw new IllegalArgumentException("The sources should not be null or empty");
+        }
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        double[] teleport = new double[indexed.size()];
+        for (Vertex<T> source : sources) {
+            int index = source == null ? -1 : indexed.indexOf(source);
+            if (index == -1) {
+                throw new IllegalArgumentException("The sources should be in the graph");
+            }
+            teleport[index] = 1.0 / sources.size();
+        }
+        return toMap(indexed, pageRank(indexed, teleport, damping, tolerance,
+            maxIterations));
+    }
+
+    /**
+     * Computes PageRank on primitive rank vectors with parallel, pull-based
+     * iterations.
+     *
+     * Each iteration first stores every vertex's rank divided by its
+     * out-degree, then every vertex pulls the shares of its in-neighbours
+     * from the transpose of the graph. Each vertex is written by exactly one
+     * task, so no synchronization is needed, and the reads of the shares are
+     * sequential within each vertex's in-edges. The rank of vertices with no
+     * out-edges is spread according to the teleport vector, so the ranks
+     * always add up to 1.
+     *
+     * @param <T>           the generic typing of the data
+     * @param graph         the indexed graph to rank
+     * @param teleport      the probability of jumping to each vertex, adding
+     *                      up to 1
+     * @param damping       the probability of following an edge, in [0, 1)
+     * @param tolerance     stop once the L1 change between two iterations is
+     *                      at most this
+     * @param maxIterations stop after this many iterations
+     * @return the rank of every vertex, indexed like the graph
+     * @throws IllegalArgumentException if any input is null, if teleport
+     *                                  does not have one entry per vertex, or
+     *                                  if any parameter is out of range
+     */
+    public static <T> double[] pageRank(IndexedGraph<T> graph, double[] teleport,
+                                        double damping, double tolerance,
+                                        int maxIterations) {
+        if (graph == null || teleport == null) {
+            throw new IllegalArgumentException("The graph or teleport vector should not be null");
+        }
+        if (teleport.length != graph.size()) {
+            throw new IllegalArgumentException("The teleport vector should have one entry per vertex");
+        }
+        if (!(damping >= 0 && damping < 1) || !(tolerance >= 0) || maxIterations < 1) {
+            throw new IllegalArgumentException("The damping should be in [0, 1), the tolerance "
+                + "non-negative and the iteration limit positive");
+        }
+        int n = graph.size();
+        int[] offsets = graph.getOffsets();
+        IndexedGraph<T> transpose = graph.transpose();
+        int[] inOffsets = transpose.getOffsets();
+        int[] inSources = transpose.getTargets();
+        double[] rank = Arrays.copyOf(teleport, n);
+        double[] next = new double[n];
+        double[] share = new double[n];
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double[] current = rank;
+            double dangling = ParallelFor.sum(0, n, (low, high) -> {
+                double mass = 0;
+                for (int u = low; u < high; u++) {
+                    int degree = offsets[u + 1] - offsets[u];
+                    if (degree == 0) {
+                        share[u] = 0;
+                        mass += current[u];
+                    } else {
+                        share[u] = current[u] / degree;
+                    }
+                }
+                return mass;
+            });
+            double[] updated = next;
+            double change = ParallelFor.sum(0, n, (low, high) -> {
+                double delta = 0;
+                for (int v = low; v < high; v++) {
+                    double pulled = 0;
+                    for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                        pulled += share[inSources[e]];
+                    }
+                    updated[v] = (1 - damping + damping * dangling) * teleport[v]
+                        + damping * pulled;
+                    delta += Math.abs(updated[v] - current[v]);
+                }
+                return delta;
+            });
+            next = rank;
+            rank = updated;
+            if (change <= tolerance) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Finds communities in the graph with label propagation, ignoring the
+     * direction of the edges.
+     *
+     * Every vertex starts with its own label. In each round every vertex, in
+     * parallel, takes the label that is most common among its neighbours in
+     * the previous round, keeping its own label when it is tied for most
+     * common and otherwise taking the smallest tied label. Reading only the
+     * previous round makes the result deterministic. It stops when a round
+     * changes nothing or after maxIterations rounds.
+     *
+     * @param <T>           the generic typing of the data
+     * @param graph         the graph to find the communities of
+     * @param maxIterations the maximum number of rounds
+     * @return the community id of every vertex and the size of every
+     * community
+     * @throws IllegalArgumentException if the graph is null or maxIterations
+     *                                  is not positive
+     */
+    public static <T> ConnectedComponents<T> labelPropagation(Graph<T> graph,
+                                                              int maxIterations) {
+        checkGraph(graph);
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("The iteration limit should be positive");
+        }
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        IndexedGraph<T> transpose = indexed.transpose();
+        int n = indexed.size();
+        int[] labels = new int[n];
+        int[] nextLabels = new int[n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = i;
+        }
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            int[] current = labels;
+            int[] updated = nextLabels;
+            double changed = ParallelFor.sum(0, n, (low, high) -> {
+                IntList neighbours = new IntList();
+                int count = 0;
+                for (int v = low; v < high; v++) {
+                    neighbours.clear();
+                    addLabels(neighbours, indexed, v, current);
+                    addLabels(neighbours, transpose, v, current);
+                    updated[v] = mostCommonLabel(neighbours.toArray(), current[v]);
+                    if (updated[v] != current[v]) {
+                        count++;
+                    }
+                }
+                return count;
+            });
+            nextLabels = labels;
+            labels = updated;
+            if (changed == 0) {
+                break;
+            }
+        }
+        return new ConnectedComponents<>(indexed, labels);
+    }
+
+    /**
+     * A private method that adds the labels of a vertex's out-neighbours.
+     *
+     * @param neighbours the list to add the labels to
+     * @param graph the indexed graph
+     * @param v the vertex
+     * @param labels the label of every vertex
+     */
+    private static void addLabels(IntList neighbours, IndexedGraph<?> graph,
+                                  int v, int[] labels) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+            neighbours.add(labels[targets[e]]);
+        }
+    }
+
+    /**
+     * A private method that picks the most common label, preferring the
+     * current label and then the smallest label among ties.
+     *
+     * @param labels the labels of the neighbours, reordered by this method
+     * @param current the vertex's current label
+     * @return the chosen label, or current if there are no neighbours
+     */
+    private static int mostCommonLabel(int[] labels, int current) {
+        Arrays.sort(labels);
+        int best = current;
+        int bestCount = 0;
+        int currentCount = 0;
+        for (int i = 0; i < labels.length;) {
+            int j = i;
+            while (j < labels.length && labels[j] == labels[i]) {
+                j++;
+            }
+            if (j - i > bestCount) {
+                best = labels[i];
+                bestCount = j - i;
+            }
+            if (labels[i] == current) {
+                currentCount = j - i;
+            }
+            i = j;
+        }
+        return currentCount == bestCount ? current : best;
+    }
+
+    /**
+     * A private method that maps an array of values back to the vertices.
+     *
+     * @param <T> the generic typing of the data
+     * @param graph the indexed graph
+     * @param values the value of every vertex
+     * @return the value of every vertex
+     */
+    private static <T> Map<Vertex<T>, Double> toMap(IndexedGraph<T> graph,
+                                                    double[] values) {
+        Map<Vertex<T>, Double> map = new HashMap<>(2 * values.length);
+        for (int i = 0; i < values.length; i++) {
+            map.put(graph.getVertex(i), values[i]);
+        }
+        return map;
+    }
+
+    /**
+     * A private method that checks if the graph is null
+     *
+     * @param <T> the generic typing of the data
+     * @param graph the graph to check
+     * @throws IllegalArgumentException if the graph is null
+     */
+    private static <T> void checkGraph(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph should not be null");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class GraphAnalyticsTest {
+
+    /**
+     * Runs the GraphAnalytics tests.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        pageRankMatchesPowerIteration();
+        personalizedPageRankStaysNearSources();
+        labelPropagationFindsCliques();
+        System.out.println("GraphAnalyticsTest passed");
+    }
+
+    /**
+     * Checks pageRank against a plain sequential power iteration on random
+     * graphs with dangling vertices and self-loops.
+     */
+    static void pageRankMatchesPowerIteration() {
+        Random rand = new Random(33);
+        for (int trial = 0; trial < 50; trial++) {
+            int n = 1 + rand.nextInt(80);
+            Graph<Integer> graph = GraphAlgorithmsTest.randomGraph(rand, n, rand.nextInt(3 * n), 1);
+            IndexedGraph<Integer> indexed = graph.getIndexedGraph();
+            double[] teleport = new double[n];
+            Arrays.fill(teleport, 1.0 / n);
+            double[] expected = powerIteration(indexed, teleport, 0.85, 500);
+            Map<Vertex<Integer>, Double> ranks = GraphAnalytics.pageRank(graph);
+            double sum = 0;
+            for (int v = 0; v < n; v++) {
+                double rank = ranks.get(indexed.getVertex(v));
+                check(Math.abs(rank - expected[v]) < 1e-7, "pageRank disagrees");
+                sum += rank;
+            }
+            check(Math.abs(sum - 1) < 1e-9, "pageRank ranks add up to " + sum);
+        }
+    }
+
+    /**
+     * Checks personalizedPageRank against the power iteration with the
+     * teleport vector on the sources, and that a vertex unreachable from
+     * the sources gets no rank.
+     */
+    static void personalizedPageRankStaysNearSources() {
+        Random rand = new Random(330);
+        for (int trial = 0; trial < 30; trial++) {
+            int n = 2 + rand.nextInt(60);
+            Graph<Integer> graph = GraphAlgorithmsTest.randomGraph(rand, n, rand.nextInt(3 * n), 1);
+            IndexedGraph<Integer> indexed = graph.getIndexedGraph();
+            Set<Vertex<Integer>> sources = new HashSet<>();
+            sources.add(indexed.getVertex(0));
+            sources.add(indexed.getVertex(rand.nextInt(n)));
+            double[] teleport = new double[n];
+            for (Vertex<Integer> source : sources) {
+                teleport[indexed.indexOf(source)] = 1.0 / sources.size();
+            }
+            double[] expected = powerIteration(indexed, teleport, 0.5, 500);
+            Map<Vertex<Integer>, Double> ranks = GraphAnalytics.personalizedPageRank(graph,
+                sources, 0.5, 1e-12, 1000);
+            Set<Vertex<Integer>> reachable = new HashSet<>();
+            for (Vertex<Integer> source : sources) {
+                reachable.addAll(GraphAlgorithms.bfs(source, graph));
+            }
+            for (int v = 0; v < n; v++) {
+                double rank = ranks.get(indexed.getVertex(v));
+                check(Math.abs(rank - expected[v]) < 1e-7, "personalizedPageRank disagrees");
+                if (!reachable.contains(indexed.getVertex(v))) {
+                    check(rank == 0, "rank leaked to a vertex the sources cannot reach");
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that label propagation puts each of two cliques joined by one
+     * edge into its own community, the same way on every run.
+     */
+    static void labelPropagationFindsCliques() {
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        Set<Edge<Integer>> edges = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            vertices.add(new Vertex<>(i));
+            for (int j = 0; j < 12; j++) {
+                if (i != j && i / 6 == j / 6) {
+                    edges.add(new Edge<>(new Vertex<>(i), new Vertex<>(j), 1));
+                }
+            }
+        }
+        edges.add(new Edge<>(new Vertex<>(5), new Vertex<>(6), 1));
+        Graph<Integer> graph = new Graph<>(vertices, edges);
+        ConnectedComponents<Integer> communities = GraphAnalytics.labelPropagation(graph, 20);
+        check(communities.getComponentCount() == 2, "two communities");
+        for (int i = 0; i < 12; i++) {
+            check(communities.getComponentId(new Vertex<>(i))
+                == communities.getComponentId(new Vertex<>(i / 6 * 6)), "community of a clique");
+        }
+        check(communities.getComponentSize(0) == 6, "community size");
+        check(Arrays.equals(communities.getComponentIds(),
+            GraphAnalytics.labelPropagation(graph, 20).getComponentIds()), "deterministic");
+    }
+
+    /**
+     * Runs PageRank as a plain sequential power iteration: every vertex
+     * pushes its damped rank evenly to its out-neighbours, and the rank of
+     * the jumps and of vertices with no out-edges goes to the teleport
+     * vector.
+     *
+     * @param graph the indexed graph
+     * @param teleport the probability of jumping to each vertex
+     * @param damping the probability of following an edge
+     * @param iterations the number of iterations
+     * @return the rank of every vertex
+     */
+    private static double[] powerIteration(IndexedGraph<?> graph, double[] teleport,
+                                           double damping, int iterations) {
+        int n = graph.size();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] rank = teleport.clone();
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int u = 0; u < n; u++) {
+                int degree = offsets[u + 1] - offsets[u];
+                if (degree == 0) {
+                    dangling += rank[u];
+                }
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    next[targets[e]] += damping * rank[u] / degree;
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                next[v] += ((1 - damping) + damping * dangling) * teleport[v];
+            }
+            rank = next;
+        }
+        return rank;
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class GraphIO {
+
+    /**
+     * The first four bytes of every binary graph file ("DSGR").
+     */
+    public static final int MAGIC = 0x44534752;
+
+    /**
+     * The version of the binary format written by writeBinary.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes: magic, version, vertex count and edge
+     * count, each a 4 byte int.
+     */
+    private static final int HEADER_BYTES = 16;
+
+    /**
+     * The largest region mapped or written at once. MappedByteBuffer cannot
+     * exceed Integer.MAX_VALUE bytes, so larger arrays are copied in chunks.
+     */
+    private static final int CHUNK_BYTES = 1 << 26;
+
+    /**
+     * Reads a text edge list into a Graph in a single streaming pass.
+     *
+     * Every non-blank line that does not start with '#' holds a directed edge
+     * as "u v" or "u v weight" separated by whitespace, where u and v are
+     * integer vertex ids. Edges without a weight get weight 1. The vertex set
+     * is every id that appears in an edge.
+     *
+     * Each line is added straight to the vertex set, edge set and adjacency
+     * list, and the graph adopts those collections, so only one copy of the
+     * graph is ever held in memory. A line that repeats an earlier edge is
+     * ignored, just as the Graph constructor ignores duplicate edges.
+     *
+     * @param path the file to read
+     * @return the graph described by the file
+     * @throws IllegalArgumentException if path is null or a line is malformed
+     * @throws IOException if the file cannot be read
+     */
+    public static Graph<Integer> readEdgeList(Path path) throws IOException {
+        checkPath(path);
+        VertexTable interned = new VertexTable();
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        Set<Edge<Integer>> edges = new HashSet<>();
+        Map<Vertex<Integer>, List<VertexDistance<Integer>>> adjList = new HashMap<>();
+        int[] fields = new int[3];
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!parseEdge(line, lineNumber, fields)) {
+                    continue;
+                }
+                Vertex<Integer> u = intern(fields[0], interned, vertices, adjList);
+                Vertex<Integer> v = intern(fields[1], interned, vertices, adjList);
+                Edge<Integer> edge = new Edge<>(u, v, fields[2]);
+                if (edges.add(edge)) {
+                    adjList.get(u).add(new VertexDistance<>(v, fields[2]));
+                }
+            }
+        }
+        return new Graph<>(vertices, edges, adjList);
+    }
+
+    /**
+     * Reads a text edge list, in the same format as readEdgeList, straight
+     * into an IndexedGraph without creating any Edge or VertexDistance
+     * objects.
+     *
+     * The file is streamed twice: the first pass assigns vertex indices and
+     * counts out-degrees, the second fills the compressed adjacency arrays.
+     * Apart from the result, only the id to index map is held in memory.
+     * Unlike readEdgeList, duplicate lines are kept as parallel edges. Pass
+     * the result to the Graph or MutableGraph constructor to run the
+     * GraphAlgorithms on it.
+     *
+     * @param path the file to read
+     * @return the indexed graph described by the file
+     * @throws IllegalArgumentException if path is null or a line is malformed
+     * @throws IOException if the file cannot be read
+     */
+    public static IndexedGraph<Integer> readEdgeListIndexed(Path path)
+        throws IOException {
+        checkPath(path);
+        Map<Vertex<Integer>, Integer> indices = new HashMap<>();
+        IntList ids = new IntList();
+        IntList degrees = new IntList();
+        int[] fields = new int[3];
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!parseEdge(line, lineNumber, fields)) {
+                    continue;
+                }
+                int u = index(fields[0], indices, ids, degrees);
+                index(fields[1], indices, ids, degrees);
+                if (degrees.get(u) == Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Too many edges.");
+                }
+                incrementDegree(degrees, u);
+            }
+        }
+
+        int n = ids.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            long next = (long) offsets[i] + degrees.get(i);
+            if (next > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many edges.");
+            }
+            offsets[i + 1] = (int) next;
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        int[] fill = new int[n];
+        System.arraycopy(offsets, 0, fill, 0, n);
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!parseEdge(line, lineNumber, fields)) {
+                    continue;
+                }
+                int u = indices.get(new Vertex<>(fields[0]));
+                int edge = fill[u]++;
+                targets[edge] = indices.get(new Vertex<>(fields[1]));
+                weights[edge] = fields[2];
+            }
+        }
+        return new IndexedGraph<>(toVertices(ids), indices, offsets, targets, weights);
+    }
+
+    /**
+     * Writes the graph in the binary format read by readBinary.
+     *
+     * The file is a 16 byte header (MAGIC, VERSION, vertex count n and edge
+     * count m), followed by the n vertex ids, the n + 1 edge offsets, the m
+     * edge targets and the m edge weights, every value a big-endian 4 byte
+     * int. This is the IndexedGraph layout, so reading it back is a bulk
+     * copy.
+     *
+     * @param graph the graph to write
+     * @param path the file to write, replaced if it exists
+     * @throws IllegalArgumentException if any input is null
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeBinary(IndexedGraph<Integer> graph, Path path)
+        throws IOException {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        checkPath(path);
+        int n = graph.size();
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = graph.getVertex(i).getData();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long total = HEADER_BYTES + 4L * (2L * n + 1 + 2L * graph.edgeCount());
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(CHUNK_BYTES, total));
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(graph.edgeCount());
+            writeInts(channel, buffer, ids);
+            writeInts(channel, buffer, graph.getOffsets());
+            writeInts(channel, buffer, graph.getTargets());
+            writeInts(channel, buffer, graph.getWeights());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes the graph in the binary format read by readBinary.
+     *
+     * @param graph the graph to write
+     * @param path the file to write, replaced if it exists
+     * @throws IllegalArgumentException if any input is null
+     * @throws IOException if the file cannot be written
+     * @see #writeBinary(IndexedGraph, Path)
+     */
+    public static void writeBinary(Graph<Integer> graph, Path path)
+        throws IOException {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        writeBinary(graph.getIndexedGraph(), path);
+    }
+
+    /**
+     * Reads a graph written by writeBinary by memory-mapping the file and
+     * bulk copying each section into the IndexedGraph arrays, so the only
+     * memory used is the result itself. Every offset, target and id is
+     * checked, so a corrupt file is rejected here rather than failing in a
+     * later algorithm. Pass the result to the Graph or MutableGraph
+     * constructor to run the GraphAlgorithms on it.
+     *
+     * @param path the file to read
+     * @return the indexed graph stored in the file
+     * @throws IllegalArgumentException if path is null, the file is not a
+     *                                  binary graph file, its offsets
+     *                                  decrease, an edge target is out of
+     *                                  range or two vertices share an id
+     * @throws IOException if the file cannot be read
+     */
+    public static IndexedGraph<Integer> readBinary(Path path) throws IOException {
+        checkPath(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalArgumentException("The file is not a binary graph file.");
+            }
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                HEADER_BYTES).asIntBuffer();
+            int magic = header.get();
+            int version = header.get();
+            int n = header.get();
+            int m = header.get();
+            long expected = HEADER_BYTES + 4L * (2L * n + 1 + 2L * m);
+            if (magic != MAGIC || version != VERSION || n < 0 || m < 0
+                || channel.size() != expected) {
+                throw new IllegalArgumentException("The file is not a binary graph file.");
+            }
+
+            long position = HEADER_BYTES;
+            int[] ids = new int[n];
+            position = readInts(channel, position, ids);
+            int[] offsets = new int[n + 1];
+            position = readInts(channel, position, offsets);
+            int[] targets = new int[m];
+            position = readInts(channel, position, targets);
+            int[] weights = new int[m];
+            readInts(channel, position, weights);
+
+            if (offsets[0] != 0 || offsets[n] != m) {
+                throw new IllegalArgumentException("The file is not a binary graph file.");
+            }
+            for (int i = 0; i < n; i++) {
+                if (offsets[i] > offsets[i + 1]) {
+                    throw new IllegalArgumentException("The edge offsets of the file decrease.");
+                }
+            }
+            for (int target : targets) {
+                if (target < 0 || target >= n) {
+                    throw new IllegalArgumentException("The file has an edge to a vertex out of range.");
+                }
+            }
+            @SuppressWarnings("unchecked")
+            Vertex<Integer>[] vertices = (Vertex<Integer>[]) new Vertex<?>[n];
+            Map<Vertex<Integer>, Integer> indices = new HashMap<>(2 * n);
+            for (int i = 0; i < n; i++) {
+                vertices[i] = new Vertex<>(ids[i]);
+                if (indices.put(vertices[i], i) != null) {
+                    throw new IllegalArgumentException("The file has duplicate vertex ids.");
+                }
+            }
+            return new IndexedGraph<>(vertices, indices, offsets, targets, weights);
+        }
+    }
+
+    /**
+     * A private method that checks if the path is null.
+     *
+     * @param path the path to check
+     * @throws IllegalArgumentException if the path is null
+     */
+    private static void checkPath(Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null.");
+        }
+    }
+
+    /**
+     * A private method that parses one line of a text edge list into
+     * {u, v, weight} without allocating.
+     *
+     * @param line the line to parse
+     * @param lineNumber the line number, used in error messages
+     * @param fields the array receiving u, v and weight
+     * @return false if the line is blank or a comment, true otherwise
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    private static boolean parseEdge(String line, int lineNumber, int[] fields) {
+        int count = 0;
+        int i = 0;
+        int len = line.length();
+        while (i < len) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '#' && count == 0) {
+                return false;
+            }
+            if (count == 3) {
+                throw new IllegalArgumentException("Line " + lineNumber
+                    + " has more than three fields.");
+            }
+            boolean negative = c == '-';
+            if (negative || c == '+') {
+                i++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (i < len && line.charAt(i) >= '0' && line.charAt(i) <= '9') {
+                value = value * 10 + (line.charAt(i) - '0');
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw new IllegalArgumentException("Line " + lineNumber
+                        + " has a number out of range.");
+                }
+                digits++;
+                i++;
+            }
+            if (digits == 0 || (i < len && !Character.isWhitespace(line.charAt(i)))) {
+                throw new IllegalArgumentException("Line " + lineNumber
+                    + " is not an edge.");
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Line " + lineNumber
+                    + " has a number out of range.");
+            }
+            fields[count++] = (int) value;
+        }
+        if (count == 0) {
+            return false;
+        }
+        if (count == 1) {
+            throw new IllegalArgumentException("Line " + lineNumber
+                + " is not an edge.");
+        }
+        if (count == 2) {
+            fields[2] = 1;
+        }
+        return true;
+    }
+
+    /**
+     * A private method that returns the single Vertex object for an id,
+     * creating it and its adjacency entry the first time the id is seen.
+     *
+     * @param id the vertex id
+     * @param interned the Vertex object of every id seen so far
+     * @param vertices the vertex set
+     * @param adjList the adjacency list
+     * @return the Vertex for the id
+     */
+    private static Vertex<Integer> intern(int id, VertexTable interned,
+                                          Set<Vertex<Integer>> vertices,
+                                          Map<Vertex<Integer>, List<VertexDistance<Integer>>> adjList) {
+        Vertex<Integer> vertex = interned.get(id);
+        if (vertex == null) {
+            vertex = new Vertex<>(id);
+            interned.put(id, vertex);
+            vertices.add(vertex);
+            adjList.put(vertex, new ArrayList<>());
+        }
+        return vertex;
+    }
+
+    /**
+     * A private method that returns the dense index of an id, assigning the
+     * next index the first time the id is seen.
+     *
+     * @param id the vertex id
+     * @param indices the index of every vertex seen so far
+     * @param ids the id of every index
+     * @param degrees the out-degree of every index
+     * @return the index of the id
+     */
+    private static int index(int id, Map<Vertex<Integer>, Integer> indices,
+                             IntList ids, IntList degrees) {
+        Vertex<Integer> vertex = new Vertex<>(id);
+        Integer index = indices.get(vertex);
+        if (index == null) {
+            index = ids.size();
+            indices.put(vertex, index);
+            ids.add(id);
+            degrees.add(0);
+        }
+        return index;
+    }
+
+    /**
+     * A private method that adds one to a counter in an IntList.
+     *
+     * @param degrees the counters
+     * @param index the counter to increment
+     */
+    private static void incrementDegree(IntList degrees, int index) {
+        degrees.set(index, degrees.get(index) + 1);
+    }
+
+    /**
+     * A private method that creates the vertex array of a list of ids.
+     *
+     * @param ids the ids in index order
+     * @return the vertices in index order
+     */
+    private static Vertex<Integer>[] toVertices(IntList ids) {
+        @SuppressWarnings("unchecked")
+        Vertex<Integer>[] vertices = (Vertex<Integer>[]) new Vertex<?>[ids.size()];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex<>(ids.get(i));
+        }
+        return vertices;
+    }
+
+    /**
+     * A private method that appends an int array to the buffer, writing the
+     * buffer to the channel whenever it fills up.
+     *
+     * @param channel the channel to write to
+     * @param buffer the staging buffer
+     * @param values the values to write
+     * @throws IOException if the channel cannot be written
+     */
+    private static void writeInts(FileChannel channel, ByteBuffer buffer,
+                                  int[] values) throws IOException {
+        int written = 0;
+        while (written < values.length) {
+            if (buffer.remaining() < 4) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+            int count = Math.min(values.length - written, buffer.remaining() / 4);
+            buffer.asIntBuffer().put(values, written, count);
+            buffer.position(buffer.position() + 4 * count);
+            written += count;
+        }
+    }
+
+    /**
+     * A private method that fills an int array from the file by mapping it
+     * one chunk at a time.
+     *
+     * @param channel the channel to read from
+     * @param position the byte offset of the first value
+     * @param values the array to fill
+     * @return the byte offset just past the last value
+     * @throws IOException if the channel cannot be read
+     */
+    private static long readInts(FileChannel channel, long position,
+                                 int[] values) throws IOException {
+        int read = 0;
+        while (read < values.length) {
+            int count = Math.min(values.length - read, CHUNK_BYTES / 4);
+            channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count)
+                .asIntBuffer().get(values, read, count);
+            position += 4L * count;
+            read += count;
+        }
+        return position;
+    }
+
+    /**
+     * An open-addressing table from int ids to their Vertex objects. It lets
+     * readEdgeList share one Vertex per id between the vertex set, edges and
+     * adjacency list without a boxed HashMap entry per id: each id costs an
+     * int and a reference, at a load factor of at most one half.
+     */
+    private static final class VertexTable {
+
+        private int[] ids;
+        private Vertex<Integer>[] vertices;
+        private int size;
+        private int shift;
+
+        /**
+         * Creates an empty table.
+         */
+        VertexTable() {
+            allocate(16);
+        }
+
+        /**
+         * Gets the Vertex of an id.
+         *
+         * @param id the vertex id
+         * @return the Vertex of the id, or null if it has not been added
+         */
+        Vertex<Integer> get(int id) {
+            int mask = ids.length - 1;
+            for (int i = slot(id); vertices[i] != null; i = (i + 1) & mask) {
+                if (ids[i] == id) {
+                    return vertices[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Adds the Vertex of an id that is not in the table yet.
+         *
+         * @param id the vertex id
+         * @param vertex the Vertex of the id
+         */
+        void put(int id, Vertex<Integer> vertex) {
+            if (2 * (size + 1) > ids.length) {
+                int[] oldIds = ids;
+                Vertex<Integer>[] oldVertices = vertices;
+                allocate(2 * oldIds.length);
+                for (int i = 0; i < oldIds.length; i++) {
+                    if (oldVertices[i] != null) {
+                        insert(oldIds[i], oldVertices[i]);
+                    }
+                }
+            }
+            insert(id, vertex);
+            size++;
+        }
+
+        /**
+         * Replaces the arrays with empty ones of the given capacity.
+         *
+         * @param capacity the new capacity, a power of two
+         */
+        @SuppressWarnings("unchecked")
+        private void allocate(int capacity) {
+            ids = new int[capacity];
+            vertices = (Vertex<Integer>[]) new Vertex<?>[capacity];
+            shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        }
+
+        /**
+         * Stores an entry in the first free slot of its probe sequence.
+         *
+         * @param id the vertex id
+         * @param vertex the Vertex of the id
+         */
+        private void insert(int id, Vertex<Integer> vertex) {
+            int mask = ids.length - 1;
+            int i = slot(id);
+            while (vertices[i] != null) {
+                i = (i + 1) & mask;
+            }
+            ids[i] = id;
+            vertices[i] = vertex;
+        }
+
+        /**
+         * Gets the home slot of an id by Fibonacci hashing, so consecutive
+         * ids are spread over the table.
+         *
+         * @param id the vertex id
+         * @return the home slot
+         */
+        private int slot(int id) {
+            return (id * 0x9E3779B9) >>> shift;
+        }
+    }
+}
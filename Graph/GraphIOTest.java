@@ -0,0 +1,233 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class GraphIOTest {
+
+    /**
+     * Runs the GraphIO tests.
+     *
+     * @param args unused
+     * @throws IOException if a temporary file cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("graphio");
+        try {
+            readEdgeList(dir);
+            readEdgeListIndexed(dir);
+            binaryRoundTrip(dir);
+            readBinaryRejectsCorruptFiles(dir);
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+        System.out.println("GraphIOTest passed");
+    }
+
+    /**
+     * Checks that comments and blank lines are skipped, missing weights
+     * default to 1 and repeated edges are kept once.
+     *
+     * @param dir the directory for temporary files
+     * @throws IOException if a temporary file cannot be used
+     */
+    static void readEdgeList(Path dir) throws IOException {
+        Path path = dir.resolve("list.txt");
+        Files.write(path, Arrays.asList("# comment", "1 2 5", "", "2 3", "1 2 5", "3 1 -4"));
+        Graph<Integer> graph = GraphIO.readEdgeList(path);
+        check(graph.getVertices().equals(vertices(1, 2, 3)), "readEdgeList vertices");
+        Set<Edge<Integer>> edges = new HashSet<>();
+        edges.add(edge(1, 2, 5));
+        edges.add(edge(2, 3, 1));
+        edges.add(edge(3, 1, -4));
+        check(graph.getEdges().equals(edges), "readEdgeList edges");
+        check(graph.getAdjList().get(new Vertex<>(1)).size() == 1, "readEdgeList duplicate edge");
+        expectIllegalArgument(() -> {
+            Files.write(path, Arrays.asList("1 2 3 4"));
+            GraphIO.readEdgeList(path);
+        }, "readEdgeList accepted four fields");
+    }
+
+    /**
+     * Checks that readEdgeListIndexed keeps parallel edges and that a Graph
+     * built from it keeps each edge once and runs the algorithms.
+     *
+     * @param dir the directory for temporary files
+     * @throws IOException if a temporary file cannot be used
+     */
+    static void readEdgeListIndexed(Path dir) throws IOException {
+        Path path = dir.resolve("indexed.txt");
+        Files.write(path, Arrays.asList("0 1 2", "0 1 2", "1 2 3", "0 2 9"));
+        IndexedGraph<Integer> indexed = GraphIO.readEdgeListIndexed(path);
+        check(indexed.size() == 3 && indexed.edgeCount() == 4, "readEdgeListIndexed sizes");
+        Graph<Integer> graph = new Graph<>(indexed);
+        check(graph.getEdges().size() == 3, "Graph(IndexedGraph) kept a parallel edge");
+        check(graph.getAdjList().get(new Vertex<>(0)).equals(Arrays.asList(
+            new VertexDistance<>(new Vertex<>(1), 2), new VertexDistance<>(new Vertex<>(2), 9))),
+            "Graph(IndexedGraph) adjacency order");
+        Map<Vertex<Integer>, Integer> dist = GraphAlgorithms.dijkstras(new Vertex<>(0), graph);
+        check(dist.get(new Vertex<>(2)) == 5, "dijkstras on a loaded graph");
+        List<Vertex<Integer>> order = GraphAlgorithms.bfs(new Vertex<>(0), graph);
+        check(order.equals(Arrays.asList(new Vertex<>(0), new Vertex<>(1), new Vertex<>(2))),
+            "bfs on a loaded graph");
+    }
+
+    /**
+     * Checks that a graph written with writeBinary reads back with the same
+     * vertices, edges and adjacency order, and that a MutableGraph built
+     * from it can be updated.
+     *
+     * @param dir the directory for temporary files
+     * @throws IOException if a temporary file cannot be used
+     */
+    static void binaryRoundTrip(Path dir) throws IOException {
+        Set<Edge<Integer>> edges = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            edges.add(edge(i, (i * 7 + 3) % 50, i % 5));
+            edges.add(edge(i, (i + 1) % 50, 1));
+        }
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        Graph<Integer> graph = new Graph<>(vertices, edges);
+        Path path = dir.resolve("graph.bin");
+        GraphIO.writeBinary(graph, path);
+        Graph<Integer> loaded = new Graph<>(GraphIO.readBinary(path));
+        check(loaded.getVertices().equals(graph.getVertices()), "readBinary vertices");
+        check(loaded.getEdges().equals(graph.getEdges()), "readBinary edges");
+        check(loaded.getAdjList().equals(graph.getAdjList()), "readBinary adjacency order");
+        check(GraphAlgorithms.dfs(new Vertex<>(0), loaded)
+            .equals(GraphAlgorithms.dfs(new Vertex<>(0), graph)), "dfs on a loaded graph");
+
+        MutableGraph<Integer> mutable = new MutableGraph<>(GraphIO.readBinary(path));
+        check(mutable.getComponentCount() == 1, "MutableGraph(IndexedGraph) components");
+        check(mutable.addVertex(new Vertex<>(50)), "MutableGraph(IndexedGraph) addVertex");
+        check(mutable.getComponentCount() == 2, "MutableGraph(IndexedGraph) new component");
+        check(mutable.addEdge(edge(50, 0, 1)), "MutableGraph(IndexedGraph) addEdge");
+        check(mutable.isConnected(new Vertex<>(50), new Vertex<>(3)),
+            "MutableGraph(IndexedGraph) connectivity");
+    }
+
+    /**
+     * Checks that readBinary rejects a bad header, decreasing offsets, an
+     * edge target out of range and duplicate vertex ids.
+     *
+     * @param dir the directory for temporary files
+     * @throws IOException if a temporary file cannot be used
+     */
+    static void readBinaryRejectsCorruptFiles(Path dir) throws IOException {
+        Path path = dir.resolve("corrupt.bin");
+        Files.write(path, Arrays.asList("0 1 1", "1 2 1", "2 0 1"));
+        GraphIO.writeBinary(GraphIO.readEdgeListIndexed(path), path);
+        byte[] valid = Files.readAllBytes(path);
+        int n = 3;
+        int ids = 16;
+        int offsets = ids + 4 * n;
+        int targets = offsets + 4 * (n + 1);
+        expectCorrupt(path, valid, 0, 0, "bad magic");
+        expectCorrupt(path, valid, offsets + 4, 3, "decreasing offsets");
+        expectCorrupt(path, valid, targets + 4, 3, "target out of range");
+        expectCorrupt(path, valid, targets, -1, "negative target");
+        expectCorrupt(path, valid, ids + 4, 0, "duplicate ids");
+    }
+
+    /**
+     * Writes a copy of a valid file with one int replaced and checks that
+     * readBinary rejects it.
+     *
+     * @param path the file to write
+     * @param valid the bytes of a valid file
+     * @param position the byte offset of the int to replace
+     * @param value the replacement
+     * @param message the description of the corruption
+     * @throws IOException if the file cannot be written
+     */
+    private static void expectCorrupt(Path path, byte[] valid, int position, int value,
+                                      String message) throws IOException {
+        byte[] bytes = valid.clone();
+        ByteBuffer.wrap(bytes).putInt(position, value);
+        Files.write(path, bytes);
+        expectIllegalArgument(() -> GraphIO.readBinary(path), "readBinary accepted " + message);
+    }
+
+    /**
+     * Creates the set of vertices with the given ids.
+     *
+     * @param ids the vertex ids
+     * @return the vertices
+     */
+    private static Set<Vertex<Integer>> vertices(int... ids) {
+        Set<Vertex<Integer>> vertices = new HashSet<>();
+        for (int id : ids) {
+            vertices.add(new Vertex<>(id));
+        }
+        return vertices;
+    }
+
+    /**
+     * Creates the edge (u, v, weight).
+     *
+     * @param u the start vertex id
+     * @param v the end vertex id
+     * @param weight the weight
+     * @return the edge
+     */
+    private static Edge<Integer> edge(int u, int v, int weight) {
+        return new Edge<>(new Vertex<>(u), new Vertex<>(v), weight);
+    }
+
+    /**
+     * Checks that the action throws an IllegalArgumentException.
+     *
+     * @param action the action to run
+     * @param message the failure message
+     * @throws IOException if the action fails with an IOException
+     */
+    private static void expectIllegalArgument(IOAction action, String message)
+        throws IOException {
+        try {
+            action.run();
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError(message);
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * An action that may throw an IOException.
+     */
+    interface IOAction {
+
+        /**
+         * Runs the action.
+         *
+         * @throws IOException if the action fails
+         */
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,323 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GraphPartitioner {
+
+    /**
+     * How far above the average size labelPropagationPartition lets a part
+     * grow, as a fraction of the average.
+     */
+    public static final double DEFAULT_IMBALANCE = 0.05;
+
+    /**
+     * Assigns every vertex to a part by hashing the vertex. A vertex lands in
+     * the same part in every graph it appears in, and the parts are balanced
+     * in expectation, but most edges cross between parts.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to partition
+     * @param parts the number of parts
+     * @return the part of every vertex, indexed like graph.getIndexedGraph()
+     * @throws IllegalArgumentException if the graph is null or parts is not
+     * positive
+     */
+    public static <T> int[] hashPartition(Graph<T> graph, int parts) {
+        checkPartition(graph, parts);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        int[] part = new int[indexed.size()];
+        for (int i = 0; i < part.length; i++) {
+            part[i] = Math.floorMod(Hashing.mix(indexed.getVertex(i).hashCode()), parts);
+        }
+        return part;
+    }
+
+    /**
+     * Assigns every vertex to a part with DEFAULT_IMBALANCE.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to partition
+     * @param parts the number of parts
+     * @param maxIterations the maximum number of sweeps over the vertices
+     * @return the part of every vertex, indexed like graph.getIndexedGraph()
+     * @throws IllegalArgumentException if the graph is null or parts or
+     * maxIterations is not positive
+     * @see #labelPropagationPartition(Graph, int, int, double)
+     */
+    public static <T> int[] labelPropagationPartition(Graph<T> graph, int parts,
+                                                      int maxIterations) {
+        return labelPropagationPartition(graph, parts, maxIterations,
+            DEFAULT_IMBALANCE);
+    }
+
+    /**
+     * Assigns every vertex to a part, trying to cut as few edges as possible
+     * while keeping the parts balanced.
+     *
+     * Starts from hashPartition and sweeps over the vertices, moving each
+     * vertex to the part most of its neighbours (in either direction) are
+     * in, as long as that part has fewer than
+     * (1 + imbalance) * V / parts vertices. Stops when a sweep moves no
+     * vertex or after maxIterations sweeps.
+     *
+     * Must be O(maxIterations * (V + E)).
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to partition
+     * @param parts the number of parts
+     * @param maxIterations the maximum number of sweeps over the vertices
+     * @param imbalance how far above the average size a part may grow
+     * @return the part of every vertex, indexed like graph.getIndexedGraph()
+     * @throws IllegalArgumentException if the graph is null, parts or
+     * maxIterations is not positive or imbalance is negative
+     */
+    public static <T> int[] labelPropagationPartition(Graph<T> graph, int parts,
+                                                      int maxIterations,
+                                                      double imbalance) {
+        if (maxIterations <= 0 || !(imbalance >= 0)) {
+            throw new IllegalArgumentException("The iteration limit should be positive "
+                + "and the imbalance non-negative");
+        }
+        int[] part = hashPartition(graph, parts);
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        IndexedGraph<T> reversed = indexed.transpose();
+        int n = indexed.size();
+        long capacity = (long) Math.ceil((1 + imbalance) * n / parts);
+        int[] sizes = new int[parts];
+        for (int p : part) {
+            sizes[p]++;
+        }
+
+        int[] counts = new int[parts];
+        IntList touched = new IntList();
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            int moved = 0;
+            for (int u = 0; u < n; u++) {
+                countParts(indexed, u, part, counts, touched);
+                countParts(reversed, u, part, counts, touched);
+                int current = part[u];
+                int best = current;
+                for (int i = 0; i < touched.size(); i++) {
+                    int p = touched.get(i);
+                    if (counts[p] > counts[best] && sizes[p] < capacity) {
+                        best = p;
+                    }
+                }
+                for (int i = 0; i < touched.size(); i++) {
+                    counts[touched.get(i)] = 0;
+                }
+                touched.clear();
+                if (best != current) {
+                    sizes[current]--;
+                    sizes[best]++;
+                    part[u] = best;
+                    moved++;
+                }
+            }
+            if (moved == 0) {
+                break;
+            }
+        }
+        return part;
+    }
+
+    /**
+     * Counts the edges whose endpoints are in different parts.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the partitioned graph
+     * @param part the part of every vertex, indexed like
+     *             graph.getIndexedGraph()
+     * @return the number of cut edges
+     * @throws IllegalArgumentException if the graph or part is null or part
+     * does not have one entry per vertex
+     */
+    public static <T> long edgeCut(Graph<T> graph, int[] part) {
+        IndexedGraph<T> indexed = checkParts(graph, part);
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        long cut = 0;
+        for (int u = 0; u < indexed.size(); u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (part[targets[e]] != part[u]) {
+                    cut++;
+                }
+            }
+        }
+        return cut;
+    }
+
+    /**
+     * Splits the graph into one shard per part. Each shard owns the vertices
+     * of its part with their out- and in-edges, and holds a ghost for every
+     * vertex of another part adjacent to one of them.
+     *
+     * Must be O(V + E) plus the cost of building the transpose.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to split
+     * @param part the part of every vertex, indexed like
+     *             graph.getIndexedGraph()
+     * @param parts the number of parts
+     * @return the shards, where shard i holds part i
+     * @throws IllegalArgumentException if the graph or part is null, part
+     * does not have one entry per vertex or a part is not in [0, parts)
+     */
+    public static <T> List<GraphShard> split(Graph<T> graph, int[] part, int parts) {
+        IndexedGraph<T> indexed = checkParts(graph, part);
+        if (parts <= 0) {
+            throw new IllegalArgumentException("The number of parts should be positive");
+        }
+        int n = indexed.size();
+        int[] ownedIndex = new int[n];
+        IntList[] owned = new IntList[parts];
+        for (int p = 0; p < parts; p++) {
+            owned[p] = new IntList();
+        }
+        for (int u = 0; u < n; u++) {
+            if (part[u] < 0 || part[u] >= parts) {
+                throw new IllegalArgumentException("The parts should be in [0, parts)");
+            }
+            ownedIndex[u] = owned[part[u]].size();
+            owned[part[u]].add(u);
+        }
+
+        IndexedGraph<T> reversed = indexed.transpose();
+        int[] ghostIndex = new int[n];
+        Arrays.fill(ghostIndex, -1);
+        List<GraphShard> shards = new ArrayList<>(parts);
+        for (int p = 0; p < parts; p++) {
+            IntList globalIds = new IntList();
+            globalIds.addAll(owned[p]);
+            IntList ghostOwners = new IntList();
+            IntList ghostRemote = new IntList();
+            int ownedCount = owned[p].size();
+            int[][] out = localEdges(indexed, owned[p], part, p, ownedIndex,
+                ghostIndex, globalIds, ghostOwners, ghostRemote);
+            int[][] in = localEdges(reversed, owned[p], part, p, ownedIndex,
+                ghostIndex, globalIds, ghostOwners, ghostRemote);
+            for (int g = ownedCount; g < globalIds.size(); g++) {
+                ghostIndex[globalIds.get(g)] = -1;
+            }
+            shards.add(new GraphShard(p, ownedCount, globalIds.toArray(),
+                ghostOwners.toArray(), ghostRemote.toArray(), out[0], out[1],
+                out[2], in[0], in[1], in[2]));
+        }
+        return shards;
+    }
+
+    /**
+     * A private method that copies the edges of the owned vertices into
+     * local compressed sparse row arrays, adding a ghost the first time a
+     * vertex of another part is seen.
+     *
+     * @param graph the graph (or transpose) to copy the edges of
+     * @param owned the global indices of the owned vertices
+     * @param part the part of every vertex
+     * @param shard the part being copied
+     * @param ownedIndex the local index of every vertex in its own part
+     * @param ghostIndex the local index of every ghost seen so far, or -1
+     * @param globalIds the global indices of the local vertices
+     * @param ghostOwners the owning part of every ghost
+     * @param ghostRemote the local index of every ghost in its own part
+     * @return the offsets, targets and weights arrays
+     */
+    private static int[][] localEdges(IndexedGraph<?> graph, IntList owned,
+                                      int[] part, int shard, int[] ownedIndex,
+                                      int[] ghostIndex, IntList globalIds,
+                                      IntList ghostOwners, IntList ghostRemote) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] localOffsets = new int[owned.size() + 1];
+        for (int i = 0; i < owned.size(); i++) {
+            int u = owned.get(i);
+            localOffsets[i + 1] = localOffsets[i] + offsets[u + 1] - offsets[u];
+        }
+        int[] localTargets = new int[localOffsets[owned.size()]];
+        int[] localWeights = new int[localTargets.length];
+        int edge = 0;
+        for (int i = 0; i < owned.size(); i++) {
+            int u = owned.get(i);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int local;
+                if (part[v] == shard) {
+                    local = ownedIndex[v];
+                } else {
+                    if (ghostIndex[v] == -1) {
+                        ghostIndex[v] = globalIds.size();
+                        globalIds.add(v);
+                        ghostOwners.add(part[v]);
+                        ghostRemote.add(ownedIndex[v]);
+                    }
+                    local = ghostIndex[v];
+                }
+                localTargets[edge] = local;
+                localWeights[edge] = weights[e];
+                edge++;
+            }
+        }
+        return new int[][] {localOffsets, localTargets, localWeights};
+    }
+
+    /**
+     * A private method that adds the part of every neighbour of u to the
+     * counts, recording each part counted for the first time.
+     *
+     * @param graph the graph (or transpose) to take the neighbours from
+     * @param u the vertex
+     * @param part the part of every vertex
+     * @param counts the number of neighbours in each part
+     * @param touched the parts with a non-zero count
+     */
+    private static void countParts(IndexedGraph<?> graph, int u, int[] part,
+                                   int[] counts, IntList touched) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            int p = part[targets[e]];
+            if (counts[p]++ == 0) {
+                touched.add(p);
+            }
+        }
+    }
+
+    /**
+     * A private method that checks the graph and number of parts.
+     *
+     * @param graph the graph
+     * @param parts the number of parts
+     * @throws IllegalArgumentException if the graph is null or parts is not
+     * positive
+     */
+    private static void checkPartition(Graph<?> graph, int parts) {
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph should not be null");
+        }
+        if (parts <= 0) {
+            throw new IllegalArgumentException("The number of parts should be positive");
+        }
+    }
+
+    /**
+     * A private method that checks a partition of the graph.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph
+     * @param part the part of every vertex
+     * @return the indexed graph
+     * @throws IllegalArgumentException if the graph or part is null or part
+     * does not have one entry per vertex
+     */
+    private static <T> IndexedGraph<T> checkParts(Graph<T> graph, int[] part) {
+        if (graph == null || part == null) {
+            throw new IllegalArgumentException("The graph or partition should not be null");
+        }
+        IndexedGraph<T> indexed = graph.getIndexedGraph();
+        if (part.length != indexed.size()) {
+            throw new IllegalArgumentException("The partition should have one entry per vertex");
+        }
+        return indexed;
+    }
+}
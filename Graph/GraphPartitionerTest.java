@@ -0,0 +1,146 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class GraphPartitionerTest {
+
+    /**
+     * Runs the GraphPartitioner and ShardedGraphEngine tests.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        partitionsAreValid();
+        labelPropagationCutsFewerEdges();
+        shardedEngineMatchesSequentialAlgorithms();
+        System.out.println("GraphPartitionerTest passed");
+    }
+
+    /**
+     * Checks that both partitioners put every vertex in [0, parts) and that
+     * split gives every vertex to exactly one shard.
+     */
+    static void partitionsAreValid() {
+        Random rand = new Random(37);
+        for (int trial = 0; trial < 50; trial++) {
+            int n = 1 + rand.nextInt(200);
+            int parts = 1 + rand.nextInt(6);
+            Graph<Integer> graph = GraphAlgorithmsTest.randomGraph(rand, n, rand.nextInt(4 * n), 9);
+            int[][] partitions = {
+                GraphPartitioner.hashPartition(graph, parts),
+                GraphPartitioner.labelPropagationPartition(graph, parts, 5)
+            };
+            for (int[] part : partitions) {
+                check(part.length == n, "one part per vertex");
+                int[] sizes = new int[parts];
+                for (int p : part) {
+                    check(p >= 0 && p < parts, "part out of range");
+                    sizes[p]++;
+                }
+                List<GraphShard> shards = GraphPartitioner.split(graph, part, parts);
+                check(shards.size() == parts, "one shard per part");
+                int owned = 0;
+                for (GraphShard shard : shards) {
+                    check(shard.getOwnedCount() == sizes[shard.getId()], "shard size");
+                    for (int local = 0; local < shard.getOwnedCount(); local++) {
+                        check(part[shard.getGlobalId(local)] == shard.getId(),
+                            "shard owns a vertex of another part");
+                    }
+                    owned += shard.getOwnedCount();
+                }
+                check(owned == n, "every vertex is owned once");
+            }
+        }
+    }
+
+    /**
+     * Checks that label propagation cuts fewer edges of a grid than hashing.
+     */
+    static void labelPropagationCutsFewerEdges() {
+        Graph<Integer> grid = GraphAlgorithmsTest.grid(40);
+        long hashCut = GraphPartitioner.edgeCut(grid, GraphPartitioner.hashPartition(grid, 4));
+        long lpCut = GraphPartitioner.edgeCut(grid,
+            GraphPartitioner.labelPropagationPartition(grid, 4, 20));
+        check(lpCut < hashCut / 2, "label propagation cut " + lpCut + " of hash cut " + hashCut);
+    }
+
+    /**
+     * Checks the sharded BFS levels, shortest paths and components against
+     * the sequential algorithms for several partitions.
+     */
+    static void shardedEngineMatchesSequentialAlgorithms() {
+        Random rand = new Random(370);
+        for (int trial = 0; trial < 40; trial++) {
+            int n = 1 + rand.nextInt(120);
+            int parts = 1 + rand.nextInt(5);
+            Graph<Integer> graph = GraphAlgorithmsTest.randomGraph(rand, n, rand.nextInt(3 * n), 20);
+            IndexedGraph<Integer> indexed = graph.getIndexedGraph();
+            int[] part = trial % 2 == 0 ? GraphPartitioner.hashPartition(graph, parts)
+                : GraphPartitioner.labelPropagationPartition(graph, parts, 3);
+            ShardedGraphEngine engine = new ShardedGraphEngine(
+                GraphPartitioner.split(graph, part, parts), new LocalShardTransport(parts));
+
+            int source = rand.nextInt(n);
+            Map<Vertex<Integer>, Integer> dist =
+                GraphAlgorithms.dijkstras(indexed.getVertex(source), graph);
+            int[] distances = engine.shortestPaths(source);
+            int[] levels = engine.bfsLevels(source);
+            int[] expectedLevels = bfsLevels(indexed, source);
+            for (int v = 0; v < n; v++) {
+                check(distances[v] == dist.get(indexed.getVertex(v)), "sharded shortestPaths");
+                check(levels[v] == expectedLevels[v], "sharded bfsLevels");
+            }
+
+            int[] labels = engine.componentLabels();
+            int[] ids = GraphAlgorithms.connectedComponents(graph).getComponentIds();
+            for (int v = 0; v < n; v++) {
+                check(labels[v] <= v, "a component label is its smallest index");
+                check(ids[labels[v]] == ids[v], "sharded label in another component");
+                check(labels[labels[v]] == labels[v], "sharded labels are not canonical");
+            }
+        }
+    }
+
+    /**
+     * Finds the number of edges on the shortest path from the source to
+     * every vertex with a plain breadth first search.
+     *
+     * @param graph the indexed graph
+     * @param source the source index
+     * @return the level of every vertex, or ShardedGraphEngine.INFINITY
+     */
+    private static int[] bfsLevels(IndexedGraph<?> graph, int source) {
+        int[] levels = new int[graph.size()];
+        Arrays.fill(levels, ShardedGraphEngine.INFINITY);
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        levels[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = graph.getOffsets()[u]; e < graph.getOffsets()[u + 1]; e++) {
+                int v = graph.getTargets()[e];
+                if (levels[v] == ShardedGraphEngine.INFINITY) {
+                    levels[v] = levels[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
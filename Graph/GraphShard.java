@@ -0,0 +1,193 @@
+import java.util.Arrays;
+
+public class GraphShard {
+
+    private int id;
+    private int ownedCount;
+    private int[] globalIds;
+    private int[] ghostOwners;
+    private int[] ghostRemoteIndices;
+    private int[] offsets;
+    private int[] targets;
+    private int[] weights;
+    private int[] inOffsets;
+    private int[] inSources;
+    private int[] inWeights;
+
+    /**
+     * Creates a shard. Local indices [0, ownedCount) are the vertices the
+     * shard owns, in increasing global order, and [ownedCount, localCount)
+     * are its ghosts: copies of vertices owned by other shards that are
+     * adjacent to an owned vertex.
+     *
+     * The out-edges of owned vertex i are stored between offsets[i] and
+     * offsets[i + 1], and its in-edges between inOffsets[i] and
+     * inOffsets[i + 1]. Both use local indices, so an edge endpoint at or
+     * above ownedCount is a ghost.
+     *
+     * @param id the id of the shard
+     * @param ownedCount the number of owned vertices
+     * @param globalIds the global index of every local vertex
+     * @param ghostOwners the shard owning each ghost
+     * @param ghostRemoteIndices the local index of each ghost on its owner
+     * @param offsets the out-edge offsets of length ownedCount + 1
+     * @param targets the out-edge targets as local indices
+     * @param weights the out-edge weights
+     * @param inOffsets the in-edge offsets of length ownedCount + 1
+     * @param inSources the in-edge sources as local indices
+     * @param inWeights the in-edge weights
+     */
+    GraphShard(int id, int ownedCount, int[] globalIds, int[] ghostOwners,
+               int[] ghostRemoteIndices, int[] offsets, int[] targets,
+               int[] weights, int[] inOffsets, int[] inSources, int[] inWeights) {
+        this.id = id;
+        this.ownedCount = ownedCount;
+        this.globalIds = globalIds;
+        this.ghostOwners = ghostOwners;
+        this.ghostRemoteIndices = ghostRemoteIndices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.inWeights = inWeights;
+    }
+
+    /**
+     * Gets the id of the shard.
+     *
+     * @return the shard id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the number of vertices the shard owns.
+     *
+     * @return the number of owned vertices
+     */
+    public int getOwnedCount() {
+        return ownedCount;
+    }
+
+    /**
+     * Gets the number of ghost vertices.
+     *
+     * @return the number of ghosts
+     */
+    public int getGhostCount() {
+        return ghostOwners.length;
+    }
+
+    /**
+     * Gets the number of owned and ghost vertices.
+     *
+     * @return the number of local vertices
+     */
+    public int getLocalCount() {
+        return globalIds.length;
+    }
+
+    /**
+     * Gets the global index of a local vertex.
+     *
+     * @param local the local index
+     * @return the global index
+     */
+    public int getGlobalId(int local) {
+        return globalIds[local];
+    }
+
+    /**
+     * Gets the local index of an owned vertex.
+     *
+     * Must be O(log V).
+     *
+     * @param globalId the global index of the vertex
+     * @return the local index, or -1 if this shard does not own the vertex
+     */
+    public int indexOfOwned(int globalId) {
+        int local = Arrays.binarySearch(globalIds, 0, ownedCount, globalId);
+        return local < 0 ? -1 : local;
+    }
+
+    /**
+     * Gets the shard that owns a ghost.
+     *
+     * @param ghost the ghost's index in [0, getGhostCount())
+     * @return the id of the owning shard
+     */
+    public int getGhostOwner(int ghost) {
+        return ghostOwners[ghost];
+    }
+
+    /**
+     * Gets the local index a ghost has on the shard that owns it, so
+     * messages to it need no lookup on arrival.
+     *
+     * @param ghost the ghost's index in [0, getGhostCount())
+     * @return the ghost's local index on its owner
+     */
+    public int getGhostRemoteIndex(int ghost) {
+        return ghostRemoteIndices[ghost];
+    }
+
+    /**
+     * Gets the out-edge offsets of the owned vertices. The array must not be
+     * modified.
+     *
+     * @return the offsets array of length getOwnedCount() + 1
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Gets the out-edge targets as local indices. The array must not be
+     * modified.
+     *
+     * @return the targets array
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Gets the out-edge weights. The array must not be modified.
+     *
+     * @return the weights array
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Gets the in-edge offsets of the owned vertices. The array must not be
+     * modified.
+     *
+     * @return the offsets array of length getOwnedCount() + 1
+     */
+    public int[] getInOffsets() {
+        return inOffsets;
+    }
+
+    /**
+     * Gets the in-edge sources as local indices. The array must not be
+     * modified.
+     *
+     * @return the sources array
+     */
+    public int[] getInSources() {
+        return inSources;
+    }
+
+    /**
+     * Gets the in-edge weights. The array must not be modified.
+     *
+     * @return the weights array
+     */
+    public int[] getInWeights() {
+        return inWeights;
+    }
+}
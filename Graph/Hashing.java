@@ -0,0 +1,24 @@
+final class Hashing {
+
+    /**
+     * Prevents instantiation of the helper class.
+     */
+    private Hashing() {
+    }
+
+    /**
+     * Scrambles the bits of an int (the MurmurHash3 finalizer), so that
+     * nearby indices or hash codes are spread evenly over every bit.
+     *
+     * @param value the value to scramble
+     * @return the scrambled value
+     */
+    static int mix(int value) {
+        value ^= value >>> 16;
+        value *= 0x85ebca6b;
+        value ^= value >>> 13;
+        value *= 0xc2b2ae35;
+        value ^= value >>> 16;
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IndexedDisjointSet<T> {
+
+    private Map<T, Integer> indices;
+    private List<T> elements;
+    private IntDisjointSet sets;
+
+    /**
+     * Initializes the disjoint sets with no elements.
+     */
+    public IndexedDisjointSet() {
+        indices = new HashMap<>();
+        elements = new ArrayList<>();
+        sets = new IntDisjointSet(0);
+    }
+
+    /**
+     * Finds the root data of the disjoint set containing {@code data}.
+     * Puts the data in the disjoint sets if it does not already exist.
+     *
+     * Works like DisjointSet.find, but the data is only hashed once to get
+     * its dense index; the root is then found in an IntDisjointSet instead
+     * of by following DisjointSetNode objects.
+     *
+     * @param data the data to search for
+     * @return the disjoint set's root data
+     * @throws IllegalArgumentException if the data is null
+     */
+    public T find(T data) {
+        return elements.get(sets.find(indexOf(data)));
+    }
+
+    /**
+     * Joins the sets containing the two data, adding either of them if they
+     * do not already exist.
+     *
+     * @param first the first data
+     * @param second the second data
+     * @return true if the data were in different sets
+     * @throws IllegalArgumentException if either data is null
+     */
+    public boolean union(T first, T second) {
+        return sets.union(indexOf(first), indexOf(second));
+    }
+
+    /**
+     * Gets the dense index of the data, assigning the next index if it does
+     * not already exist. The indices are 0 to size() - 1 in insertion order.
+     *
+     * @param data the data to look up
+     * @return the index of the data
+     * @throws IllegalArgumentException if the data is null
+     */
+    public int indexOf(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null.");
+        }
+        Integer index = indices.get(data);
+        if (index == null) {
+            index = sets.add();
+            indices.put(data, index);
+            elements.add(data);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the underlying int-indexed disjoint sets, for callers that have
+     * already turned their data into indices with indexOf.
+     *
+     * @return the int-indexed disjoint sets
+     */
+    public IntDisjointSet getIntDisjointSet() {
+        return sets;
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return elements.size();
+    }
+}
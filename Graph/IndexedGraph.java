@@ -0,0 +1,188 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IndexedGraph<T> {
+
+    private Vertex<T>[] vertices;
+    private Map<Vertex<T>, Integer> indices;
+    private int[] offsets;
+    private int[] targets;
+    private int[] weights;
+    private volatile IndexedGraph<T> transpose;
+
+    /**
+     * Builds a compact snapshot of the graph. Every vertex is given a dense
+     * index in [0, size()) and the adjacency list is laid out in compressed
+     * sparse row form: the out-edges of vertex i are stored in
+     * targets/weights between offsets[i] (inclusive) and offsets[i + 1]
+     * (exclusive), in the same order as the graph's adjacency list.
+     *
+     * Algorithms that run on the snapshot only hash each Vertex once here
+     * instead of once per edge they relax.
+     *
+     * @param graph the graph to index
+     * @throws IllegalArgumentException if the graph is null
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedGraph(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        int n = graph.getVertices().size();
+        vertices = (Vertex<T>[]) new Vertex<?>[n];
+        indices = new HashMap<>(2 * n);
+        int index = 0;
+        for (Vertex<T> v : graph.getVertices()) {
+            vertices[index] = v;
+            indices.put(v, index);
+            index++;
+        }
+
+        Map<Vertex<T>, List<VertexDistance<T>>> adjList = graph.getAdjList();
+        offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + adjList.get(vertices[i]).size();
+        }
+        targets = new int[offsets[n]];
+        weights = new int[offsets[n]];
+        int edge = 0;
+        for (int i = 0; i < n; i++) {
+            for (VertexDistance<T> vd : adjList.get(vertices[i])) {
+                targets[edge] = indices.get(vd.getVertex());
+                weights[edge] = vd.getDistance();
+                edge++;
+            }
+        }
+    }
+
+    /**
+     * Builds a snapshot directly from its compressed sparse row arrays
+     * without copying them. Used by GraphIO to load graphs that were never
+     * materialized as a Graph.
+     *
+     * @param vertices the vertices in index order
+     * @param indices the index of every vertex
+     * @param offsets the edge offsets of length vertices.length + 1
+     * @param targets the edge targets as vertex indices
+     * @param weights the edge weights
+     */
+    IndexedGraph(Vertex<T>[] vertices, Map<Vertex<T>, Integer> indices,
+                 int[] offsets, int[] targets, int[] weights) {
+        this.vertices = vertices;
+        this.indices = indices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    /**
+     * Gets the number of directed edges.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets the dense index of the vertex.
+     *
+     * @param vertex the vertex to look up
+     * @return the index of the vertex, or -1 if it is not in the graph
+     */
+    public int indexOf(Vertex<T> vertex) {
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the vertex with the given dense index.
+     *
+     * @param index the index of the vertex
+     * @return the vertex
+     */
+    public Vertex<T> getVertex(int index) {
+        return vertices[index];
+    }
+
+    /**
+     * Gets the edge offsets. The out-edges of vertex i are stored between
+     * offsets[i] and offsets[i + 1]. The array must not be modified.
+     *
+     * @return the offsets array of length size() + 1
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Gets the edge targets as vertex indices. The array must not be
+     * modified.
+     *
+     * @return the targets array of length edgeCount()
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Gets the edge weights. The array must not be modified.
+     *
+     * @return the weights array of length edgeCount()
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Builds the transpose of this graph: the same vertices with the same
+     * indices, and an edge (v, u, w) for every edge (u, v, w). The in-edges
+     * of vertex v in this graph are the out-edges of v in the transpose, in
+     * order of their start vertex.
+     *
+     * Must be O(V + E) the first time; the transpose is kept and returned
+     * by later calls.
+     *
+     * @return the transposed graph
+     */
+    public IndexedGraph<T> transpose() {
+        IndexedGraph<T> reversed = transpose;
+        if (reversed != null) {
+            return reversed;
+        }
+        int n = vertices.length;
+        int[] reverseOffsets = new int[n + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            reverseOffsets[i + 1] += reverseOffsets[i];
+        }
+        int[] fill = Arrays.copyOf(reverseOffsets, n);
+        int[] reverseTargets = new int[targets.length];
+        int[] reverseWeights = new int[targets.length];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = fill[targets[e]]++;
+                reverseTargets[slot] = u;
+                reverseWeights[slot] = weights[e];
+            }
+        }
+        reversed = new IndexedGraph<>(vertices, indices, reverseOffsets,
+            reverseTargets, reverseWeights);
+        reversed.transpose = this;
+        transpose = reversed;
+        return reversed;
+    }
+}
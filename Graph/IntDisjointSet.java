@@ -0,0 +1,153 @@
+import java.util.Arrays;
+
+public class IntDisjointSet {
+
+    private int[] parent;
+    private int[] size;
+    private int elementCount;
+    private int setCount;
+
+    /**
+     * Creates n disjoint sets, one for each element 0 to n - 1.
+     *
+     * @param n the number of elements
+     * @throws IllegalArgumentException if n is negative
+     */
+    public IntDisjointSet(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of elements cannot be negative.");
+        }
+        parent = new int[Math.max(n, 1)];
+        size = new int[parent.length];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        elementCount = n;
+        setCount = n;
+    }
+
+    /**
+     * Adds a new element in a set of its own, doubling the backing arrays if
+     * they are full.
+     *
+     * Must be amortized O(1).
+     *
+     * @return the new element, which is the previous number of elements
+     */
+    public int add() {
+        if (elementCount == parent.length) {
+            parent = Arrays.copyOf(parent, parent.length * 2);
+            size = Arrays.copyOf(size, size.length * 2);
+        }
+        parent[elementCount] = elementCount;
+        size[elementCount] = 1;
+        setCount++;
+        return elementCount++;
+    }
+
+    /**
+     * Finds the root of the set containing the element. Performs path
+     * halving: every other node on the path is pointed at its grandparent,
+     * which flattens the tree as much as full path compression over repeated
+     * finds but runs in a single loop without recursion.
+     *
+     * @param element the element to search for
+     * @return the root of the element's set
+     * @throws IndexOutOfBoundsException if the element is not in
+     * [0, size())
+     */
+    public int find(int element) {
+        checkElement(element);
+        int[] parent = this.parent;
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Joins the sets of the two elements, pointing the root of the smaller
+     * set at the root of the larger one (union by size).
+     *
+     * @param first the first element
+     * @param second the second element
+     * @return true if the elements were in different sets
+     * @throws IndexOutOfBoundsException if either element is not in
+     * [0, size())
+     */
+    public boolean union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+        if (size[firstRoot] < size[secondRoot]) {
+            int dummy = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = dummy;
+        }
+        parent[secondRoot] = firstRoot;
+        size[firstRoot] += size[secondRoot];
+        setCount--;
+        return true;
+    }
+
+    /**
+     * Returns whether the two elements are in the same set.
+     *
+     * @param first the first element
+     * @param second the second element
+     * @return true if the elements have the same root
+     * @throws IndexOutOfBoundsException if either element is not in
+     * [0, size())
+     */
+    public boolean connected(int first, int second) {
+        return find(first) == find(second);
+    }
+
+    /**
+     * Gets the number of elements in the set containing the element.
+     *
+     * @param element the element
+     * @return the size of the element's set
+     * @throws IndexOutOfBoundsException if the element is not in
+     * [0, size())
+     */
+    public int getSetSize(int element) {
+        return size[find(element)];
+    }
+
+    /**
+     * Gets the number of disjoint sets.
+     *
+     * @return the number of sets
+     */
+    public int getSetCount() {
+        return setCount;
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return elementCount;
+    }
+
+    /**
+     * A private method that checks if the element exists.
+     *
+     * @param element the element to check
+     * @throws IndexOutOfBoundsException if the element is not in
+     * [0, size())
+     */
+    private void checkElement(int element) {
+        if (element < 0 || element >= elementCount) {
+            throw new IndexOutOfBoundsException("Element " + element
+                + " is out of bounds for size " + elementCount);
+        }
+    }
+}
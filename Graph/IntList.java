@@ -0,0 +1,141 @@
+import java.util.Arrays;
+
+public class IntList {
+
+    /**
+     * The initial capacity of the IntList when created with the default
+     * constructor.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    private int[] backingArray;
+    private int size;
+
+    /**
+     * Constructs a new IntList with INITIAL_CAPACITY.
+     */
+    public IntList() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new IntList with the given initial capacity.
+     *
+     * @param capacity the initial capacity of the backing array
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public IntList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        backingArray = new int[capacity];
+        size = 0;
+    }
+
+    /**
+     * Adds the value to the back of the list, doubling the backing array if
+     * it is full.
+     *
+     * Must be amortized O(1).
+     *
+     * @param value the value to add
+     */
+    public void add(int value) {
+        if (size == backingArray.length) {
+            backingArray = Arrays.copyOf(backingArray,
+                Math.max(INITIAL_CAPACITY, backingArray.length * 2));
+        }
+        backingArray[size++] = value;
+    }
+
+    /**
+     * Adds every value of the other list to the back of this list.
+     *
+     * @param other the list to copy the values from
+     */
+    public void addAll(IntList other) {
+        if (size + other.size > backingArray.length) {
+            backingArray = Arrays.copyOf(backingArray,
+                Math.max(size + other.size, backingArray.length * 2));
+        }
+        System.arraycopy(other.backingArray, 0, backingArray, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Gets the value at the given index.
+     *
+     * @param index the index of the value
+     * @return the value at the index
+     * @throws IndexOutOfBoundsException if the index is not in [0, size)
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index
+                + " is out of bounds for size " + size);
+        }
+        return backingArray[index];
+    }
+
+    /**
+     * Replaces the value at the given index.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is not in [0, size)
+     */
+    public void set(int index, int value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index
+                + " is out of bounds for size " + size);
+        }
+        backingArray[index] = value;
+    }
+
+    /**
+     * Removes and returns the value at the back of the list.
+     *
+     * @return the removed value
+     * @throws java.util.NoSuchElementException if the list is empty
+     */
+    public int removeLast() {
+        if (size == 0) {
+            throw new java.util.NoSuchElementException("The list is empty.");
+        }
+        return backingArray[--size];
+    }
+
+    /**
+     * Removes every value from the list without shrinking the backing array.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Gets the number of values in the list.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the list is empty.
+     *
+     * @return true if the list holds no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a copy of the values as an array of length size.
+     *
+     * @return the values of the list
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(backingArray, size);
+    }
+}
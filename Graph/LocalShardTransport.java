@@ -0,0 +1,66 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class LocalShardTransport implements ShardTransport {
+
+    private ConcurrentLinkedQueue<long[]>[] outboxes;
+    private long[][] inboxes;
+
+    /**
+     * Creates a transport that passes messages between shards in the same
+     * JVM.
+     *
+     * @param shardCount the number of shards
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public LocalShardTransport(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive.");
+        }
+        outboxes = (ConcurrentLinkedQueue<long[]>[]) new ConcurrentLinkedQueue<?>[shardCount];
+        inboxes = new long[shardCount][];
+        for (int i = 0; i < shardCount; i++) {
+            outboxes[i] = new ConcurrentLinkedQueue<>();
+            inboxes[i] = new long[0];
+        }
+    }
+
+    @Override
+    public int getShardCount() {
+        return outboxes.length;
+    }
+
+    @Override
+    public void send(int toShard, long[] messages, int length) {
+        if (length > 0) {
+            outboxes[toShard].add(Arrays.copyOf(messages, length));
+        }
+    }
+
+    @Override
+    public long[] receive(int shard) {
+        return inboxes[shard];
+    }
+
+    @Override
+    public long exchange() {
+        long delivered = 0;
+        for (int i = 0; i < outboxes.length; i++) {
+            int length = 0;
+            for (long[] batch : outboxes[i]) {
+                length += batch.length;
+            }
+            long[] inbox = new long[length];
+            int filled = 0;
+            long[] batch;
+            while ((batch = outboxes[i].poll()) != null) {
+                System.arraycopy(batch, 0, inbox, filled, batch.length);
+                filled += batch.length;
+            }
+            inboxes[i] = inbox;
+            delivered += length;
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,134 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class LongMinHeap {
+
+    /**
+     * The initial capacity of the LongMinHeap when created with the default
+     * constructor.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    private long[] backingArray;
+    private int size;
+
+    /**
+     * Constructs a new, empty LongMinHeap.
+     */
+    public LongMinHeap() {
+        backingArray = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Packs a non-negative key and an index into one long that orders by key
+     * first and then by index, so a (distance, vertex) pair can be kept in
+     * the heap without allocating an object.
+     *
+     * @param key the key to order by
+     * @param index the index stored with the key
+     * @return the packed value
+     */
+    public static long pack(int key, int index) {
+        return ((long) key << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the key of a value made by pack.
+     *
+     * @param packed the packed value
+     * @return the key
+     */
+    public static int key(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Gets the index of a value made by pack.
+     *
+     * @param packed the packed value
+     * @return the index
+     */
+    public static int index(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Adds the value to the heap, doubling the backing array if it is full.
+     *
+     * Must be O(log n) amortized.
+     *
+     * @param value the value to add
+     */
+    public void add(long value) {
+        if (size == backingArray.length) {
+            backingArray = Arrays.copyOf(backingArray, backingArray.length * 2);
+        }
+        int child = size++;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (backingArray[parent] <= value) {
+                break;
+            }
+            backingArray[child] = backingArray[parent];
+            child = parent;
+        }
+        backingArray[child] = value;
+    }
+
+    /**
+     * Removes and returns the smallest value in the heap.
+     *
+     * Must be O(log n).
+     *
+     * @return the smallest value
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public long remove() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+        long min = backingArray[0];
+        long last = backingArray[--size];
+        int parent = 0;
+        int half = size >>> 1;
+        while (parent < half) {
+            int child = 2 * parent + 1;
+            if (child + 1 < size && backingArray[child + 1] < backingArray[child]) {
+                child++;
+            }
+            if (last <= backingArray[child]) {
+                break;
+            }
+            backingArray[parent] = backingArray[child];
+            parent = child;
+        }
+        backingArray[parent] = last;
+        return min;
+    }
+
+    /**
+     * Removes every value without shrinking the backing array.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns whether the heap is empty.
+     *
+     * @return true if the heap holds no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of values in the heap.
+     *
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,199 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class MutableGraph<T> extends Graph<T> {
+
+    private DisjointSet<Vertex<T>> connectivity;
+    private int componentCount;
+    private boolean connectivityStale;
+
+    /**
+     * Creates an empty graph.
+     */
+    public MutableGraph() {
+        this(new HashSet<>(), new HashSet<>());
+    }
+
+    /**
+     * Builds the graph from a set of vertices and an edge list, exactly like
+     * Graph. Afterwards vertices and edges can be added and edges removed
+     * without rebuilding the graph.
+     *
+     * @param vertices the vertex set
+     * @param edges the edge set
+     * @throws IllegalArgumentException if any of the arguments are null or if
+     * the vertex set doesn't contain all of the vertices.
+     */
+    public MutableGraph(Set<Vertex<T>> vertices, Set<Edge<T>> edges) {
+        super(vertices, edges);
+        rebuildConnectivity();
+    }
+
+    /**
+     * Builds the graph from an indexed snapshot, exactly like Graph, so a
+     * graph loaded by GraphIO can be updated afterwards.
+     *
+     * @param graph the indexed graph to build the graph from
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public MutableGraph(IndexedGraph<T> graph) {
+        super(graph);
+        rebuildConnectivity();
+    }
+
+    /**
+     * Adds the vertex to the graph with no edges.
+     *
+     * Must be O(1).
+     *
+     * @param vertex the vertex to add
+     * @return true if the vertex was added, false if it was already in the
+     * graph
+     * @throws IllegalArgumentException if the vertex is null
+     */
+    public boolean addVertex(Vertex<T> vertex) {
+        if (vertex == null) {
+            throw new IllegalArgumentException("Vertex cannot be null.");
+        }
+        if (!getVertices().add(vertex)) {
+            return false;
+        }
+        getAdjList().put(vertex, new ArrayList<>());
+        invalidateIndexedGraph();
+        if (!connectivityStale) {
+            connectivity.find(vertex);
+            componentCount++;
+        }
+        return true;
+    }
+
+    /**
+     * Adds the directed edge to the graph. Both endpoints must already be in
+     * the graph. For an undirected edge, add the forward and backwards edges.
+     *
+     * Must be O(1) (amortized, plus the inverse Ackermann cost of updating
+     * the connectivity).
+     *
+     * @param edge the edge to add
+     * @return true if the edge was added, false if it was already in the
+     * graph
+     * @throws IllegalArgumentException if the edge is null or if the vertex
+     * set doesn't contain both of its vertices.
+     */
+    public boolean addEdge(Edge<T> edge) {
+        if (edge == null) {
+            throw new IllegalArgumentException("Edge cannot be null.");
+        }
+        List<VertexDistance<T>> adjVertices = getAdjList().get(edge.getU());
+        if (adjVertices == null || !getVertices().contains(edge.getV())) {
+            throw new IllegalArgumentException("Vertex set must contain all "
+                + "vertices of the graph.");
+        }
+        if (!getEdges().add(edge)) {
+            return false;
+        }
+        adjVertices.add(new VertexDistance<>(edge.getV(), edge.getWeight()));
+        invalidateIndexedGraph();
+        if (!connectivityStale) {
+            join(edge.getU(), edge.getV());
+        }
+        return true;
+    }
+
+    /**
+     * Removes the directed edge from the graph.
+     *
+     * Must be O(deg(u)), where u is the start vertex of the edge. A disjoint
+     * set cannot split a set, so the connectivity is rebuilt the next time it
+     * is queried.
+     *
+     * @param edge the edge to remove
+     * @return true if the edge was removed, false if it was not in the graph
+     * @throws IllegalArgumentException if the edge is null
+     */
+    public boolean removeEdge(Edge<T> edge) {
+        if (edge == null) {
+            throw new IllegalArgumentException("Edge cannot be null.");
+        }
+        if (!getEdges().remove(edge)) {
+            return false;
+        }
+        getAdjList().get(edge.getU()).remove(
+            new VertexDistance<>(edge.getV(), edge.getWeight()));
+        invalidateIndexedGraph();
+        connectivityStale = true;
+        return true;
+    }
+
+    /**
+     * Returns whether the two vertices are connected, ignoring the direction
+     * of the edges.
+     *
+     * While only vertices and edges are added, this is answered from a
+     * DisjointSet that is updated incrementally, in O(1) amortized.
+     *
+     * @param first the first vertex
+     * @param second the second vertex
+     * @return true if there is an undirected path between the vertices
+     * @throws IllegalArgumentException if either vertex is null or not in the
+     * graph
+     */
+    public boolean isConnected(Vertex<T> first, Vertex<T> second) {
+        if (first == null || second == null
+            || !getVertices().contains(first) || !getVertices().contains(second)) {
+            throw new IllegalArgumentException("Vertices must be in the graph.");
+        }
+        if (connectivityStale) {
+            rebuildConnectivity();
+        }
+        return connectivity.find(first).equals(connectivity.find(second));
+    }
+
+    /**
+     * Gets the number of connected components, ignoring the direction of the
+     * edges.
+     *
+     * @return the number of connected components
+     */
+    public int getComponentCount() {
+        if (connectivityStale) {
+            rebuildConnectivity();
+        }
+        return componentCount;
+    }
+
+    /**
+     * A private method that merges the sets of the two vertices, counting one
+     * fewer component if they were in different sets.
+     *
+     * @param first the first vertex
+     * @param second the second vertex
+     */
+    private void join(Vertex<T> first, Vertex<T> second) {
+        Vertex<T> firstRoot = connectivity.find(first);
+        Vertex<T> secondRoot = connectivity.find(second);
+        if (!firstRoot.equals(secondRoot)) {
+            connectivity.union(firstRoot, secondRoot);
+            componentCount--;
+        }
+    }
+
+    /**
+     * A private method that rebuilds the connectivity from every vertex and
+     * edge of the graph.
+     */
+    private void rebuildConnectivity() {
+        connectivity = new DisjointSet<>();
+        componentCount = 0;
+        for (Vertex<T> vertex : getVertices()) {
+            connectivity.find(vertex);
+            componentCount++;
+        }
+        for (Edge<T> edge : getEdges()) {
+            join(edge.getU(), edge.getV());
+        }
+        connectivityStale = false;
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class MutableGraphTest {
+
+    /**
+     * Runs the MutableGraph tests.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        updatesMatchRebuiltGraph();
+        rejectsBadUpdates();
+        System.out.println("MutableGraphTest passed");
+    }
+
+    /**
+     * Applies random additions and removals and checks after every one that
+     * the connectivity, edges and traversals match a reference computed
+     * from scratch.
+     */
+    static void updatesMatchRebuiltGraph() {
+        Random rand = new Random(28);
+        for (int trial = 0; trial < 20; trial++) {
+            MutableGraph<Integer> graph = new MutableGraph<>();
+            List<Edge<Integer>> added = new ArrayList<>();
+            int n = 0;
+            for (int step = 0; step < 300; step++) {
+                int action = rand.nextInt(10);
+                if (n < 2 || action < 2) {
+                    check(graph.addVertex(new Vertex<>(n)), "addVertex of a new vertex");
+                    check(!graph.addVertex(new Vertex<>(n)), "addVertex of an existing vertex");
+                    n++;
+                } else if (action < 8 || added.isEmpty()) {
+                    Edge<Integer> edge = new Edge<>(new Vertex<>(rand.nextInt(n)),
+                        new Vertex<>(rand.nextInt(n)), rand.nextInt(3));
+                    boolean isNew = !graph.getEdges().contains(edge);
+                    check(graph.addEdge(edge) == isNew, "addEdge result");
+                    if (isNew) {
+                        added.add(edge);
+                    }
+                } else {
+                    Edge<Integer> edge = added.remove(rand.nextInt(added.size()));
+                    check(graph.removeEdge(edge), "removeEdge of an edge in the graph");
+                    check(!graph.removeEdge(edge), "removeEdge of a removed edge");
+                }
+                check(graph.getEdges().equals(new HashSet<>(added)), "edge set");
+                Graph<Integer> rebuilt = new Graph<>(graph.getVertices(), graph.getEdges());
+                ConnectedComponents<Integer> expected = GraphAlgorithms.connectedComponents(rebuilt);
+                check(graph.getComponentCount() == expected.getComponentCount(),
+                    "getComponentCount");
+                Vertex<Integer> first = new Vertex<>(rand.nextInt(n));
+                Vertex<Integer> second = new Vertex<>(rand.nextInt(n));
+                check(graph.isConnected(first, second)
+                    == (expected.getComponentId(first) == expected.getComponentId(second)),
+                    "isConnected");
+                check(GraphAlgorithms.bfs(first, graph).size() == GraphAlgorithms.bfs(first, rebuilt).size(),
+                    "bfs sees a stale indexed graph");
+            }
+        }
+    }
+
+    /**
+     * Checks that null arguments and edges to unknown vertices are rejected.
+     */
+    static void rejectsBadUpdates() {
+        MutableGraph<Integer> graph = new MutableGraph<>();
+        graph.addVertex(new Vertex<>(1));
+        expectIllegalArgument(() -> graph.addVertex(null), "addVertex(null)");
+        expectIllegalArgument(() -> graph.addEdge(null), "addEdge(null)");
+        expectIllegalArgument(() -> graph.removeEdge(null), "removeEdge(null)");
+        expectIllegalArgument(() -> graph.addEdge(new Edge<>(new Vertex<>(1), new Vertex<>(2), 0)),
+            "addEdge to a vertex not in the graph");
+        expectIllegalArgument(() -> graph.isConnected(new Vertex<>(1), new Vertex<>(2)),
+            "isConnected with a vertex not in the graph");
+    }
+
+    /**
+     * Checks that the action throws an IllegalArgumentException.
+     *
+     * @param action the action to run
+     * @param message the failure message
+     */
+    private static void expectIllegalArgument(Runnable action, String message) {
+        try {
+            action.run();
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError(message + " was accepted");
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+public final class ParallelFor {
+
+    /**
+     * The number of indices below which a range is run sequentially instead
+     * of being split further.
+     */
+    public static final int THRESHOLD = 256;
+
+    /**
+     * The body of a parallel loop over a range of indices.
+     */
+    public interface RangeBody {
+
+        /**
+         * Runs the loop body for every index in [low, high).
+         *
+         * @param low the first index (inclusive)
+         * @param high the last index (exclusive)
+         */
+        void run(int low, int high);
+    }
+
+    /**
+     * The body of a parallel sum over a range of indices.
+     */
+    public interface RangeSum {
+
+        /**
+         * Computes the sum of the loop body over every index in [low, high).
+         *
+         * @param low the first index (inclusive)
+         * @param high the last index (exclusive)
+         * @return the partial sum of the range
+         */
+        double sum(int low, int high);
+    }
+
+    /**
+     * Prevents instantiation; every method is static.
+     */
+    private ParallelFor() {
+    }
+
+    /**
+     * Runs the body over [low, high) on the common ForkJoinPool, splitting the
+     * range in half until it is at most THRESHOLD long, and returns once
+     * every part has finished. Writes made by the body are visible to the
+     * caller afterwards.
+     *
+     * @param low the first index (inclusive)
+     * @param high the last index (exclusive)
+     * @param body the loop body
+     */
+    public static void run(int low, int high, RangeBody body) {
+        run(low, high, THRESHOLD, body);
+    }
+
+    /**
+     * Runs the body over [low, high) on the common ForkJoinPool, splitting the
+     * range in half until it is at most grain long. Use a small grain when
+     * each index is a large amount of work.
+     *
+     * @param low the first index (inclusive)
+     * @param high the last index (exclusive)
+     * @param grain the longest range run sequentially, at least 1
+     * @param body the loop body
+     */
+    public static void run(int low, int high, int grain, RangeBody body) {
+        ForkJoinPool.commonPool().invoke(new RangeTask(low, high,
+            Math.max(1, grain), body));
+    }
+
+    /**
+     * Adds up the body over [low, high) on the common ForkJoinPool, splitting
+     * the range in the same way as run.
+     *
+     * @param low the first index (inclusive)
+     * @param high the last index (exclusive)
+     * @param body the partial sum of a range
+     * @return the sum over the whole range
+     */
+    public static double sum(int low, int high, RangeSum body) {
+        return ForkJoinPool.commonPool().invoke(new SumTask(low, high, body));
+    }
+
+    /**
+     * Runs a RangeBody over a range, forking halves above the grain.
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int low;
+        private final int high;
+        private final int grain;
+        private final RangeBody body;
+
+        /**
+         * Creates a task running the body over [low, high).
+         *
+         * @param low the first index (inclusive)
+         * @param high the last index (exclusive)
+         * @param grain the longest range run sequentially
+         * @param body the loop body
+         */
+        RangeTask(int low, int high, int grain, RangeBody body) {
+            this.low = low;
+            this.high = high;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low > grain) {
+                int mid = (low + high) >>> 1;
+                invokeAll(new RangeTask(low, mid, grain, body),
+                    new RangeTask(mid, high, grain, body));
+            } else {
+                body.run(low, high);
+            }
+        }
+    }
+
+    /**
+     * Adds up a RangeSum over a range, forking halves above THRESHOLD.
+     */
+    private static final class SumTask extends RecursiveTask<Double> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int low;
+        private final int high;
+        private final RangeSum body;
+
+        /**
+         * Creates a task adding up the body over [low, high).
+         *
+         * @param low the first index (inclusive)
+         * @param high the last index (exclusive)
+         * @param body the partial sum of a range
+         */
+        SumTask(int low, int high, RangeSum body) {
+            this.low = low;
+            this.high = high;
+            this.body = body;
+        }
+
+        @Override
+        protected Double compute() {
+            if (high - low > THRESHOLD) {
+                int mid = (low + high) >>> 1;
+                SumTask left = new SumTask(low, mid, body);
+                left.fork();
+                double right = new SumTask(mid, high, body).compute();
+                return left.join() + right;
+            }
+            return body.sum(low, high);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+public interface ShardTransport {
+
+    /**
+     * Gets the number of shards the transport connects.
+     *
+     * @return the number of shards
+     */
+    int getShardCount();
+
+    /**
+     * Sends a batch of messages to a shard. The messages are delivered at
+     * the next exchange. May be called by several shards at once.
+     *
+     * @param toShard the id of the receiving shard
+     * @param messages the messages; the first length entries are sent
+     * @param length the number of messages
+     */
+    void send(int toShard, long[] messages, int length);
+
+    /**
+     * Gets the messages delivered to a shard by the last exchange. May be
+     * called by several shards at once.
+     *
+     * @param shard the id of the receiving shard
+     * @return the delivered messages, empty before the first exchange
+     */
+    long[] receive(int shard);
+
+    /**
+     * Ends a superstep: waits until every message sent since the last
+     * exchange has arrived and makes it visible to receive, replacing the
+     * messages delivered before.
+     *
+     * @return the number of messages delivered
+     */
+    long exchange();
+}
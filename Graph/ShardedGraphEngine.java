@@ -0,0 +1,302 @@
+import java.util.Arrays;
+import java.util.List;
+
+public class ShardedGraphEngine {
+
+    /**
+     * The value of a vertex that no message has reached.
+     */
+    public static final int INFINITY = Integer.MAX_VALUE;
+
+    private List<GraphShard> shards;
+    private ShardTransport transport;
+    private int vertexCount;
+    private int supersteps;
+
+    /**
+     * The vertex programs the engine can run. Each keeps the minimum value
+     * offered to a vertex and offers its neighbours a new value when its own
+     * value drops.
+     */
+    private enum Program {
+        LEVELS, DISTANCES, LABELS
+    }
+
+    /**
+     * Creates an engine running bulk synchronous vertex programs over the
+     * shards. Every superstep each shard processes the messages delivered to
+     * its owned vertices, propagates the changes through its local edges
+     * until nothing changes, and sends one combined (minimum) message per
+     * changed ghost to the ghost's owner. The program ends after the first
+     * superstep that sends no messages.
+     *
+     * @param shards the shards made by GraphPartitioner.split, where shard i
+     *               has id i
+     * @param transport the transport connecting the shards
+     * @throws IllegalArgumentException if either argument is null or the
+     * transport does not connect one shard per shard in the list
+     */
+    public ShardedGraphEngine(List<GraphShard> shards, ShardTransport transport) {
+        if (shards == null || transport == null) {
+            throw new IllegalArgumentException("Shards and transport cannot be null.");
+        }
+        if (transport.getShardCount() != shards.size()) {
+            throw new IllegalArgumentException("Transport must connect every shard.");
+        }
+        this.shards = shards;
+        this.transport = transport;
+        for (int i = 0; i < shards.size(); i++) {
+            if (shards.get(i).getId() != i) {
+                throw new IllegalArgumentException("Shard " + i + " must have id " + i + ".");
+            }
+            vertexCount += shards.get(i).getOwnedCount();
+        }
+    }
+
+    /**
+     * Finds the number of edges on the shortest path from the source to
+     * every vertex, following edge directions.
+     *
+     * @param source the global index of the source vertex
+     * @return the level of every vertex by global index, or INFINITY if it
+     * is unreachable
+     * @throws IllegalArgumentException if the source is not in the graph
+     */
+    public int[] bfsLevels(int source) {
+        return run(Program.LEVELS, source);
+    }
+
+    /**
+     * Finds the shortest distance from the source to every vertex
+     * (label-correcting, so negative weights are allowed as long as there is
+     * no negative cycle).
+     *
+     * @param source the global index of the source vertex
+     * @return the distance to every vertex by global index, or INFINITY if
+     * it is unreachable
+     * @throws IllegalArgumentException if the source is not in the graph
+     */
+    public int[] shortestPaths(int source) {
+        return run(Program.DISTANCES, source);
+    }
+
+    /**
+     * Finds the connected components, ignoring the direction of the edges.
+     * Every vertex is labelled with the smallest global index in its
+     * component.
+     *
+     * @return the label of every vertex by global index
+     */
+    public int[] componentLabels() {
+        return run(Program.LABELS, -1);
+    }
+
+    /**
+     * Gets the number of supersteps the last program took.
+     *
+     * @return the number of supersteps
+     */
+    public int getSuperstepCount() {
+        return supersteps;
+    }
+
+    /**
+     * A private method that runs a program to completion and gathers the
+     * value of every vertex.
+     *
+     * @param program the program to run
+     * @param source the global index of the source, or -1 for LABELS
+     * @return the value of every vertex by global index
+     */
+    private int[] run(Program program, int source) {
+        int owner = -1;
+        for (int i = 0; i < shards.size() && program != Program.LABELS; i++) {
+            if (shards.get(i).indexOfOwned(source) != -1) {
+                owner = i;
+            }
+        }
+        if (program != Program.LABELS && owner == -1) {
+            throw new IllegalArgumentException("Source must be in the graph.");
+        }
+        ShardWorker[] workers = new ShardWorker[shards.size()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new ShardWorker(shards.get(i), program);
+        }
+        if (owner != -1) {
+            workers[owner].offer(shards.get(owner).indexOfOwned(source), 0);
+        }
+
+        transport.exchange();
+        supersteps = 0;
+        long delivered;
+        do {
+            ParallelFor.run(0, workers.length, 1, (low, high) -> {
+                for (int i = low; i < high; i++) {
+                    workers[i].superstep();
+                }
+            });
+            delivered = transport.exchange();
+            supersteps++;
+        } while (delivered > 0);
+
+        int[] result = new int[vertexCount];
+        for (ShardWorker worker : workers) {
+            worker.gather(result);
+        }
+        return result;
+    }
+
+    /**
+     * Runs a program on one shard, keeping the value of its owned vertices
+     * and the smallest value it has sent to each ghost.
+     */
+    private final class ShardWorker {
+
+        private final GraphShard shard;
+        private final Program program;
+        private final int[] values;
+        private final int[] sent;
+        private final boolean[] queued;
+        private final boolean[] ghostChanged;
+        private final IntList queue = new IntList();
+        private final IntList changedGhosts = new IntList();
+        private long[][] outboxes;
+        private int[] outboxSizes;
+
+        /**
+         * Creates the worker for a shard.
+         *
+         * @param shard the shard
+         * @param program the program to run
+         */
+        ShardWorker(GraphShard shard, Program program) {
+            this.shard = shard;
+            this.program = program;
+            int owned = shard.getOwnedCount();
+            values = new int[owned];
+            sent = new int[shard.getGhostCount()];
+            queued = new boolean[owned];
+            ghostChanged = new boolean[shard.getGhostCount()];
+            outboxes = new long[shards.size()][];
+            outboxSizes = new int[shards.size()];
+            Arrays.fill(values, INFINITY);
+            Arrays.fill(sent, INFINITY);
+            if (program == Program.LABELS) {
+                for (int u = 0; u < owned; u++) {
+                    offer(u, shard.getGlobalId(u));
+                }
+            }
+        }
+
+        /**
+         * Runs one superstep: applies the delivered messages, propagates
+         * every change through the local edges and sends the changed ghosts
+         * to their owners.
+         */
+        void superstep() {
+            for (long message : transport.receive(shard.getId())) {
+                offer(LongMinHeap.index(message), LongMinHeap.key(message));
+            }
+            int[] offsets = shard.getOffsets();
+            int[] targets = shard.getTargets();
+            int[] weights = shard.getWeights();
+            for (int head = 0; head < queue.size(); head++) {
+                int u = queue.get(head);
+                queued[u] = false;
+                int value = values[u];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    relax(targets[e], value, weights[e]);
+                }
+                if (program == Program.LABELS) {
+                    int[] inOffsets = shard.getInOffsets();
+                    int[] inSources = shard.getInSources();
+                    for (int e = inOffsets[u]; e < inOffsets[u + 1]; e++) {
+                        relax(inSources[e], value, 0);
+                    }
+                }
+            }
+            queue.clear();
+
+            for (int i = 0; i < changedGhosts.size(); i++) {
+                int ghost = changedGhosts.get(i);
+                ghostChanged[ghost] = false;
+                int to = shard.getGhostOwner(ghost);
+                if (outboxes[to] == null) {
+                    outboxes[to] = new long[16];
+                } else if (outboxSizes[to] == outboxes[to].length) {
+                    outboxes[to] = Arrays.copyOf(outboxes[to], 2 * outboxSizes[to]);
+                }
+                outboxes[to][outboxSizes[to]++] = LongMinHeap.pack(sent[ghost],
+                    shard.getGhostRemoteIndex(ghost));
+            }
+            changedGhosts.clear();
+            for (int to = 0; to < outboxes.length; to++) {
+                if (outboxSizes[to] > 0) {
+                    transport.send(to, outboxes[to], outboxSizes[to]);
+                    outboxSizes[to] = 0;
+                }
+            }
+        }
+
+        /**
+         * Offers a local vertex the value its neighbour passes along an edge.
+         *
+         * @param local the local index of the neighbour
+         * @param value the value of the vertex
+         * @param weight the weight of the edge
+         */
+        private void relax(int local, int value, int weight) {
+            long candidate;
+            if (program == Program.LEVELS) {
+                candidate = (long) value + 1;
+            } else if (program == Program.DISTANCES) {
+                candidate = (long) value + weight;
+            } else {
+                candidate = value;
+            }
+            if (candidate >= INFINITY || candidate < Integer.MIN_VALUE) {
+                return;
+            }
+            int owned = shard.getOwnedCount();
+            if (local < owned) {
+                offer(local, (int) candidate);
+            } else {
+                int ghost = local - owned;
+                if (candidate < sent[ghost]) {
+                    if (!ghostChanged[ghost]) {
+                        ghostChanged[ghost] = true;
+                        changedGhosts.add(ghost);
+                    }
+                    sent[ghost] = (int) candidate;
+                }
+            }
+        }
+
+        /**
+         * Lowers the value of an owned vertex, queueing it if it changed.
+         *
+         * @param local the local index of the vertex
+         * @param value the offered value
+         */
+        void offer(int local, int value) {
+            if (value < values[local]) {
+                values[local] = value;
+                if (!queued[local]) {
+                    queued[local] = true;
+                    queue.add(local);
+                }
+            }
+        }
+
+        /**
+         * Writes the value of every owned vertex into the global result.
+         *
+         * @param result the value of every vertex by global index
+         */
+        void gather(int[] result) {
+            for (int u = 0; u < values.length; u++) {
+                result[shard.getGlobalId(u)] = values[u];
+            }
+        }
+    }
+}
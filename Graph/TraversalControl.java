@@ -0,0 +1,18 @@
+public enum TraversalControl {
+
+    /**
+     * Keep traversing, including the neighbors of the vertex just visited.
+     */
+    CONTINUE,
+
+    /**
+     * Keep traversing, but do not explore out of the vertex just visited.
+     * Its neighbors may still be reached through other vertices.
+     */
+    SKIP_CHILDREN,
+
+    /**
+     * Stop the traversal immediately.
+     */
+    STOP
+}
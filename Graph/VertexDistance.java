@@ -46,7 +46,7 @@ public final class VertexDistance<T>
 
     @Override
     public int hashCode() {
-        return vertex.hashCode() ^ distance;
+        return 31 * vertex.hashCode() + distance;
     }
 
     @Override
@@ -0,0 +1,12 @@
+public interface VertexVisitor<T> {
+
+    /**
+     * Called once for every vertex a traversal reaches, in visited order.
+     *
+     * @param vertex the vertex being visited
+     * @param depth the number of edges between the start vertex and this
+     *              vertex along the traversal (0 for the start vertex)
+     * @return how the traversal should go on from this vertex
+     */
+    TraversalControl visit(Vertex<T> vertex, int depth);
+}
@@ -107,12 +107,9 @@ public class LinearProbingHashMap<K, V> {
                 returnNum = finalIndex;
                 break;
             }
-            if (returnNum == -1 && table[finalIndex].isRemoved())) {
+            if (returnNum == -1 && table[finalIndex].isRemoved()) {
                 returnNum = finalIndex;
             }
-            if (returnNum >= 0 && returnNum != finalIndex && table[finalIndex].isRemoved()) {
-                break;
-            }
         }
         table[returnNum] = new LinearProbingMapEntry<>(key, value);
         return result;
@@ -170,7 +167,10 @@ public class LinearProbingHashMap<K, V> {
         int finalIndex;
         for (int i = 0; i < table.length; i++) {
             finalIndex = (index + i) % table.length;
-            if (table[finalIndex] != null && !table[finalIndex].isRemoved()
+            if (table[finalIndex] == null) {
+                break;
+            }
+            if (!table[finalIndex].isRemoved()
                    && table[finalIndex].getKey().equals(key)) {
                 table[finalIndex].setRemoved(true);
                 size--;
@@ -195,7 +195,10 @@ public class LinearProbingHashMap<K, V> {
         int finalIndex;
         for (int i = 0; i < table.length; i++) {
             finalIndex = (index + i) % table.length;
-            if (table[finalIndex] != null && !table[finalIndex].isRemoved()
+            if (table[finalIndex] == null) {
+                break;
+            }
+            if (!table[finalIndex].isRemoved()
                     && table[finalIndex].getKey().equals(key)) {
                 return table[finalIndex].getValue();
             }
@@ -220,7 +223,10 @@ public class LinearProbingHashMap<K, V> {
         int finalIndex;
         for (int i = 0; i < table.length; i++) {
             finalIndex = (index + i) % table.length;
-            if (table[finalIndex] != null && !table[finalIndex].isRemoved()
+            if (table[finalIndex] == null) {
+                break;
+            }
+            if (!table[finalIndex].isRemoved()
                     && table[finalIndex].getKey().equals(key)) {
                 return true;
             }
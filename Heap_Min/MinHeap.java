@@ -104,29 +104,18 @@ public class MinHeap<T extends Comparable<? super T>> {
         nullCheck(backingArray[index]);
 
         int left = 2 * index;
-        if (backingArray[left] == null || left > size) {
+        if (left > size) {
             return;
         }
 
-        int right = 2 * index + 1;
-        if (backingArray[right] == null) {
-            if (backingArray[index].compareTo(backingArray[left]) > 0) {
-                swapHelper(index, left);
-                return;
-            } else if (backingArray[right] == null || right > size) {
-                return;
-            }
+        int right = left + 1;
+        int smaller = left;
+        if (right <= size && backingArray[right].compareTo(backingArray[left]) < 0) {
+            smaller = right;
         }
-
-        if (backingArray[index].compareTo(backingArray[left]) > 0
-                || backingArray[index].compareTo(backingArray[right]) > 0) {
-            if (backingArray[left].compareTo(backingArray[right]) < 0) {
-                swapHelper(index, left);
-                downHeap(backingArray, left);
-            } else {
-                swapHelper(index, right);
-                downHeap(backingArray, right);
-            }
+        if (backingArray[index].compareTo(backingArray[smaller]) > 0) {
+            swapHelper(index, smaller);
+            downHeap(backingArray, smaller);
         }
     }
 
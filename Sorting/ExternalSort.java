@@ -0,0 +1,736 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class ExternalSort {
+
+    /**
+     * The default number of bytes of data held in memory at once.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    /**
+     * The default number of runs merged at once.
+     */
+    public static final int DEFAULT_FAN_IN = 64;
+
+    /**
+     * The smallest I/O buffer used for a run. The memory budget must hold
+     * one for every run of a merge and one for its output.
+     */
+    private static final int MIN_BUFFER = 8192;
+
+    /**
+     * The largest I/O buffer used for a run or a chunk.
+     */
+    private static final int MAX_BUFFER = 1 << 20;
+
+    /**
+     * The estimated number of bytes a line takes in memory on top of its
+     * chars: the String, its backing array, and a reference to it from the
+     * chunk list, from the array the chunk is sorted in and from the merge
+     * buffer of timSort.
+     */
+    private static final int LINE_OVERHEAD = 64;
+
+    private final long memoryBudget;
+    private final int fanIn;
+    private final Path tempDirectory;
+
+    /**
+     * Creates an external sort with DEFAULT_MEMORY_BUDGET and DEFAULT_FAN_IN
+     * that writes its runs to the default temporary directory.
+     */
+    public ExternalSort() {
+        this(DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * Creates an external sort.
+     *
+     * The input is read in chunks that fill the memory budget together with
+     * the buffers they are read and written through, and every chunk is
+     * sorted in memory and written to a temporary file as a sorted run.
+     * Runs are then merged fanIn at a time by a k-way merge, in as many
+     * passes as needed, until a single merge writes the output. A larger
+     * fan-in means fewer passes over the data but smaller I/O buffers per
+     * run, since all buffers of a merge share the memory budget, so the
+     * budget must hold fanIn + 1 buffers of MIN_BUFFER bytes.
+     *
+     * @param memoryBudget the number of bytes of data and buffers held in
+     *                     memory at once
+     * @param fanIn the largest number of runs merged at once
+     * @param tempDirectory the directory for the runs, or null for the
+     *                      default temporary directory
+     * @throws java.lang.IllegalArgumentException if the fan-in is less than 2
+     *                                            or the budget is smaller
+     *                                            than fanIn + 1 buffers of
+     *                                            MIN_BUFFER bytes
+     */
+    public ExternalSort(long memoryBudget, int fanIn, Path tempDirectory) {
+        if (fanIn < 2) {
+            throw new java.lang.IllegalArgumentException("The fan-in should be at least 2");
+        }
+        if (memoryBudget < (fanIn + 1L) * MIN_BUFFER) {
+            throw new java.lang.IllegalArgumentException("The memory budget should be at least " + (fanIn + 1L) * MIN_BUFFER + " bytes for a fan-in of " + fanIn);
+        }
+        this.memoryBudget = memoryBudget;
+        this.fanIn = fanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sorts the lines of a UTF-8 text file into another file, each line
+     * ending with a newline.
+     *
+     * It should be:
+     * stable (equal lines keep their order in the input)
+     *
+     * Have a running time of:
+     * O(n log n) comparisons and O(n log_fanIn (runs)) bytes read and written
+     *
+     * The chunks are sorted with Sorting.timSort. The input is read and
+     * each run written through buffers of chunkBufferSize() bytes, and a
+     * chunk holds the lines that fit in the rest of the memory budget.
+     *
+     * @param input the file to sort
+     * @param output the file the sorted lines are written to, replacing it
+     * @param comparator the Comparator used to compare the lines
+     * @throws java.lang.IllegalArgumentException if any of the arguments is
+     *                                            null
+     * @throws IOException if a file cannot be read or written
+     */
+    public void sortLines(Path input, Path output, Comparator<String> comparator)
+        throws IOException {
+        if (input == null || output == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("The files and comparator should not be null");
+        }
+        List<Path> runs = new ArrayList<>();
+        boolean written = false;
+        int bufferSize = chunkBufferSize();
+        long chunkBudget = memoryBudget - 2L * bufferSize;
+        try {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Files.newInputStream(input), StandardCharsets.UTF_8), bufferSize / 2)) {
+                List<String> chunk = new ArrayList<>();
+                long used = 0;
+                String line = reader.readLine();
+                while (line != null) {
+                    chunk.add(line);
+                    used += LINE_OVERHEAD + 2L * line.length();
+                    line = reader.readLine();
+                    if (used >= chunkBudget || line == null) {
+                        String[] lines = chunk.toArray(new String[0]);
+                        Sorting.timSort(lines, comparator);
+                        written = runs.isEmpty() && line == null;
+                        Path target = written ? output : newRun(runs);
+                        try (RunWriter<String> writer = LINES.create(target, bufferSize)) {
+                            for (String sorted : lines) {
+                                writer.write(sorted);
+                            }
+                        }
+                        chunk.clear();
+                        used = 0;
+                    }
+                }
+            }
+            if (!runs.isEmpty()) {
+                merge(new ArrayList<>(runs), output,
+                    (group, target) -> mergeGroup(group, target, LINES, comparator), runs);
+            } else if (!written) {
+                LINES.create(output, MIN_BUFFER).close();
+            }
+        } finally {
+            deleteRuns(runs);
+        }
+    }
+
+    /**
+     * Sorts a binary file of big-endian longs into another file.
+     *
+     * It should be:
+     * not stable (equal longs cannot be told apart)
+     *
+     * Have a running time of:
+     * O(n log fanIn) and O(n log_fanIn (runs)) bytes read and written
+     *
+     * The chunks are read and written through FileChannels and a buffer of
+     * chunkBufferSize() bytes, and sorted in place with the range radix sort
+     * behind Sorting.radixSort, which needs a scratch array as long as the chunk,
+     * so a chunk holds (memoryBudget - chunkBufferSize()) / 16 longs. The
+     * last chunk is sorted as a prefix of the chunk array instead of a
+     * copy. The runs are merged on primitive longs, without boxing a Long
+     * per record.
+     *
+     * @param input the file to sort
+     * @param output the file the sorted longs are written to, replacing it
+     * @throws java.lang.IllegalArgumentException if either file is null or the
+     *                                            input length is not a
+     *                                            multiple of 8
+     * @throws IOException if a file cannot be read or written
+     */
+    public void sortLongs(Path input, Path output) throws IOException {
+        if (input == null || output == null) {
+            throw new java.lang.IllegalArgumentException("The files should not be null");
+        }
+        List<Path> runs = new ArrayList<>();
+        try {
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size % Long.BYTES != 0) {
+                    throw new java.lang.IllegalArgumentException("The input length should be a multiple of " + Long.BYTES);
+                }
+                long remaining = size / Long.BYTES;
+                int bufferSize = chunkBufferSize();
+                long[] chunk = new long[(int) Math.min(remaining, Math.min(
+                    (memoryBudget - bufferSize) / (2 * Long.BYTES), Integer.MAX_VALUE - 8))];
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+                do {
+                    int length = (int) Math.min(chunk.length, remaining);
+                    remaining -= length;
+                    readFully(channel, buffer, chunk, length);
+                    PrimitiveSorting.radixSort(chunk, 0, length);
+                    Path target = runs.isEmpty() && remaining == 0
+                        ? output : newRun(runs);
+                    try (FileChannel out = FileChannel.open(target,
+                        StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                        buffer.clear();
+                        for (int i = 0; i < length; i++) {
+                            if (buffer.remaining() < Long.BYTES) {
+                                writeFully(out, buffer);
+                            }
+                            buffer.putLong(chunk[i]);
+                        }
+                        writeFully(out, buffer);
+                    }
+                } while (remaining > 0);
+            }
+            if (!runs.isEmpty()) {
+                merge(new ArrayList<>(runs), output, this::mergeLongs, runs);
+            }
+        } finally {
+            deleteRuns(runs);
+        }
+    }
+
+    /**
+     * Gets the size of the I/O buffers used while the input is split into
+     * runs: an eighth of the memory budget, but at least MIN_BUFFER and at
+     * most MAX_BUFFER bytes.
+     *
+     * @return the buffer size in bytes
+     */
+    private int chunkBufferSize() {
+        return (int) Math.max(MIN_BUFFER, Math.min(MAX_BUFFER, memoryBudget / 8));
+    }
+
+    /**
+     * Gets the size of the I/O buffers of a merge, which shares the memory
+     * budget between a buffer for every run and one for the output. The
+     * constructor makes sure that this is at least MIN_BUFFER bytes.
+     *
+     * @param runs the number of runs merged, at most fanIn
+     * @return the buffer size in bytes, at most MAX_BUFFER
+     */
+    private int mergeBufferSize(int runs) {
+        return (int) Math.min(MAX_BUFFER, memoryBudget / (runs + 1));
+    }
+
+    /**
+     * Merges the runs into the output, first merging consecutive groups of
+     * fanIn runs into longer runs until at most fanIn are left. Only
+     * consecutive runs are merged and the group merges break ties in favour
+     * of the earlier run, so the merge is stable.
+     *
+     * @param runs the sorted runs in input order
+     * @param output the file the merged records are written to
+     * @param merger merges one group of at most fanIn runs into a file
+     * @param created every temporary file created so far, which the longer
+     *                runs are added to
+     * @throws IOException if a file cannot be read or written
+     */
+    private void merge(List<Path> runs, Path output, GroupMerger merger,
+                       List<Path> created) throws IOException {
+        while (runs.size() > fanIn) {
+            List<Path> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+                Path run = newRun(created);
+                merger.merge(group, run);
+                deleteRuns(group);
+                merged.add(run);
+            }
+            runs = merged;
+        }
+        merger.merge(runs, output);
+    }
+
+    /**
+     * Merges up to fanIn runs into one file with a k-way merge: a heap holds
+     * the smallest unwritten record of every run, and the run of the record
+     * removed from the heap supplies the next one.
+     *
+     * @param <E> the type of the records
+     * @param runs the sorted runs in input order
+     * @param output the file the merged records are written to
+     * @param format reads and writes the records
+     * @param comparator the Comparator used to compare the records
+     * @throws IOException if a file cannot be read or written
+     */
+    private <E> void mergeGroup(List<Path> runs, Path output, Format<E> format,
+                                Comparator<? super E> comparator) throws IOException {
+        int bufferSize = mergeBufferSize(runs.size());
+        List<RunReader<E>> readers = new ArrayList<>(runs.size());
+        try {
+            PriorityQueue<Head<E>> heap = new PriorityQueue<>(runs.size(), (a, b) -> {
+                int compared = comparator.compare(a.data, b.data);
+                return compared != 0 ? compared : Integer.compare(a.run, b.run);
+            });
+            for (Path run : runs) {
+                RunReader<E> reader = format.open(run, bufferSize);
+                readers.add(reader);
+                E data = reader.next();
+                if (data != null) {
+                    heap.add(new Head<>(data, readers.size() - 1));
+                }
+            }
+            try (RunWriter<E> writer = format.create(output, bufferSize)) {
+                while (!heap.isEmpty()) {
+                    Head<E> head = heap.remove();
+                    writer.write(head.data);
+                    head.data = readers.get(head.run).next();
+                    if (head.data != null) {
+                        heap.add(head);
+                    }
+                }
+            }
+        } finally {
+            for (RunReader<E> reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Merges up to fanIn runs of longs into one file with a k-way merge on
+     * primitives: heads holds the smallest unwritten long of every run, and
+     * a binary heap of run indices is ordered by their heads, ties going to
+     * the earlier run. The run at the top of the heap is written and
+     * advanced in place, then sifted down.
+     *
+     * @param runs the sorted runs in input order
+     * @param output the file the merged longs are written to
+     * @throws IOException if a file cannot be read or written
+     */
+    private void mergeLongs(List<Path> runs, Path output) throws IOException {
+        int bufferSize = mergeBufferSize(runs.size());
+        List<LongRunReader> readers = new ArrayList<>(runs.size());
+        try {
+            long[] heads = new long[runs.size()];
+            int[] heap = new int[runs.size()];
+            int size = 0;
+            for (Path run : runs) {
+                LongRunReader reader = new LongRunReader(run, bufferSize);
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    heads[readers.size() - 1] = reader.next();
+                    heap[size++] = readers.size() - 1;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(heap, i, size, heads);
+            }
+            try (LongRunWriter writer = new LongRunWriter(output, bufferSize)) {
+                while (size > 0) {
+                    int run = heap[0];
+                    writer.write(heads[run]);
+                    LongRunReader reader = readers.get(run);
+                    if (reader.hasNext()) {
+                        heads[run] = reader.next();
+                    } else {
+                        heap[0] = heap[--size];
+                    }
+                    siftDown(heap, 0, size, heads);
+                }
+            }
+        } finally {
+            for (LongRunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * A private method that restores the min heap of run indices below the
+     * given heap index, ordering runs by their heads and then by index.
+     *
+     * @param heap the run indices
+     * @param index the heap index of the run to sift down
+     * @param size the number of runs in the heap
+     * @param heads the smallest unwritten long of every run
+     */
+    private static void siftDown(int[] heap, int index, int size, long[] heads) {
+        int run = heap[index];
+        int child = 2 * index + 1;
+        while (child < size) {
+            if (child + 1 < size && before(heap[child + 1], heap[child], heads)) {
+                child++;
+            }
+            if (!before(heap[child], run, heads)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+            child = 2 * index + 1;
+        }
+        heap[index] = run;
+    }
+
+    /**
+     * A private method that checks if a run comes before another in the heap.
+     *
+     * @param first the index of the first run
+     * @param second the index of the second run
+     * @param heads the smallest unwritten long of every run
+     * @return true if the head of first is smaller, or equal with first the
+     *         earlier run
+     */
+    private static boolean before(int first, int second, long[] heads) {
+        return heads[first] < heads[second]
+            || heads[first] == heads[second] && first < second;
+    }
+
+    /**
+     * Creates a temporary file for a run and adds it to the list, so it is
+     * deleted even if the sort fails.
+     *
+     * @param created the temporary files created so far
+     * @return the new file
+     * @throws IOException if the file cannot be created
+     */
+    private Path newRun(List<Path> created) throws IOException {
+        Path run = tempDirectory == null
+            ? Files.createTempFile("sort", ".run")
+            : Files.createTempFile(tempDirectory, "sort", ".run");
+        created.add(run);
+        return run;
+    }
+
+    /**
+     * Deletes the runs that still exist.
+     *
+     * @param runs the runs to delete
+     * @throws IOException if a run cannot be deleted
+     */
+    private static void deleteRuns(List<Path> runs) throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    /**
+     * A private method that fills the first length elements of the array
+     * with big-endian longs from the channel.
+     *
+     * @param channel the channel to read from
+     * @param buffer the buffer to read through
+     * @param data the array to fill
+     * @param length the number of longs to read
+     * @throws IOException if the channel ends early or cannot be read
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer,
+                                  long[] data, int length) throws IOException {
+        int filled = 0;
+        while (filled < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(),
+                (long) (length - filled) * Long.BYTES));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("The input ended early");
+                }
+            }
+            buffer.flip();
+            int count = buffer.remaining() / Long.BYTES;
+            buffer.asLongBuffer().get(data, filled, count);
+            filled += count;
+        }
+    }
+
+    /**
+     * A private method that writes out everything in the buffer and clears
+     * it.
+     *
+     * @param channel the channel to write to
+     * @param buffer the buffer to write out
+     * @throws IOException if the channel cannot be written
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer)
+        throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * The smallest unwritten record of a run during a merge.
+     *
+     * @param <E> the type of the records
+     */
+    private static final class Head<E> {
+
+        private E data;
+        private final int run;
+
+        /**
+         * Creates the head of a run.
+         *
+         * @param data the record
+         * @param run the index of the run
+         */
+        Head(E data, int run) {
+            this.data = data;
+            this.run = run;
+        }
+    }
+
+    /**
+     * Merges one group of sorted runs into a file.
+     */
+    private interface GroupMerger {
+
+        /**
+         * Merges the runs into the output.
+         *
+         * @param runs the sorted runs in input order
+         * @param output the file the merged records are written to
+         * @throws IOException if a file cannot be read or written
+         */
+        void merge(List<Path> runs, Path output) throws IOException;
+    }
+
+    /**
+     * Opens runs of one kind of record for reading and writing.
+     *
+     * @param <E> the type of the records
+     */
+    private interface Format<E> {
+
+        /**
+         * Opens a run for reading.
+         *
+         * @param path the run
+         * @param bufferSize the size of the read buffer in bytes
+         * @return the reader
+         * @throws IOException if the run cannot be opened
+         */
+        RunReader<E> open(Path path, int bufferSize) throws IOException;
+
+        /**
+         * Creates or replaces a file for writing.
+         *
+         * @param path the file
+         * @param bufferSize the size of the write buffer in bytes
+         * @return the writer
+         * @throws IOException if the file cannot be created
+         */
+        RunWriter<E> create(Path path, int bufferSize) throws IOException;
+    }
+
+    /**
+     * Reads the records of a run in order.
+     *
+     * @param <E> the type of the records
+     */
+    private interface RunReader<E> extends Closeable {
+
+        /**
+         * Reads the next record.
+         *
+         * @return the record, or null at the end of the run
+         * @throws IOException if the run cannot be read
+         */
+        E next() throws IOException;
+    }
+
+    /**
+     * Writes records to a file.
+     *
+     * @param <E> the type of the records
+     */
+    private interface RunWriter<E> extends Closeable {
+
+        /**
+         * Writes the record.
+         *
+         * @param data the record
+         * @throws IOException if the file cannot be written
+         */
+        void write(E data) throws IOException;
+    }
+
+    /**
+     * Lines of UTF-8 text, each ending with a newline.
+     */
+    private static final Format<String> LINES = new Format<String>() {
+        @Override
+        public RunReader<String> open(Path path, int bufferSize) throws IOException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Files.newInputStream(path), StandardCharsets.UTF_8), bufferSize / 2);
+            return new RunReader<String>() {
+                @Override
+                public String next() throws IOException {
+                    return reader.readLine();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    reader.close();
+                }
+            };
+        }
+
+        @Override
+        public RunWriter<String> create(Path path, int bufferSize) throws IOException {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(path), StandardCharsets.UTF_8), bufferSize / 2);
+            return new RunWriter<String>() {
+                @Override
+                public void write(String data) throws IOException {
+                    writer.write(data);
+                    writer.write('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.close();
+                }
+            };
+        }
+    };
+
+    /**
+     * Reads the big-endian longs of a run in order, through a FileChannel.
+     */
+    private static final class LongRunReader implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * Opens a run for reading.
+         *
+         * @param path the run
+         * @param bufferSize the size of the read buffer in bytes
+         * @throws IOException if the run cannot be opened
+         */
+        LongRunReader(Path path, int bufferSize) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+            buffer.flip();
+        }
+
+        /**
+         * Checks if the run has another long, filling the buffer if needed.
+         *
+         * @return true if next() can be called
+         * @throws IOException if the run cannot be read or ends inside a long
+         */
+        boolean hasNext() throws IOException {
+            if (buffer.remaining() >= Long.BYTES) {
+                return true;
+            }
+            buffer.compact();
+            while (buffer.position() < Long.BYTES) {
+                if (channel.read(buffer) < 0) {
+                    buffer.flip();
+                    if (buffer.hasRemaining()) {
+                        throw new EOFException("The run ended inside a long");
+                    }
+                    return false;
+                }
+            }
+            buffer.flip();
+            return true;
+        }
+
+        /**
+         * Reads the next long. hasNext() must have returned true.
+         *
+         * @return the long
+         */
+        long next() {
+            return buffer.getLong();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes big-endian longs to a file, through a FileChannel.
+     */
+    private static final class LongRunWriter implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * Creates or replaces a file for writing.
+         *
+         * @param path the file
+         * @param bufferSize the size of the write buffer in bytes
+         * @throws IOException if the file cannot be created
+         */
+        LongRunWriter(Path path, int bufferSize) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        /**
+         * Writes the long.
+         *
+         * @param data the long
+         * @throws IOException if the file cannot be written
+         */
+        void write(long data) throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                writeFully(channel, buffer);
+            }
+            buffer.putLong(data);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writeFully(channel, buffer);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
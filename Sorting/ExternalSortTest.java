@@ -0,0 +1,218 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class ExternalSortTest {
+
+    /**
+     * Runs the ExternalSort tests.
+     *
+     * @param args unused
+     * @throws IOException if a temporary file cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("external-sort-test");
+        try {
+            constructorRejectsBudgetsTooSmallForTheFanIn(directory);
+            sortLongsMatchesArraysSort(directory);
+            sortLinesIsStable(directory);
+            failedSortsDeleteTheirRuns(directory);
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+        System.out.println("ExternalSortTest passed");
+    }
+
+    /**
+     * Checks that the constructor takes the smallest memory budget that
+     * gives every run of a merge and its output a buffer of 8 KiB, and
+     * rejects a budget one byte smaller or a fan-in below 2.
+     *
+     * @param directory the directory for the runs
+     */
+    static void constructorRejectsBudgetsTooSmallForTheFanIn(Path directory) {
+        for (int fanIn : new int[] {2, 3, 64, 1000}) {
+            long budget = (fanIn + 1) * 8192L;
+            new ExternalSort(budget, fanIn, directory);
+            try {
+                new ExternalSort(budget - 1, fanIn, directory);
+                check(false, "a budget of " + (budget - 1) + " bytes was accepted for fan-in " + fanIn);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+        try {
+            new ExternalSort(1L << 30, 1, directory);
+            check(false, "a fan-in of 1 was accepted");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Checks sortLongs against Arrays.sort with the smallest memory budget
+     * for each fan-in, so the input is split into many runs that take
+     * several merge passes, and checks that no run is left behind.
+     *
+     * @param directory the directory for the files and the runs
+     * @throws IOException if a file cannot be used
+     */
+    static void sortLongsMatchesArraysSort(Path directory) throws IOException {
+        Random rand = new Random(47);
+        Path input = directory.resolve("input.bin");
+        Path output = directory.resolve("output.bin");
+        for (int n : new int[] {0, 1, 1000, 1024, 1025, 50_000}) {
+            for (int fanIn : new int[] {2, 3, 64}) {
+                long[] data = new long[n];
+                for (int i = 0; i < n; i++) {
+                    data[i] = rand.nextBoolean() ? rand.nextLong() : rand.nextInt(100);
+                }
+                writeLongs(input, data);
+                new ExternalSort((fanIn + 1) * 8192L, fanIn, directory).sortLongs(input, output);
+                Arrays.sort(data);
+                check(Arrays.equals(readLongs(output), data),
+                    "sortLongs of " + n + " longs with fan-in " + fanIn);
+                checkOnly(directory, input, output);
+            }
+        }
+        Files.write(input, new byte[12]);
+        try {
+            new ExternalSort().sortLongs(input, output);
+            check(false, "sortLongs accepted a partial long");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        Files.delete(input);
+        Files.delete(output);
+    }
+
+    /**
+     * Checks sortLines against a stable sort of the lines by their first
+     * char, with small fan-ins and the smallest memory budget for each, so
+     * the chunks hold one to a few hundred lines, and checks that no run is
+     * left behind.
+     *
+     * @param directory the directory for the files and the runs
+     * @throws IOException if a file cannot be used
+     */
+    static void sortLinesIsStable(Path directory) throws IOException {
+        Random rand = new Random(470);
+        Path input = directory.resolve("input.txt");
+        Path output = directory.resolve("output.txt");
+        Comparator<String> byFirstChar = Comparator.comparing(line -> line.isEmpty() ? 0 : line.charAt(0));
+        for (int n : new int[] {0, 1, 10_000}) {
+            for (int fanIn : new int[] {2, 5}) {
+                List<String> lines = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    lines.add(rand.nextInt(20) == 0 ? "" : (char) ('a' + rand.nextInt(5)) + "\u00e9 " + i);
+                }
+                Files.write(input, lines, StandardCharsets.UTF_8);
+                new ExternalSort((fanIn + 1) * 8192L, fanIn, directory).sortLines(input, output, byFirstChar);
+                lines.sort(byFirstChar);
+                check(Files.readAllLines(output, StandardCharsets.UTF_8).equals(lines),
+                    "sortLines of " + n + " lines with fan-in " + fanIn);
+                checkOnly(directory, input, output);
+            }
+        }
+        Files.delete(input);
+        Files.delete(output);
+    }
+
+    /**
+     * Checks that a sort whose comparator fails once several runs have been
+     * written still deletes every run.
+     *
+     * @param directory the directory for the files and the runs
+     * @throws IOException if a file cannot be used
+     */
+    static void failedSortsDeleteTheirRuns(Path directory) throws IOException {
+        Path input = directory.resolve("input.txt");
+        Path output = directory.resolve("output.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            lines.add(Integer.toString(i));
+        }
+        Files.write(input, lines, StandardCharsets.UTF_8);
+        int[] calls = new int[1];
+        try {
+            new ExternalSort(3 * 8192, 2, directory).sortLines(input, output, (a, b) -> {
+                if (++calls[0] > 20_000) {
+                    throw new IllegalStateException("failing comparator");
+                }
+                return a.compareTo(b);
+            });
+            check(false, "the comparator never failed");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        Files.deleteIfExists(output);
+        checkOnly(directory, input);
+        Files.delete(input);
+    }
+
+    /**
+     * Checks that the directory holds exactly the given files.
+     *
+     * @param directory the directory
+     * @param expected the files that should be in it
+     * @throws IOException if the directory cannot be listed
+     */
+    private static void checkOnly(Path directory, Path... expected) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            check(files.count() == expected.length, "runs were left in " + directory);
+        }
+    }
+
+    /**
+     * Writes the longs to a file in big-endian order.
+     *
+     * @param path the file
+     * @param data the longs
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeLongs(Path path, long[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(data.length * Long.BYTES);
+        buffer.asLongBuffer().put(data);
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * Reads the big-endian longs of a file.
+     *
+     * @param path the file
+     * @return the longs
+     * @throws IOException if the file cannot be read
+     */
+    private static long[] readLongs(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        long[] data = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(data);
+        return data;
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,1687 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+final class PrimitiveSorting {
+
+    // The kernels behind the int, long and double sorts, selections and
+    // radix sorts of Sorting, which checks the arguments and calls in here.
+    // The copies of a kernel differ only in the element type; the double
+    // sorts move NaN and -0.0 out of the way first so the primitive
+    // operators order the rest. The copies of each kernel are listed in a
+    // row, and a change to one copy MUST be made to the others as well.
+
+    /**
+     * The thresholds and radix of the generic sorts in Sorting, shared so
+     * that the primitive sorts switch algorithms at the same lengths.
+     */
+    private static final int INSERTION_THRESHOLD = Sorting.INSERTION_THRESHOLD;
+    private static final int PARALLEL_THRESHOLD = Sorting.PARALLEL_THRESHOLD;
+    private static final int NINTHER_THRESHOLD = Sorting.NINTHER_THRESHOLD;
+    private static final int PARTIAL_INSERTION_LIMIT = Sorting.PARTIAL_INSERTION_LIMIT;
+    private static final int RADIX_BITS = Sorting.RADIX_BITS;
+    private static final int RADIX = Sorting.RADIX;
+
+    /**
+     * The length of a range at or below which the MSD radix sorts of
+     * numbers switch to quickSort, since a pass over RADIX buckets no longer
+     * pays off.
+     */
+    private static final int RADIX_CUTOFF = 256;
+
+    /**
+     * Prevents instantiation of the helper class.
+     */
+    private PrimitiveSorting() {
+    }
+
+    /**
+     * A helper method that insertion sorts arr[start, end).
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void insertionSort(int[] arr, int start, int end) {
+        for (int i = start + 1; i < end; i++) {
+            int data = arr[i];
+            int j = i - 1;
+            while (j >= start && data < arr[j]) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = data;
+        }
+    }
+
+    /**
+     * A helper method that insertion sorts arr[start, end).
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void insertionSort(long[] arr, int start, int end) {
+        for (int i = start + 1; i < end; i++) {
+            long data = arr[i];
+            int j = i - 1;
+            while (j >= start && data < arr[j]) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = data;
+        }
+    }
+
+    /**
+     * A helper method that insertion sorts arr[start, end).
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void insertionSort(double[] arr, int start, int end) {
+        for (int i = start + 1; i < end; i++) {
+            double data = arr[i];
+            int j = i - 1;
+            while (j >= start && data < arr[j]) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = data;
+        }
+    }
+
+    /**
+     * A helper method that merge sorts src[start, end) into dst[start, end),
+     * ping-ponging between the arrays like the generic helpMergeSorting in
+     * Sorting. Both arrays must hold the same data in the range.
+     *
+     * @param src the array to merge from
+     * @param dst the array that holds the sorted range afterwards
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void helpMergeSorting(int[] src, int[] dst, int start,
+                                         int end) {
+        if (end - start <= INSERTION_THRESHOLD) {
+            insertionSort(dst, start, end);
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        helpMergeSorting(dst, src, start, middle);
+        helpMergeSorting(dst, src, middle, end);
+        if (src[middle - 1] <= src[middle]) {
+            System.arraycopy(src, start, dst, start, end - start);
+            return;
+        }
+        int i = start;
+        int j = middle;
+        for (int k = start; k < end; k++) {
+            if (j >= end || i < middle && src[i] <= src[j]) {
+                dst[k] = src[i++];
+            } else {
+                dst[k] = src[j++];
+            }
+        }
+    }
+
+    /**
+     * A helper method that merge sorts src[start, end) into dst[start, end),
+     * ping-ponging between the arrays like the generic helpMergeSorting in
+     * Sorting. Both arrays must hold the same data in the range.
+     *
+     * @param src the array to merge from
+     * @param dst the array that holds the sorted range afterwards
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void helpMergeSorting(long[] src, long[] dst, int start,
+                                         int end) {
+        if (end - start <= INSERTION_THRESHOLD) {
+            insertionSort(dst, start, end);
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        helpMergeSorting(dst, src, start, middle);
+        helpMergeSorting(dst, src, middle, end);
+        if (src[middle - 1] <= src[middle]) {
+            System.arraycopy(src, start, dst, start, end - start);
+            return;
+        }
+        int i = start;
+        int j = middle;
+        for (int k = start; k < end; k++) {
+            if (j >= end || i < middle && src[i] <= src[j]) {
+                dst[k] = src[i++];
+            } else {
+                dst[k] = src[j++];
+            }
+        }
+    }
+
+    /**
+     * A helper method that merge sorts src[start, end) into dst[start, end),
+     * ping-ponging between the arrays like the generic helpMergeSorting in
+     * Sorting. Both arrays must hold the same data in the range.
+     *
+     * @param src the array to merge from
+     * @param dst the array that holds the sorted range afterwards
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void helpMergeSorting(double[] src, double[] dst, int start,
+                                         int end) {
+        if (end - start <= INSERTION_THRESHOLD) {
+            insertionSort(dst, start, end);
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        helpMergeSorting(dst, src, start, middle);
+        helpMergeSorting(dst, src, middle, end);
+        if (src[middle - 1] <= src[middle]) {
+            System.arraycopy(src, start, dst, start, end - start);
+            return;
+        }
+        int i = start;
+        int j = middle;
+        for (int k = start; k < end; k++) {
+            if (j >= end || i < middle && src[i] <= src[j]) {
+                dst[k] = src[i++];
+            } else {
+                dst[k] = src[j++];
+            }
+        }
+    }
+
+    /**
+     * A helper method that pattern-defeating quick sorts arr[start, end), like
+     * the generic helpIntroSorting in Sorting.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param badAllowed the number of bad partitions left before falling back
+     *                   to heap sort
+     * @param leftmost whether the slice starts the array
+     */
+    static void helpIntroSorting(int[] arr, int start, int end,
+                                         int badAllowed, boolean leftmost) {
+        while (end - start > INSERTION_THRESHOLD) {
+            if (badAllowed == 0) {
+                heapSort(arr, start, end);
+                return;
+            }
+            int size = end - start;
+            swap(arr, start, choosePivot(arr, start, end));
+            int pivotVal = arr[start];
+            if (!leftmost && arr[start - 1] >= pivotVal) {
+                int i = start + 1;
+                int j = end - 1;
+                while (true) {
+                    while (i <= j && arr[i] <= pivotVal) {
+                        i++;
+                    }
+                    while (i <= j && arr[j] > pivotVal) {
+                        j--;
+                    }
+                    if (i > j) {
+                        break;
+                    }
+                    swap(arr, i++, j--);
+                }
+                start = i;
+                continue;
+            }
+
+            int i = start + 1;
+            int j = end - 1;
+            boolean moved = false;
+            while (true) {
+                while (i <= j && arr[i] < pivotVal) {
+                    i++;
+                }
+                while (i <= j && arr[j] >= pivotVal) {
+                    j--;
+                }
+                if (i > j) {
+                    break;
+                }
+                swap(arr, i++, j--);
+                moved = true;
+            }
+            int pivot = j;
+            swap(arr, start, pivot);
+
+            int leftSize = pivot - start;
+            int rightSize = end - pivot - 1;
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                badAllowed--;
+                if (leftSize >= INSERTION_THRESHOLD) {
+                    swap(arr, start, start + leftSize / 4);
+                    swap(arr, pivot - 1, pivot - leftSize / 4);
+                }
+                if (rightSize >= INSERTION_THRESHOLD) {
+                    swap(arr, pivot + 1, pivot + 1 + rightSize / 4);
+                    swap(arr, end - 1, end - rightSize / 4);
+                }
+            } else if (!moved
+                && partialInsertionSort(arr, start, pivot)
+                && partialInsertionSort(arr, pivot + 1, end)) {
+                return;
+            }
+            if (leftSize < rightSize) {
+                helpIntroSorting(arr, start, pivot, badAllowed, leftmost);
+                start = pivot + 1;
+                leftmost = false;
+            } else {
+                helpIntroSorting(arr, pivot + 1, end, badAllowed, false);
+                end = pivot;
+            }
+        }
+        insertionSort(arr, start, end);
+    }
+
+    /**
+     * A helper method that pattern-defeating quick sorts arr[start, end), like
+     * the generic helpIntroSorting in Sorting.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param badAllowed the number of bad partitions left before falling back
+     *                   to heap sort
+     * @param leftmost whether the slice starts the array
+     */
+    static void helpIntroSorting(long[] arr, int start, int end,
+                                         int badAllowed, boolean leftmost) {
+        while (end - start > INSERTION_THRESHOLD) {
+            if (badAllowed == 0) {
+                heapSort(arr, start, end);
+                return;
+            }
+            int size = end - start;
+            swap(arr, start, choosePivot(arr, start, end));
+            long pivotVal = arr[start];
+            if (!leftmost && arr[start - 1] >= pivotVal) {
+                int i = start + 1;
+                int j = end - 1;
+                while (true) {
+                    while (i <= j && arr[i] <= pivotVal) {
+                        i++;
+                    }
+                    while (i <= j && arr[j] > pivotVal) {
+                        j--;
+                    }
+                    if (i > j) {
+                        break;
+                    }
+                    swap(arr, i++, j--);
+                }
+                start = i;
+                continue;
+            }
+
+            int i = start + 1;
+            int j = end - 1;
+            boolean moved = false;
+            while (true) {
+                while (i <= j && arr[i] < pivotVal) {
+                    i++;
+                }
+                while (i <= j && arr[j] >= pivotVal) {
+                    j--;
+                }
+                if (i > j) {
+                    break;
+                }
+                swap(arr, i++, j--);
+                moved = true;
+            }
+            int pivot = j;
+            swap(arr, start, pivot);
+
+            int leftSize = pivot - start;
+            int rightSize = end - pivot - 1;
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                badAllowed--;
+                if (leftSize >= INSERTION_THRESHOLD) {
+                    swap(arr, start, start + leftSize / 4);
+                    swap(arr, pivot - 1, pivot - leftSize / 4);
+                }
+                if (rightSize >= INSERTION_THRESHOLD) {
+                    swap(arr, pivot + 1, pivot + 1 + rightSize / 4);
+                    swap(arr, end - 1, end - rightSize / 4);
+                }
+            } else if (!moved
+                && partialInsertionSort(arr, start, pivot)
+                && partialInsertionSort(arr, pivot + 1, end)) {
+                return;
+            }
+            if (leftSize < rightSize) {
+                helpIntroSorting(arr, start, pivot, badAllowed, leftmost);
+                start = pivot + 1;
+                leftmost = false;
+            } else {
+                helpIntroSorting(arr, pivot + 1, end, badAllowed, false);
+                end = pivot;
+            }
+        }
+        insertionSort(arr, start, end);
+    }
+
+    /**
+     * A helper method that pattern-defeating quick sorts arr[start, end), like
+     * the generic helpIntroSorting in Sorting.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param badAllowed the number of bad partitions left before falling back
+     *                   to heap sort
+     * @param leftmost whether the slice starts the array
+     */
+    static void helpIntroSorting(double[] arr, int start, int end,
+                                         int badAllowed, boolean leftmost) {
+        while (end - start > INSERTION_THRESHOLD) {
+            if (badAllowed == 0) {
+                heapSort(arr, start, end);
+                return;
+            }
+            int size = end - start;
+            swap(arr, start, choosePivot(arr, start, end));
+            double pivotVal = arr[start];
+            if (!leftmost && arr[start - 1] >= pivotVal) {
+                int i = start + 1;
+                int j = end - 1;
+                while (true) {
+                    while (i <= j && arr[i] <= pivotVal) {
+                        i++;
+                    }
+                    while (i <= j && arr[j] > pivotVal) {
+                        j--;
+                    }
+                    if (i > j) {
+                        break;
+                    }
+                    swap(arr, i++, j--);
+                }
+                start = i;
+                continue;
+            }
+
+            int i = start + 1;
+            int j = end - 1;
+            boolean moved = false;
+            while (true) {
+                while (i <= j && arr[i] < pivotVal) {
+                    i++;
+                }
+                while (i <= j && arr[j] >= pivotVal) {
+                    j--;
+                }
+                if (i > j) {
+                    break;
+                }
+                swap(arr, i++, j--);
+                moved = true;
+            }
+            int pivot = j;
+            swap(arr, start, pivot);
+
+            int leftSize = pivot - start;
+            int rightSize = end - pivot - 1;
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                badAllowed--;
+                if (leftSize >= INSERTION_THRESHOLD) {
+                    swap(arr, start, start + leftSize / 4);
+                    swap(arr, pivot - 1, pivot - leftSize / 4);
+                }
+                if (rightSize >= INSERTION_THRESHOLD) {
+                    swap(arr, pivot + 1, pivot + 1 + rightSize / 4);
+                    swap(arr, end - 1, end - rightSize / 4);
+                }
+            } else if (!moved
+                && partialInsertionSort(arr, start, pivot)
+                && partialInsertionSort(arr, pivot + 1, end)) {
+                return;
+            }
+            if (leftSize < rightSize) {
+                helpIntroSorting(arr, start, pivot, badAllowed, leftmost);
+                start = pivot + 1;
+                leftmost = false;
+            } else {
+                helpIntroSorting(arr, pivot + 1, end, badAllowed, false);
+                end = pivot;
+            }
+        }
+        insertionSort(arr, start, end);
+    }
+
+    /**
+     * A private method that picks the pivot of arr[start, end) like the
+     * generic choosePivot in Sorting.
+     *
+     * @param arr the array to pick from
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @return the index of the pivot
+     */
+    private static int choosePivot(int[] arr, int start, int end) {
+        int size = end - start;
+        int middle = start + size / 2;
+        if (size <= NINTHER_THRESHOLD) {
+            return medianOfThree(arr, start, middle, end - 1);
+        }
+        int step = size / 8;
+        int first = medianOfThree(arr, start, start + step, start + 2 * step);
+        int second = medianOfThree(arr, middle - step, middle, middle + step);
+        int third = medianOfThree(arr, end - 1 - 2 * step, end - 1 - step,
+            end - 1);
+        return medianOfThree(arr, first, second, third);
+    }
+
+    /**
+     * A private method that picks the pivot of arr[start, end) like the
+     * generic choosePivot in Sorting.
+     *
+     * @param arr the array to pick from
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @return the index of the pivot
+     */
+    private static int choosePivot(long[] arr, int start, int end) {
+        int size = end - start;
+        int middle = start + size / 2;
+        if (size <= NINTHER_THRESHOLD) {
+            return medianOfThree(arr, start, middle, end - 1);
+        }
+        int step = size / 8;
+        int first = medianOfThree(arr, start, start + step, start + 2 * step);
+        int second = medianOfThree(arr, middle - step, middle, middle + step);
+        int third = medianOfThree(arr, end - 1 - 2 * step, end - 1 - step,
+            end - 1);
+        return medianOfThree(arr, first, second, third);
+    }
+
+    /**
+     * A private method that picks the pivot of arr[start, end) like the
+     * generic choosePivot in Sorting.
+     *
+     * @param arr the array to pick from
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @return the index of the pivot
+     */
+    private static int choosePivot(double[] arr, int start, int end) {
+        int size = end - start;
+        int middle = start + size / 2;
+        if (size <= NINTHER_THRESHOLD) {
+            return medianOfThree(arr, start, middle, end - 1);
+        }
+        int step = size / 8;
+        int first = medianOfThree(arr, start, start + step, start + 2 * step);
+        int second = medianOfThree(arr, middle - step, middle, middle + step);
+        int third = medianOfThree(arr, end - 1 - 2 * step, end - 1 - step,
+            end - 1);
+        return medianOfThree(arr, first, second, third);
+    }
+
+    /**
+     * A private method that finds the median of three elements.
+     *
+     * @param arr the array holding the elements
+     * @param a the index of the first element
+     * @param b the index of the second element
+     * @param c the index of the third element
+     * @return the index of the median
+     */
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) {
+                return b;
+            }
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) {
+            return a;
+        }
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    /**
+     * A private method that finds the median of three elements.
+     *
+     * @param arr the array holding the elements
+     * @param a the index of the first element
+     * @param b the index of the second element
+     * @param c the index of the third element
+     * @return the index of the median
+     */
+    private static int medianOfThree(long[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) {
+                return b;
+            }
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) {
+            return a;
+        }
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    /**
+     * A private method that finds the median of three elements.
+     *
+     * @param arr the array holding the elements
+     * @param a the index of the first element
+     * @param b the index of the second element
+     * @param c the index of the third element
+     * @return the index of the median
+     */
+    private static int medianOfThree(double[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) {
+                return b;
+            }
+            return arr[a] < arr[c] ? c : a;
+        }
+        if (arr[a] < arr[c]) {
+            return a;
+        }
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    /**
+     * A private method that insertion sorts arr[start, end), giving up once
+     * more than PARTIAL_INSERTION_LIMIT elements have been moved.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @return true if the slice was sorted, false if the sort gave up
+     */
+    private static boolean partialInsertionSort(int[] arr, int start, int end) {
+        int moves = 0;
+        for (int i = start + 1; i < end; i++) {
+            if (arr[i] < arr[i - 1]) {
+                int data = arr[i];
+                int j = i;
+                do {
+                    arr[j] = arr[j - 1];
+                    j--;
+                } while (j > start && data < arr[j - 1]);
+                arr[j] = data;
+                moves += i - j;
+                if (moves > PARTIAL_INSERTION_LIMIT) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A private method that insertion sorts arr[start, end), giving up once
+     * more than PARTIAL_INSERTION_LIMIT elements have been moved.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @return true if the slice was sorted, false if the sort gave up
+     */
+    private static boolean partialInsertionSort(long[] arr, int start, int end) {
+        int moves = 0;
+        for (int i = start + 1; i < end; i++) {
+            if (arr[i] < arr[i - 1]) {
+                long data = arr[i];
+                int j = i;
+                do {
+                    arr[j] = arr[j - 1];
+                    j--;
+                } while (j > start && data < arr[j - 1]);
+                arr[j] = data;
+                moves += i - j;
+                if (moves > PARTIAL_INSERTION_LIMIT) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A private method that insertion sorts arr[start, end), giving up once
+     * more than PARTIAL_INSERTION_LIMIT elements have been moved.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @return true if the slice was sorted, false if the sort gave up
+     */
+    private static boolean partialInsertionSort(double[] arr, int start, int end) {
+        int moves = 0;
+        for (int i = start + 1; i < end; i++) {
+            if (arr[i] < arr[i - 1]) {
+                double data = arr[i];
+                int j = i;
+                do {
+                    arr[j] = arr[j - 1];
+                    j--;
+                } while (j > start && data < arr[j - 1]);
+                arr[j] = data;
+                moves += i - j;
+                if (moves > PARTIAL_INSERTION_LIMIT) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A helper method that heap sorts arr[start, end) in place.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void heapSort(int[] arr, int start, int end) {
+        int size = end - start;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, start, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(arr, start, start + last);
+            siftDown(arr, start, 0, last);
+        }
+    }
+
+    /**
+     * A helper method that heap sorts arr[start, end) in place.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void heapSort(long[] arr, int start, int end) {
+        int size = end - start;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, start, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(arr, start, start + last);
+            siftDown(arr, start, 0, last);
+        }
+    }
+
+    /**
+     * A helper method that heap sorts arr[start, end) in place.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void heapSort(double[] arr, int start, int end) {
+        int size = end - start;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, start, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(arr, start, start + last);
+            siftDown(arr, start, 0, last);
+        }
+    }
+
+    /**
+     * A private method that restores the max heap arr[start, start + size)
+     * below the given heap index with Floyd's bounce, like the generic
+     * siftDown in Sorting.
+     *
+     * @param arr the array holding the heap
+     * @param start the index of the heap root
+     * @param index the heap index of the element to sift down
+     * @param size the number of elements in the heap
+     */
+    private static void siftDown(int[] arr, int start, int index, int size) {
+        int data = arr[start + index];
+        int hole = index;
+        int child = 2 * hole + 1;
+        while (child < size) {
+            if (child + 1 < size && arr[start + child + 1] > arr[start + child]) {
+                child++;
+            }
+            arr[start + hole] = arr[start + child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        while (hole > index) {
+            int parent = (hole - 1) / 2;
+            if (arr[start + parent] >= data) {
+                break;
+            }
+            arr[start + hole] = arr[start + parent];
+            hole = parent;
+        }
+        arr[start + hole] = data;
+    }
+
+    /**
+     * A private method that restores the max heap arr[start, start + size)
+     * below the given heap index with Floyd's bounce, like the generic
+     * siftDown in Sorting.
+     *
+     * @param arr the array holding the heap
+     * @param start the index of the heap root
+     * @param index the heap index of the element to sift down
+     * @param size the number of elements in the heap
+     */
+    private static void siftDown(long[] arr, int start, int index, int size) {
+        long data = arr[start + index];
+        int hole = index;
+        int child = 2 * hole + 1;
+        while (child < size) {
+            if (child + 1 < size && arr[start + child + 1] > arr[start + child]) {
+                child++;
+            }
+            arr[start + hole] = arr[start + child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        while (hole > index) {
+            int parent = (hole - 1) / 2;
+            if (arr[start + parent] >= data) {
+                break;
+            }
+            arr[start + hole] = arr[start + parent];
+            hole = parent;
+        }
+        arr[start + hole] = data;
+    }
+
+    /**
+     * A private method that restores the max heap arr[start, start + size)
+     * below the given heap index with Floyd's bounce, like the generic
+     * siftDown in Sorting.
+     *
+     * @param arr the array holding the heap
+     * @param start the index of the heap root
+     * @param index the heap index of the element to sift down
+     * @param size the number of elements in the heap
+     */
+    private static void siftDown(double[] arr, int start, int index, int size) {
+        double data = arr[start + index];
+        int hole = index;
+        int child = 2 * hole + 1;
+        while (child < size) {
+            if (child + 1 < size && arr[start + child + 1] > arr[start + child]) {
+                child++;
+            }
+            arr[start + hole] = arr[start + child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        while (hole > index) {
+            int parent = (hole - 1) / 2;
+            if (arr[start + parent] >= data) {
+                break;
+            }
+            arr[start + hole] = arr[start + parent];
+            hole = parent;
+        }
+        arr[start + hole] = data;
+    }
+
+    /**
+     * A private method that swaps two elements.
+     *
+     * @param arr the array holding the elements
+     * @param first the index of the first element
+     * @param second the index of the second element
+     */
+    private static void swap(int[] arr, int first, int second) {
+        int temp = arr[first];
+        arr[first] = arr[second];
+        arr[second] = temp;
+    }
+
+    /**
+     * A private method that swaps two elements.
+     *
+     * @param arr the array holding the elements
+     * @param first the index of the first element
+     * @param second the index of the second element
+     */
+    private static void swap(long[] arr, int first, int second) {
+        long temp = arr[first];
+        arr[first] = arr[second];
+        arr[second] = temp;
+    }
+
+    /**
+     * A private method that swaps two elements.
+     *
+     * @param arr the array holding the elements
+     * @param first the index of the first element
+     * @param second the index of the second element
+     */
+    private static void swap(double[] arr, int first, int second) {
+        double temp = arr[first];
+        arr[first] = arr[second];
+        arr[second] = temp;
+    }
+
+    /**
+     * A helper method that moves every NaN to the end of the array so the
+     * rest can be sorted with the primitive operators.
+     *
+     * @param arr the array of doubles
+     * @return the number of elements that are not NaN
+     */
+    static int moveNaNsToEnd(double[] arr) {
+        int end = arr.length;
+        for (int i = end - 1; i >= 0; i--) {
+            if (Double.isNaN(arr[i])) {
+                swap(arr, i, --end);
+            }
+        }
+        return end;
+    }
+
+    /**
+     * A helper method that replaces every -0.0 in arr[0, end) with 0.0,
+     * since the primitive operators treat them as equal.
+     *
+     * @param arr the array of doubles
+     * @param end the end of the range (exclusive)
+     * @return the number of -0.0 replaced
+     */
+    static int clearNegativeZeros(double[] arr, int end) {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (arr[i] == 0.0 && Double.doubleToRawLongBits(arr[i]) != 0) {
+                arr[i] = 0.0;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A helper method that puts back the -0.0 cleared by clearNegativeZeros
+     * at the start of the zeros of the sorted range arr[0, end).
+     *
+     * @param arr the sorted array of doubles
+     * @param end the end of the range (exclusive)
+     * @param count the number of -0.0 to put back
+     */
+    static void restoreNegativeZeros(double[] arr, int end, int count) {
+        if (count == 0) {
+            return;
+        }
+        int low = 0;
+        int high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (arr[middle] < 0.0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < low + count; i++) {
+            arr[i] = -0.0;
+        }
+    }
+
+    /**
+     * A helper method that counting LSD radix sorts arr[start, end) one byte
+     * at a time, like Sorting.radixSort(int[]), with a scratch array as
+     * long as the range.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void radixSort(int[] arr, int start, int end) {
+        int n = end - start;
+        if (n < 2) {
+            return;
+        }
+        int passes = Integer.SIZE / RADIX_BITS;
+        int[] counts = new int[passes * RADIX];
+        for (int i = start; i < end; i++) {
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass * RADIX + digit(arr[i], pass, passes)]++;
+            }
+        }
+        int[] src = arr;
+        int srcStart = start;
+        int[] dst = null;
+        int dstStart = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            int base = pass * RADIX;
+            if (counts[base + digit(src[srcStart], pass, passes)] == n) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new int[n];
+            }
+            int offset = dstStart;
+            for (int i = base; i < base + RADIX; i++) {
+                int count = counts[i];
+                counts[i] = offset;
+                offset += count;
+            }
+            for (int i = srcStart; i < srcStart + n; i++) {
+                int value = src[i];
+                dst[counts[base + digit(value, pass, passes)]++] = value;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempStart = srcStart;
+            srcStart = dstStart;
+            dstStart = tempStart;
+        }
+        if (src != arr) {
+            System.arraycopy(src, srcStart, arr, start, n);
+        }
+    }
+
+    /**
+     * A helper method that counting LSD radix sorts arr[start, end) one byte
+     * at a time, like Sorting.radixSort(long[]), with a scratch array as
+     * long as the range.
+     *
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     */
+    static void radixSort(long[] arr, int start, int end) {
+        int n = end - start;
+        if (n < 2) {
+            return;
+        }
+        int passes = Long.SIZE / RADIX_BITS;
+        int[] counts = new int[passes * RADIX];
+        for (int i = start; i < end; i++) {
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass * RADIX + digit(arr[i], pass, passes)]++;
+            }
+        }
+        long[] src = arr;
+        int srcStart = start;
+        long[] dst = null;
+        int dstStart = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            int base = pass * RADIX;
+            if (counts[base + digit(src[srcStart], pass, passes)] == n) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new long[n];
+            }
+            int offset = dstStart;
+            for (int i = base; i < base + RADIX; i++) {
+                int count = counts[i];
+                counts[i] = offset;
+                offset += count;
+            }
+            for (int i = srcStart; i < srcStart + n; i++) {
+                long value = src[i];
+                dst[counts[base + digit(value, pass, passes)]++] = value;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempStart = srcStart;
+            srcStart = dstStart;
+            dstStart = tempStart;
+        }
+        if (src != arr) {
+            System.arraycopy(src, srcStart, arr, start, n);
+        }
+    }
+
+    /**
+     * A helper method that gets one radix digit of a signed key, with the
+     * sign bit of the most significant digit flipped so negative keys order
+     * before positive ones.
+     *
+     * @param value the key
+     * @param pass the digit, 0 being the least significant
+     * @param passes the number of digits in the key
+     * @return the digit in [0, RADIX)
+     */
+    static int digit(long value, int pass, int passes) {
+        int digit = (int) (value >>> (pass * RADIX_BITS)) & (RADIX - 1);
+        return pass == passes - 1 ? digit ^ (RADIX >>> 1) : digit;
+    }
+
+    /**
+     * A helper method that parallel MSD radix sorts an array of ints, like
+     * Sorting.parallelRadixSort(int[]).
+     *
+     * @param arr the array to sort, at least two elements long
+     */
+    static void parallelRadixSort(int[] arr) {
+        ForkJoinPool.commonPool().invoke(new IntRadixSortTask(arr,
+            new int[arr.length], 0, arr.length, Integer.SIZE / RADIX_BITS - 1, false));
+    }
+
+    /**
+     * A helper method that parallel MSD radix sorts an array of longs, like
+     * Sorting.parallelRadixSort(long[]).
+     *
+     * @param arr the array to sort, at least two elements long
+     */
+    static void parallelRadixSort(long[] arr) {
+        ForkJoinPool.commonPool().invoke(new LongRadixSortTask(arr,
+            new long[arr.length], 0, arr.length, Long.SIZE / RADIX_BITS - 1, false));
+    }
+
+    /**
+     * A fork-join task that MSD radix sorts a range of ints on one byte,
+     * then forks a task per bucket for the next byte.
+     */
+    private static final class IntRadixSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final int PASSES = Integer.SIZE / RADIX_BITS;
+
+        private final int[] arr;
+        private final int[] scratch;
+        private final int start;
+        private final int end;
+        private final int pass;
+        private final boolean inScratch;
+
+        /**
+         * Creates a task sorting arr[start, end) on the given byte and the
+         * ones below it.
+         *
+         * @param arr the array to sort
+         * @param scratch the scratch array, as long as arr
+         * @param start the first index of the range (inclusive)
+         * @param end the last index of the range (exclusive)
+         * @param pass the byte to sort on, or -1 if the range only has to be
+         *             copied back
+         * @param inScratch whether the range is in scratch and has to be
+         *                  copied back to arr first
+         */
+        IntRadixSortTask(int[] arr, int[] scratch, int start, int end,
+                      int pass, boolean inScratch) {
+            this.arr = arr;
+            this.scratch = scratch;
+            this.start = start;
+            this.end = end;
+            this.pass = pass;
+            this.inScratch = inScratch;
+        }
+
+        @Override
+        protected void compute() {
+            if (inScratch) {
+                System.arraycopy(scratch, start, arr, start, end - start);
+            }
+            if (pass < 0) {
+                return;
+            }
+            int size = end - start;
+            if (size <= PARALLEL_THRESHOLD) {
+                msdRadixSort(arr, scratch, start, end, pass);
+                return;
+            }
+            int chunks = Sorting.chunkCount(size);
+            int[][] offsets = new int[chunks][RADIX];
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int[] counts = offsets[c];
+                int from = start + (int) ((long) size * c / chunks);
+                int to = start + (int) ((long) size * (c + 1) / chunks);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        counts[digit(arr[i], pass, PASSES)]++;
+                    }
+                }));
+            }
+            invokeAll(tasks);
+
+            int[] bounds = new int[RADIX + 1];
+            int offset = start;
+            for (int d = 0; d < RADIX; d++) {
+                bounds[d] = offset;
+                for (int c = 0; c < chunks; c++) {
+                    int count = offsets[c][d];
+                    offsets[c][d] = offset;
+                    offset += count;
+                }
+            }
+            bounds[RADIX] = end;
+
+            tasks.clear();
+            for (int c = 0; c < chunks; c++) {
+                int[] next = offsets[c];
+                int from = start + (int) ((long) size * c / chunks);
+                int to = start + (int) ((long) size * (c + 1) / chunks);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        scratch[next[digit(arr[i], pass, PASSES)]++] = arr[i];
+                    }
+                }));
+            }
+            invokeAll(tasks);
+
+            List<IntRadixSortTask> buckets = new ArrayList<>();
+            for (int d = 0; d < RADIX; d++) {
+                if (bounds[d] < bounds[d + 1]) {
+                    buckets.add(new IntRadixSortTask(arr, scratch, bounds[d],
+                        bounds[d + 1], pass - 1, true));
+                }
+            }
+            invokeAll(buckets);
+        }
+    }
+
+    /**
+     * A fork-join task that MSD radix sorts a range of longs on one byte,
+     * then forks a task per bucket for the next byte.
+     */
+    private static final class LongRadixSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+        private final long[] arr;
+        private final long[] scratch;
+        private final int start;
+        private final int end;
+        private final int pass;
+        private final boolean inScratch;
+
+        /**
+         * Creates a task sorting arr[start, end) on the given byte and the
+         * ones below it.
+         *
+         * @param arr the array to sort
+         * @param scratch the scratch array, as long as arr
+         * @param start the first index of the range (inclusive)
+         * @param end the last index of the range (exclusive)
+         * @param pass the byte to sort on, or -1 if the range only has to be
+         *             copied back
+         * @param inScratch whether the range is in scratch and has to be
+         *                  copied back to arr first
+         */
+        LongRadixSortTask(long[] arr, long[] scratch, int start, int end,
+                      int pass, boolean inScratch) {
+            this.arr = arr;
+            this.scratch = scratch;
+            this.start = start;
+            this.end = end;
+            this.pass = pass;
+            this.inScratch = inScratch;
+        }
+
+        @Override
+        protected void compute() {
+            if (inScratch) {
+                System.arraycopy(scratch, start, arr, start, end - start);
+            }
+            if (pass < 0) {
+                return;
+            }
+            int size = end - start;
+            if (size <= PARALLEL_THRESHOLD) {
+                msdRadixSort(arr, scratch, start, end, pass);
+                return;
+            }
+            int chunks = Sorting.chunkCount(size);
+            int[][] offsets = new int[chunks][RADIX];
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int[] counts = offsets[c];
+                int from = start + (int) ((long) size * c / chunks);
+                int to = start + (int) ((long) size * (c + 1) / chunks);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        counts[digit(arr[i], pass, PASSES)]++;
+                    }
+                }));
+            }
+            invokeAll(tasks);
+
+            int[] bounds = new int[RADIX + 1];
+            int offset = start;
+            for (int d = 0; d < RADIX; d++) {
+                bounds[d] = offset;
+                for (int c = 0; c < chunks; c++) {
+                    int count = offsets[c][d];
+                    offsets[c][d] = offset;
+                    offset += count;
+                }
+            }
+            bounds[RADIX] = end;
+
+            tasks.clear();
+            for (int c = 0; c < chunks; c++) {
+                int[] next = offsets[c];
+                int from = start + (int) ((long) size * c / chunks);
+                int to = start + (int) ((long) size * (c + 1) / chunks);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        scratch[next[digit(arr[i], pass, PASSES)]++] = arr[i];
+                    }
+                }));
+            }
+            invokeAll(tasks);
+
+            List<LongRadixSortTask> buckets = new ArrayList<>();
+            for (int d = 0; d < RADIX; d++) {
+                if (bounds[d] < bounds[d + 1]) {
+                    buckets.add(new LongRadixSortTask(arr, scratch, bounds[d],
+                        bounds[d + 1], pass - 1, true));
+                }
+            }
+            invokeAll(buckets);
+        }
+    }
+
+    /**
+     * A helper method that MSD radix sorts arr[start, end) sequentially on
+     * the given byte and the ones below it. Every bucket but the largest is
+     * recursed into and the largest is sorted by the loop, so the stack
+     * stays shallow.
+     *
+     * @param arr the array to sort
+     * @param scratch the scratch array, as long as arr
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param pass the byte to sort on
+     */
+    private static void msdRadixSort(int[] arr, int[] scratch, int start,
+                                     int end, int pass) {
+        int passes = Integer.SIZE / RADIX_BITS;
+        while (end - start > RADIX_CUTOFF) {
+            int[] bounds = new int[RADIX + 1];
+            for (int i = start; i < end; i++) {
+                bounds[digit(arr[i], pass, passes) + 1]++;
+            }
+            if (bounds[digit(arr[start], pass, passes) + 1] == end - start) {
+                if (pass-- == 0) {
+                    return;
+                }
+                continue;
+            }
+            bounds[0] = start;
+            for (int d = 0; d < RADIX; d++) {
+                bounds[d + 1] += bounds[d];
+            }
+            int[] next = Arrays.copyOf(bounds, RADIX);
+            for (int i = start; i < end; i++) {
+                scratch[next[digit(arr[i], pass, passes)]++] = arr[i];
+            }
+            System.arraycopy(scratch, start, arr, start, end - start);
+            if (pass-- == 0) {
+                return;
+            }
+            int largest = 0;
+            for (int d = 0; d < RADIX; d++) {
+                if (bounds[d + 1] - bounds[d] > bounds[largest + 1] - bounds[largest]) {
+                    largest = d;
+                }
+            }
+            for (int d = 0; d < RADIX; d++) {
+                if (d != largest) {
+                    msdRadixSort(arr, scratch, bounds[d], bounds[d + 1], pass);
+                }
+            }
+            start = bounds[largest];
+            end = bounds[largest + 1];
+        }
+        helpIntroSorting(arr, start, end,
+            32 - Integer.numberOfLeadingZeros(end - start), true);
+    }
+
+    /**
+     * A helper method that MSD radix sorts arr[start, end) sequentially on
+     * the given byte and the ones below it. Every bucket but the largest is
+     * recursed into and the largest is sorted by the loop, so the stack
+     * stays shallow.
+     *
+     * @param arr the array to sort
+     * @param scratch the scratch array, as long as arr
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param pass the byte to sort on
+     */
+    private static void msdRadixSort(long[] arr, long[] scratch, int start,
+                                     int end, int pass) {
+        int passes = Long.SIZE / RADIX_BITS;
+        while (end - start > RADIX_CUTOFF) {
+            int[] bounds = new int[RADIX + 1];
+            for (int i = start; i < end; i++) {
+                bounds[digit(arr[i], pass, passes) + 1]++;
+            }
+            if (bounds[digit(arr[start], pass, passes) + 1] == end - start) {
+                if (pass-- == 0) {
+                    return;
+                }
+                continue;
+            }
+            bounds[0] = start;
+            for (int d = 0; d < RADIX; d++) {
+                bounds[d + 1] += bounds[d];
+            }
+            int[] next = Arrays.copyOf(bounds, RADIX);
+            for (int i = start; i < end; i++) {
+                scratch[next[digit(arr[i], pass, passes)]++] = arr[i];
+            }
+            System.arraycopy(scratch, start, arr, start, end - start);
+            if (pass-- == 0) {
+                return;
+            }
+            int largest = 0;
+            for (int d = 0; d < RADIX; d++) {
+                if (bounds[d + 1] - bounds[d] > bounds[largest + 1] - bounds[largest]) {
+                    largest = d;
+                }
+            }
+            for (int d = 0; d < RADIX; d++) {
+                if (d != largest) {
+                    msdRadixSort(arr, scratch, bounds[d], bounds[d + 1], pass);
+                }
+            }
+            start = bounds[largest];
+            end = bounds[largest + 1];
+        }
+        helpIntroSorting(arr, start, end,
+            32 - Integer.numberOfLeadingZeros(end - start), true);
+    }
+
+    /**
+     * A helper method that selects the k-th smallest element of
+     * arr[start, end) into arr[k], like the generic helpSelecting
+     * in Sorting.
+     *
+     * @param arr the array to select from
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param k the index to select, in [start, end)
+     */
+    static void helpSelecting(int[] arr, int start, int end, int k) {
+        int badAllowed = 32 - Integer.numberOfLeadingZeros(end - start);
+        boolean leftmost = true;
+        while (end - start > INSERTION_THRESHOLD) {
+            if (badAllowed == 0) {
+                heapSort(arr, start, end);
+                return;
+            }
+            int size = end - start;
+            swap(arr, start, choosePivot(arr, start, end));
+            int pivotVal = arr[start];
+            int i = start + 1;
+            int j = end - 1;
+            if (!leftmost && arr[start - 1] >= pivotVal) {
+                while (true) {
+                    while (i <= j && arr[i] <= pivotVal) {
+                        i++;
+                    }
+                    while (i <= j && arr[j] > pivotVal) {
+                        j--;
+                    }
+                    if (i > j) {
+                        break;
+                    }
+                    swap(arr, i++, j--);
+                }
+                if (k < i) {
+                    return;
+                }
+                start = i;
+                continue;
+            }
+
+            while (true) {
+                while (i <= j && arr[i] < pivotVal) {
+                    i++;
+                }
+                while (i <= j && arr[j] >= pivotVal) {
+                    j--;
+                }
+                if (i > j) {
+                    break;
+                }
+                swap(arr, i++, j--);
+            }
+            int pivot = j;
+            swap(arr, start, pivot);
+            if (k == pivot) {
+                return;
+            }
+            int leftSize = pivot - start;
+            int rightSize = end - pivot - 1;
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                badAllowed--;
+                if (leftSize >= INSERTION_THRESHOLD) {
+                    swap(arr, start, start + leftSize / 4);
+                    swap(arr, pivot - 1, pivot - leftSize / 4);
+                }
+                if (rightSize >= INSERTION_THRESHOLD) {
+                    swap(arr, pivot + 1, pivot + 1 + rightSize / 4);
+                    swap(arr, end - 1, end - rightSize / 4);
+                }
+            }
+            if (k < pivot) {
+                end = pivot;
+            } else {
+                start = pivot + 1;
+                leftmost = false;
+            }
+        }
+        insertionSort(arr, start, end);
+    }
+
+    /**
+     * A helper method that selects the k-th smallest element of
+     * arr[start, end) into arr[k], like the generic helpSelecting
+     * in Sorting.
+     *
+     * @param arr the array to select from
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param k the index to select, in [start, end)
+     */
+    static void helpSelecting(long[] arr, int start, int end, int k) {
+        int badAllowed = 32 - Integer.numberOfLeadingZeros(end - start);
+        boolean leftmost = true;
+        while (end - start > INSERTION_THRESHOLD) {
+            if (badAllowed == 0) {
+                heapSort(arr, start, end);
+                return;
+            }
+            int size = end - start;
+            swap(arr, start, choosePivot(arr, start, end));
+            long pivotVal = arr[start];
+            int i = start + 1;
+            int j = end - 1;
+            if (!leftmost && arr[start - 1] >= pivotVal) {
+                while (true) {
+                    while (i <= j && arr[i] <= pivotVal) {
+                        i++;
+                    }
+                    while (i <= j && arr[j] > pivotVal) {
+                        j--;
+                    }
+                    if (i > j) {
+                        break;
+                    }
+                    swap(arr, i++, j--);
+                }
+                if (k < i) {
+                    return;
+                }
+                start = i;
+                continue;
+            }
+
+            while (true) {
+                while (i <= j && arr[i] < pivotVal) {
+                    i++;
+                }
+                while (i <= j && arr[j] >= pivotVal) {
+                    j--;
+                }
+                if (i > j) {
+                    break;
+                }
+                swap(arr, i++, j--);
+            }
+            int pivot = j;
+            swap(arr, start, pivot);
+            if (k == pivot) {
+                return;
+            }
+            int leftSize = pivot - start;
+            int rightSize = end - pivot - 1;
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                badAllowed--;
+                if (leftSize >= INSERTION_THRESHOLD) {
+                    swap(arr, start, start + leftSize / 4);
+                    swap(arr, pivot - 1, pivot - leftSize / 4);
+                }
+                if (rightSize >= INSERTION_THRESHOLD) {
+                    swap(arr, pivot + 1, pivot + 1 + rightSize / 4);
+                    swap(arr, end - 1, end - rightSize / 4);
+                }
+            }
+            if (k < pivot) {
+                end = pivot;
+            } else {
+                start = pivot + 1;
+                leftmost = false;
+            }
+        }
+        insertionSort(arr, start, end);
+    }
+
+    /**
+     * A private method that moves the last element of a max heap up until
+     * its parent is no smaller.
+     *
+     * @param heap the array holding the heap from index 0
+     * @param index the index of the element to sift up
+     */
+    private static void siftUp(int[] heap, int index) {
+        int data = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent] >= data) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = data;
+    }
+
+    /**
+     * A private method that moves the last element of a max heap up until
+     * its parent is no smaller.
+     *
+     * @param heap the array holding the heap from index 0
+     * @param index the index of the element to sift up
+     */
+    private static void siftUp(long[] heap, int index) {
+        long data = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent] >= data) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = data;
+    }
+
+    /**
+     * A helper method that finds the k smallest or the k largest elements of
+     * an array of ints with a bounded max heap, like
+     * Sorting.topK(int[], int, boolean).
+     *
+     * @param arr the array to select from, which is not modified
+     * @param k the number of elements to find, not negative
+     * @param largest true for the k largest elements, false for the k
+     *                smallest
+     * @return the min(k, n) smallest elements in ascending order, or the
+     *         min(k, n) largest elements in descending order
+     */
+    static int[] topK(int[] arr, int k, boolean largest) {
+        int[] heap = new int[Math.min(k, arr.length)];
+        int size = 0;
+        for (int data : arr) {
+            int value = largest ? ~data : data;
+            if (size < heap.length) {
+                heap[size] = value;
+                siftUp(heap, size++);
+            } else if (size > 0 && value < heap[0]) {
+                heap[0] = value;
+                siftDown(heap, 0, 0, size);
+            }
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(heap, 0, last);
+            siftDown(heap, 0, 0, last);
+        }
+        if (largest) {
+            for (int i = 0; i < size; i++) {
+                heap[i] = ~heap[i];
+            }
+        }
+        return heap;
+    }
+
+    /**
+     * A helper method that finds the k smallest or the k largest elements of
+     * an array of longs with a bounded max heap, like
+     * Sorting.topK(long[], int, boolean).
+     *
+     * @param arr the array to select from, which is not modified
+     * @param k the number of elements to find, not negative
+     * @param largest true for the k largest elements, false for the k
+     *                smallest
+     * @return the min(k, n) smallest elements in ascending order, or the
+     *         min(k, n) largest elements in descending order
+     */
+    static long[] topK(long[] arr, int k, boolean largest) {
+        long[] heap = new long[Math.min(k, arr.length)];
+        int size = 0;
+        for (long data : arr) {
+            long value = largest ? ~data : data;
+            if (size < heap.length) {
+                heap[size] = value;
+                siftUp(heap, size++);
+            } else if (size > 0 && value < heap[0]) {
+                heap[0] = value;
+                siftDown(heap, 0, 0, size);
+            }
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(heap, 0, last);
+            siftDown(heap, 0, 0, last);
+        }
+        if (largest) {
+            for (int i = 0; i < size; i++) {
+                heap[i] = ~heap[i];
+            }
+        }
+        return heap;
+    }
+}
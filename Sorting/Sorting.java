@@ -1,12 +1,51 @@
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 public class Sorting {
 
+    /**
+     * The length of a range at or below which the merge sorts switch to
+     * insertion sort, which is faster on short ranges.
+     */
+    static final int INSERTION_THRESHOLD = 32;
+
+    /**
+     * The length of a range at or below which the parallel sorts sort or
+     * merge sequentially instead of forking.
+     */
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * The slice length above which introSort picks its pivot as the median
+     * of three medians of three (Tukey's ninther).
+     */
+    static final int NINTHER_THRESHOLD = 128;
+
+    /**
+     * The number of elements introSort may move while insertion sorting a
+     * slice that looked sorted before it falls back to partitioning.
+     */
+    static final int PARTIAL_INSERTION_LIMIT = 8;
+
+    /**
+     * The number of bits in each digit of radixSort, and the number of
+     * buckets per pass.
+     */
+    static final int RADIX_BITS = 8;
+    static final int RADIX = 1 << RADIX_BITS;
+
     /**
      * Implement insertion sort.
      *
@@ -132,22 +171,155 @@ public class Sorting {
      * It should be:
      * out-of-place
      * stable
-     * not adaptive
+     * adaptive (a merge whose halves are already in order is a copy)
      *
      * Have a worst case running time of:
      * O(n log n)
      *
      * And a best case running time of:
+     * O(n) comparisons, O(n log n) moves
+     *
+     * Allocates a single auxiliary array the length of arr.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     * @see #mergeSort(Object[], Comparator, Object[])
+     */
+    public static <T> void mergeSort(T[] arr, Comparator<T> comparator) {
+        mergeSort(arr, comparator, null);
+    }
+
+    /**
+     * Merge sort that allocates at most one auxiliary array.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * adaptive (a merge whose halves are already in order is a copy)
+     *
+     * Have a worst case running time of:
      * O(n log n)
      *
-     * You can create more arrays to run merge sort, but at the end, everything
-     * should be merged back into the original T[] which was passed in.
+     * And a best case running time of:
+     * O(n) comparisons, O(n log n) moves
+     *
+     * The array is copied into the buffer once. Each level of the recursion
+     * then merges from one of the two arrays into the other, swapping their
+     * roles on the way down so no level copies the data back. Ranges of at
+     * most INSERTION_THRESHOLD elements are insertion sorted in place.
+     *
+     * Passing the same buffer to many calls sorts without allocating.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @param buffer     an array of at least arr.length elements that can
+     *                   hold the data of arr, overwritten by the sort, or null
+     *                   to allocate one
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null or the buffer is too
+     *                                            short
+     */
+    public static <T> void mergeSort(T[] arr, Comparator<T> comparator,
+                                     T[] buffer) {
+        nullCheck(arr, comparator);
+        if (buffer != null && buffer.length < arr.length) {
+            throw new java.lang.IllegalArgumentException("The buffer should be at least as long as the array");
+        }
+        if (arr.length < 2) {
+            return;
+        }
+        T[] aux = buffer;
+        if (aux == null) {
+            aux = arr.clone();
+        } else {
+            System.arraycopy(arr, 0, aux, 0, arr.length);
+        }
+        helpMergeSorting(aux, arr, 0, arr.length, comparator);
+    }
+
+    /**
+     * A helper method that sorts dst[start, end) using src as scratch space.
+     * Both arrays must hold the same data in the range when it is called.
+     *
+     * @param <T> data type to sort
+     * @param src the array holding a copy of the range
+     * @param dst the array the sorted range is written to
+     * @param start the first index of the range (inclusive)
+     * @param end the last index of the range (exclusive)
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void helpMergeSorting(T[] src, T[] dst, int start,
+                                             int end, Comparator<T> comparator) {
+        if (end - start <= INSERTION_THRESHOLD) {
+            insertionSort(dst, start, end, comparator);
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        helpMergeSorting(dst, src, start, mid, comparator);
+        helpMergeSorting(dst, src, mid, end, comparator);
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, start, dst, start, end - start);
+            return;
+        }
+        merge(src, start, mid, mid, end, dst, start, comparator);
+    }
+
+    /**
+     * A private method that stably merges the sorted ranges
+     * src[leftStart, leftEnd) and src[rightStart, rightEnd) into dst starting
+     * at to. Equal elements are taken from the left range first.
+     *
+     * @param <T> data type to merge
+     * @param src the array holding both sorted ranges
+     * @param leftStart the first index of the left range (inclusive)
+     * @param leftEnd the last index of the left range (exclusive)
+     * @param rightStart the first index of the right range (inclusive)
+     * @param rightEnd the last index of the right range (exclusive)
+     * @param dst the array to merge into
+     * @param to the index of dst to write the first element to
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void merge(T[] src, int leftStart, int leftEnd,
+                                  int rightStart, int rightEnd, T[] dst,
+                                  int to, Comparator<T> comparator) {
+        int i = leftStart;
+        int j = rightStart;
+        while (i < leftEnd && j < rightEnd) {
+            if (comparator.compare(src[i], src[j]) <= 0) {
+                dst[to++] = src[i++];
+            } else {
+                dst[to++] = src[j++];
+            }
+        }
+        System.arraycopy(src, i, dst, to, leftEnd - i);
+        System.arraycopy(src, j, dst, to + leftEnd - i, rightEnd - j);
+    }
+
+    /**
+     * Parallel merge sort on the common ForkJoinPool.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * adaptive (a merge whose halves are already in order is a copy)
+     *
+     * Have a worst case running time of:
+     * O(n log n) work and O(log^3 n) span
+     *
+     * And a best case running time of:
+     * O(n) comparisons, O(n log n) moves
      *
-     * When splitting the array, if there is an odd number of elements, put the
-     * extra data on the right side.
+     * Works like mergeSort(arr, comparator, null), but the two halves of
+     * every range longer than PARALLEL_THRESHOLD are sorted in parallel, and
+     * long merges are split in parallel too: the middle element of the
+     * longer range is binary searched in the shorter range, and the two
+     * halves on either side are merged independently.
      *
-     * Hint: If two data are equal when merging, think about which subarray
-     * you should pull from first
+     * The comparator is called from several threads at once.
      *
      * @param <T>        data type to sort
      * @param arr        the array to be sorted
@@ -155,45 +327,738 @@ public class Sorting {
      * @throws java.lang.IllegalArgumentException if the array or comparator is
      *                                            null
      */
-    public static <T> void mergeSort(T[] arr, Comparator<T> comparator) {
+    public static <T> void parallelMergeSort(T[] arr, Comparator<T> comparator) {
         nullCheck(arr, comparator);
-        if (arr.length == 0 || arr.length == 1) {   // Additional check if it's empty
+        if (arr.length <= PARALLEL_THRESHOLD) {
+            mergeSort(arr, comparator, null);
             return;
         }
-        int len = arr.length;
-        int mid = len / 2;
-        T[] left = (T[]) new Object[mid];
-        T[] right = (T[]) new Object[len - mid];
-        int i = 0;
-        int j = 0;
-        for (i = 0; i < mid; i++) {
-            left[i] = arr[i];
-        }
-        i = 0;
-        for (j = mid; j < len; j++) {
-            right[i] = arr[j];
-            i++;
-        }
-        mergeSort(left, comparator);
-        mergeSort(right, comparator);
-        i = 0;
-        j = 0;
-        while (i != left.length && j != right.length) {
-            if (comparator.compare(left[i], right[j]) <= 0) {
-                arr[i + j] = left[i];
-                i++;
+        ForkJoinPool.commonPool().invoke(new MergeSortTask<>(arr.clone(), arr,
+            0, arr.length, comparator));
+    }
+
+    /**
+     * Sorts dst[start, end) using src as scratch space, forking the halves.
+     * Both arrays must hold the same data in the range.
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final T[] dst;
+        private final int start;
+        private final int end;
+        private final Comparator<T> comparator;
+
+        /**
+         * Creates a task sorting dst[start, end).
+         *
+         * @param src the array holding a copy of the range
+         * @param dst the array the sorted range is written to
+         * @param start the first index of the range (inclusive)
+         * @param end the last index of the range (exclusive)
+         * @param comparator the Comparator used to compare the data
+         */
+        MergeSortTask(T[] src, T[] dst, int start, int end,
+                      Comparator<T> comparator) {
+            this.src = src;
+            this.dst = dst;
+            this.start = start;
+            this.end = end;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                helpMergeSorting(src, dst, start, end, comparator);
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new MergeSortTask<>(dst, src, start, mid, comparator),
+                new MergeSortTask<>(dst, src, mid, end, comparator));
+            if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+                System.arraycopy(src, start, dst, start, end - start);
+                return;
+            }
+            new MergeTask<>(src, start, mid, mid, end, dst, start, comparator).compute();
+        }
+    }
+
+    /**
+     * Stably merges two sorted ranges of src into dst, splitting long merges
+     * into two independent merges.
+     */
+    private static final class MergeTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final int leftStart;
+        private final int leftEnd;
+        private final int rightStart;
+        private final int rightEnd;
+        private final T[] dst;
+        private final int to;
+        private final Comparator<T> comparator;
+
+        /**
+         * Creates a task merging src[leftStart, leftEnd) and
+         * src[rightStart, rightEnd) into dst starting at to.
+         *
+         * @param src the array holding both sorted ranges
+         * @param leftStart the first index of the left range (inclusive)
+         * @param leftEnd the last index of the left range (exclusive)
+         * @param rightStart the first index of the right range (inclusive)
+         * @param rightEnd the last index of the right range (exclusive)
+         * @param dst the array to merge into
+         * @param to the index of dst to write the first element to
+         * @param comparator the Comparator used to compare the data
+         */
+        MergeTask(T[] src, int leftStart, int leftEnd, int rightStart,
+                  int rightEnd, T[] dst, int to, Comparator<T> comparator) {
+            this.src = src;
+            this.leftStart = leftStart;
+            this.leftEnd = leftEnd;
+            this.rightStart = rightStart;
+            this.rightEnd = rightEnd;
+            this.dst = dst;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLength = leftEnd - leftStart;
+            int rightLength = rightEnd - rightStart;
+            if (leftLength + rightLength <= PARALLEL_THRESHOLD) {
+                merge(src, leftStart, leftEnd, rightStart, rightEnd, dst, to,
+                    comparator);
+                return;
+            }
+            int leftSplit;
+            int rightSplit;
+            if (leftLength >= rightLength) {
+                leftSplit = (leftStart + leftEnd) >>> 1;
+                rightSplit = lowerBound(src, rightStart, rightEnd,
+                    src[leftSplit], comparator);
+            } else {
+                rightSplit = (rightStart + rightEnd) >>> 1;
+                leftSplit = upperBound(src, leftStart, leftEnd,
+                    src[rightSplit], comparator);
+            }
+            int secondTo = to + (leftSplit - leftStart) + (rightSplit - rightStart);
+            invokeAll(new MergeTask<>(src, leftStart, leftSplit, rightStart,
+                    rightSplit, dst, to, comparator),
+                new MergeTask<>(src, leftSplit, leftEnd, rightSplit, rightEnd,
+                    dst, secondTo, comparator));
+        }
+    }
+
+    /**
+     * A private method that finds the first index in the sorted range
+     * arr[start, end) whose element is not less than the key.
+     *
+     * @param <T> data type to search
+     * @param arr the array to search
+     * @param start the first index of the range (inclusive)
+     * @param end the last index of the range (exclusive)
+     * @param key the key to search for
+     * @param comparator the Comparator used to compare the data
+     * @return the index in [start, end]
+     */
+    private static <T> int lowerBound(T[] arr, int start, int end, T key,
+                                      Comparator<T> comparator) {
+        while (start < end) {
+            int mid = (start + end) >>> 1;
+            if (comparator.compare(arr[mid], key) < 0) {
+                start = mid + 1;
+            } else {
+                end = mid;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * A private method that finds the first index in the sorted range
+     * arr[start, end) whose element is greater than the key.
+     *
+     * @param <T> data type to search
+     * @param arr the array to search
+     * @param start the first index of the range (inclusive)
+     * @param end the last index of the range (exclusive)
+     * @param key the key to search for
+     * @param comparator the Comparator used to compare the data
+     * @return the index in [start, end]
+     */
+    private static <T> int upperBound(T[] arr, int start, int end, T key,
+                                      Comparator<T> comparator) {
+        while (start < end) {
+            int mid = (start + end) >>> 1;
+            if (comparator.compare(arr[mid], key) <= 0) {
+                start = mid + 1;
+            } else {
+                end = mid;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * A private method that stably insertion sorts arr[start, end), shifting
+     * larger elements right instead of swapping.
+     *
+     * @param <T> data type to sort
+     * @param arr the array to sort
+     * @param start the first index of the range (inclusive)
+     * @param end the last index of the range (exclusive)
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void insertionSort(T[] arr, int start, int end,
+                                          Comparator<T> comparator) {
+        for (int i = start + 1; i < end; i++) {
+            T data = arr[i];
+            int j = i;
+            while (j > start && comparator.compare(data, arr[j - 1]) < 0) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = data;
+        }
+    }
+
+    /**
+     * Adaptive merge sort in the style of TimSort.
+     *
+     * It should be:
+     * out-of-place (the auxiliary array is at most n / 2 long)
+     * stable
+     * adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * The array is scanned for natural runs, which are kept if ascending and
+     * reversed if strictly descending. Runs shorter than a minimum length
+     * (between 16 and 32, chosen so the number of runs is close to a power
+     * of two) are extended with binary insertion sort. Runs are pushed on a
+     * stack and merged while the lengths on the stack stop shrinking like
+     * the Fibonacci numbers, so every merge is between runs of similar
+     * length. Merges first trim the parts of either run that are already in
+     * place, then switch to galloping (exponential search) when one run keeps
+     * winning, so input made of a few sorted runs is sorted in close to
+     * linear time.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or if the comparator is
+     *                                            found to be inconsistent
+     */
+    public static <T> void timSort(T[] arr, Comparator<T> comparator) {
+        nullCheck(arr, comparator);
+        if (arr.length < 2) {
+            return;
+        }
+        new TimSorter<>(arr, comparator).sort();
+    }
+
+    /**
+     * The state of one timSort call: the run stack, the merge buffer and the
+     * adaptive galloping threshold.
+     */
+    private static final class TimSorter<T> {
+
+        /**
+         * Arrays shorter than this are sorted with a single binary insertion
+         * sort, and runs are extended to roughly this length.
+         */
+        private static final int MIN_MERGE = 32;
+
+        /**
+         * The number of consecutive wins by one run after which a merge
+         * starts galloping.
+         */
+        private static final int MIN_GALLOP = 7;
+
+        private final T[] arr;
+        private final Comparator<T> comparator;
+        private T[] buffer;
+        private int minGallop = MIN_GALLOP;
+        private final int[] runBase = new int[49];
+        private final int[] runLength = new int[49];
+        private int stackSize;
+
+        /**
+         * Creates the state for sorting the array.
+         *
+         * @param arr the array to sort
+         * @param comparator the Comparator used to compare the data
+         */
+        @SuppressWarnings("unchecked") // the buffer never leaves the sorter
+        TimSorter(T[] arr, Comparator<T> comparator) {
+            this.arr = arr;
+            this.comparator = comparator;
+            this.buffer = (T[]) new Object[Math.min(256, arr.length / 2 + 1)];
+        }
+
+        /**
+         * Sorts the whole array.
+         */
+        void sort() {
+            int n = arr.length;
+            if (n < MIN_MERGE) {
+                binaryInsertionSort(0, n, countRunAndMakeAscending(0, n));
+                return;
+            }
+            int minRun = minRunLength(n);
+            int start = 0;
+            while (start < n) {
+                int length = countRunAndMakeAscending(start, n);
+                if (length < minRun) {
+                    int forced = Math.min(n - start, minRun);
+                    binaryInsertionSort(start, start + forced, start + length);
+                    length = forced;
+                }
+                runBase[stackSize] = start;
+                runLength[stackSize] = length;
+                stackSize++;
+                mergeCollapse();
+                start += length;
+            }
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLength[i - 1] < runLength[i + 1]) {
+                    i--;
+                }
+                mergeAt(i);
+            }
+        }
+
+        /**
+         * Finds the minimum run length: n shifted right until it is below
+         * MIN_MERGE, plus one if any bit shifted off was set.
+         *
+         * @param n the length of the array
+         * @return the minimum run length
+         */
+        private static int minRunLength(int n) {
+            int extra = 0;
+            while (n >= MIN_MERGE) {
+                extra |= n & 1;
+                n >>= 1;
+            }
+            return n + extra;
+        }
+
+        /**
+         * Finds the length of the run starting at start, reversing it if it
+         * is strictly descending (strictly, so reversing keeps it stable).
+         *
+         * @param start the first index of the run
+         * @param end the end of the array range
+         * @return the length of the run
+         */
+        private int countRunAndMakeAscending(int start, int end) {
+            int runEnd = start + 1;
+            if (runEnd == end) {
+                return 1;
+            }
+            if (comparator.compare(arr[runEnd++], arr[start]) < 0) {
+                while (runEnd < end && comparator.compare(arr[runEnd], arr[runEnd - 1]) < 0) {
+                    runEnd++;
+                }
+                for (int i = start, j = runEnd - 1; i < j; i++, j--) {
+                    swap(arr, i, j);
+                }
+            } else {
+                while (runEnd < end && comparator.compare(arr[runEnd], arr[runEnd - 1]) >= 0) {
+                    runEnd++;
+                }
+            }
+            return runEnd - start;
+        }
+
+        /**
+         * Sorts arr[start, end) when arr[start, sorted) is already sorted,
+         * inserting each remaining element after a binary search.
+         *
+         * @param start the first index (inclusive)
+         * @param end the last index (exclusive)
+         * @param sorted the end of the sorted prefix
+         */
+        private void binaryInsertionSort(int start, int end, int sorted) {
+            for (int i = sorted; i < end; i++) {
+                T data = arr[i];
+                int position = upperBound(arr, start, i, data, comparator);
+                System.arraycopy(arr, position, arr, position + 1, i - position);
+                arr[position] = data;
+            }
+        }
+
+        /**
+         * Merges runs until, from the top of the stack down, every run is
+         * longer than the one above it and than the two above it combined.
+         */
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLength[i - 1] <= runLength[i] + runLength[i + 1]
+                    || i > 1 && runLength[i - 2] <= runLength[i] + runLength[i - 1]) {
+                    if (runLength[i - 1] < runLength[i + 1]) {
+                        i--;
+                    }
+                } else if (runLength[i] > runLength[i + 1]) {
+                    break;
+                }
+                mergeAt(i);
+            }
+        }
+
+        /**
+         * Merges the runs at stack positions i and i + 1.
+         *
+         * @param i the stack position of the first run
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int length1 = runLength[i];
+            int base2 = runBase[i + 1];
+            int length2 = runLength[i + 1];
+            runLength[i] = length1 + length2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLength[i + 1] = runLength[i + 2];
+            }
+            stackSize--;
+
+            int skip = gallopRight(arr[base2], arr, base1, length1, 0);
+            base1 += skip;
+            length1 -= skip;
+            if (length1 == 0) {
+                return;
+            }
+            length2 = gallopLeft(arr[base1 + length1 - 1], arr, base2, length2,
+                length2 - 1);
+            if (length2 == 0) {
+                return;
+            }
+            if (length1 <= length2) {
+                mergeLow(base1, length1, base2, length2);
+            } else {
+                mergeHigh(base1, length1, base2, length2);
+            }
+        }
+
+        /**
+         * Finds where the key belongs in a sorted range, before any equal
+         * elements, searching outwards from the hint with exponentially
+         * growing steps and then binary searching the last step.
+         *
+         * @param key the key to place
+         * @param a the array holding the range
+         * @param base the first index of the range
+         * @param length the length of the range
+         * @param hint the offset in [0, length) to start searching from
+         * @return the offset k such that a[base + k - 1] < key <= a[base + k]
+         */
+        private int gallopLeft(T key, T[] a, int base, int length, int hint) {
+            int lastOffset = 0;
+            int offset = 1;
+            if (comparator.compare(key, a[base + hint]) > 0) {
+                int maxOffset = length - hint;
+                while (offset < maxOffset
+                    && comparator.compare(key, a[base + hint + offset]) > 0) {
+                    lastOffset = offset;
+                    offset = (offset << 1) + 1;
+                    if (offset <= 0) {
+                        offset = maxOffset;
+                    }
+                }
+                offset = Math.min(offset, maxOffset);
+                lastOffset += hint;
+                offset += hint;
+            } else {
+                int maxOffset = hint + 1;
+                while (offset < maxOffset
+                    && comparator.compare(key, a[base + hint - offset]) <= 0) {
+                    lastOffset = offset;
+                    offset = (offset << 1) + 1;
+                    if (offset <= 0) {
+                        offset = maxOffset;
+                    }
+                }
+                offset = Math.min(offset, maxOffset);
+                int previous = lastOffset;
+                lastOffset = hint - offset;
+                offset = hint - previous;
+            }
+            return lowerBound(a, base + lastOffset + 1, base + offset, key,
+                comparator) - base;
+        }
+
+        /**
+         * Finds where the key belongs in a sorted range, after any equal
+         * elements, galloping from the hint like gallopLeft.
+         *
+         * @param key the key to place
+         * @param a the array holding the range
+         * @param base the first index of the range
+         * @param length the length of the range
+         * @param hint the offset in [0, length) to start searching from
+         * @return the offset k such that a[base + k - 1] <= key < a[base + k]
+         */
+        private int gallopRight(T key, T[] a, int base, int length, int hint) {
+            int lastOffset = 0;
+            int offset = 1;
+            if (comparator.compare(key, a[base + hint]) < 0) {
+                int maxOffset = hint + 1;
+                while (offset < maxOffset
+                    && comparator.compare(key, a[base + hint - offset]) < 0) {
+                    lastOffset = offset;
+                    offset = (offset << 1) + 1;
+                    if (offset <= 0) {
+                        offset = maxOffset;
+                    }
+                }
+                offset = Math.min(offset, maxOffset);
+                int previous = lastOffset;
+                lastOffset = hint - offset;
+                offset = hint - previous;
             } else {
-                arr[i + j] = right[j];
-                j++;
+                int maxOffset = length - hint;
+                while (offset < maxOffset
+                    && comparator.compare(key, a[base + hint + offset]) >= 0) {
+                    lastOffset = offset;
+                    offset = (offset << 1) + 1;
+                    if (offset <= 0) {
+                        offset = maxOffset;
+                    }
+                }
+                offset = Math.min(offset, maxOffset);
+                lastOffset += hint;
+                offset += hint;
+            }
+            return upperBound(a, base + lastOffset + 1, base + offset, key,
+                comparator) - base;
+        }
+
+        /**
+         * Merges two adjacent runs, copying the shorter first run to the
+         * buffer and merging from the left. The first element of the second
+         * run must belong before the whole first run, and the last element
+         * of the first run after the whole second run.
+         *
+         * @param base1 the first index of the first run
+         * @param length1 the length of the first run, at most length2
+         * @param base2 the first index of the second run
+         * @param length2 the length of the second run
+         */
+        private void mergeLow(int base1, int length1, int base2, int length2) {
+            T[] tmp = ensureBuffer(length1);
+            System.arraycopy(arr, base1, tmp, 0, length1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            arr[dest++] = arr[cursor2++];
+            if (--length2 == 0) {
+                System.arraycopy(tmp, cursor1, arr, dest, length1);
+                return;
+            }
+            if (length1 == 1) {
+                System.arraycopy(arr, cursor2, arr, dest, length2);
+                arr[dest + length2] = tmp[cursor1];
+                return;
+            }
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int wins1 = 0;
+                int wins2 = 0;
+                do {
+                    if (comparator.compare(arr[cursor2], tmp[cursor1]) < 0) {
+                        arr[dest++] = arr[cursor2++];
+                        wins2++;
+                        wins1 = 0;
+                        if (--length2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        arr[dest++] = tmp[cursor1++];
+                        wins1++;
+                        wins2 = 0;
+                        if (--length1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((wins1 | wins2) < gallop);
+
+                do {
+                    wins1 = gallopRight(arr[cursor2], tmp, cursor1, length1, 0);
+                    if (wins1 != 0) {
+                        System.arraycopy(tmp, cursor1, arr, dest, wins1);
+                        dest += wins1;
+                        cursor1 += wins1;
+                        length1 -= wins1;
+                        if (length1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    arr[dest++] = arr[cursor2++];
+                    if (--length2 == 0) {
+                        break outer;
+                    }
+                    wins2 = gallopLeft(tmp[cursor1], arr, cursor2, length2, 0);
+                    if (wins2 != 0) {
+                        System.arraycopy(arr, cursor2, arr, dest, wins2);
+                        dest += wins2;
+                        cursor2 += wins2;
+                        length2 -= wins2;
+                        if (length2 == 0) {
+                            break outer;
+                        }
+                    }
+                    arr[dest++] = tmp[cursor1++];
+                    if (--length1 == 1) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (wins1 >= MIN_GALLOP || wins2 >= MIN_GALLOP);
+                gallop = Math.max(gallop, 0) + 2;
+            }
+            minGallop = Math.max(gallop, 1);
+            if (length1 == 1) {
+                System.arraycopy(arr, cursor2, arr, dest, length2);
+                arr[dest + length2] = tmp[cursor1];
+            } else if (length1 == 0) {
+                throw new java.lang.IllegalArgumentException("The comparator violates its general contract");
+            } else {
+                System.arraycopy(tmp, cursor1, arr, dest, length1);
             }
         }
-        while (i < left.length) {
-            arr[i + j] = left[i];
-            i++;
+
+        /**
+         * Merges two adjacent runs, copying the shorter second run to the
+         * buffer and merging from the right. The same conditions as mergeLow
+         * apply.
+         *
+         * @param base1 the first index of the first run
+         * @param length1 the length of the first run
+         * @param base2 the first index of the second run
+         * @param length2 the length of the second run, at most length1
+         */
+        private void mergeHigh(int base1, int length1, int base2, int length2) {
+            T[] tmp = ensureBuffer(length2);
+            System.arraycopy(arr, base2, tmp, 0, length2);
+            int cursor1 = base1 + length1 - 1;
+            int cursor2 = length2 - 1;
+            int dest = base2 + length2 - 1;
+            arr[dest--] = arr[cursor1--];
+            if (--length1 == 0) {
+                System.arraycopy(tmp, 0, arr, dest - (length2 - 1), length2);
+                return;
+            }
+            if (length2 == 1) {
+                dest -= length1;
+                cursor1 -= length1;
+                System.arraycopy(arr, cursor1 + 1, arr, dest + 1, length1);
+                arr[dest] = tmp[cursor2];
+                return;
+            }
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int wins1 = 0;
+                int wins2 = 0;
+                do {
+                    if (comparator.compare(tmp[cursor2], arr[cursor1]) < 0) {
+                        arr[dest--] = arr[cursor1--];
+                        wins1++;
+                        wins2 = 0;
+                        if (--length1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        arr[dest--] = tmp[cursor2--];
+                        wins2++;
+                        wins1 = 0;
+                        if (--length2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((wins1 | wins2) < gallop);
+
+                do {
+                    wins1 = length1 - gallopRight(tmp[cursor2], arr, base1, length1,
+                        length1 - 1);
+                    if (wins1 != 0) {
+                        dest -= wins1;
+                        cursor1 -= wins1;
+                        length1 -= wins1;
+                        System.arraycopy(arr, cursor1 + 1, arr, dest + 1, wins1);
+                        if (length1 == 0) {
+                            break outer;
+                        }
+                    }
+                    arr[dest--] = tmp[cursor2--];
+                    if (--length2 == 1) {
+                        break outer;
+                    }
+                    wins2 = length2 - gallopLeft(arr[cursor1], tmp, 0, length2,
+                        length2 - 1);
+                    if (wins2 != 0) {
+                        dest -= wins2;
+                        cursor2 -= wins2;
+                        length2 -= wins2;
+                        System.arraycopy(tmp, cursor2 + 1, arr, dest + 1, wins2);
+                        if (length2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    arr[dest--] = arr[cursor1--];
+                    if (--length1 == 0) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (wins1 >= MIN_GALLOP || wins2 >= MIN_GALLOP);
+                gallop = Math.max(gallop, 0) + 2;
+            }
+            minGallop = Math.max(gallop, 1);
+            if (length2 == 1) {
+                dest -= length1;
+                cursor1 -= length1;
+                System.arraycopy(arr, cursor1 + 1, arr, dest + 1, length1);
+                arr[dest] = tmp[cursor2];
+            } else if (length2 == 0) {
+                throw new java.lang.IllegalArgumentException("The comparator violates its general contract");
+            } else {
+                System.arraycopy(tmp, 0, arr, dest - (length2 - 1), length2);
+            }
         }
-        while (j < right.length) {
-            arr[i + j] = right[j];
-            j++;
+
+        /**
+         * Grows the buffer to at least the given length, doubling so it is
+         * reallocated O(log n) times at most.
+         *
+         * @param length the length needed
+         * @return the buffer
+         */
+        @SuppressWarnings("unchecked") // the buffer never leaves the sorter
+        private T[] ensureBuffer(int length) {
+            if (buffer.length < length) {
+                int grown = Integer.highestOneBit(length) << 1;
+                if (grown < 0 || grown > arr.length / 2) {
+                    grown = Math.max(length, arr.length / 2);
+                }
+                buffer = (T[]) new Object[grown];
+            }
+            return buffer;
         }
     }
 
@@ -284,126 +1149,2014 @@ public class Sorting {
     }
 
     /**
-     * Implement LSD (least significant digit) radix sort.
-     *
-     * Make sure you code the algorithm as you have been taught it in class.
-     * There are several versions of this algorithm and you may not get full
-     * credit if you do not implement the one we have taught you!
-     *
-     * Remember you CANNOT convert the ints to strings at any point in your
-     * code! Doing so may result in a 0 for the implementation.
+     * Pattern-defeating quick sort (an introsort).
      *
      * It should be:
-     * out-of-place
-     * stable
-     * not adaptive
+     * in-place
+     * unstable
+     * adaptive
      *
      * Have a worst case running time of:
-     * O(kn)
+     * O(n log n)
      *
      * And a best case running time of:
-     * O(kn)
+     * O(n)
+     *
+     * The pivot is the median of three elements, or for slices longer than
+     * NINTHER_THRESHOLD the median of three such medians. When the pivot is
+     * equal to the element just before the slice, which is no greater than
+     * anything in it, every element equal to the pivot is moved left and
+     * skipped, so runs of duplicates cost linear time. A partition that
+     * moved nothing hints that the slice is already sorted, and both sides
+     * are then insertion sorted unless that takes more than
+     * PARTIAL_INSERTION_LIMIT moves. Slices of at most INSERTION_THRESHOLD
+     * elements are insertion sorted.
+     *
+     * A partition that leaves one side with less than an eighth of the
+     * slice is counted as bad, and a few elements on both sides are swapped
+     * to break up the pattern that caused it. After about log n bad
+     * partitions the slice is heap sorted instead, which bounds the worst
+     * case. Only the smaller side is recursed into, so the stack depth is
+     * O(log n).
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void introSort(T[] arr, Comparator<T> comparator) {
+        nullCheck(arr, comparator);
+        helpIntroSorting(arr, 0, arr.length,
+            32 - Integer.numberOfLeadingZeros(arr.length), true, comparator);
+    }
+
+    /**
+     * A helper method that pattern-defeating quick sorts arr[start, end).
+     *
+     * @param <T> data type to sort
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param badAllowed the number of bad partitions left before falling back
+     *                   to heap sort
+     * @param leftmost whether the slice starts the array, so it has no
+     *                 element before it to compare the pivot to
+     * @param comparator the Comparator used to compare the data in arr
+     */
+    private static <T> void helpIntroSorting(T[] arr, int start, int end,
+                                             int badAllowed, boolean leftmost,
+                                             Comparator<T> comparator) {
+        while (end - start > INSERTION_THRESHOLD) {
+            if (badAllowed == 0) {
+                heapSort(arr, start, end, comparator);
+                return;
+            }
+            int size = end - start;
+            swap(arr, start, choosePivot(arr, start, end, comparator));
+            T pivotVal = arr[start];
+            if (!leftmost && comparator.compare(arr[start - 1], pivotVal) >= 0) {
+                int i = start + 1;
+                int j = end - 1;
+                while (true) {
+                    while (i <= j && comparator.compare(arr[i], pivotVal) <= 0) {
+                        i++;
+                    }
+                    while (i <= j && comparator.compare(arr[j], pivotVal) > 0) {
+                        j--;
+                    }
+                    if (i > j) {
+                        break;
+                    }
+                    swap(arr, i++, j--);
+                }
+                start = i;
+                continue;
+            }
+
+            int i = start + 1;
+            int j = end - 1;
+            boolean moved = false;
+            while (true) {
+                while (i <= j && comparator.compare(arr[i], pivotVal) < 0) {
+                    i++;
+                }
+                while (i <= j && comparator.compare(arr[j], pivotVal) >= 0) {
+                    j--;
+                }
+                if (i > j) {
+                    break;
+                }
+                swap(arr, i++, j--);
+                moved = true;
+            }
+            int pivot = j;
+            swap(arr, start, pivot);
+
+            int leftSize = pivot - start;
+            int rightSize = end - pivot - 1;
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                badAllowed--;
+                if (leftSize >= INSERTION_THRESHOLD) {
+                    swap(arr, start, start + leftSize / 4);
+                    swap(arr, pivot - 1, pivot - leftSize / 4);
+                }
+                if (rightSize >= INSERTION_THRESHOLD) {
+                    swap(arr, pivot + 1, pivot + 1 + rightSize / 4);
+                    swap(arr, end - 1, end - rightSize / 4);
+                }
+            } else if (!moved
+                && partialInsertionSort(arr, start, pivot, comparator)
+                && partialInsertionSort(arr, pivot + 1, end, comparator)) {
+                return;
+            }
+            if (leftSize < rightSize) {
+                helpIntroSorting(arr, start, pivot, badAllowed, leftmost,
+                    comparator);
+                start = pivot + 1;
+                leftmost = false;
+            } else {
+                helpIntroSorting(arr, pivot + 1, end, badAllowed, false,
+                    comparator);
+                end = pivot;
+            }
+        }
+        insertionSort(arr, start, end, comparator);
+    }
+
+    /**
+     * A private method that insertion sorts arr[start, end), giving up once
+     * more than PARTIAL_INSERTION_LIMIT elements have been moved.
+     *
+     * @param <T> data type to sort
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     * @return true if the slice was sorted, false if the sort gave up
+     */
+    private static <T> boolean partialInsertionSort(T[] arr, int start, int end,
+                                                    Comparator<T> comparator) {
+        int moves = 0;
+        for (int i = start + 1; i < end; i++) {
+            if (comparator.compare(arr[i], arr[i - 1]) < 0) {
+                T data = arr[i];
+                int j = i;
+                do {
+                    arr[j] = arr[j - 1];
+                    j--;
+                } while (j > start && comparator.compare(data, arr[j - 1]) < 0);
+                arr[j] = data;
+                moves += i - j;
+                if (moves > PARTIAL_INSERTION_LIMIT) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A private method that picks the pivot of arr[start, end): the median of
+     * the first, middle and last elements, or Tukey's ninther for slices
+     * longer than NINTHER_THRESHOLD.
+     *
+     * @param <T> data type to sort
+     * @param arr the array to pick from
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     * @return the index of the pivot
+     */
+    private static <T> int choosePivot(T[] arr, int start, int end,
+                                       Comparator<T> comparator) {
+        int size = end - start;
+        int middle = start + size / 2;
+        if (size <= NINTHER_THRESHOLD) {
+            return medianOfThree(arr, start, middle, end - 1, comparator);
+        }
+        int step = size / 8;
+        int first = medianOfThree(arr, start, start + step, start + 2 * step,
+            comparator);
+        int second = medianOfThree(arr, middle - step, middle, middle + step,
+            comparator);
+        int third = medianOfThree(arr, end - 1 - 2 * step, end - 1 - step,
+            end - 1, comparator);
+        return medianOfThree(arr, first, second, third, comparator);
+    }
+
+    /**
+     * A private method that finds the median of three elements.
+     *
+     * @param <T> data type to sort
+     * @param arr the array holding the elements
+     * @param a the index of the first element
+     * @param b the index of the second element
+     * @param c the index of the third element
+     * @param comparator the Comparator used to compare the data in arr
+     * @return the index of the median
+     */
+    private static <T> int medianOfThree(T[] arr, int a, int b, int c,
+                                         Comparator<T> comparator) {
+        if (comparator.compare(arr[a], arr[b]) < 0) {
+            if (comparator.compare(arr[b], arr[c]) < 0) {
+                return b;
+            }
+            return comparator.compare(arr[a], arr[c]) < 0 ? c : a;
+        }
+        if (comparator.compare(arr[a], arr[c]) < 0) {
+            return a;
+        }
+        return comparator.compare(arr[b], arr[c]) < 0 ? c : b;
+    }
+
+    /**
+     * A private method that heap sorts arr[start, end) in place: a max heap
+     * is built bottom-up over the slice, then its root is repeatedly swapped
+     * to the end of the shrinking heap.
+     *
+     * @param <T> data type to sort
+     * @param arr the array to sort
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     */
+    private static <T> void heapSort(T[] arr, int start, int end,
+                                     Comparator<T> comparator) {
+        int size = end - start;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(arr, start, i, size, comparator);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(arr, start, start + last);
+            siftDown(arr, start, 0, last, comparator);
+        }
+    }
+
+    /**
+     * A private method that restores the max heap arr[start, start + size)
+     * below the given heap index, where the children of heap index i are at
+     * 2i + 1 and 2i + 2.
+     *
+     * Uses Floyd's bounce: the hole left by the element is first moved all
+     * the way down along the larger children, with one comparison per level,
+     * and the element is then moved back up from the leaf. Elements sifted
+     * from the root usually belong near the bottom, so this takes close to
+     * half the comparisons of the textbook sift-down.
+     *
+     * @param <T> data type to sort
+     * @param arr the array holding the heap
+     * @param start the index of the heap root
+     * @param index the heap index of the element to sift down
+     * @param size the number of elements in the heap
+     * @param comparator the Comparator used to compare the data in arr
+     */
+    private static <T> void siftDown(T[] arr, int start, int index, int size,
+                                     Comparator<T> comparator) {
+        T data = arr[start + index];
+        int hole = index;
+        int child = 2 * hole + 1;
+        while (child < size) {
+            if (child + 1 < size
+                && comparator.compare(arr[start + child + 1], arr[start + child]) > 0) {
+                child++;
+            }
+            arr[start + hole] = arr[start + child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        while (hole > index) {
+            int parent = (hole - 1) / 2;
+            if (comparator.compare(arr[start + parent], data) >= 0) {
+                break;
+            }
+            arr[start + hole] = arr[start + parent];
+            hole = parent;
+        }
+        arr[start + hole] = data;
+    }
+
+    /**
+     * Insertion sort for an array of ints, comparing with the primitive
+     * operators instead of a Comparator.
+     *
+     * It should be:
+     * in-place
+     * stable
+     * adaptive
+     *
+     * Have a worst case running time of:
+     * O(n^2)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void insertionSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        PrimitiveSorting.insertionSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Insertion sort for an array of longs, comparing with the primitive
+     * operators instead of a Comparator.
+     *
+     * It should be:
+     * in-place
+     * stable
+     * adaptive
+     *
+     * Have a worst case running time of:
+     * O(n^2)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void insertionSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        PrimitiveSorting.insertionSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Insertion sort for an array of doubles, comparing with the primitive
+     * operators instead of a Comparator.
+     *
+     * NaN is ordered after every other value and -0.0 before 0.0, like
+     * Double.compare and Arrays.sort.
+     *
+     * It should be:
+     * in-place
+     * stable
+     * adaptive
+     *
+     * Have a worst case running time of:
+     * O(n^2)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void insertionSort(double[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        int end = PrimitiveSorting.moveNaNsToEnd(arr);
+        int negativeZeros = PrimitiveSorting.clearNegativeZeros(arr, end);
+        PrimitiveSorting.insertionSort(arr, 0, end);
+        PrimitiveSorting.restoreNegativeZeros(arr, end, negativeZeros);
+    }
+
+    /**
+     * Merge sort for an array of ints, comparing with the primitive
+     * operators instead of a Comparator.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * adaptive (already ordered halves are copied instead of merged)
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void mergeSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (arr.length > 1) {
+            PrimitiveSorting.helpMergeSorting(arr.clone(), arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * Merge sort for an array of longs, comparing with the primitive
+     * operators instead of a Comparator.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * adaptive (already ordered halves are copied instead of merged)
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void mergeSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (arr.length > 1) {
+            PrimitiveSorting.helpMergeSorting(arr.clone(), arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * Merge sort for an array of doubles, comparing with the primitive
+     * operators instead of a Comparator.
+     *
+     * NaN is ordered after every other value and -0.0 before 0.0, like
+     * Double.compare and Arrays.sort.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * adaptive (already ordered halves are copied instead of merged)
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void mergeSort(double[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        int end = PrimitiveSorting.moveNaNsToEnd(arr);
+        int negativeZeros = PrimitiveSorting.clearNegativeZeros(arr, end);
+        if (end > 1) {
+            PrimitiveSorting.helpMergeSorting(arr.clone(), arr, 0, end);
+        }
+        PrimitiveSorting.restoreNegativeZeros(arr, end, negativeZeros);
+    }
+
+    /**
+     * Quick sort for an array of ints, comparing with the primitive
+     * operators instead of a Comparator. Uses the same pattern-defeating
+     * partitioning as introSort, so it needs no Random.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void quickSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        PrimitiveSorting.helpIntroSorting(arr, 0, arr.length,
+            32 - Integer.numberOfLeadingZeros(arr.length), true);
+    }
+
+    /**
+     * Quick sort for an array of longs, comparing with the primitive
+     * operators instead of a Comparator. Uses the same pattern-defeating
+     * partitioning as introSort, so it needs no Random.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void quickSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        PrimitiveSorting.helpIntroSorting(arr, 0, arr.length,
+            32 - Integer.numberOfLeadingZeros(arr.length), true);
+    }
+
+    /**
+     * Quick sort for an array of doubles, comparing with the primitive
+     * operators instead of a Comparator. Uses the same pattern-defeating
+     * partitioning as introSort, so it needs no Random.
+     *
+     * NaN is ordered after every other value and -0.0 before 0.0, like
+     * Double.compare and Arrays.sort.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void quickSort(double[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        int end = PrimitiveSorting.moveNaNsToEnd(arr);
+        int negativeZeros = PrimitiveSorting.clearNegativeZeros(arr, end);
+        PrimitiveSorting.helpIntroSorting(arr, 0, end,
+            32 - Integer.numberOfLeadingZeros(end), true);
+        PrimitiveSorting.restoreNegativeZeros(arr, end, negativeZeros);
+    }
+
+    /**
+     * Implement LSD (least significant digit) radix sort.
+     *
+     * Make sure you code the algorithm as you have been taught it in class.
+     * There are several versions of this algorithm and you may not get full
+     * credit if you do not implement the one we have taught you!
+     *
+     * Remember you CANNOT convert the ints to strings at any point in your
+     * code! Doing so may result in a 0 for the implementation.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(kn)
+     *
+     * And a best case running time of:
+     * O(kn)
      *
      * You are allowed to make an initial O(n) passthrough of the array to
      * determine the number of iterations you need. The number of iterations
      * can be determined using the number with the largest magnitude.
      *
-     * At no point should you find yourself needing a way to exponentiate a
-     * number; any such method would be non-O(1). Think about how how you can
-     * get each power of BASE naturally and efficiently as the algorithm
-     * progresses through each digit.
+     * At no point should you find yourself needing a way to exponentiate a
+     * number; any such method would be non-O(1). Think about how how you can
+     * get each power of BASE naturally and efficiently as the algorithm
+     * progresses through each digit.
+     *
+     * Refer to the PDF for more information on LSD Radix Sort.
+     *
+     * You may use ArrayList or LinkedList if you wish, but it may only be
+     * used inside radix sort and any radix sort helpers. Do NOT use these
+     * classes with other sorts. However, be sure the List implementation you
+     * choose allows for stability while being as efficient as possible.
+     *
+     * Do NOT use anything from the Math class except Math.abs().
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void lsdRadixSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        @SuppressWarnings("unchecked")
+        Queue<Integer>[] buckets = (Queue<Integer>[]) new Queue<?>[19];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LinkedList<Integer>();
+        }
+        if (arr.length > 0) {
+            int count = 0;
+            // Magnitudes are tracked as negative numbers, since
+            // Integer.MIN_VALUE has no positive counterpart.
+            int max = 0;
+            for (int part : arr) {
+                int magnitude = part < 0 ? part : -part;
+                if (max > magnitude) {
+                    max = magnitude;
+                }
+            }
+            while (max != 0) {
+                max /= 10;
+                count++;
+            }
+
+            int dividing = 1;
+            int index = 0;
+            for (int i = 0; i < count; i++) {
+                for (int j = 0; j < arr.length; j++) {
+                    index = (arr[j] / dividing) % 10;
+                    buckets[index + 9].add(arr[j]);
+                }
+                index = 0;
+                for (Queue<Integer> bucket : buckets) {
+                    while (!bucket.isEmpty()) {
+                        arr[index++] = bucket.remove();
+                    }
+                }
+                dividing *= 10;
+            }
+        }
+    }
+
+    /**
+     * Counting LSD radix sort for an array of ints, one byte at a time.
+     *
+     * It should be:
+     * out-of-place (one scratch array of length n)
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * The histograms of all four bytes are counted in a single pass, then
+     * every byte is scattered in one pass from the array into the scratch
+     * array or back. The sign bit of the top byte is flipped so negative
+     * numbers come first, and a byte that is the same in every element is
+     * skipped, so small or clustered keys take fewer passes.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        PrimitiveSorting.radixSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Counting LSD radix sort for an array of longs, one byte at a time,
+     * exactly like radixSort(int[]) with eight passes instead of four.
+     *
+     * It should be:
+     * out-of-place (one scratch array of length n)
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void radixSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        PrimitiveSorting.radixSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Parallel MSD radix sort for an array of ints, one byte at a time
+     * from the most significant.
+     *
+     * It should be:
+     * out-of-place (one scratch array of length n)
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * Ranges longer than PARALLEL_THRESHOLD are split into chunks whose
+     * byte histograms are counted in parallel. Each chunk then scatters its
+     * elements into its own slice of every bucket, so the chunks never
+     * write to the same index, and the buckets are sorted by the next byte
+     * in parallel fork-join tasks. Shorter ranges are radix sorted
+     * sequentially down to RADIX_CUTOFF elements and finished with the
+     * primitive quickSort. The sign bit of the top byte is flipped so
+     * negative numbers come first.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void parallelRadixSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (arr.length < 2) {
+            return;
+        }
+        PrimitiveSorting.parallelRadixSort(arr);
+    }
+
+    /**
+     * Parallel MSD radix sort for an array of longs, one byte at a time
+     * from the most significant.
+     *
+     * It should be:
+     * out-of-place (one scratch array of length n)
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * Ranges longer than PARALLEL_THRESHOLD are split into chunks whose
+     * byte histograms are counted in parallel. Each chunk then scatters its
+     * elements into its own slice of every bucket, so the chunks never
+     * write to the same index, and the buckets are sorted by the next byte
+     * in parallel fork-join tasks. Shorter ranges are radix sorted
+     * sequentially down to RADIX_CUTOFF elements and finished with the
+     * primitive quickSort. The sign bit of the top byte is flipped so
+     * negative numbers come first.
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void parallelRadixSort(long[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (arr.length < 2) {
+            return;
+        }
+        PrimitiveSorting.parallelRadixSort(arr);
+    }
+
+    /**
+     * Parallel MSD radix sort for strings, ordering them like
+     * String.compareTo: by their UTF-16 chars, with a prefix before any
+     * longer string. Every char is split into its high and low byte, so
+     * each pass has RADIX buckets plus one for strings that have already
+     * ended.
+     *
+     * It should be:
+     * out-of-place (one scratch array of length n)
+     * stable
+     * adaptive (a prefix shared by a whole range is skipped one byte at a
+     * time without moving anything)
+     *
+     * Have a worst case running time of:
+     * O(n + total length of the distinguishing prefixes)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * Long ranges histogram and scatter in parallel like
+     * parallelRadixSort(int[]). Short ranges are radix sorted sequentially
+     * and finished with insertion sort below INSERTION_THRESHOLD elements.
+     *
+     * @param <T> the type of the strings
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array or any of its
+     *                                            elements is null
+     */
+    public static <T extends CharSequence> void parallelRadixSort(T[] arr) {
+        parallelRadixSort(arr, CHAR_KEY);
+    }
+
+    /**
+     * Parallel MSD radix sort for byte strings, ordering them like
+     * Arrays.compareUnsigned: by their unsigned bytes, with a prefix before
+     * any longer key. Works exactly like parallelRadixSort(CharSequence[]).
+     *
+     * It should be:
+     * out-of-place (one scratch array of length n)
+     * stable
+     * adaptive
+     *
+     * Have a worst case running time of:
+     * O(n + total length of the distinguishing prefixes)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param arr the array to be sorted
+     * @throws java.lang.IllegalArgumentException if the array or any of its
+     *                                            elements is null
+     */
+    public static void parallelRadixSort(byte[][] arr) {
+        parallelRadixSort(arr, BYTE_KEY);
+    }
+
+    /**
+     * Reads the bytes of a key for the MSD radix sort of strings.
+     *
+     * @param <T> the type of the keys
+     */
+    private interface RadixKey<T> {
+
+        /**
+         * Gets one byte of the key as a bucket.
+         *
+         * @param key the key
+         * @param position the index of the byte
+         * @return 0 if the key has ended, otherwise the unsigned byte plus 1
+         */
+        int digit(T key, int position);
+    }
+
+    /**
+     * The bytes of a CharSequence: the high then the low byte of each char.
+     */
+    private static final RadixKey<CharSequence> CHAR_KEY = (key, position) -> {
+        int index = position >>> 1;
+        if (index >= key.length()) {
+            return 0;
+        }
+        char c = key.charAt(index);
+        return ((position & 1) == 0 ? c >>> 8 : c & 0xFF) + 1;
+    };
+
+    /**
+     * The unsigned bytes of a byte array.
+     */
+    private static final RadixKey<byte[]> BYTE_KEY = (key, position) ->
+        position < key.length ? (key[position] & 0xFF) + 1 : 0;
+
+    /**
+     * A private method that checks the keys and starts the MSD radix sort.
+     *
+     * @param <T> the type of the keys
+     * @param arr the keys to sort
+     * @param key reads the bytes of a key
+     * @throws java.lang.IllegalArgumentException if the array or any of its
+     *                                            elements is null
+     */
+    private static <T> void parallelRadixSort(T[] arr, RadixKey<? super T> key) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        for (T data : arr) {
+            if (data == null) {
+                throw new java.lang.IllegalArgumentException("The array should not contain null");
+            }
+        }
+        if (arr.length < 2) {
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new KeyRadixSortTask<>(arr,
+            arr.clone(), 0, arr.length, 0, key, false));
+    }
+
+    /**
+     * A fork-join task that MSD radix sorts a range of keys. It forks a task
+     * for every bucket but the largest, which it goes on sorting itself, so
+     * keys with long shared prefixes cannot nest tasks deeper than O(log n).
+     */
+    private static final class KeyRadixSortTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final T[] scratch;
+        private final int start;
+        private final int end;
+        private final int position;
+        private final RadixKey<? super T> key;
+        private final boolean inScratch;
+
+        /**
+         * Creates a task sorting arr[start, end) from the given byte on. The
+         * keys in the range must already agree on every byte before it.
+         *
+         * @param arr the array to sort
+         * @param scratch the scratch array, as long as arr
+         * @param start the first index of the range (inclusive)
+         * @param end the last index of the range (exclusive)
+         * @param position the byte to sort on, or -1 if the range only has
+         *                 to be copied back
+         * @param key reads the bytes of a key
+         * @param inScratch whether the range is in scratch and has to be
+         *                  copied back to arr first
+         */
+        KeyRadixSortTask(T[] arr, T[] scratch, int start, int end, int position,
+                         RadixKey<? super T> key, boolean inScratch) {
+            this.arr = arr;
+            this.scratch = scratch;
+            this.start = start;
+            this.end = end;
+            this.position = position;
+            this.key = key;
+            this.inScratch = inScratch;
+        }
+
+        @Override
+        protected void compute() {
+            if (inScratch) {
+                System.arraycopy(scratch, start, arr, start, end - start);
+            }
+            if (position < 0) {
+                return;
+            }
+            List<KeyRadixSortTask<T>> forked = new ArrayList<>();
+            int start = this.start;
+            int end = this.end;
+            int position = this.position;
+            while (end - start > PARALLEL_THRESHOLD) {
+                int[][] offsets = histogram(start, end, position);
+                int first = key.digit(arr[start], position);
+                int count = 0;
+                for (int[] counts : offsets) {
+                    count += counts[first];
+                }
+                if (count == end - start) {
+                    if (first == 0) {
+                        start = end;
+                    }
+                    position++;
+                    continue;
+                }
+                int[] bounds = scatter(start, end, position, offsets);
+                int largest = 1;
+                for (int d = 1; d <= RADIX; d++) {
+                    if (bounds[d + 1] - bounds[d] > bounds[largest + 1] - bounds[largest]) {
+                        largest = d;
+                    }
+                }
+                for (int d = 0; d <= RADIX; d++) {
+                    if (d != largest && bounds[d] < bounds[d + 1]) {
+                        KeyRadixSortTask<T> task = new KeyRadixSortTask<>(arr,
+                            scratch, bounds[d], bounds[d + 1],
+                            d == 0 ? -1 : position + 1, key, true);
+                        task.fork();
+                        forked.add(task);
+                    }
+                }
+                start = bounds[largest];
+                end = bounds[largest + 1];
+                position++;
+                System.arraycopy(scratch, start, arr, start, end - start);
+            }
+            msdRadixSort(arr, scratch, start, end, position, key);
+            for (KeyRadixSortTask<T> task : forked) {
+                task.join();
+            }
+        }
+
+        /**
+         * Counts the buckets of the given byte in arr[start, end), splitting
+         * the range into chunks that are counted in parallel.
+         *
+         * @param start the first index of the range (inclusive)
+         * @param end the last index of the range (exclusive)
+         * @param position the byte to count
+         * @return the RADIX + 1 bucket counts of every chunk
+         */
+        private int[][] histogram(int start, int end, int position) {
+            int size = end - start;
+            int chunks = chunkCount(size);
+            int[][] offsets = new int[chunks][RADIX + 1];
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int[] counts = offsets[c];
+                int from = start + (int) ((long) size * c / chunks);
+                int to = start + (int) ((long) size * (c + 1) / chunks);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        counts[key.digit(arr[i], position)]++;
+                    }
+                }));
+            }
+            invokeAll(tasks);
+            return offsets;
+        }
+
+        /**
+         * Scatters arr[start, end) into scratch by the given byte. Every
+         * chunk counted by histogram writes to its own slice of each bucket,
+         * so the chunks are scattered in parallel and the result is stable.
+         *
+         * @param start the first index of the range (inclusive)
+         * @param end the last index of the range (exclusive)
+         * @param position the byte to scatter by
+         * @param offsets the bucket counts of every chunk, which are
+         *                overwritten
+         * @return the bounds of the RADIX + 1 buckets in scratch, the last
+         * ending at bounds[RADIX + 1]
+         */
+        private int[] scatter(int start, int end, int position, int[][] offsets) {
+            int size = end - start;
+            int chunks = offsets.length;
+            int[] bounds = new int[RADIX + 2];
+            int offset = start;
+            for (int d = 0; d <= RADIX; d++) {
+                bounds[d] = offset;
+                for (int c = 0; c < chunks; c++) {
+                    int count = offsets[c][d];
+                    offsets[c][d] = offset;
+                    offset += count;
+                }
+            }
+            bounds[RADIX + 1] = end;
+
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int[] next = offsets[c];
+                int from = start + (int) ((long) size * c / chunks);
+                int to = start + (int) ((long) size * (c + 1) / chunks);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i = from; i < to; i++) {
+                        scratch[next[key.digit(arr[i], position)]++] = arr[i];
+                    }
+                }));
+            }
+            invokeAll(tasks);
+            return bounds;
+        }
+    }
+
+    /**
+     * A helper method that chooses how many chunks the parallel radix sorts
+     * split a range into: about four per thread of the common pool, but
+     * none shorter than PARALLEL_THRESHOLD.
+     *
+     * @param size the length of the range
+     * @return the number of chunks
+     */
+    static int chunkCount(int size) {
+        return Math.max(1, Math.min(4 * ForkJoinPool.getCommonPoolParallelism(),
+            size / PARALLEL_THRESHOLD));
+    }
+
+    /**
+     * A helper method that MSD radix sorts arr[start, end) sequentially from
+     * the given byte on. The keys in the range must already agree on every
+     * byte before it. Every bucket but the largest is recursed into and the
+     * largest is sorted by the loop, so the stack stays O(log n) deep.
+     *
+     * @param <T> the type of the keys
+     * @param arr the array to sort
+     * @param scratch the scratch array, as long as arr
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param position the byte to sort on
+     * @param key reads the bytes of a key
+     */
+    private static <T> void msdRadixSort(T[] arr, T[] scratch, int start,
+                                         int end, int position,
+                                         RadixKey<? super T> key) {
+        while (end - start > INSERTION_THRESHOLD) {
+            int[] bounds = new int[RADIX + 2];
+            for (int i = start; i < end; i++) {
+                bounds[key.digit(arr[i], position) + 1]++;
+            }
+            int first = key.digit(arr[start], position);
+            if (bounds[first + 1] == end - start) {
+                if (first == 0) {
+                    return;
+                }
+                position++;
+                continue;
+            }
+            bounds[0] = start;
+            for (int d = 0; d <= RADIX; d++) {
+                bounds[d + 1] += bounds[d];
+            }
+            int[] next = Arrays.copyOf(bounds, RADIX + 1);
+            for (int i = start; i < end; i++) {
+                scratch[next[key.digit(arr[i], position)]++] = arr[i];
+            }
+            System.arraycopy(scratch, start, arr, start, end - start);
+            int largest = 1;
+            for (int d = 1; d <= RADIX; d++) {
+                if (bounds[d + 1] - bounds[d] > bounds[largest + 1] - bounds[largest]) {
+                    largest = d;
+                }
+            }
+            for (int d = 1; d <= RADIX; d++) {
+                if (d != largest) {
+                    msdRadixSort(arr, scratch, bounds[d], bounds[d + 1],
+                        position + 1, key);
+                }
+            }
+            start = bounds[largest];
+            end = bounds[largest + 1];
+            position++;
+        }
+        int from = position;
+        insertionSort(arr, start, end, (a, b) -> compareKeys(a, b, from, key));
+    }
+
+    /**
+     * A private method that compares two keys from the given byte on.
+     *
+     * @param <T> the type of the keys
+     * @param a the first key
+     * @param b the second key
+     * @param position the first byte to compare
+     * @param key reads the bytes of a key
+     * @return a negative number, zero or a positive number if a is less
+     * than, equal to or greater than b
+     */
+    private static <T> int compareKeys(T a, T b, int position,
+                                       RadixKey<? super T> key) {
+        while (true) {
+            int first = key.digit(a, position);
+            int second = key.digit(b, position);
+            if (first != second || first == 0) {
+                return first - second;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Implement heap sort.
+     *
+     * It should be:
+     * out-of-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n log n)
+     *
+     * The list is unboxed into the returned array, which is then heap sorted
+     * in place by heapSort(int[]).
+     *
+     * Return an int array with a capacity equal to the size of the list. The
+     * returned array should have the elements in the list in sorted order.
+     *
+     * @param data the data to sort
+     * @return the array with length equal to the size of the input list that
+     * holds the elements from the list is sorted order
+     * @throws java.lang.IllegalArgumentException if the data is null
+     */
+    public static int[] heapSort(List<Integer> data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("The list should not be null");
+        }
+        int[] returnArray = new int[data.size()];
+        int index = 0;
+        for (int value : data) {
+            returnArray[index++] = value;
+        }
+        PrimitiveSorting.heapSort(returnArray, 0, returnArray.length);
+        return returnArray;
+    }
+
+    /**
+     * In-place heap sort for an array of ints.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n log n)
+     *
+     * The max heap is built bottom-up in O(n), sifting down every parent
+     * from the last one to the root. The root is then repeatedly swapped to
+     * the end of the shrinking heap and the new root sifted down with
+     * Floyd's bounce, which takes about one comparison per level instead of
+     * two.
+     *
+     * @param arr the array that must be sorted after the method runs
+     * @throws java.lang.IllegalArgumentException if the array is null
+     */
+    public static void heapSort(int[] arr) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        PrimitiveSorting.heapSort(arr, 0, arr.length);
+    }
+
+    /**
+     * In-place heap sort, built and sifted like heapSort(int[]).
+     *
+     * It should be:
+     * in-place
+     * unstable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And a best case running time of:
+     * O(n log n)
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array that must be sorted after the method runs
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null
+     */
+    public static <T> void heapSort(T[] arr, Comparator<T> comparator) {
+        nullCheck(arr, comparator);
+        heapSort(arr, 0, arr.length, comparator);
+    }
+
+    /**
+     * Selects the k-th smallest element (nth_element): afterwards arr[k] is
+     * the element that would be there if the array were sorted, nothing
+     * before it is greater and nothing after it is smaller.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And an expected running time of:
+     * O(n)
+     *
+     * Uses the partitioning of introSort but only continues into the side
+     * holding k (introselect). After about log n bad partitions the rest is
+     * heap sorted, which bounds the worst case.
+     *
+     * @param <T>        data type to select from
+     * @param arr        the array to select from, which is rearranged
+     * @param k          the index of the element to select
+     * @param comparator the Comparator used to compare the data in arr
+     * @return the k-th smallest element
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or k is not in [0, n)
+     */
+    public static <T> T select(T[] arr, int k, Comparator<T> comparator) {
+        nullCheck(arr, comparator);
+        if (k < 0 || k >= arr.length) {
+            throw new java.lang.IllegalArgumentException("k should be in [0, " + arr.length + ")");
+        }
+        helpSelecting(arr, 0, arr.length, k, comparator);
+        return arr[k];
+    }
+
+    /**
+     * Partial sort: afterwards the first k positions hold the k smallest
+     * elements in sorted order, and the rest hold the other elements in no
+     * particular order.
+     *
+     * It should be:
+     * in-place
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And an expected running time of:
+     * O(n + k log k)
+     *
+     * The (k - 1)-th element is selected first, then only the elements
+     * before it are sorted with introSort.
+     *
+     * @param <T>        data type to sort
+     * @param arr        the array to partially sort
+     * @param k          the number of smallest elements to sort
+     * @param comparator the Comparator used to compare the data in arr
+     * @throws java.lang.IllegalArgumentException if the array or comparator is
+     *                                            null, or k is not in [0, n]
+     */
+    public static <T> void partialSort(T[] arr, int k, Comparator<T> comparator) {
+        nullCheck(arr, comparator);
+        if (k < 0 || k > arr.length) {
+            throw new java.lang.IllegalArgumentException("k should be in [0, " + arr.length + "]");
+        }
+        if (k == 0) {
+            return;
+        }
+        helpSelecting(arr, 0, arr.length, k - 1, comparator);
+        helpIntroSorting(arr, 0, k - 1, 32 - Integer.numberOfLeadingZeros(k - 1),
+            true, comparator);
+    }
+
+    /**
+     * Finds the k smallest elements of a stream of data in one pass. Pass
+     * comparator.reversed() for the k largest.
+     *
+     * It should be:
+     * out-of-place (O(k) memory, however long the data)
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n log k)
+     *
+     * And a best case running time of:
+     * O(n + k log k)
+     *
+     * A bounded max heap holds the k smallest elements seen so far, so each
+     * new element is compared with the greatest of them and only replaces
+     * it, with a sift-down, if it is smaller. The heap is heap sorted at the
+     * end.
+     *
+     * @param <T>        data type to select from
+     * @param data       the data, which is iterated once
+     * @param k          the number of elements to find
+     * @param comparator the Comparator used to compare the data
+     * @return the min(k, n) smallest elements in sorted order
+     * @throws java.lang.IllegalArgumentException if the data or comparator is
+     *                                            null, or k is negative
+     */
+    public static <T> List<T> topK(Iterable<T> data, int k,
+                                   Comparator<T> comparator) {
+        if (data == null || comparator == null) {
+            throw new java.lang.IllegalArgumentException("The data or comparator should not be null");
+        }
+        if (k < 0) {
+            throw new java.lang.IllegalArgumentException("k should not be negative");
+        }
+        if (k == 0) {
+            return new ArrayList<>();
+        }
+        @SuppressWarnings("unchecked") // the heap holds only T and never escapes
+        T[] heap = (T[]) new Object[Math.min(k, INSERTION_THRESHOLD)];
+        int size = 0;
+        for (T value : data) {
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, 2L * size));
+                }
+                heap[size] = value;
+                siftUp(heap, size++, comparator);
+            } else if (comparator.compare(value, heap[0]) < 0) {
+                heap[0] = value;
+                siftDown(heap, 0, 0, size, comparator);
+            }
+        }
+        for (int last = size - 1; last > 0; last--) {
+            swap(heap, 0, last);
+            siftDown(heap, 0, 0, last, comparator);
+        }
+        return new ArrayList<>(Arrays.asList(heap).subList(0, size));
+    }
+
+    /**
+     * A helper method that selects the k-th smallest element of
+     * arr[start, end) into arr[k], like helpIntroSorting but only continuing
+     * into the side that holds k.
+     *
+     * @param <T> data type to select from
+     * @param arr the array to select from
+     * @param start the first index (inclusive)
+     * @param end the last index (exclusive)
+     * @param k the index to select, in [start, end)
+     * @param comparator the Comparator used to compare the data in arr
+     */
+    private static <T> void helpSelecting(T[] arr, int start, int end, int k,
+                                          Comparator<T> comparator) {
+        int badAllowed = 32 - Integer.numberOfLeadingZeros(end - start);
+        boolean leftmost = true;
+        while (end - start > INSERTION_THRESHOLD) {
+            if (badAllowed == 0) {
+                heapSort(arr, start, end, comparator);
+                return;
+            }
+            int size = end - start;
+            swap(arr, start, choosePivot(arr, start, end, comparator));
+            T pivotVal = arr[start];
+            int i = start + 1;
+            int j = end - 1;
+            if (!leftmost && comparator.compare(arr[start - 1], pivotVal) >= 0) {
+                while (true) {
+                    while (i <= j && comparator.compare(arr[i], pivotVal) <= 0) {
+                        i++;
+                    }
+                    while (i <= j && comparator.compare(arr[j], pivotVal) > 0) {
+                        j--;
+                    }
+                    if (i > j) {
+                        break;
+                    }
+                    swap(arr, i++, j--);
+                }
+                if (k < i) {
+                    return;
+                }
+                start = i;
+                continue;
+            }
+
+            while (true) {
+                while (i <= j && comparator.compare(arr[i], pivotVal) < 0) {
+                    i++;
+                }
+                while (i <= j && comparator.compare(arr[j], pivotVal) >= 0) {
+                    j--;
+                }
+                if (i > j) {
+                    break;
+                }
+                swap(arr, i++, j--);
+            }
+            int pivot = j;
+            swap(arr, start, pivot);
+            if (k == pivot) {
+                return;
+            }
+            int leftSize = pivot - start;
+            int rightSize = end - pivot - 1;
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                badAllowed--;
+                if (leftSize >= INSERTION_THRESHOLD) {
+                    swap(arr, start, start + leftSize / 4);
+                    swap(arr, pivot - 1, pivot - leftSize / 4);
+                }
+                if (rightSize >= INSERTION_THRESHOLD) {
+                    swap(arr, pivot + 1, pivot + 1 + rightSize / 4);
+                    swap(arr, end - 1, end - rightSize / 4);
+                }
+            }
+            if (k < pivot) {
+                end = pivot;
+            } else {
+                start = pivot + 1;
+                leftmost = false;
+            }
+        }
+        insertionSort(arr, start, end, comparator);
+    }
+
+    /**
+     * A private method that moves the last element of a max heap up until
+     * its parent is no smaller.
+     *
+     * @param <T> data type of the heap
+     * @param heap the array holding the heap from index 0
+     * @param index the index of the element to sift up
+     * @param comparator the Comparator used to compare the data
+     */
+    private static <T> void siftUp(T[] heap, int index, Comparator<T> comparator) {
+        T data = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (comparator.compare(heap[parent], data) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = data;
+    }
+
+    /**
+     * Selects the k-th smallest element of an array of ints, like
+     * select(T[], int, Comparator).
+     *
+     * It should be:
+     * in-place
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And an expected running time of:
+     * O(n)
+     *
+     * @param arr the array to select from, which is rearranged
+     * @param k the index of the element to select
+     * @return the k-th smallest element
+     * @throws java.lang.IllegalArgumentException if the array is null, or k is
+     *                                            not in [0, n)
+     */
+    public static int select(int[] arr, int k) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (k < 0 || k >= arr.length) {
+            throw new java.lang.IllegalArgumentException("k should be in [0, " + arr.length + ")");
+        }
+        PrimitiveSorting.helpSelecting(arr, 0, arr.length, k);
+        return arr[k];
+    }
+
+    /**
+     * Partial sort for an array of ints, like
+     * partialSort(T[], int, Comparator).
+     *
+     * It should be:
+     * in-place
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n log n)
      *
-     * Refer to the PDF for more information on LSD Radix Sort.
+     * And an expected running time of:
+     * O(n + k log k)
      *
-     * You may use ArrayList or LinkedList if you wish, but it may only be
-     * used inside radix sort and any radix sort helpers. Do NOT use these
-     * classes with other sorts. However, be sure the List implementation you
-     * choose allows for stability while being as efficient as possible.
+     * @param arr the array to partially sort
+     * @param k the number of smallest elements to sort
+     * @throws java.lang.IllegalArgumentException if the array is null, or k is
+     *                                            not in [0, n]
+     */
+    public static void partialSort(int[] arr, int k) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (k < 0 || k > arr.length) {
+            throw new java.lang.IllegalArgumentException("k should be in [0, " + arr.length + "]");
+        }
+        if (k == 0) {
+            return;
+        }
+        PrimitiveSorting.helpSelecting(arr, 0, arr.length, k - 1);
+        PrimitiveSorting.helpIntroSorting(arr, 0, k - 1, 32 - Integer.numberOfLeadingZeros(k - 1),
+            true);
+    }
+
+    /**
+     * Finds the k smallest elements of an array of ints in one pass with
+     * a bounded max heap, like topK(Iterable, int, Comparator), without
+     * rearranging the array.
      *
-     * Do NOT use anything from the Math class except Math.abs().
+     * It should be:
+     * out-of-place (O(k) memory)
+     * unstable
      *
-     * @param arr the array to be sorted
-     * @throws java.lang.IllegalArgumentException if the array is null
+     * Have a worst case running time of:
+     * O(n log k)
+     *
+     * And a best case running time of:
+     * O(n + k log k)
+     *
+     * @param arr the array to select from, which is not modified
+     * @param k the number of elements to find
+     * @return the min(k, n) smallest elements in sorted order
+     * @throws java.lang.IllegalArgumentException if the array is null, or k is
+     *                                            negative
      */
-    public static void lsdRadixSort(int[] arr) {
+    public static int[] topK(int[] arr, int k) {
+        return topK(arr, k, false);
+    }
+
+    /**
+     * Finds the k smallest or the k largest elements of an array of ints,
+     * like topK(int[], int).
+     *
+     * The k largest are found by running the same bounded max heap on the
+     * complements ~value, which reverse the order of the ints without the
+     * overflow of negating the smallest int, and complementing the result
+     * back.
+     *
+     * @param arr the array to select from, which is not modified
+     * @param k the number of elements to find
+     * @param largest true for the k largest elements, false for the k
+     *                smallest
+     * @return the min(k, n) smallest elements in ascending order, or the
+     *         min(k, n) largest elements in descending order
+     * @throws java.lang.IllegalArgumentException if the array is null, or k is
+     *                                            negative
+     */
+    public static int[] topK(int[] arr, int k, boolean largest) {
         if (arr == null) {
             throw new java.lang.IllegalArgumentException("The array should not be null");
         }
-        Queue<Integer>[] buckets = new Queue[19];
-        for (int i = 0; i < buckets.length; i++) {
-            buckets[i] = new LinkedList<Integer>();
+        if (k < 0) {
+            throw new java.lang.IllegalArgumentException("k should not be negative");
         }
-        if (arr.length > 0) {
-            int count = 0;
-            int max = Math.abs(arr[0]);
-            for (int part : arr) {
-                if (max < Math.abs(part)) {
-                    max = part;
-                }
-            }
-            while (max != 0) {
-                max /= 10;
-                count++;
-            }
+        return PrimitiveSorting.topK(arr, k, largest);
+    }
 
-            int dividing = 1;
-            int index = 0;
-            for (int i = 0; i <= count; i++) {
-                for (int j = 0; j < arr.length; j++) {
-                    index = (arr[j] / dividing) % 10;
-                    buckets[index + 9].add(arr[j]);
-                }
-                index = 0;
-                for (Queue<Integer> bucket : buckets) {
-                    while (!bucket.isEmpty()) {
-                        arr[index++] = bucket.remove();
-                    }
-                }
-                dividing *= 10;
-            }
+    /**
+     * Selects the k-th smallest element of an array of longs, like
+     * select(T[], int, Comparator).
+     *
+     * It should be:
+     * in-place
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n log n)
+     *
+     * And an expected running time of:
+     * O(n)
+     *
+     * @param arr the array to select from, which is rearranged
+     * @param k the index of the element to select
+     * @return the k-th smallest element
+     * @throws java.lang.IllegalArgumentException if the array is null, or k is
+     *                                            not in [0, n)
+     */
+    public static long select(long[] arr, int k) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (k < 0 || k >= arr.length) {
+            throw new java.lang.IllegalArgumentException("k should be in [0, " + arr.length + ")");
         }
+        PrimitiveSorting.helpSelecting(arr, 0, arr.length, k);
+        return arr[k];
     }
 
     /**
-     * Implement heap sort.
+     * Partial sort for an array of longs, like
+     * partialSort(T[], int, Comparator).
      *
      * It should be:
-     * out-of-place
+     * in-place
      * unstable
-     * not adaptive
      *
      * Have a worst case running time of:
      * O(n log n)
      *
+     * And an expected running time of:
+     * O(n + k log k)
+     *
+     * @param arr the array to partially sort
+     * @param k the number of smallest elements to sort
+     * @throws java.lang.IllegalArgumentException if the array is null, or k is
+     *                                            not in [0, n]
+     */
+    public static void partialSort(long[] arr, int k) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (k < 0 || k > arr.length) {
+            throw new java.lang.IllegalArgumentException("k should be in [0, " + arr.length + "]");
+        }
+        if (k == 0) {
+            return;
+        }
+        PrimitiveSorting.helpSelecting(arr, 0, arr.length, k - 1);
+        PrimitiveSorting.helpIntroSorting(arr, 0, k - 1, 32 - Integer.numberOfLeadingZeros(k - 1),
+            true);
+    }
+
+    /**
+     * Finds the k smallest elements of an array of longs in one pass with
+     * a bounded max heap, like topK(Iterable, int, Comparator), without
+     * rearranging the array.
+     *
+     * It should be:
+     * out-of-place (O(k) memory)
+     * unstable
+     *
+     * Have a worst case running time of:
+     * O(n log k)
+     *
+     * And a best case running time of:
+     * O(n + k log k)
+     *
+     * @param arr the array to select from, which is not modified
+     * @param k the number of elements to find
+     * @return the min(k, n) smallest elements in sorted order
+     * @throws java.lang.IllegalArgumentException if the array is null, or k is
+     *                                            negative
+     */
+    public static long[] topK(long[] arr, int k) {
+        return topK(arr, k, false);
+    }
+
+    /**
+     * Finds the k smallest or the k largest elements of an array of longs,
+     * like topK(long[], int).
+     *
+     * The k largest are found by running the same bounded max heap on the
+     * complements ~value, which reverse the order of the longs without the
+     * overflow of negating the smallest long, and complementing the result
+     * back.
+     *
+     * @param arr the array to select from, which is not modified
+     * @param k the number of elements to find
+     * @param largest true for the k largest elements, false for the k
+     *                smallest
+     * @return the min(k, n) smallest elements in ascending order, or the
+     *         min(k, n) largest elements in descending order
+     * @throws java.lang.IllegalArgumentException if the array is null, or k is
+     *                                            negative
+     */
+    public static long[] topK(long[] arr, int k, boolean largest) {
+        if (arr == null) {
+            throw new java.lang.IllegalArgumentException("The array should not be null");
+        }
+        if (k < 0) {
+            throw new java.lang.IllegalArgumentException("k should not be negative");
+        }
+        return PrimitiveSorting.topK(arr, k, largest);
+    }
+
+    /**
+     * Sorts by an int key that is extracted once per element instead of once
+     * per comparison (a Schwartzian transform).
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * Every key is packed with the index of its element into one long, key
+     * in the high half, and the longs are sorted with radixSort. Equal keys
+     * are then ordered by index, which makes the sort stable, and the
+     * elements are permuted into the order of the indices.
+     *
+     * @param <T> data type to sort
+     * @param arr the array to be sorted
+     * @param key extracts the key of an element
+     * @throws java.lang.IllegalArgumentException if the array or key extractor
+     *                                            is null
+     */
+    public static <T> void sortByIntKey(T[] arr, ToIntFunction<? super T> key) {
+        if (arr == null || key == null) {
+            throw new java.lang.IllegalArgumentException("The array or key extractor should not be null");
+        }
+        long[] packed = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            packed[i] = (long) key.applyAsInt(arr[i]) << Integer.SIZE | i;
+        }
+        radixSort(packed);
+        T[] copy = arr.clone();
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = copy[(int) packed[i]];
+        }
+    }
+
+    /**
+     * Sorts by a long key that is extracted once per element, radix sorting
+     * the keys together with the indices of their elements.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param <T> data type to sort
+     * @param arr the array to be sorted
+     * @param key extracts the key of an element
+     * @throws java.lang.IllegalArgumentException if the array or key extractor
+     *                                            is null
+     */
+    public static <T> void sortByLongKey(T[] arr, ToLongFunction<? super T> key) {
+        if (arr == null || key == null) {
+            throw new java.lang.IllegalArgumentException("The array or key extractor should not be null");
+        }
+        sortByKeys(arr, key);
+    }
+
+    /**
+     * Sorts by a double key that is extracted once per element, ordering the
+     * keys like Double.compare: NaN last and -0.0 before 0.0.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(n)
+     *
      * And a best case running time of:
+     * O(n)
+     *
+     * The bits of every key are mapped to a long that orders the same way,
+     * by flipping every bit but the sign of negative numbers, and sorted
+     * like sortByLongKey.
+     *
+     * @param <T> data type to sort
+     * @param arr the array to be sorted
+     * @param key extracts the key of an element
+     * @throws java.lang.IllegalArgumentException if the array or key extractor
+     *                                            is null
+     */
+    public static <T> void sortByDoubleKey(T[] arr, ToDoubleFunction<? super T> key) {
+        if (arr == null || key == null) {
+            throw new java.lang.IllegalArgumentException("The array or key extractor should not be null");
+        }
+        sortByKeys(arr, data -> {
+            long bits = Double.doubleToLongBits(key.applyAsDouble(data));
+            return bits ^ (bits >> (Long.SIZE - 1) & Long.MAX_VALUE);
+        });
+    }
+
+    /**
+     * Sorts by a Comparable key that is extracted once per element. The
+     * elements are paired with their keys and the pairs are sorted by key
+     * with timSort.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * adaptive
+     *
+     * Have a worst case running time of:
      * O(n log n)
      *
-     * Use java.util.PriorityQueue as the heap. Note that in this
-     * PriorityQueue implementation, elements are removed from smallest
-     * element to largest element.
+     * And a best case running time of:
+     * O(n)
+     *
+     * @param <T> data type to sort
+     * @param <U> the type of the keys
+     * @param arr the array to be sorted
+     * @param key extracts the key of an element
+     * @throws java.lang.IllegalArgumentException if the array or key extractor
+     *                                            is null
+     */
+    public static <T, U extends Comparable<? super U>> void sortByKey(
+        T[] arr, Function<? super T, ? extends U> key) {
+        if (arr == null || key == null) {
+            throw new java.lang.IllegalArgumentException("The array or key extractor should not be null");
+        }
+        @SuppressWarnings("unchecked")
+        Keyed<T, U>[] pairs = (Keyed<T, U>[]) new Keyed<?, ?>[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            pairs[i] = new Keyed<>(key.apply(arr[i]), arr[i]);
+        }
+        timSort(pairs, (a, b) -> a.key.compareTo(b.key));
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = pairs[i].data;
+        }
+    }
+
+    /**
+     * Sorts lexicographically by several long keys, the first key being the
+     * most significant. Every key is extracted once per element into a
+     * column, and the elements are permuted by sortedOrder of the columns.
+     * Int keys can be passed as they are, since they widen to long.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
      *
-     * Initialize the PriorityQueue using its build heap constructor (look at
-     * the different constructors of java.util.PriorityQueue).
+     * Have a worst case running time of:
+     * O(kn) for k keys
      *
-     * Return an int array with a capacity equal to the size of the list. The
-     * returned array should have the elements in the list in sorted order.
+     * And a best case running time of:
+     * O(kn)
      *
-     * @param data the data to sort
-     * @return the array with length equal to the size of the input list that
-     * holds the elements from the list is sorted order
-     * @throws java.lang.IllegalArgumentException if the data is null
+     * @param <T> data type to sort
+     * @param arr the array to be sorted
+     * @param keys extract the keys of an element, most significant first
+     * @throws java.lang.IllegalArgumentException if the array, the keys or any
+     *                                            key extractor is null, or
+     *                                            there are no keys
      */
-    public static int[] heapSort(List<Integer> data) {
-        if (data == null) {
-            throw new java.lang.IllegalArgumentException("The list should not be null");
+    @SafeVarargs
+    public static <T> void sortByKeys(T[] arr, ToLongFunction<? super T>... keys) {
+        if (arr == null || keys == null) {
+            throw new java.lang.IllegalArgumentException("The array or key extractors should not be null");
         }
-        int[] returnArray = new int[data.size()];
-        if (data.size() != 0) {
-            PriorityQueue<Integer> pq = new PriorityQueue<>(data);
-            for (int i = 0; i < data.size(); i++) {
-                returnArray[i] = pq.remove();
+        long[][] columns = new long[keys.length][];
+        for (int c = 0; c < keys.length; c++) {
+            if (keys[c] == null) {
+                throw new java.lang.IllegalArgumentException("The key extractors should not be null");
+            }
+            columns[c] = new long[arr.length];
+            for (int i = 0; i < arr.length; i++) {
+                columns[c][i] = keys[c].applyAsLong(arr[i]);
             }
         }
-        return returnArray;
+        int[] order = sortedOrder(columns);
+        T[] copy = arr.clone();
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = copy[order[i]];
+        }
+    }
+
+    /**
+     * Finds the order that sorts rows of primitive key columns
+     * lexicographically, without moving the rows: row i is made of
+     * columns[0][i], columns[1][i] and so on, the first column being the
+     * most significant. Rows with equal keys keep their order.
+     *
+     * It should be:
+     * out-of-place
+     * stable
+     * not adaptive
+     *
+     * Have a worst case running time of:
+     * O(kn) for k columns
+     *
+     * And a best case running time of:
+     * O(kn)
+     *
+     * This is an LSD radix sort over whole columns: the row indices are
+     * stably radix sorted by the last column, then by each column before
+     * it, so every column is a digit of the row's key. Each column pass
+     * sorts its keys byte by byte like radixSort(long[]), moving the row
+     * indices along with them and skipping bytes that every key shares.
+     *
+     * @param columns the key columns, most significant first, all of the
+     *                same length
+     * @return the row indices in sorted order
+     * @throws java.lang.IllegalArgumentException if the columns or any column
+     *                                            is null, there are no
+     *                                            columns or their lengths
+     *                                            differ
+     */
+    public static int[] sortedOrder(long[]... columns) {
+        if (columns == null || columns.length == 0) {
+            throw new java.lang.IllegalArgumentException("There should be at least one column");
+        }
+        for (long[] column : columns) {
+            if (column == null || column.length != columns[0].length) {
+                throw new java.lang.IllegalArgumentException("The columns should not be null and should have the same length");
+            }
+        }
+        int n = columns[0].length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        if (n < 2) {
+            return order;
+        }
+        long[] keys = new long[n];
+        long[] keyScratch = null;
+        int[] orderScratch = null;
+        int passes = Long.SIZE / RADIX_BITS;
+        int[] counts = new int[passes * RADIX];
+        for (int c = columns.length - 1; c >= 0; c--) {
+            long[] column = columns[c];
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                long value = column[order[i]];
+                keys[i] = value;
+                for (int pass = 0; pass < passes; pass++) {
+                    counts[pass * RADIX + PrimitiveSorting.digit(value, pass, passes)]++;
+                }
+            }
+            for (int pass = 0; pass < passes; pass++) {
+                int base = pass * RADIX;
+                if (counts[base + PrimitiveSorting.digit(keys[0], pass, passes)] == n) {
+                    continue;
+                }
+                if (keyScratch == null) {
+                    keyScratch = new long[n];
+                    orderScratch = new int[n];
+                }
+                int offset = 0;
+                for (int i = base; i < base + RADIX; i++) {
+                    int count = counts[i];
+                    counts[i] = offset;
+                    offset += count;
+                }
+                for (int i = 0; i < n; i++) {
+                    int position = counts[base + PrimitiveSorting.digit(keys[i], pass, passes)]++;
+                    keyScratch[position] = keys[i];
+                    orderScratch[position] = order[i];
+                }
+                long[] tempKeys = keys;
+                keys = keyScratch;
+                keyScratch = tempKeys;
+                int[] tempOrder = order;
+                order = orderScratch;
+                orderScratch = tempOrder;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * An element paired with its extracted key.
+     *
+     * @param <T> data type of the element
+     * @param <U> the type of the key
+     */
+    private static final class Keyed<T, U extends Comparable<? super U>> {
+
+        private final U key;
+        private final T data;
+
+        /**
+         * Creates the pair.
+         *
+         * @param key the key of the element
+         * @param data the element
+         */
+        Keyed(U key, T data) {
+            this.key = key;
+            this.data = data;
+        }
     }
 }
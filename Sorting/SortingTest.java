@@ -0,0 +1,759 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+public class SortingTest {
+
+    /**
+     * Orders records by their key only, so that records with equal keys can
+     * be told apart by their original position.
+     */
+    private static final Comparator<int[]> BY_KEY = Comparator.comparingInt(record -> record[0]);
+
+    /**
+     * Runs the Sorting tests.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        mergeSortIsStable();
+        mergeSortReusesTheBuffer();
+        mergeSortIsAdaptive();
+        parallelMergeSortIsStable();
+        timSortIsStableOnRuns();
+        timSortRejectsBrokenComparators();
+        introSortSortsPatterns();
+        introSortSurvivesAnAdversary();
+        primitiveSortsMatchArraysSort();
+        radixSortsMatchArraysSort();
+        parallelRadixSortsMatchArraysSort();
+        parallelStringRadixSortIsStable();
+        heapSortsMatchArraysSort();
+        selectionsMatchArraysSort();
+        primitiveTopKFindsBothEnds();
+        keySortsMatchAStableSort();
+        sortedOrderMatchesAStableSort();
+        System.out.println("SortingTest passed");
+    }
+
+    /**
+     * Checks that mergeSort, with and without a buffer, sorts random records
+     * with many duplicate keys and keeps equal keys in their original order.
+     */
+    static void mergeSortIsStable() {
+        Random rand = new Random(40);
+        for (int trial = 0; trial < 200; trial++) {
+            int[][] arr = records(rand, rand.nextInt(300), 1 + rand.nextInt(20));
+            int[][] buffered = arr.clone();
+            Sorting.mergeSort(arr, BY_KEY);
+            checkStablySorted(arr, "mergeSort");
+            Sorting.mergeSort(buffered, BY_KEY, new int[buffered.length + rand.nextInt(3)][]);
+            checkStablySorted(buffered, "mergeSort with a buffer");
+        }
+    }
+
+    /**
+     * Checks that one buffer can serve many sorts and that a short buffer or
+     * null arguments are rejected.
+     */
+    static void mergeSortReusesTheBuffer() {
+        Random rand = new Random(400);
+        Integer[] buffer = new Integer[100];
+        for (int trial = 0; trial < 50; trial++) {
+            Integer[] arr = new Integer[rand.nextInt(buffer.length + 1)];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt();
+            }
+            Integer[] expected = arr.clone();
+            Arrays.sort(expected);
+            Sorting.mergeSort(arr, Comparator.naturalOrder(), buffer);
+            check(Arrays.equals(arr, expected), "mergeSort with a reused buffer");
+        }
+        expectIllegalArgument(() -> Sorting.mergeSort(new Integer[3], Comparator.naturalOrder(),
+            new Integer[2]), "mergeSort with a short buffer");
+        expectIllegalArgument(() -> Sorting.mergeSort(null, Comparator.<Integer>naturalOrder()),
+            "mergeSort of null");
+        expectIllegalArgument(() -> Sorting.mergeSort(new Integer[3], null), "mergeSort without a comparator");
+    }
+
+    /**
+     * Checks that mergeSort makes fewer than n comparisons on sorted data,
+     * as its best case promises.
+     */
+    static void mergeSortIsAdaptive() {
+        for (int n : new int[] {1, 33, 1000, 4097}) {
+            Integer[] arr = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                arr[i] = i;
+            }
+            int[] comparisons = new int[1];
+            Sorting.mergeSort(arr, (a, b) -> {
+                comparisons[0]++;
+                return Integer.compare(a, b);
+            });
+            check(comparisons[0] < Math.max(n, 1), "mergeSort made " + comparisons[0]
+                + " comparisons on " + n + " sorted elements");
+        }
+    }
+
+    /**
+     * Checks parallelMergeSort on arrays long enough to fork and to split
+     * their merges, with few and with many distinct keys.
+     */
+    static void parallelMergeSortIsStable() {
+        Random rand = new Random(41);
+        for (int n : new int[] {0, 1, 100, 8193, 100_000}) {
+            for (int keys : new int[] {3, 1000, Integer.MAX_VALUE}) {
+                int[][] arr = records(rand, n, keys);
+                Sorting.parallelMergeSort(arr, BY_KEY);
+                checkStablySorted(arr, "parallelMergeSort");
+            }
+        }
+        int[][] sorted = records(rand, 50_000, 10);
+        Arrays.sort(sorted, BY_KEY);
+        Sorting.parallelMergeSort(sorted, BY_KEY);
+        checkStablySorted(sorted, "parallelMergeSort of sorted records");
+        expectIllegalArgument(() -> Sorting.parallelMergeSort(null, BY_KEY), "parallelMergeSort of null");
+    }
+
+    /**
+     * Checks timSort on random records and on records made of ascending and
+     * descending runs of random lengths, so that runs are reversed, extended,
+     * trimmed and merged with galloping.
+     */
+    static void timSortIsStableOnRuns() {
+        Random rand = new Random(42);
+        for (int trial = 0; trial < 300; trial++) {
+            int n = rand.nextInt(trial < 200 ? 100 : 20_000);
+            int[][] arr = records(rand, n, 1 + rand.nextInt(n + 1));
+            if (trial % 2 == 1) {
+                for (int start = 0; start < n; ) {
+                    int end = Math.min(n, start + 1 + rand.nextInt(1 + rand.nextInt(n)));
+                    Arrays.sort(arr, start, end, rand.nextBoolean() ? BY_KEY : BY_KEY.reversed());
+                    start = end;
+                }
+            }
+            Sorting.timSort(arr, BY_KEY);
+            checkStablySorted(arr, "timSort");
+        }
+        expectIllegalArgument(() -> Sorting.timSort(null, BY_KEY), "timSort of null");
+    }
+
+    /**
+     * Checks that timSort with a comparator answering at random either
+     * finishes or throws IllegalArgumentException, and never fails with an
+     * index out of bounds.
+     */
+    static void timSortRejectsBrokenComparators() {
+        Random rand = new Random(420);
+        for (int trial = 0; trial < 100; trial++) {
+            Integer[] arr = new Integer[rand.nextInt(5000)];
+            Arrays.fill(arr, 0);
+            try {
+                Sorting.timSort(arr, (a, b) -> rand.nextInt(3) - 1);
+            } catch (IllegalArgumentException expected) {
+                // the comparator was caught out
+            }
+        }
+    }
+
+    /**
+     * Checks introSort against Arrays.sort on random data and on the inputs
+     * its partitioning treats specially: sorted, reversed, constant, organ
+     * pipe and nearly sorted arrays.
+     */
+    static void introSortSortsPatterns() {
+        Random rand = new Random(43);
+        for (int trial = 0; trial < 600; trial++) {
+            int n = rand.nextInt(trial < 400 ? 200 : 50_000);
+            Integer[] arr = pattern(rand, trial % 6, n);
+            Integer[] expected = arr.clone();
+            Arrays.sort(expected);
+            Sorting.introSort(arr, Comparator.naturalOrder());
+            check(Arrays.equals(arr, expected), "introSort of pattern " + trial % 6 + ", length " + n);
+        }
+        expectIllegalArgument(() -> Sorting.introSort(null, Comparator.<Integer>naturalOrder()),
+            "introSort of null");
+    }
+
+    /**
+     * Checks that introSort stays within O(n log n) comparisons against
+     * McIlroy's adversary, which decides the order of the elements lazily so
+     * that every pivot a quick sort picks is as bad as possible.
+     */
+    static void introSortSurvivesAnAdversary() {
+        int n = 20_000;
+        int[] values = new int[n];
+        Arrays.fill(values, n);             // n marks a value not decided yet
+        int[] state = new int[3];           // solid values, candidate, comparisons
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = i;
+        }
+        Sorting.introSort(arr, (a, b) -> {
+            state[2]++;
+            if (values[a] == n && values[b] == n) {
+                values[a == state[1] ? a : b] = state[0]++;
+            }
+            if (values[a] == n) {
+                state[1] = a;
+            } else if (values[b] == n) {
+                state[1] = b;
+            }
+            return Integer.compare(values[a], values[b]);
+        });
+        for (int i = 1; i < n; i++) {
+            check(values[arr[i - 1]] <= values[arr[i]], "introSort against the adversary");
+        }
+        double bound = 4 * n * Math.log(n) / Math.log(2);
+        check(state[2] < bound, "introSort made " + state[2] + " comparisons against the adversary");
+    }
+
+    /**
+     * Checks the int, long and double insertionSort, mergeSort and quickSort
+     * against Arrays.sort on the shapes of pattern(), including the extreme
+     * values, and for doubles NaN, infinities, 0.0 and -0.0.
+     */
+    static void primitiveSortsMatchArraysSort() {
+        Random rand = new Random(44);
+        double[] specials = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MAX_VALUE};
+        for (int trial = 0; trial < 600; trial++) {
+            int n = rand.nextInt(trial < 400 ? 100 : 20_000);
+            Integer[] shape = pattern(rand, trial % 6, n);
+            int[] ints = new int[n];
+            long[] longs = new long[n];
+            double[] doubles = new double[n];
+            for (int i = 0; i < n; i++) {
+                ints[i] = rand.nextInt(20) == 0 ? (rand.nextBoolean() ? Integer.MIN_VALUE : Integer.MAX_VALUE)
+                    : shape[i] - n / 2;
+                longs[i] = rand.nextInt(20) == 0 ? (rand.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE)
+                    : (long) ints[i] << 20;
+                doubles[i] = rand.nextInt(10) == 0 ? specials[rand.nextInt(specials.length)]
+                    : ints[i] / 4.0;
+            }
+            int[] expectedInts = ints.clone();
+            Arrays.sort(expectedInts);
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedLongs);
+            double[] expectedDoubles = doubles.clone();
+            Arrays.sort(expectedDoubles);
+            String name = " of pattern " + trial % 6 + ", length " + n;
+
+            int[] sortedInts = ints.clone();
+            Sorting.mergeSort(sortedInts);
+            check(Arrays.equals(sortedInts, expectedInts), "int mergeSort" + name);
+            sortedInts = ints.clone();
+            Sorting.quickSort(sortedInts);
+            check(Arrays.equals(sortedInts, expectedInts), "int quickSort" + name);
+            long[] sortedLongs = longs.clone();
+            Sorting.mergeSort(sortedLongs);
+            check(Arrays.equals(sortedLongs, expectedLongs), "long mergeSort" + name);
+            sortedLongs = longs.clone();
+            Sorting.quickSort(sortedLongs);
+            check(Arrays.equals(sortedLongs, expectedLongs), "long quickSort" + name);
+            double[] sortedDoubles = doubles.clone();
+            Sorting.mergeSort(sortedDoubles);
+            check(Arrays.equals(sortedDoubles, expectedDoubles), "double mergeSort" + name);
+            sortedDoubles = doubles.clone();
+            Sorting.quickSort(sortedDoubles);
+            check(Arrays.equals(sortedDoubles, expectedDoubles), "double quickSort" + name);
+            if (n < 100) {
+                Sorting.insertionSort(ints);
+                check(Arrays.equals(ints, expectedInts), "int insertionSort" + name);
+                Sorting.insertionSort(longs);
+                check(Arrays.equals(longs, expectedLongs), "long insertionSort" + name);
+                Sorting.insertionSort(doubles);
+                check(Arrays.equals(doubles, expectedDoubles), "double insertionSort" + name);
+            }
+        }
+        expectIllegalArgument(() -> Sorting.quickSort((int[]) null), "int quickSort of null");
+        expectIllegalArgument(() -> Sorting.mergeSort((long[]) null), "long mergeSort of null");
+        expectIllegalArgument(() -> Sorting.insertionSort((double[]) null), "double insertionSort of null");
+    }
+
+    /**
+     * Checks lsdRadixSort and the int and long radixSort against Arrays.sort
+     * on full range values, on values that differ only in some bytes so that
+     * passes are skipped, and on the extreme values, and the range radix
+     * sort of PrimitiveSorting on a random range of each array.
+     */
+    static void radixSortsMatchArraysSort() {
+        Random rand = new Random(45);
+        for (int trial = 0; trial < 400; trial++) {
+            int n = rand.nextInt(trial < 300 ? 100 : 20_000);
+            long mask = rand.nextBoolean() ? -1L : rand.nextLong();
+            long base = rand.nextLong();
+            int[] ints = new int[n];
+            long[] longs = new long[n];
+            for (int i = 0; i < n; i++) {
+                longs[i] = rand.nextInt(50) == 0 ? (rand.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE)
+                    : base ^ rand.nextLong() & mask;
+                ints[i] = rand.nextInt(50) == 0 ? (rand.nextBoolean() ? Integer.MIN_VALUE : Integer.MAX_VALUE) : (int) longs[i];
+            }
+            int[] expectedInts = ints.clone();
+            Arrays.sort(expectedInts);
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedLongs);
+            String name = " with mask " + Long.toHexString(mask) + ", length " + n;
+
+            int from = rand.nextInt(n + 1);
+            int to = from + rand.nextInt(n - from + 1);
+            long[] rangeLongs = longs.clone();
+            PrimitiveSorting.radixSort(rangeLongs, from, to);
+            long[] expectedRangeLongs = longs.clone();
+            Arrays.sort(expectedRangeLongs, from, to);
+            check(Arrays.equals(rangeLongs, expectedRangeLongs), "long radixSort of a range" + name);
+            int[] rangeInts = ints.clone();
+            PrimitiveSorting.radixSort(rangeInts, from, to);
+            int[] expectedRangeInts = ints.clone();
+            Arrays.sort(expectedRangeInts, from, to);
+            check(Arrays.equals(rangeInts, expectedRangeInts), "int radixSort of a range" + name);
+
+            Sorting.radixSort(longs);
+            check(Arrays.equals(longs, expectedLongs), "long radixSort" + name);
+            int[] sortedInts = ints.clone();
+            Sorting.radixSort(sortedInts);
+            check(Arrays.equals(sortedInts, expectedInts), "int radixSort" + name);
+            Sorting.lsdRadixSort(ints);
+            check(Arrays.equals(ints, expectedInts), "lsdRadixSort" + name);
+        }
+        expectIllegalArgument(() -> Sorting.radixSort((int[]) null), "int radixSort of null");
+        expectIllegalArgument(() -> Sorting.radixSort((long[]) null), "long radixSort of null");
+        expectIllegalArgument(() -> Sorting.lsdRadixSort(null), "lsdRadixSort of null");
+    }
+
+    /**
+     * Checks the int and long parallelRadixSort against Arrays.sort on
+     * arrays long enough to split into tasks, with full range, clustered and
+     * extreme values.
+     */
+    static void parallelRadixSortsMatchArraysSort() {
+        Random rand = new Random(46);
+        for (int n : new int[] {0, 1, 200, 10_000, 300_000}) {
+            for (long mask : new long[] {-1L, 0xFFFFL, 0xFF00FF0000L}) {
+                int[] ints = new int[n];
+                long[] longs = new long[n];
+                for (int i = 0; i < n; i++) {
+                    longs[i] = rand.nextInt(50) == 0 ? (rand.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE)
+                        : rand.nextLong() & mask;
+                    ints[i] = (int) (longs[i] >>> 8);
+                }
+                int[] expectedInts = ints.clone();
+                Arrays.sort(expectedInts);
+                long[] expectedLongs = longs.clone();
+                Arrays.sort(expectedLongs);
+                Sorting.parallelRadixSort(ints);
+                check(Arrays.equals(ints, expectedInts), "int parallelRadixSort of length " + n);
+                Sorting.parallelRadixSort(longs);
+                check(Arrays.equals(longs, expectedLongs), "long parallelRadixSort of length " + n);
+            }
+        }
+        expectIllegalArgument(() -> Sorting.parallelRadixSort((int[]) null), "int parallelRadixSort of null");
+        expectIllegalArgument(() -> Sorting.parallelRadixSort((long[]) null), "long parallelRadixSort of null");
+    }
+
+    /**
+     * Checks the string and byte string parallelRadixSort against
+     * String.compareTo and Arrays.compareUnsigned on keys with long shared
+     * prefixes, keys that are prefixes of others and chars above 0xFF, and
+     * checks that equal strings keep their order.
+     */
+    static void parallelStringRadixSortIsStable() {
+        Random rand = new Random(460);
+        char[] alphabet = {'a', 'b', '\u00e9', '\u4e2d', '\uffff'};
+        for (int n : new int[] {0, 1, 30, 1000, 100_000}) {
+            String prefix = rand.nextBoolean() ? "" : "shared-prefix/";
+            String[] strings = new String[n];
+            byte[][] bytes = new byte[n][];
+            for (int i = 0; i < n; i++) {
+                StringBuilder builder = new StringBuilder(prefix);
+                for (int length = rand.nextInt(6); length > 0; length--) {
+                    builder.append(alphabet[rand.nextInt(alphabet.length)]);
+                }
+                strings[i] = new String(builder);
+                bytes[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+            }
+            String[] sorted = strings.clone();
+            Sorting.parallelRadixSort(sorted);
+            Map<String, Integer> index = new IdentityHashMap<>();
+            for (int i = 0; i < n; i++) {
+                index.put(strings[i], i);
+            }
+            for (int i = 1; i < n; i++) {
+                int order = sorted[i - 1].compareTo(sorted[i]);
+                check(order < 0 || order == 0 && index.get(sorted[i - 1]) < index.get(sorted[i]),
+                    "string parallelRadixSort of length " + n + " at " + i);
+            }
+            byte[][] expected = bytes.clone();
+            Arrays.sort(expected, Arrays::compareUnsigned);
+            Sorting.parallelRadixSort(bytes);
+            check(Arrays.equals(bytes, expected), "byte parallelRadixSort of length " + n);
+        }
+        expectIllegalArgument(() -> Sorting.parallelRadixSort(new String[] {"a", null}),
+            "string parallelRadixSort with a null string");
+    }
+
+    /**
+     * Checks the List, int and generic heapSort against Arrays.sort on the
+     * shapes of pattern(), and that Floyd's bounce keeps the generic sort
+     * close to n log2 n comparisons.
+     */
+    static void heapSortsMatchArraysSort() {
+        Random rand = new Random(48);
+        for (int trial = 0; trial < 300; trial++) {
+            int n = rand.nextInt(trial < 200 ? 100 : 20_000);
+            Integer[] arr = pattern(rand, trial % 6, n);
+            int[] ints = new int[n];
+            for (int i = 0; i < n; i++) {
+                ints[i] = arr[i];
+            }
+            int[] fromList = Sorting.heapSort(Arrays.asList(arr));
+            int[] expectedInts = ints.clone();
+            Arrays.sort(expectedInts);
+            Integer[] expected = arr.clone();
+            Arrays.sort(expected);
+            String name = " of pattern " + trial % 6 + ", length " + n;
+
+            check(Arrays.equals(fromList, expectedInts), "List heapSort" + name);
+            Sorting.heapSort(ints);
+            check(Arrays.equals(ints, expectedInts), "int heapSort" + name);
+            int[] comparisons = new int[1];
+            Sorting.heapSort(arr, (a, b) -> {
+                comparisons[0]++;
+                return a.compareTo(b);
+            });
+            check(Arrays.equals(arr, expected), "heapSort" + name);
+            double bound = n * Math.log(n + 1) / Math.log(2) + 2 * n;
+            check(comparisons[0] <= bound, "heapSort made " + comparisons[0] + " comparisons" + name);
+        }
+        expectIllegalArgument(() -> Sorting.heapSort((List<Integer>) null), "List heapSort of null");
+        expectIllegalArgument(() -> Sorting.heapSort((int[]) null), "int heapSort of null");
+        expectIllegalArgument(() -> Sorting.heapSort(null, Comparator.<Integer>naturalOrder()),
+            "heapSort of null");
+    }
+
+    /**
+     * Checks select, partialSort and the streaming topK for objects, ints and
+     * longs against a sorted copy, on the shapes of pattern() and for every
+     * kind of k: 0, 1, the middle, n - 1, n and beyond.
+     */
+    static void selectionsMatchArraysSort() {
+        Random rand = new Random(49);
+        for (int trial = 0; trial < 600; trial++) {
+            int n = 1 + rand.nextInt(trial < 400 ? 100 : 20_000);
+            Integer[] arr = pattern(rand, trial % 6, n);
+            Integer[] expected = arr.clone();
+            Arrays.sort(expected);
+            int[] k = {0, 1, rand.nextInt(n), n / 2, n - 1, n};
+            int[] ints = new int[n];
+            long[] longs = new long[n];
+            for (int i = 0; i < n; i++) {
+                ints[i] = arr[i];
+                longs[i] = (long) arr[i] << 33;
+            }
+            String name = " of pattern " + trial % 6 + ", length " + n;
+
+            for (int j = 0; j < k.length - 1; j++) {
+                int index = Math.min(k[j], n - 1);
+                Integer[] selected = arr.clone();
+                check(Sorting.select(selected, index, Comparator.naturalOrder()).equals(expected[index]),
+                    "select " + index + name);
+                checkSelected(selected, index, "select " + index + name);
+                check(Sorting.select(ints.clone(), index) == expected[index], "int select " + index + name);
+                check(Sorting.select(longs.clone(), index) == (long) expected[index] << 33,
+                    "long select " + index + name);
+            }
+            for (int j : k) {
+                Integer[] partial = arr.clone();
+                Sorting.partialSort(partial, j, Comparator.naturalOrder());
+                check(Arrays.equals(partial, 0, j, expected, 0, j), "partialSort " + j + name);
+                Arrays.sort(partial);
+                check(Arrays.equals(partial, expected), "partialSort " + j + " lost elements" + name);
+                int[] partialInts = ints.clone();
+                Sorting.partialSort(partialInts, j);
+                long[] partialLongs = longs.clone();
+                Sorting.partialSort(partialLongs, j);
+                for (int i = 0; i < j; i++) {
+                    check(partialInts[i] == expected[i], "int partialSort " + j + name);
+                    check(partialLongs[i] == (long) expected[i] << 33, "long partialSort " + j + name);
+                }
+
+                int count = j + rand.nextInt(2);
+                List<Integer> smallest = Sorting.topK(Arrays.asList(arr), count, Comparator.naturalOrder());
+                check(smallest.equals(Arrays.asList(expected).subList(0, Math.min(count, n))),
+                    "topK " + count + name);
+                List<Integer> largest = Sorting.topK(Arrays.asList(arr), count,
+                    Comparator.<Integer>naturalOrder().reversed());
+                for (int i = 0; i < largest.size(); i++) {
+                    check(largest.get(i).equals(expected[n - 1 - i]), "reversed topK " + count + name);
+                }
+                check(largest.size() == Math.min(count, n), "reversed topK " + count + " size" + name);
+            }
+        }
+        Integer[] three = {3, 1, 2};
+        expectIllegalArgument(() -> Sorting.select(three, 3, Comparator.naturalOrder()), "select past the end");
+        expectIllegalArgument(() -> Sorting.select(new int[0], 0), "int select of an empty array");
+        expectIllegalArgument(() -> Sorting.partialSort(three, 4, Comparator.naturalOrder()),
+            "partialSort past the end");
+        expectIllegalArgument(() -> Sorting.partialSort(new long[3], -1), "long partialSort of -1");
+        expectIllegalArgument(() -> Sorting.topK(Arrays.asList(three), -1, Comparator.naturalOrder()),
+            "topK of -1");
+        expectIllegalArgument(() -> Sorting.topK((int[]) null, 1), "int topK of null");
+    }
+
+    /**
+     * Checks that the int and long topK find the k smallest in ascending and
+     * the k largest in descending order, including the extreme values whose
+     * negation would overflow.
+     */
+    static void primitiveTopKFindsBothEnds() {
+        Random rand = new Random(490);
+        for (int trial = 0; trial < 300; trial++) {
+            int n = rand.nextInt(trial < 200 ? 50 : 5000);
+            int[] ints = new int[n];
+            long[] longs = new long[n];
+            for (int i = 0; i < n; i++) {
+                int choice = rand.nextInt(10);
+                ints[i] = choice == 0 ? Integer.MIN_VALUE : choice == 1 ? Integer.MAX_VALUE : rand.nextInt(1000) - 500;
+                longs[i] = choice == 0 ? Long.MIN_VALUE : choice == 1 ? Long.MAX_VALUE : rand.nextLong();
+            }
+            int[] originalInts = ints.clone();
+            long[] originalLongs = longs.clone();
+            int[] sortedInts = ints.clone();
+            Arrays.sort(sortedInts);
+            long[] sortedLongs = longs.clone();
+            Arrays.sort(sortedLongs);
+            int k = rand.nextInt(n + 2);
+            int found = Math.min(k, n);
+            String name = " of " + k + " from " + n;
+
+            check(Arrays.equals(Sorting.topK(ints, k), Arrays.copyOf(sortedInts, found)), "int topK" + name);
+            check(Arrays.equals(Sorting.topK(ints, k, false), Arrays.copyOf(sortedInts, found)),
+                "int topK smallest" + name);
+            check(Arrays.equals(Sorting.topK(longs, k), Arrays.copyOf(sortedLongs, found)), "long topK" + name);
+            int[] largestInts = Sorting.topK(ints, k, true);
+            long[] largestLongs = Sorting.topK(longs, k, true);
+            check(largestInts.length == found && largestLongs.length == found, "topK largest size" + name);
+            for (int i = 0; i < found; i++) {
+                check(largestInts[i] == sortedInts[n - 1 - i], "int topK largest" + name);
+                check(largestLongs[i] == sortedLongs[n - 1 - i], "long topK largest" + name);
+            }
+            check(Arrays.equals(ints, originalInts) && Arrays.equals(longs, originalLongs),
+                "topK modified its input" + name);
+        }
+        expectIllegalArgument(() -> Sorting.topK(new long[3], -1, true), "long topK of -1");
+    }
+
+    /**
+     * Checks sortByIntKey, sortByLongKey, sortByDoubleKey, sortByKey and
+     * sortByKeys against Arrays.sort with the matching Comparator, which is
+     * stable, on records with many equal keys, extreme keys and for doubles
+     * NaN and both signed zeros.
+     */
+    static void keySortsMatchAStableSort() {
+        Random rand = new Random(50);
+        double[] doubles = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, -1.5, 2.5};
+        for (int trial = 0; trial < 300; trial++) {
+            int n = rand.nextInt(trial < 200 ? 100 : 20_000);
+            int[][] arr = records(rand, n, 1 + rand.nextInt(n + 1));
+            for (int[] record : arr) {
+                if (rand.nextInt(10) == 0) {
+                    record[0] = rand.nextBoolean() ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+                }
+            }
+            ToLongFunction<int[]> longKey = record -> (long) record[0] * 1_000_003;
+            ToDoubleFunction<int[]> doubleKey = record -> doubles[Math.floorMod(record[0], doubles.length)];
+            ToLongFunction<int[]> low = record -> record[0] & 3;
+            ToLongFunction<int[]> high = record -> record[0] >> 2;
+            String name = " of length " + n;
+
+            int[][] sorted = arr.clone();
+            Sorting.sortByIntKey(sorted, record -> record[0]);
+            checkStablySorted(sorted, "sortByIntKey" + name);
+            sorted = arr.clone();
+            Sorting.sortByKey(sorted, record -> record[0]);
+            checkStablySorted(sorted, "sortByKey" + name);
+            sorted = arr.clone();
+            Sorting.sortByKeys(sorted, low, high);
+            int[][] expected = arr.clone();
+            Arrays.sort(expected, Comparator.comparingLong(low).thenComparingLong(high));
+            check(Arrays.equals(sorted, expected), "sortByKeys" + name);
+            sorted = arr.clone();
+            Sorting.sortByLongKey(sorted, longKey);
+            expected = arr.clone();
+            Arrays.sort(expected, Comparator.comparingLong(longKey));
+            check(Arrays.equals(sorted, expected), "sortByLongKey" + name);
+            sorted = arr.clone();
+            Sorting.sortByDoubleKey(sorted, doubleKey);
+            expected = arr.clone();
+            Arrays.sort(expected, Comparator.comparingDouble(doubleKey));
+            check(Arrays.equals(sorted, expected), "sortByDoubleKey" + name);
+        }
+        expectIllegalArgument(() -> Sorting.sortByIntKey(null, record -> 0), "sortByIntKey of null");
+        expectIllegalArgument(() -> Sorting.sortByKey(new String[1], null), "sortByKey without a key");
+        expectIllegalArgument(() -> Sorting.sortByKeys(new String[] {"a"}, String::length, null),
+            "sortByKeys with a null key");
+        expectIllegalArgument(() -> Sorting.sortByKeys(new String[] {"a"}), "sortByKeys without keys");
+    }
+
+    /**
+     * Checks sortedOrder against a stable sort of the row indices by their
+     * columns, with one to three columns of few or many distinct values.
+     */
+    static void sortedOrderMatchesAStableSort() {
+        Random rand = new Random(500);
+        for (int trial = 0; trial < 300; trial++) {
+            int n = rand.nextInt(trial < 200 ? 100 : 20_000);
+            long[][] columns = new long[1 + rand.nextInt(3)][n];
+            for (long[] column : columns) {
+                boolean few = rand.nextBoolean();
+                for (int i = 0; i < n; i++) {
+                    column[i] = few ? rand.nextInt(3) - 1 : rand.nextLong();
+                }
+            }
+            Integer[] expected = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                expected[i] = i;
+            }
+            Arrays.sort(expected, (a, b) -> {
+                for (long[] column : columns) {
+                    int compared = Long.compare(column[a], column[b]);
+                    if (compared != 0) {
+                        return compared;
+                    }
+                }
+                return 0;
+            });
+            int[] order = Sorting.sortedOrder(columns);
+            for (int i = 0; i < n; i++) {
+                check(order[i] == expected[i], "sortedOrder of " + columns.length + " columns at " + i);
+            }
+        }
+        expectIllegalArgument(() -> Sorting.sortedOrder(), "sortedOrder without columns");
+        expectIllegalArgument(() -> Sorting.sortedOrder(new long[2], new long[3]),
+            "sortedOrder of columns of different lengths");
+    }
+
+    /**
+     * Checks that select left nothing greater than arr[k] before it and
+     * nothing smaller after it.
+     *
+     * @param arr the array after select
+     * @param k the selected index
+     * @param name the name of the call, for the failure message
+     */
+    private static void checkSelected(Integer[] arr, int k, String name) {
+        for (int i = 0; i < arr.length; i++) {
+            check(i < k ? arr[i] <= arr[k] : i == k || arr[i] >= arr[k], name + " at " + i);
+        }
+    }
+
+    /**
+     * Returns an array of n values in one of six shapes: random with
+     * duplicates, ascending, descending, constant, organ pipe, or ascending
+     * with a few random swaps.
+     *
+     * @param rand the source of randomness
+     * @param shape the shape, from 0 to 5
+     * @param n the length
+     * @return the array
+     */
+    static Integer[] pattern(Random rand, int shape, int n) {
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            switch (shape) {
+                case 0:
+                    arr[i] = rand.nextInt(n / 4 + 1);
+                    break;
+                case 1:
+                    arr[i] = i;
+                    break;
+                case 2:
+                    arr[i] = n - i;
+                    break;
+                case 3:
+                    arr[i] = 7;
+                    break;
+                case 4:
+                    arr[i] = Math.min(i, n - i);
+                    break;
+                default:
+                    arr[i] = i % 64 == 0 ? rand.nextInt(n) : i;
+                    break;
+            }
+        }
+        return arr;
+    }
+
+    /**
+     * Returns n records of a random key in [0, keys) and their index.
+     *
+     * @param rand the source of randomness
+     * @param n the number of records
+     * @param keys the number of distinct keys
+     * @return the records
+     */
+    static int[][] records(Random rand, int n, int keys) {
+        int[][] arr = new int[n][];
+        for (int i = 0; i < n; i++) {
+            arr[i] = new int[] {rand.nextInt(keys), i};
+        }
+        return arr;
+    }
+
+    /**
+     * Checks that records made by records() are sorted by key, with equal
+     * keys in the order of their index.
+     *
+     * @param arr the sorted records
+     * @param name the name of the sort, for the failure message
+     */
+    private static void checkStablySorted(int[][] arr, String name) {
+        boolean[] seen = new boolean[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            check(!seen[arr[i][1]], name + " duplicated a record");
+            seen[arr[i][1]] = true;
+            if (i > 0) {
+                check(arr[i - 1][0] < arr[i][0]
+                    || arr[i - 1][0] == arr[i][0] && arr[i - 1][1] < arr[i][1],
+                    name + " is not stably sorted at " + i);
+            }
+        }
+    }
+
+    /**
+     * Checks that the action throws an IllegalArgumentException.
+     *
+     * @param action the action to run
+     * @param what a description of the action, for the failure message
+     */
+    private static void expectIllegalArgument(Runnable action, String what) {
+        try {
+            action.run();
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError(what + " did not throw IllegalArgumentException");
+    }
+
+    /**
+     * Checks a condition of a test.
+     *
+     * @param condition the condition that must hold
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+#!/bin/sh
+# Compiles each source directory together with its tests and runs every
+# *Test class in it, stopping at the first failure. javac warnings are shown.
+# Benchmark only compiles its tests, since its suites need other directories.
+#
+# Usage: ./test.sh [Directory...]
+#   e.g. ./test.sh Graph Sorting
+#
+# With no directories every directory that has tests is run.
+set -e
+cd "$(dirname "$0")"
+dirs="$*"
+if [ -z "$dirs" ]; then
+    for test in */*Test.java; do
+        [ -f "$test" ] && dirs="$dirs ${test%%/*}"
+    done
+    dirs=$(echo $dirs | tr ' ' '\n' | uniq)
+fi
+out=$(mktemp -d)
+trap 'rm -rf "$out"' EXIT
+for dir in $dirs; do
+    mkdir -p "$out/$dir"
+    if [ "$dir" = Benchmark ]; then
+        javac -Xlint:all -d "$out/$dir" -sourcepath "$dir" "$dir"/*Test.java
+    else
+        javac -Xlint:all -d "$out/$dir" "$dir"/*.java
+    fi
+    for test in "$dir"/*Test.java; do
+        java -cp "$out/$dir" "$(basename "$test" .java)"
+    done
+done